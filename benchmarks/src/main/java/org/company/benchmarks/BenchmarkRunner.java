@@ -0,0 +1,29 @@
+package org.company.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmark jar, accepts the usual JMH command line. The gc profiler reporting the
+ * allocation rate per operation and the GC counts is enabled unless other profilers are requested, e.g.
+ * <pre>
+ * java -jar target/benchmarks.jar HierarchyBenchmark -p size=50000000 -p shape=DEEP
+ * java -jar target/benchmarks.jar IngestionBenchmark -prof gc -prof jfr
+ * </pre>
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-prof")) {
+            arguments.add("-prof");
+            arguments.add("gc");
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
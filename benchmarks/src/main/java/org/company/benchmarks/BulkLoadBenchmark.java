@@ -0,0 +1,61 @@
+package org.company.benchmarks;
+
+import org.company.storage.BulkLoad;
+import org.company.storage.CompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling a new storage with the generated employees one by one and in one bulk load,
+ * the employees are streamed from the generator in both cases
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BulkLoadBenchmark {
+    @Param({"1000000", "10000000"})
+    private long size;
+
+    @Param({"RANDOM"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"IMPL", "COLUMNAR"})
+    private StorageType storage;
+
+    private OrgChartGenerator generator;
+
+    @Setup
+    public void createGenerator() {
+        this.generator = new OrgChartGenerator(42L, this.size, 8, this.shape);
+    }
+
+    @Benchmark
+    public CompanyEmployeeStorage addEmployee() {
+        final CompanyEmployeeStorage employeeStorage = this.storage.create();
+        this.generator.forEach(employeeStorage::addEmployee);
+        return employeeStorage;
+    }
+
+    @Benchmark
+    public CompanyEmployeeStorage bulkLoad() {
+        final CompanyEmployeeStorage employeeStorage = this.storage.create();
+        final BulkLoad load = employeeStorage.beginBulkLoad((int) this.size);
+        this.generator.forEach(load::add);
+        load.commit();
+        return employeeStorage;
+    }
+}
@@ -0,0 +1,64 @@
+package org.company.benchmarks;
+
+import org.company.CompanyManagement;
+import org.company.models.CompanyReport;
+import org.company.models.SalaryComparisonType;
+import org.company.storage.CompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reports printed by {@code CompanyDisplay}: three separate queries against the single-pass analysis
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CompanyReportBenchmark {
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"RANDOM"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"IMPL", "COLUMNAR"})
+    private StorageType storage;
+
+    private CompanyManagement companyManagement;
+
+    @Setup
+    public void fillStorage() {
+        final CompanyEmployeeStorage employeeStorage = this.storage.create();
+        new OrgChartGenerator(42L, this.size, this.fanOut, this.shape).forEach(employeeStorage::addEmployee);
+        this.companyManagement = new CompanyManagement(employeeStorage);
+    }
+
+    @Benchmark
+    public void separateQueries(final Blackhole blackhole) {
+        blackhole.consume(this.companyManagement.getEmployeesWithTooLongReportingLine());
+        blackhole.consume(this.companyManagement.getManagersWithSalaryDifference(SalaryComparisonType.BIG));
+        blackhole.consume(this.companyManagement.getManagersWithSalaryDifference(SalaryComparisonType.SMALL));
+    }
+
+    @Benchmark
+    public CompanyReport singlePass() {
+        return this.companyManagement.analyze();
+    }
+}
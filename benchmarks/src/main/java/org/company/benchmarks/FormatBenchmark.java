@@ -0,0 +1,84 @@
+package org.company.benchmarks;
+
+import org.company.parser.BinaryEmployeeDataParser;
+import org.company.parser.CSVEmployeeDataParser;
+import org.company.parser.EmployeeDataParser;
+import org.company.parser.JsonLinesEmployeeDataParser;
+import org.company.storage.CompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reading the same generated employees from a csv, a JSON-lines and a binary file into a new storage
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class FormatBenchmark {
+    public enum Format {
+        CSV(CSVEmployeeDataParser::new, ".csv"),
+        JSON_LINES(JsonLinesEmployeeDataParser::new, ".jsonl"),
+        BINARY(BinaryEmployeeDataParser::new, ".bin");
+
+        private final Function<CompanyEmployeeStorage, EmployeeDataParser> factory;
+        private final String suffix;
+
+        Format(final Function<CompanyEmployeeStorage, EmployeeDataParser> factory, final String suffix) {
+            this.factory = factory;
+            this.suffix = suffix;
+        }
+    }
+
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"CSV", "JSON_LINES", "BINARY"})
+    private Format format;
+
+    @Param({"COLUMNAR"})
+    private StorageType storage;
+
+    private Path file;
+
+    @Setup
+    public void writeFile() throws IOException {
+        final OrgChartGenerator generator = new OrgChartGenerator(42L, this.size, 8, OrgChartGenerator.Shape.BALANCED);
+        final Path temporary = Files.createTempFile("employees", this.format.suffix);
+        this.file = switch (this.format) {
+            case CSV -> generator.writeCsv(temporary);
+            case JSON_LINES -> generator.writeJsonLines(temporary);
+            case BINARY -> generator.writeBinary(temporary);
+        };
+    }
+
+    @TearDown
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    @Benchmark
+    public CompanyEmployeeStorage ingest() {
+        final CompanyEmployeeStorage employeeStorage = this.storage.create();
+        this.format.factory.apply(employeeStorage).addNewEmployees(this.file);
+        return employeeStorage;
+    }
+}
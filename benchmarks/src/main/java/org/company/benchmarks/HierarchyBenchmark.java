@@ -0,0 +1,67 @@
+package org.company.benchmarks;
+
+import org.company.models.CompanyStructure;
+import org.company.models.Employee;
+import org.company.storage.CompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculating the reporting lines of a filled storage for the different depth distributions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class HierarchyBenchmark {
+    private static final int MAX_REPORTING_LINE_LENGTH = 4;
+
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"BALANCED", "RANDOM", "DEEP"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"IMPL", "COLUMNAR", "INCREMENTAL"})
+    private StorageType storage;
+
+    private CompanyEmployeeStorage employeeStorage;
+
+    @Setup
+    public void fillStorage() {
+        this.employeeStorage = this.storage.create();
+        new OrgChartGenerator(42L, this.size, this.fanOut, this.shape).forEach(this.employeeStorage::addEmployee);
+    }
+
+    @Benchmark
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        return this.employeeStorage.calculateCompanyStructure();
+    }
+
+    @Benchmark
+    public Map<Employee, Integer> reportingLinesTooLong() {
+        return this.employeeStorage.getEmployeesWithReportingLineLongerThan(MAX_REPORTING_LINE_LENGTH);
+    }
+
+    @Benchmark
+    public CompanyStructure analyzeCompanyStructure() {
+        return this.employeeStorage.analyzeCompanyStructure();
+    }
+}
@@ -0,0 +1,83 @@
+package org.company.benchmarks;
+
+import org.company.parser.CSVEmployeeDataParser;
+import org.company.parser.EmployeeDataParser;
+import org.company.parser.MappedCSVEmployeeDataParser;
+import org.company.parser.ParallelCSVEmployeeDataParser;
+import org.company.storage.CompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reading a generated csv file into a new storage with every parser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class IngestionBenchmark {
+    public enum ParserType {
+        CSV(CSVEmployeeDataParser::new),
+        MAPPED(MappedCSVEmployeeDataParser::new),
+        PARALLEL(ParallelCSVEmployeeDataParser::new);
+
+        private final Function<CompanyEmployeeStorage, EmployeeDataParser> factory;
+
+        ParserType(final Function<CompanyEmployeeStorage, EmployeeDataParser> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"BALANCED"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"CSV", "MAPPED", "PARALLEL"})
+    private ParserType parser;
+
+    @Param({"COLUMNAR"})
+    private StorageType storage;
+
+    private Path file;
+
+    @Setup
+    public void writeFile() throws IOException {
+        this.file = new OrgChartGenerator(42L, this.size, this.fanOut, this.shape)
+                .writeCsv(Files.createTempFile("employees", ".csv"));
+    }
+
+    @TearDown
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    @Benchmark
+    public CompanyEmployeeStorage ingest() {
+        final CompanyEmployeeStorage employeeStorage = this.storage.create();
+        this.parser.factory.apply(employeeStorage).addNewEmployees(this.file.toString());
+        return employeeStorage;
+    }
+}
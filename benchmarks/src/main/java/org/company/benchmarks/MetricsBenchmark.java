@@ -0,0 +1,89 @@
+package org.company.benchmarks;
+
+import org.company.metrics.Metrics;
+import org.company.metrics.MetricsRegistry;
+import org.company.metrics.SimpleMetricsRegistry;
+import org.company.models.Employee;
+import org.company.parser.CSVEmployeeDataParser;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.InstrumentedCompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of the metrics: the same ingestion and query with the metrics disabled and with an in-memory
+ * registry and an instrumented storage
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class MetricsBenchmark {
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"BALANCED"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"COLUMNAR"})
+    private StorageType storage;
+
+    @Param({"false", "true"})
+    private boolean metrics;
+
+    private Path file;
+    private CompanyEmployeeStorage employeeStorage;
+
+    @Setup
+    public void prepare() throws IOException {
+        Metrics.setRegistry(this.metrics ? new SimpleMetricsRegistry() : MetricsRegistry.NOOP);
+        this.file = new OrgChartGenerator(42L, this.size, this.fanOut, this.shape)
+                .writeCsv(Files.createTempFile("employees", ".csv"));
+        this.employeeStorage = this.createStorage();
+        new CSVEmployeeDataParser(this.employeeStorage).addNewEmployees(this.file.toString());
+    }
+
+    @TearDown
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(this.file);
+        Metrics.setRegistry(MetricsRegistry.NOOP);
+    }
+
+    @Benchmark
+    public CompanyEmployeeStorage ingest() {
+        final CompanyEmployeeStorage newStorage = this.createStorage();
+        new CSVEmployeeDataParser(newStorage).addNewEmployees(this.file.toString());
+        return newStorage;
+    }
+
+    @Benchmark
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        return this.employeeStorage.calculateCompanyStructure();
+    }
+
+    private CompanyEmployeeStorage createStorage() {
+        final CompanyEmployeeStorage newStorage = this.storage.create();
+        return this.metrics ? new InstrumentedCompanyEmployeeStorage(newStorage) : newStorage;
+    }
+}
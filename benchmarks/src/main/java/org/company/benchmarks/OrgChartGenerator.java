@@ -0,0 +1,227 @@
+package org.company.benchmarks;
+
+import org.company.models.Employee;
+import org.company.parser.BinaryEmployeeDataWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic generator of synthetic company structures
+ * <p>
+ * The employees get the ids from 1 to size, the employee 1 is the CEO and every other employee reports to an
+ * employee with a smaller id, so the generated structure has neither orphans nor cycles and the employees
+ * are produced in an order where a manager always comes before the subordinates. The same seed, size,
+ * fan-out and shape always produce the same employees, the generator doesn't keep them in memory, so
+ * structures of up to 50M employees can be streamed to a file.
+ * </p>
+ */
+public final class OrgChartGenerator {
+    public static final String CSV_HEADER = "Id,firstName,lastName,salary,managerId";
+    private static final String[] FIRST_NAMES = {"Joe", "Martin", "Bob", "Alice", "Brett", "Jane", "Nancy", "Sam"};
+    private static final String[] LAST_NAMES = {"Doe", "Chekov", "Ronstad", "Hasacat", "Wilson", "Jones", "Smith"};
+    private static final int MIN_SALARY = 30000;
+    private static final int SALARY_RANGE = 120000;
+
+    /**
+     * The distribution of the reporting line lengths
+     */
+    public enum Shape {
+        /**
+         * Every manager has exactly fan-out subordinates, the depth is log(size) to the base of fan-out
+         */
+        BALANCED,
+        /**
+         * The manager is chosen at random among the employees up to the manager of the balanced structure,
+         * the number of subordinates varies and the structure is slightly deeper than the balanced one
+         */
+        RANDOM,
+        /**
+         * Chains of fan-out employees reporting one to another, every chain starts under a random earlier
+         * employee, the reporting lines are long and mostly exceed the allowed length
+         */
+        DEEP
+    }
+
+    private final long seed;
+    private final long size;
+    private final int fanOut;
+    private final Shape shape;
+
+    /**
+     * @param seed The seed of the random salaries, names and managers
+     * @param size The number of employees
+     * @param fanOut The number of direct subordinates of a manager in the balanced shape,
+     *               the length of a chain in the deep shape
+     * @param shape The distribution of the reporting line lengths
+     */
+    public OrgChartGenerator(final long seed, final long size, final int fanOut, final Shape shape) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive: " + size);
+        }
+        if (fanOut < 1) {
+            throw new IllegalArgumentException("Fan-out must be positive: " + fanOut);
+        }
+        this.seed = seed;
+        this.size = size;
+        this.fanOut = fanOut;
+        this.shape = shape;
+    }
+
+    /**
+     * Pass the generated employees to the consumer in the order of the ids
+     * @param consumer the receiver of the employees
+     */
+    public void forEach(final Consumer<Employee> consumer) {
+        final SplittableRandom random = new SplittableRandom(this.seed);
+        for (long id = 1; id <= this.size; id++) {
+            final String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            final String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            final double salary = MIN_SALARY + random.nextInt(SALARY_RANGE);
+            consumer.accept(new Employee(id, firstName, lastName, salary, this.managerId(id, random)));
+        }
+    }
+
+    /**
+     * @return the list of the generated employees in the order of the ids
+     */
+    public List<Employee> generate() {
+        if (this.size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many employees for a list: " + this.size);
+        }
+        final List<Employee> employees = new ArrayList<>((int) this.size);
+        this.forEach(employees::add);
+        return employees;
+    }
+
+    /**
+     * Write the generated employees to a csv file in the format read by the parsers, with the header
+     * @param file the path of the file, an existing file is overwritten
+     * @return the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public Path writeCsv(final Path file) throws IOException {
+        return this.writeLines(file, CSV_HEADER, (line, employee) -> {
+            line.append(employee.id()).append(',')
+                    .append(employee.firstName()).append(',')
+                    .append(employee.lastName()).append(',')
+                    .append(employee.salary().longValue()).append(',');
+            if (employee.managerId() != null) {
+                line.append(employee.managerId());
+            }
+        });
+    }
+
+    /**
+     * Write the generated employees to a JSON-lines file, one object per employee, the CEO has no managerId
+     * @param file the path of the file, an existing file is overwritten
+     * @return the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public Path writeJsonLines(final Path file) throws IOException {
+        return this.writeLines(file, null, (line, employee) -> {
+            line.append("{\"id\":").append(employee.id())
+                    .append(",\"firstName\":\"").append(employee.firstName())
+                    .append("\",\"lastName\":\"").append(employee.lastName())
+                    .append("\",\"salary\":").append(employee.salary().longValue());
+            if (employee.managerId() != null) {
+                line.append(",\"managerId\":").append(employee.managerId());
+            }
+            line.append('}');
+        });
+    }
+
+    /**
+     * Write the generated employees to a file in the columnar binary format of {@link BinaryEmployeeDataWriter}
+     * @param file the path of the file, an existing file is overwritten
+     * @return the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public Path writeBinary(final Path file) throws IOException {
+        try (BinaryEmployeeDataWriter writer = new BinaryEmployeeDataWriter(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            final IOException[] failure = new IOException[1];
+            this.forEach(employee -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    writer.write(employee);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        return file;
+    }
+
+    private Path writeLines(final Path file, final String header, final BiConsumer<StringBuilder, Employee> format)
+            throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (header != null) {
+                writer.write(header);
+                writer.newLine();
+            }
+            final StringBuilder line = new StringBuilder(128);
+            final IOException[] failure = new IOException[1];
+            this.forEach(employee -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                line.setLength(0);
+                format.accept(line, employee);
+                line.append('\n');
+                try {
+                    writer.append(line);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        return file;
+    }
+
+    private Long managerId(final long id, final SplittableRandom random) {
+        if (id == 1) {
+            return null;
+        }
+        final long balancedManager = (id - 2) / this.fanOut + 1;
+        return switch (this.shape) {
+            case BALANCED -> balancedManager;
+            case RANDOM -> 1 + random.nextLong(balancedManager);
+            case DEEP -> (id - 2) % this.fanOut == 0 ? 1 + random.nextLong(id - 1) : id - 1;
+        };
+    }
+
+    /**
+     * Writes a generated csv file: {@code <file> <size> [fanOut] [shape] [seed]}
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OrgChartGenerator <file> <size> [fanOut=8] [BALANCED|RANDOM|DEEP] [seed=42]");
+            System.exit(1);
+        }
+        final OrgChartGenerator generator = new OrgChartGenerator(
+                args.length > 4 ? Long.parseLong(args[4]) : 42L,
+                Long.parseLong(args[1]),
+                args.length > 2 ? Integer.parseInt(args[2]) : 8,
+                args.length > 3 ? Shape.valueOf(args[3]) : Shape.BALANCED);
+        System.out.println("Written " + generator.writeCsv(Path.of(args[0])));
+    }
+}
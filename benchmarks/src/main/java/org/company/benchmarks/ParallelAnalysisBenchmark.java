@@ -0,0 +1,75 @@
+package org.company.benchmarks;
+
+import org.company.models.CompanyStructure;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sequential and the parallel structure analysis of the columnar storage. The parallelism 1 is the sequential
+ * analysis, the speedup of the higher values depends on the number of cores of the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ParallelAnalysisBenchmark {
+    @Param({"1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"BALANCED", "RANDOM"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private ColumnarCompanyEmployeeStorage storage;
+
+    @Setup
+    public void fillStorage() {
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+        this.storage = new ColumnarCompanyEmployeeStorage((int) this.size, this.pool);
+        new OrgChartGenerator(42L, this.size, this.fanOut, this.shape).forEach(this.storage::addEmployee);
+    }
+
+    @TearDown
+    public void shutdownPool() {
+        if (Objects.nonNull(this.pool)) {
+            this.pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public CompanyStructure analyzeCompanyStructure() {
+        return this.storage.analyzeCompanyStructure();
+    }
+
+    @Benchmark
+    public void visitEmployees(final Blackhole blackhole) {
+        this.storage.forEachEmployee((employee, reportingLineLength, subordinates, subordinateSalarySum) -> {
+            blackhole.consume(reportingLineLength);
+            blackhole.consume(subordinateSalarySum);
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package org.company.benchmarks;
+
+import org.company.CompanyManagement;
+import org.company.models.SalaryComparisonType;
+import org.company.report.ReportFormat;
+import org.company.report.ReportSink;
+import org.company.report.ReportType;
+import org.company.service.CompanyQueryService;
+import org.company.storage.CompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency distribution of the overpaid managers report: a cached report of the query service including
+ * the HTTP round trip against calculating the report on every request (see the p0.99 of the sample time mode)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class QueryServiceBenchmark {
+    @Param({"1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"RANDOM"})
+    private OrgChartGenerator.Shape shape;
+
+    private CompanyManagement companyManagement;
+    private CompanyQueryService service;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void startService() throws IOException {
+        final CompanyEmployeeStorage employeeStorage = StorageType.COLUMNAR.create();
+        new OrgChartGenerator(42L, this.size, this.fanOut, this.shape).forEach(employeeStorage::addEmployee);
+        this.companyManagement = new CompanyManagement(employeeStorage);
+        this.service = new CompanyQueryService(this.companyManagement, 0);
+        this.client = HttpClient.newHttpClient();
+        this.request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + this.service.port() + "/reports/overpaid_manager?format=CSV")).GET().build();
+    }
+
+    @TearDown
+    public void stopService() {
+        this.service.close();
+    }
+
+    @Benchmark
+    public byte[] cachedReport() throws IOException, InterruptedException {
+        return this.client.send(this.request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public String calculatedReport() throws IOException {
+        final StringWriter output = new StringWriter();
+        try (ReportSink sink = ReportFormat.CSV.createSink(output)) {
+            this.companyManagement.forEachManagerWithSalaryDifference(SalaryComparisonType.BIG,
+                    (manager, difference) -> sink.writeSalaryDifference(ReportType.OVERPAID_MANAGER, manager,
+                            difference));
+        }
+        return output.toString();
+    }
+}
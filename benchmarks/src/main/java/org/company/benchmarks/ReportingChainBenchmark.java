@@ -0,0 +1,95 @@
+package org.company.benchmarks;
+
+import org.company.models.Employee;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.ReportingChainIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lowest common manager of random pairs from {@link ReportingChainIndex} compared to chasing
+ * the manager ids in a map, one pair at a time and a parallel batch of pairs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ReportingChainBenchmark {
+    private static final int BATCH_SIZE = 1_000_000;
+
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"RANDOM", "DEEP"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"COLUMNAR"})
+    private StorageType storage;
+
+    private Map<Long, Employee> employees;
+    private ReportingChainIndex index;
+    private long[] firstIds;
+    private long[] secondIds;
+    private SplittableRandom random;
+
+    @Setup
+    public void buildIndex() {
+        final CompanyEmployeeStorage employeeStorage = this.storage.create();
+        this.employees = new HashMap<>();
+        new OrgChartGenerator(42L, this.size, 8, this.shape).forEach(employee -> {
+            employeeStorage.addEmployee(employee);
+            this.employees.put(employee.id(), employee);
+        });
+        this.index = ReportingChainIndex.build(employeeStorage);
+        this.random = new SplittableRandom(7L);
+        this.firstIds = new long[BATCH_SIZE];
+        this.secondIds = new long[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            this.firstIds[i] = 1 + this.random.nextLong(this.size);
+            this.secondIds[i] = 1 + this.random.nextLong(this.size);
+        }
+    }
+
+    @Benchmark
+    public Optional<Employee> lowestCommonManager() {
+        return this.index.lowestCommonManager(1 + this.random.nextLong(this.size), 1 + this.random.nextLong(this.size));
+    }
+
+    @Benchmark
+    public Long pointerChasing() {
+        final Set<Long> chain = new HashSet<>();
+        for (Long id = 1 + this.random.nextLong(this.size); id != null; id = this.employees.get(id).managerId()) {
+            chain.add(id);
+        }
+        Long id = 1 + this.random.nextLong(this.size);
+        while (id != null && !chain.contains(id)) {
+            id = this.employees.get(id).managerId();
+        }
+        return id;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long[] lowestCommonManagersBatch() {
+        return this.index.lowestCommonManagers(this.firstIds, this.secondIds);
+    }
+}
@@ -0,0 +1,73 @@
+package org.company.benchmarks;
+
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.SalaryComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparing the salaries of the managers with the salaries of the direct subordinates. The map-building
+ * query is compared with the streaming scan, which shows the allocation of the result map
+ * (see {@code gc.alloc.rate.norm} of the gc profiler).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SalaryAnalysisBenchmark {
+    private static final SalaryComparator OVERPAID = SalaryComparator.above(1.5);
+    private static final SalaryComparator UNDERPAID = SalaryComparator.below(1.2);
+
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"RANDOM"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"IMPL", "COLUMNAR", "INCREMENTAL"})
+    private StorageType storage;
+
+    private CompanyEmployeeStorage employeeStorage;
+
+    @Setup
+    public void fillStorage() {
+        this.employeeStorage = this.storage.create();
+        new OrgChartGenerator(42L, this.size, this.fanOut, this.shape).forEach(this.employeeStorage::addEmployee);
+    }
+
+    @Benchmark
+    public Map<Employee, Double> collectOverpaidManagers() {
+        return this.employeeStorage.getManagersWithFilterBySalary(OVERPAID);
+    }
+
+    @Benchmark
+    public void streamUnderpaidManagers(final Blackhole blackhole) {
+        this.employeeStorage.forEachManagerWithFilterBySalary(UNDERPAID,
+                (manager, difference) -> blackhole.consume(difference));
+    }
+
+    @Benchmark
+    public Map<Employee, SalaryStatistics> subordinateSalaryStatistics() {
+        return this.employeeStorage.getSubordinateSalaryStatistics();
+    }
+}
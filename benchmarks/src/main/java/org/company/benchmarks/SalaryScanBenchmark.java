@@ -0,0 +1,95 @@
+package org.company.benchmarks;
+
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.SalaryComparator;
+import org.company.storage.SalaryThreshold;
+import org.company.storage.SalaryThresholdScan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scalar and the vectorized comparison of the manager salaries with the thresholds of
+ * {@link SalaryComparator#above(double)} and {@link SalaryComparator#below(double)}. The scans run over
+ * prepared columns of managers, so only the comparison and the compaction of the qualified rows is measured.
+ * {@link #streamOverpaidManagers(Blackhole)} runs the whole query of a columnar storage with 8 subordinates
+ * per manager including the aggregation of the subordinate salaries, the scalar variant passes
+ * a plain comparator which the storage calls for every manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+public class SalaryScanBenchmark {
+    private static final SalaryThreshold OVERPAID = (SalaryThreshold) SalaryComparator.above(1.5);
+    private static final SalaryThreshold UNDERPAID = (SalaryThreshold) SalaryComparator.below(1.2);
+    private static final SalaryComparator OVERPAID_FUNCTION = OVERPAID::compare;
+
+    @Param({"1000000", "4000000"})
+    private int managers;
+
+    @Param({"SCALAR", "VECTOR"})
+    private String scan;
+
+    private SalaryThresholdScan salaryScan;
+    private double[] salaries;
+    private double[] subordinateSalarySums;
+    private double[] subordinateCounts;
+    private int[] flaggedRows;
+    private double[] differences;
+    private SalaryComparator overpaid;
+    private ColumnarCompanyEmployeeStorage storage;
+
+    @Setup
+    public void fillColumns() {
+        final boolean vector = "VECTOR".equals(this.scan);
+        this.salaryScan = vector ? SalaryThresholdScan.vectorized() : SalaryThresholdScan.scalar();
+        this.overpaid = vector ? OVERPAID : OVERPAID_FUNCTION;
+        final Random random = new Random(42L);
+        this.salaries = new double[this.managers];
+        this.subordinateSalarySums = new double[this.managers];
+        this.subordinateCounts = new double[this.managers];
+        for (int row = 0; row < this.managers; row++) {
+            this.salaries[row] = 30000 + random.nextInt(150000);
+            this.subordinateCounts[row] = 1 + random.nextInt(8);
+            this.subordinateSalarySums[row] = this.subordinateCounts[row] * (30000 + random.nextInt(100000));
+        }
+        this.flaggedRows = new int[this.managers];
+        this.differences = new double[this.managers];
+        this.storage = new ColumnarCompanyEmployeeStorage(this.managers * 8);
+        new OrgChartGenerator(42L, this.managers * 8L, 8, OrgChartGenerator.Shape.BALANCED)
+                .forEach(this.storage::addEmployee);
+    }
+
+    @Benchmark
+    public int scanOverpaidManagers() {
+        return this.salaryScan.scan(OVERPAID, this.salaries, this.subordinateSalarySums, this.subordinateCounts,
+                0, this.managers, this.flaggedRows, this.differences);
+    }
+
+    @Benchmark
+    public int scanUnderpaidManagers() {
+        return this.salaryScan.scan(UNDERPAID, this.salaries, this.subordinateSalarySums, this.subordinateCounts,
+                0, this.managers, this.flaggedRows, this.differences);
+    }
+
+    @Benchmark
+    public void streamOverpaidManagers(final Blackhole blackhole) {
+        this.storage.forEachManagerWithFilterBySalary(this.overpaid,
+                (manager, difference) -> blackhole.consume(difference));
+    }
+}
@@ -0,0 +1,72 @@
+package org.company.benchmarks;
+
+import org.company.models.Employee;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanySnapshot;
+import org.company.storage.MappedCompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restarting from a binary snapshot: opening it and running the first query
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SnapshotBenchmark {
+    private static final int MAX_REPORTING_LINE_LENGTH = 4;
+
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"RANDOM"})
+    private OrgChartGenerator.Shape shape;
+
+    private Path file;
+
+    @Setup
+    public void writeSnapshot() throws IOException {
+        final CompanyEmployeeStorage storage = new ColumnarCompanyEmployeeStorage((int) this.size);
+        new OrgChartGenerator(42L, this.size, this.fanOut, this.shape).forEach(storage::addEmployee);
+        this.file = Files.createTempFile("employees", ".snapshot");
+        CompanySnapshot.write(storage, this.file);
+    }
+
+    @TearDown
+    public void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    @Benchmark
+    public MappedCompanyEmployeeStorage open() throws IOException {
+        return CompanySnapshot.open(this.file);
+    }
+
+    @Benchmark
+    public Map<Employee, Integer> openAndReportReportingLines() throws IOException {
+        return CompanySnapshot.open(this.file).getEmployeesWithReportingLineLongerThan(MAX_REPORTING_LINE_LENGTH);
+    }
+}
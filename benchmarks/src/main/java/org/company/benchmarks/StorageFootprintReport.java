@@ -0,0 +1,60 @@
+package org.company.benchmarks;
+
+import org.company.models.Employee;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Compares the retained heap of {@link CompanyEmployeeStorageImpl} and {@link ColumnarCompanyEmployeeStorage}.
+ * Run from the benchmark jar with a big enough heap, e.g. for 10M employees:
+ * <pre>
+ * java -Xmx12g -cp target/benchmarks.jar org.company.benchmarks.StorageFootprintReport 1000000 10000000
+ * </pre>
+ */
+public final class StorageFootprintReport {
+    private static final String[] FIRST_NAMES = {"Joe", "Jane", "Sam", "Alice", "Nancy", "Brett", "Martin", "Bob"};
+    private static final String[] LAST_NAMES = {"Doe", "Jones", "Wilson", "Johnson", "Brown", "Smith", "Chekov"};
+
+    private StorageFootprintReport() {
+    }
+
+    public static void main(final String[] args) {
+        final String[] sizes = args.length == 0 ? new String[]{"1000000"} : args;
+        for (String size : sizes) {
+            final int employees = Integer.parseInt(size);
+            report("CompanyEmployeeStorageImpl", employees, CompanyEmployeeStorageImpl::new);
+            report("ColumnarCompanyEmployeeStorage", employees, ColumnarCompanyEmployeeStorage::new);
+        }
+    }
+
+    private static void report(final String name, final int employees, final Supplier<CompanyEmployeeStorage> factory) {
+        final long before = usedHeap();
+        final CompanyEmployeeStorage storage = factory.get();
+        final SplittableRandom random = new SplittableRandom(42);
+        storage.addEmployee(new Employee(1L, "Brett", "Wilson", 200000.0, null));
+        for (long id = 2; id <= employees; id++) {
+            // new String instances like the ones produced by the parser for every row
+            storage.addEmployee(new Employee(id, new String(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]),
+                    new String(LAST_NAMES[random.nextInt(LAST_NAMES.length)]),
+                    (double) random.nextInt(30000, 150000), 1 + random.nextLong(id - 1)));
+        }
+        final long retained = usedHeap() - before;
+        System.out.printf("%-32s %,12d employees %,16d bytes %8.1f bytes/employee%n",
+                name, employees, retained, (double) retained / employees);
+        if (storage.hashCode() == 0) {
+            System.out.println();
+        }
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,31 @@
+package org.company.benchmarks;
+
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.ConcurrentCompanyEmployeeStorage;
+import org.company.storage.IncrementalCompanyEmployeeStorage;
+import org.company.storage.VersionedCompanyEmployeeStorage;
+
+import java.util.function.Supplier;
+
+/**
+ * The storage implementations compared by the benchmarks
+ */
+public enum StorageType {
+    IMPL(CompanyEmployeeStorageImpl::new),
+    COLUMNAR(ColumnarCompanyEmployeeStorage::new),
+    INCREMENTAL(IncrementalCompanyEmployeeStorage::new),
+    CONCURRENT(ConcurrentCompanyEmployeeStorage::new),
+    VERSIONED(VersionedCompanyEmployeeStorage::new);
+
+    private final Supplier<CompanyEmployeeStorage> factory;
+
+    StorageType(final Supplier<CompanyEmployeeStorage> factory) {
+        this.factory = factory;
+    }
+
+    public CompanyEmployeeStorage create() {
+        return this.factory.get();
+    }
+}
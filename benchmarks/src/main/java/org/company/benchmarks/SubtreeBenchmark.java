@@ -0,0 +1,108 @@
+package org.company.benchmarks;
+
+import org.company.models.Employee;
+import org.company.models.SubtreeSummary;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.SubtreeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subtree aggregates of random managers from {@link SubtreeIndex} compared to a walk of the subtree over
+ * a prepared child map, and the cost of building the index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SubtreeBenchmark {
+    @Param({"1000", "1000000"})
+    private long size;
+
+    @Param({"RANDOM"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"COLUMNAR"})
+    private StorageType storage;
+
+    private CompanyEmployeeStorage employeeStorage;
+    private SubtreeIndex index;
+    private Map<Long, Employee> employees;
+    private Map<Long, List<Long>> children;
+    private SplittableRandom random;
+
+    @Setup
+    public void fillStorage() {
+        this.employeeStorage = this.storage.create();
+        this.employees = new HashMap<>();
+        this.children = new HashMap<>();
+        new OrgChartGenerator(42L, this.size, 8, this.shape).forEach(employee -> {
+            this.employeeStorage.addEmployee(employee);
+            this.employees.put(employee.id(), employee);
+            if (employee.managerId() != null) {
+                this.children.computeIfAbsent(employee.managerId(), id -> new ArrayList<>()).add(employee.id());
+            }
+        });
+        this.index = SubtreeIndex.build(this.employeeStorage);
+        this.random = new SplittableRandom(7L);
+    }
+
+    /**
+     * The managers near the top have the largest subtrees, every level is queried equally often
+     */
+    private long randomManager() {
+        return 1 + this.random.nextLong(Math.min(this.size, 1L << (3 * (1 + this.random.nextInt(8)))));
+    }
+
+    @Benchmark
+    public Optional<SubtreeSummary> summarize() {
+        return this.index.summarize(this.randomManager());
+    }
+
+    @Benchmark
+    public SubtreeSummary walk() {
+        final ArrayDeque<Long> queue = new ArrayDeque<>();
+        queue.add(this.randomManager());
+        long headcount = 0;
+        double totalSalary = 0.0;
+        while (!queue.isEmpty()) {
+            for (Long child : this.children.getOrDefault(queue.poll(), List.of())) {
+                headcount++;
+                totalSalary += this.employees.get(child).salary();
+                queue.add(child);
+            }
+        }
+        return new SubtreeSummary(headcount, totalSalary, 0);
+    }
+
+    @Benchmark
+    public Optional<Employee> updateSalary() {
+        return this.index.updateSalary(1 + this.random.nextLong(this.size), 30000 + this.random.nextInt(120000));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SubtreeIndex build() {
+        return SubtreeIndex.build(this.employeeStorage);
+    }
+}
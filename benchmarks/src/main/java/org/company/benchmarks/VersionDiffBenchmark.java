@@ -0,0 +1,83 @@
+package org.company.benchmarks;
+
+import org.company.CompanyManagement;
+import org.company.models.CompanyReport;
+import org.company.models.CompanyReportDiff;
+import org.company.models.Employee;
+import org.company.storage.CompanyVersion;
+import org.company.storage.VersionedCompanyEmployeeStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparing two daily exports which differ in a few employees: the full reports of both versions
+ * against the reports of the employees affected by the changes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class VersionDiffBenchmark {
+    @Param({"100000", "1000000"})
+    private long size;
+
+    @Param({"8"})
+    private int fanOut;
+
+    @Param({"BALANCED"})
+    private OrgChartGenerator.Shape shape;
+
+    @Param({"100"})
+    private int changes;
+
+    private CompanyVersion yesterday;
+    private CompanyVersion today;
+
+    @Setup
+    public void loadExports() {
+        final List<Employee> export = new OrgChartGenerator(42L, this.size, this.fanOut, this.shape).generate();
+        final VersionedCompanyEmployeeStorage storage = new VersionedCompanyEmployeeStorage();
+        this.yesterday = storage.loadVersion(version -> export.forEach(version::addEmployee));
+
+        final Random random = new Random(7);
+        final List<Employee> nextExport = new ArrayList<>(export);
+        for (int i = 0; i < this.changes; i++) {
+            final int row = 1 + random.nextInt(nextExport.size() - 1);
+            final Employee employee = nextExport.get(row);
+            // half of the changes are raises, half move the employee to a manager added before it
+            nextExport.set(row, i % 2 == 0 ?
+                    new Employee(employee.id(), employee.firstName(), employee.lastName(), employee.salary() * 1.5,
+                            employee.managerId()) :
+                    new Employee(employee.id(), employee.firstName(), employee.lastName(), employee.salary(),
+                            nextExport.get(random.nextInt(row)).id()));
+        }
+        this.today = storage.loadVersion(version -> nextExport.forEach(version::addEmployee));
+    }
+
+    @Benchmark
+    public CompanyReport[] fullReports() {
+        return new CompanyReport[]{new CompanyManagement(this.yesterday).analyze(),
+                new CompanyManagement(this.today).analyze()};
+    }
+
+    @Benchmark
+    public CompanyReportDiff changedReports() {
+        return CompanyManagement.analyzeChanges(this.yesterday.diff(this.today));
+    }
+}
@@ -1,46 +1,152 @@
 package org.company;
 
+import org.company.metrics.Metrics;
+import org.company.models.CompanyReport;
 import org.company.models.Employee;
-import org.company.models.SalaryComparisonType;
+import org.company.metrics.SimpleMetricsRegistry;
+import org.company.report.ReportFormat;
+import org.company.report.ReportSink;
+import org.company.report.ReportType;
+import org.company.report.TextReportSink;
+import org.company.service.CompanyQueryService;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.ConcurrentCompanyEmployeeStorage;
+import org.company.storage.InstrumentedCompanyEmployeeStorage;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Prints the reports of the company: {@code CompanyDisplay [employees.csv] [CSV|JSON_LINES|FIXED_WIDTH] [output]}.
+ * By default the test data is reported to the standard output section by section by a {@link TextReportSink},
+ * with a format the report rows are written by a {@link ReportSink} to the standard output or to the output file.
+ * Both are written from one analysis of the company.
+ * With {@code -Dcompany.metrics=true} the parser and storage metrics are printed to the standard error.
+ * With {@code -Dcompany.service.port=<port>} the reports are served by a {@link CompanyQueryService} on
+ * the loopback address until the process is stopped instead of being printed. With
+ * {@code -Dcompany.follow=true} the service keeps adding the lines appended to the employee file.
+ */
 public class CompanyDisplay {
-    public static void main(String[] args) {
-        final CompanyManagement companyManagement = new CompanyManagement();
-        companyManagement.addNewEmployees("src/main/resources/test_data_10.csv");
+    private static final Logger LOGGER = Logger.getLogger(CompanyDisplay.class.getName());
+    private static final String DEFAULT_DATA_PATH = "src/main/resources/test_data_10.csv";
+    private static final String METRICS_PROPERTY = "company.metrics";
+    private static final String SERVICE_PORT_PROPERTY = "company.service.port";
+    private static final String FOLLOW_PROPERTY = "company.follow";
+    private static final Duration FOLLOW_POLL_INTERVAL = Duration.ofSeconds(1);
 
-        reportEmployeesWithLongReportingLines(companyManagement);
-        reportSalaryDiscrepancies(companyManagement, SalaryComparisonType.BIG, "earn more than they should");
-        reportSalaryDiscrepancies(companyManagement, SalaryComparisonType.SMALL, "earn less than they should");
-    }
+    public static void main(String[] args) throws InterruptedException {
+        final String dataPath = args.length > 0 ? args[0] : DEFAULT_DATA_PATH;
+
+        final boolean metricsEnabled = Boolean.getBoolean(METRICS_PROPERTY);
+        final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+        if (metricsEnabled) {
+            Metrics.setRegistry(registry);
+        }
+        final Integer servicePort = Integer.getInteger(SERVICE_PORT_PROPERTY);
+        final boolean follow = Objects.nonNull(servicePort) && Boolean.getBoolean(FOLLOW_PROPERTY);
+        // the followed file is added to the storage while the service queries it
+        final CompanyEmployeeStorage storage = follow ? new ConcurrentCompanyEmployeeStorage() :
+                new CompanyEmployeeStorageImpl();
+        final CompanyManagement companyManagement = new CompanyManagement(metricsEnabled ?
+                new InstrumentedCompanyEmployeeStorage(storage) : storage);
+        if (follow) {
+            companyManagement.followEmployees(dataPath, FOLLOW_POLL_INTERVAL);
+        } else {
+            companyManagement.addNewEmployees(dataPath);
+        }
 
-    private static void reportEmployeesWithLongReportingLines(final CompanyManagement companyManagement) {
-        System.out.println("Employees have a reporting line which is too long:");
-        final Map<Employee, Integer> employeesWithTooLongReportingLine = companyManagement.getEmployeesWithTooLongReportingLine();
-        employeesWithTooLongReportingLine.forEach((employee, lineLength) ->
-                System.out.printf("id: %d, name: %s, last name: %s, reporting line: %d%n",
-                        employee.id(), employee.firstName(), employee.lastName(), lineLength)
-        );
+        if (Objects.nonNull(servicePort)) {
+            serve(companyManagement, servicePort);
+        }
+        if (args.length > 1) {
+            writeReport(companyManagement, ReportFormat.valueOf(args[1]), args.length > 2 ? args[2] : null);
+        } else {
+            printReport(companyManagement);
+        }
+        if (metricsEnabled) {
+            System.err.print(registry.format());
+        }
     }
 
-    private static void reportSalaryDiscrepancies(final CompanyManagement companyManagement,
-                                                  final SalaryComparisonType type, final String message) {
-        System.out.println(String.format("Managers who %s:", message));
-        printManagersWithSalaryDifference(companyManagement.getManagersWithSalaryDifference(type));
+    /**
+     * Serves the reports until the process is stopped, a service which can't be started is logged and
+     * the reports are printed instead
+     */
+    private static void serve(final CompanyManagement companyManagement, final int port)
+            throws InterruptedException {
+        final CompanyQueryService service;
+        try {
+            service = new CompanyQueryService(companyManagement, port);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, String.format("Failed to start the query service on port: %d", port), ex);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(service::close));
+        System.err.printf("Serving the reports at http://localhost:%d/reports/%n", service.port());
+        Thread.currentThread().join();
     }
 
-    private static void printManagersWithSalaryDifference(final Optional<Map<Employee, Double>> managersWithSalaryDifference) {
-        managersWithSalaryDifference.ifPresentOrElse(managers -> {
-            if (managers.isEmpty()) {
-                System.out.println("No salary differences met the criteria");
+    /**
+     * @param outputPath The output file, null for the standard output
+     */
+    private static void writeReport(final CompanyManagement companyManagement, final ReportFormat format,
+                                    final String outputPath) {
+        try {
+            if (Objects.nonNull(outputPath)) {
+                try (ReportSink sink = format.createSink(
+                        Files.newBufferedWriter(Path.of(outputPath), StandardCharsets.UTF_8))) {
+                    companyManagement.writeReport(sink);
+                }
             } else {
-                managers.forEach((employee, difference) ->
-                    System.out.printf("id: %d, name: %s, last name: %s, salary difference: %.2f%n", employee.id(),
-                            employee.firstName(), employee.lastName(), difference)
-                );
+                final Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                final ReportSink sink = format.createSink(output);
+                companyManagement.writeReport(sink);
+                sink.flush();
             }
-        },() -> System.out.println("No data available for salary differences"));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, String.format("Failed to write the report to: %s",
+                    Objects.isNull(outputPath) ? "standard output" : outputPath), ex);
+        }
+    }
+
+    /**
+     * Prints the reports section by section, the sections are built from one analysis of the company
+     */
+    private static void printReport(final CompanyManagement companyManagement) {
+        final CompanyReport report = companyManagement.analyze();
+        final TextReportSink sink = new TextReportSink(
+                new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        sink.writeLine("Employees have a reporting line which is too long:");
+        report.tooLongReportingLines().forEach(sink::writeReportingLine);
+        printSalaryDifferences(sink, ReportType.OVERPAID_MANAGER, report.overpaidManagers(),
+                "earn more than they should");
+        printSalaryDifferences(sink, ReportType.UNDERPAID_MANAGER, report.underpaidManagers(),
+                "earn less than they should");
+        try {
+            sink.flush();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to write the report to: standard output", ex);
+        }
+    }
+
+    private static void printSalaryDifferences(final TextReportSink sink, final ReportType type,
+                                               final Map<Employee, Double> managers, final String message) {
+        sink.writeLine(String.format("Managers who %s:", message));
+        if (managers.isEmpty()) {
+            sink.writeLine("No salary differences met the criteria");
+        } else {
+            managers.forEach((manager, difference) -> sink.writeSalaryDifference(type, manager, difference));
+        }
     }
-}
\ No newline at end of file
+}
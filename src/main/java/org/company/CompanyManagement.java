@@ -1,17 +1,39 @@
 package org.company;
 
+import org.company.models.CompanyReport;
+import org.company.models.CompanyReportDiff;
 import org.company.models.Employee;
 import org.company.models.SalaryComparisonType;
+import org.company.models.SalaryThresholds;
+import org.company.models.StructureDiagnostic;
 import org.company.parser.CSVEmployeeDataParser;
+import org.company.parser.CSVFileFollower;
+import org.company.storage.CompanyDiff;
 import org.company.storage.CompanyEmployeeStorage;
 import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.CompanySnapshot;
 import org.company.parser.EmployeeDataParser;
+import org.company.report.ReportSink;
+import org.company.report.ReportType;
+import org.company.storage.SalaryComparator;
+import org.company.storage.SalaryDifferenceConsumer;
+import org.company.storage.EmployeeVisitor;
+import org.company.storage.VersionedCompanyEmployeeStorage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  *  Class representing a company management service
@@ -19,34 +41,114 @@ import java.util.stream.Collectors;
 public class CompanyManagement {
     private final static Logger LOGGER = Logger.getLogger(CompanyManagement.class.getName());
     /**
-     * The constant for representing a BIG salary difference.
+     * The constant for representing a too long reporting line between employee and
      */
-    private static final double BIG_SALARY_THRESHOLD = 1.5;
+    private static final int MAX_REPORTING_LINE_LENGTH = 4;
 
+    private final CompanyEmployeeStorage companyEmployeeStorage;
     /**
-     * The constant for representing a "SMALL" salary difference.
+     * The comparators are created once per comparison type, so the salary scan calls a primitive function
+     * without a switch per manager
      */
-    private static final double SMALL_SALARY_THRESHOLD = 1.2;
+    private final Map<SalaryComparisonType, SalaryComparator> salaryComparators;
     /**
-     * The constant for representing a too long reporting line between employee and
+     * The number of loads of employee data, the reports cached for a generation are stale after a load
      */
-    private static final int MAX_REPORTING_LINE_LENGTH = 4;
-
-    private final CompanyEmployeeStorage companyEmployeeStorage;
+    private final AtomicLong generation;
 
     public CompanyManagement() {
-        this.companyEmployeeStorage = new CompanyEmployeeStorageImpl();
+        this(new CompanyEmployeeStorageImpl());
+    }
+
+    /**
+     * @param companyEmployeeStorage The storage keeping the company employees,
+     *                               e.g. {@link org.company.storage.ColumnarCompanyEmployeeStorage} for large companies
+     */
+    public CompanyManagement(final CompanyEmployeeStorage companyEmployeeStorage) {
+        this(companyEmployeeStorage, SalaryThresholds.DEFAULT);
     }
+
+    /**
+     * @param companyEmployeeStorage The storage keeping the company employees
+     * @param salaryThresholds The multipliers of the average subordinate salary defining BIG and SMALL differences
+     */
+    public CompanyManagement(final CompanyEmployeeStorage companyEmployeeStorage,
+                             final SalaryThresholds salaryThresholds) {
+        this.companyEmployeeStorage = companyEmployeeStorage;
+        this.salaryComparators = new EnumMap<>(SalaryComparisonType.class);
+        this.generation = new AtomicLong();
+        for (SalaryComparisonType type : SalaryComparisonType.values()) {
+            this.salaryComparators.put(type, createSalaryComparator(type, salaryThresholds));
+        }
+    }
+
     public void addNewEmployees(final String filePath) {
-        final EmployeeDataParser parser = new CSVEmployeeDataParser(companyEmployeeStorage);
-        parser.addNewEmployees(filePath);
+        this.addNewEmployees(filePath, CSVEmployeeDataParser::new);
+    }
+
+    /**
+     * Adds employees from the file with the parser created by the given factory,
+     * e.g. {@code MappedCSVEmployeeDataParser::new} for large CSV files.
+     *
+     * @param filePath The path to the file with employee data
+     * @param parserFactory The factory creating a parser on top of the company storage
+     */
+    public void addNewEmployees(final String filePath,
+                                final Function<CompanyEmployeeStorage, EmployeeDataParser> parserFactory) {
+        final EmployeeDataParser parser = parserFactory.apply(this.companyEmployeeStorage);
+        try {
+            parser.addNewEmployees(filePath);
+        } finally {
+            this.generation.incrementAndGet();
+        }
+    }
+
+    /**
+     * Adds the employees of a CSV file which is appended to and keeps adding the appended lines,
+     * the employees of a change line replace the employees with the same id. The employees already in the file
+     * are added before the method returns, the appended lines within the poll interval. Every poll which
+     * adds employees changes the {@link #generation()}. The storage is queried concurrently with the changes,
+     * so it has to be thread-safe, e.g. a {@link org.company.storage.ConcurrentCompanyEmployeeStorage}.
+     *
+     * @param filePath The path to the CSV file with employee data
+     * @param pollInterval The maximal time between an append and the changed reports
+     * @return The follower of the file, closing it stops following
+     */
+    public CSVFileFollower followEmployees(final String filePath, final Duration pollInterval) {
+        final CSVFileFollower follower = new CSVFileFollower(this.companyEmployeeStorage, Path.of(filePath),
+                this.generation::incrementAndGet);
+        follower.poll();
+        follower.start(pollInterval);
+        return follower;
+    }
+
+    /**
+     * The generation changes after every {@link #addNewEmployees(String)} and every change of a followed file, the reports calculated in one
+     * generation are the same unless the storage is changed directly.
+     *
+     * @return The number of the loads of employee data
+     */
+    public long generation() {
+        return this.generation.get();
+    }
+
+    /**
+     * Saves the employees into a binary snapshot, a later run can open it with
+     * {@link org.company.storage.CompanySnapshot#open(Path)} instead of parsing the employee data again.
+     *
+     * @param filePath The path of the snapshot, an existing file is replaced
+     * @throws IOException If the snapshot can't be written
+     */
+    public void saveSnapshot(final String filePath) throws IOException {
+        CompanySnapshot.write(this.companyEmployeeStorage, Path.of(filePath));
     }
 
     /**
      * Retrieves managers with significant salary difference based on the specified comparison type.
-     * A BIG salary difference indicates that the manager's salary is more than BIG_SALARY_THRESHOLD compare with
-     * the average salary of their subordinates. A SMALL salary difference indicates
-     * that the manager's salary is less than the average salary of their subordinates by more than SMALL_SALARY_THRESHOLD.
+     * A BIG salary difference indicates that the manager's salary is more than the average salary of their
+     * subordinates multiplied by {@link SalaryThresholds#big()}. A SMALL salary difference indicates
+     * that the manager's salary is less than the average salary of their subordinates multiplied by
+     * {@link SalaryThresholds#small()}.
      *
      * @param comparisonType The type of salary comparison (BIG or SMALL)
      * @return The Optional containing map of managers to their calculated salary difference.
@@ -55,8 +157,7 @@ public class CompanyManagement {
     public Optional<Map<Employee, Double>> getManagersWithSalaryDifference(final SalaryComparisonType comparisonType) {
         try {
             final Map<Employee, Double> result = this.companyEmployeeStorage.getManagersWithFilterBySalary(
-                    (managerSalary, avgSubordinateSalary) ->
-                            this.calculateSalaryDifference(managerSalary, avgSubordinateSalary, comparisonType));
+                    this.getSalaryComparator(comparisonType));
             return Optional.of(result);
         } catch (IllegalArgumentException ex) {
             LOGGER.log(Level.WARNING, "Failed to process salary calculation", ex);
@@ -65,29 +166,68 @@ public class CompanyManagement {
     }
 
     /**
-     * Calculates the salary difference based on the specified comparison type.
-     * The method calculates how much a manager's salary is different from an average salary of their subordinates.
+     * Passes managers with significant salary difference to the consumer without collecting them into a map.
      *
-     * @param managerSalary The salary of the manager
-     * @param avgSubordinateSalary The average salary of the subordinates
-     * @param comparisonType The type of salary comparison (BIG or SMALL):
-     *                       - BIG: Checks if the manager's salary is more than the average subordinate salary by BIG_SALARY_THRESHOLD.
-     *                       - SMALL: Checks if the manager's salary is less than the average subordinate salary by SMALL_SALARY_THRESHOLD.
-     * @return The salary difference. Returns 0.0 if the salary does not meet the specified criteria
+     * @param comparisonType The type of salary comparison (BIG or SMALL)
+     * @param consumer The receiver of managers and their salary difference
      * @throws IllegalArgumentException In case of unsupported comparison type is provided
      */
-   private Double calculateSalaryDifference(final Double managerSalary, final Double avgSubordinateSalary,
-                                             final SalaryComparisonType comparisonType) {
+    public void forEachManagerWithSalaryDifference(final SalaryComparisonType comparisonType,
+                                                   final SalaryDifferenceConsumer consumer) {
+        this.companyEmployeeStorage.forEachManagerWithFilterBySalary(this.getSalaryComparator(comparisonType), consumer);
+    }
+
+    private SalaryComparator getSalaryComparator(final SalaryComparisonType comparisonType) {
+        final SalaryComparator comparator = Objects.isNull(comparisonType) ? null :
+                this.salaryComparators.get(comparisonType);
+        if (Objects.isNull(comparator)) {
+            throw new IllegalArgumentException("Unsupported salary comparison type: " + comparisonType);
+        }
+        return comparator;
+    }
+
+    /**
+     * Creates the comparator calculating how much a manager's salary is different from an average salary of
+     * their subordinates.
+     *
+     * @param comparisonType The type of salary comparison (BIG or SMALL):
+     *                       - BIG: Checks if the manager's salary is more than the average subordinate salary multiplied by the big threshold.
+     *                       - SMALL: Checks if the manager's salary is less than the average subordinate salary multiplied by the small threshold.
+     * @param salaryThresholds The thresholds
+     * @return The comparator returning the salary difference or 0.0 if the salary does not meet the specified criteria
+     */
+    private static SalaryComparator createSalaryComparator(final SalaryComparisonType comparisonType,
+                                                           final SalaryThresholds salaryThresholds) {
         return switch (comparisonType) {
-            case BIG -> managerSalary > avgSubordinateSalary * BIG_SALARY_THRESHOLD ?
-                        managerSalary - avgSubordinateSalary * BIG_SALARY_THRESHOLD : 0.0;
-            case SMALL-> managerSalary < avgSubordinateSalary * SMALL_SALARY_THRESHOLD ?
-                        avgSubordinateSalary * SMALL_SALARY_THRESHOLD - managerSalary : 0.0;
-            default ->
-                throw new IllegalArgumentException("Unsupported salary comparison type: " + comparisonType);
+            case BIG -> SalaryComparator.above(salaryThresholds.big());
+            case SMALL -> SalaryComparator.below(salaryThresholds.small());
         };
     }
 
+    /**
+     * Retrieves managers whose salary is an outlier of the salary band of their direct subordinates.
+     * The salary is an outlier if it differs from the average subordinate salary by more than
+     * maxDeviations standard deviations of the subordinate salaries. Managers whose subordinates
+     * all earn the same are skipped, the band has no width.
+     *
+     * @param maxDeviations The allowed number of standard deviations
+     * @return The map of managers to the number of standard deviations between their salary and the average,
+     * positive if the manager earns more than the average
+     */
+    public Map<Employee, Double> getManagersWithSalaryOutliers(final double maxDeviations) {
+        final Map<Employee, Double> result = new HashMap<>();
+        this.companyEmployeeStorage.getSubordinateSalaryStatistics().forEach((manager, statistics) -> {
+            final double deviation = statistics.standardDeviation();
+            if (deviation > 0.0) {
+                final double deviations = (manager.salary() - statistics.average()) / deviation;
+                if (Math.abs(deviations) > maxDeviations) {
+                    result.put(manager, deviations);
+                }
+            }
+        });
+        return result;
+    }
+
     /**
      * Return a map with employees and their reporting line which is too long.
      * The reporting line is too long if the length is greater than MAX_REPORTING_LINE_LENGTH.
@@ -95,10 +235,130 @@ public class CompanyManagement {
      * @return The map where each key is an employee and each value is the length of the reporting line that exceeds MAX_REPORTING_LINE_LENGTH
      */
     public Map<Employee, Integer> getEmployeesWithTooLongReportingLine() {
-        final Map<Employee, Integer> reportingLineMap = this.companyEmployeeStorage.calculateCompanyStructure();
+        return this.companyEmployeeStorage.getEmployeesWithReportingLineLongerThan(MAX_REPORTING_LINE_LENGTH);
+    }
+
+    /**
+     * Passes the employees with a too long reporting line to the consumer in one pass over the employees
+     * without collecting them into a map, the employees are the same as of
+     * {@link #getEmployeesWithTooLongReportingLine()}.
+     *
+     * @param consumer The receiver of the employees and the lengths of their reporting lines
+     */
+    public void forEachEmployeeWithTooLongReportingLine(final ObjIntConsumer<Employee> consumer) {
+        this.companyEmployeeStorage.forEachEmployee((employee, reportingLineLength, subordinates, salarySum) -> {
+            if (reportingLineLength > MAX_REPORTING_LINE_LENGTH) {
+                consumer.accept(employee, reportingLineLength);
+            }
+        });
+    }
+
+    /**
+     * Calculates the employees with a too long reporting line and the managers with a BIG and a SMALL salary
+     * difference in one pass over the employees, the result is the same as of
+     * {@link #getEmployeesWithTooLongReportingLine()} and {@link #getManagersWithSalaryDifference(SalaryComparisonType)}
+     * for both comparison types.
+     *
+     * @return The report with the too long reporting lines, the overpaid and the underpaid managers
+     */
+    public CompanyReport analyze() {
+        final Map<Employee, Integer> tooLongReportingLines = new HashMap<>();
+        final Map<Employee, Double> overpaidManagers = new HashMap<>();
+        final Map<Employee, Double> underpaidManagers = new HashMap<>();
+        this.analyze(tooLongReportingLines::put, overpaidManagers::put, underpaidManagers::put);
+        return new CompanyReport(tooLongReportingLines, overpaidManagers, underpaidManagers);
+    }
+
+    /**
+     * Streams the rows of the reports calculated by {@link #analyze()} to the sink without collecting them.
+     * The sink is neither flushed nor closed.
+     *
+     * @param sink The receiver of the report rows
+     * @throws java.io.UncheckedIOException If the sink fails to write the rows
+     */
+    public void writeReport(final ReportSink sink) {
+        this.analyze(sink::writeReportingLine,
+                (manager, difference) -> sink.writeSalaryDifference(ReportType.OVERPAID_MANAGER, manager, difference),
+                (manager, difference) -> sink.writeSalaryDifference(ReportType.UNDERPAID_MANAGER, manager, difference));
+    }
+
+    /**
+     * Calculates the reports of the employees affected by the changes between two versions of the company
+     * with the default {@link SalaryThresholds}, see {@link #analyzeChanges(CompanyDiff, SalaryThresholds)}
+     *
+     * @param diff The difference between the versions
+     * @return The report rows of the affected employees in both versions
+     */
+    public static CompanyReportDiff analyzeChanges(final CompanyDiff diff) {
+        return analyzeChanges(diff, SalaryThresholds.DEFAULT);
+    }
+
+    /**
+     * Calculates the reports of the employees affected by the changes between two versions of the company,
+     * the other employees are not visited. The full report of the newer version is
+     * {@link CompanyReportDiff#apply(CompanyReport)} of the full report of the older version.
+     * Both versions are read from the diff, so no company management instance is needed.
+     *
+     * @param diff The difference between the versions, e.g. of two daily exports loaded by
+     *             {@link VersionedCompanyEmployeeStorage#loadVersion(java.util.function.Consumer)}
+     * @param salaryThresholds The multipliers of the average subordinate salary defining BIG and SMALL differences
+     * @return The report rows of the affected employees in both versions
+     */
+    public static CompanyReportDiff analyzeChanges(final CompanyDiff diff, final SalaryThresholds salaryThresholds) {
+        final SalaryComparator overpaidComparator = createSalaryComparator(SalaryComparisonType.BIG,
+                salaryThresholds);
+        final SalaryComparator underpaidComparator = createSalaryComparator(SalaryComparisonType.SMALL,
+                salaryThresholds);
+        final CompanyReport before = new CompanyReport(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        final CompanyReport after = new CompanyReport(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        diff.forEachAffectedEmployee(reportVisitor(overpaidComparator, underpaidComparator,
+                        before.tooLongReportingLines()::put, before.overpaidManagers()::put,
+                        before.underpaidManagers()::put),
+                reportVisitor(overpaidComparator, underpaidComparator,
+                        after.tooLongReportingLines()::put, after.overpaidManagers()::put,
+                        after.underpaidManagers()::put));
+        return new CompanyReportDiff(before, after);
+    }
 
-        return reportingLineMap.entrySet().stream()
-                .filter(entry -> entry.getValue() > MAX_REPORTING_LINE_LENGTH)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    private void analyze(final ObjIntConsumer<Employee> tooLongReportingLines,
+                         final SalaryDifferenceConsumer overpaidManagers,
+                         final SalaryDifferenceConsumer underpaidManagers) {
+        this.companyEmployeeStorage.forEachEmployee(reportVisitor(this.getSalaryComparator(SalaryComparisonType.BIG),
+                this.getSalaryComparator(SalaryComparisonType.SMALL),
+                tooLongReportingLines, overpaidManagers, underpaidManagers));
+    }
+
+    private static EmployeeVisitor reportVisitor(final SalaryComparator overpaidComparator,
+                                                 final SalaryComparator underpaidComparator,
+                                                 final ObjIntConsumer<Employee> tooLongReportingLines,
+                                                 final SalaryDifferenceConsumer overpaidManagers,
+                                                 final SalaryDifferenceConsumer underpaidManagers) {
+        return (employee, reportingLineLength, subordinates, salarySum) -> {
+            if (reportingLineLength > MAX_REPORTING_LINE_LENGTH) {
+                tooLongReportingLines.accept(employee, reportingLineLength);
+            }
+            if (subordinates == 0) {
+                return;
+            }
+            final double avgSubordinateSalary = salarySum / subordinates;
+            final double overpaid = overpaidComparator.compare(employee.salary(), avgSubordinateSalary);
+            if (overpaid > 0.0) {
+                overpaidManagers.accept(employee, overpaid);
+            }
+            final double underpaid = underpaidComparator.compare(employee.salary(), avgSubordinateSalary);
+            if (underpaid > 0.0) {
+                underpaidManagers.accept(employee, underpaid);
+            }
+        };
+    }
+
+    /**
+     * Return the problems of the company structure which leave employees without a reporting line to the CEO,
+     * like employees with a not existing manager or managers of each other.
+     *
+     * @return The list of problems, empty if the structure is valid
+     */
+    public List<StructureDiagnostic> getStructureDiagnostics() {
+        return this.companyEmployeeStorage.analyzeCompanyStructure().diagnostics();
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package org.company.metrics;
+
+/**
+ * A monotonic counter of a {@link MetricsRegistry}, the implementations must be thread-safe
+ */
+public interface Counter {
+    /**
+     * @param value The non-negative amount added to the counter
+     */
+    void add(long value);
+
+    default void increment() {
+        this.add(1);
+    }
+
+    /**
+     * @return The sum of all added amounts
+     */
+    long sum();
+}
@@ -0,0 +1,33 @@
+package org.company.metrics;
+
+/**
+ * A distribution of non-negative values of a {@link MetricsRegistry}, e.g. latencies in nanoseconds.
+ * The implementations must be thread-safe.
+ */
+public interface Histogram {
+    /**
+     * @param value The non-negative value, negative values are recorded as 0
+     */
+    void record(long value);
+
+    /**
+     * @return The number of recorded values
+     */
+    long count();
+
+    /**
+     * @return The sum of the recorded values
+     */
+    long sum();
+
+    /**
+     * @return The maximal recorded value, 0 if there are no values
+     */
+    long max();
+
+    /**
+     * @param percentile The percentile from 0.0 to 100.0
+     * @return The value at the percentile, the implementations may return an upper bound of it
+     */
+    long percentile(double percentile);
+}
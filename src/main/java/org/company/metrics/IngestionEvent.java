@@ -0,0 +1,33 @@
+package org.company.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event of parsing one input, the duration of the event is the parsing time
+ */
+@Name("org.company.Ingestion")
+@Label("Employee Ingestion")
+@Category("Company")
+@Description("Parsing of one employee data input")
+public final class IngestionEvent extends Event {
+    @Label("Format")
+    String format;
+
+    @Label("Source")
+    String source;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Rejected Rows")
+    long rejected;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
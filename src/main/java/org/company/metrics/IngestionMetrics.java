@@ -0,0 +1,77 @@
+package org.company.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of parsing one input
+ * <p>
+ * A parser counts the rejected rows in a plain field and publishes the totals once per input by
+ * {@link #finish(long)}: the counters and histograms of the {@link Metrics#registry() registry} and
+ * an {@link IngestionEvent} if JFR records it. The accepted rows are counted by the storage load,
+ * so the instrumentation adds no work per accepted row. The instance is used by one thread.
+ * </p>
+ */
+public final class IngestionMetrics {
+    private final String format;
+    private final String source;
+    private final IngestionEvent event;
+    private final long start;
+    private long rejected;
+    private long bytes;
+
+    /**
+     * Starts the measurement
+     * @param format The format of the input, e.g. "csv"
+     * @param source The file path or a description of the stream
+     */
+    public IngestionMetrics(final String format, final String source) {
+        this.format = format;
+        this.source = source;
+        this.event = new IngestionEvent();
+        this.event.begin();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Counts a rejected row
+     */
+    public void reject() {
+        this.rejected++;
+    }
+
+    /**
+     * @param bytes The size of the input
+     */
+    public void bytesRead(final long bytes) {
+        this.bytes += bytes;
+    }
+
+    /**
+     * Publishes the metrics of the input
+     * @param rows The number of accepted rows
+     */
+    public void finish(final long rows) {
+        final long nanos = System.nanoTime() - this.start;
+        final MetricsRegistry registry = Metrics.registry();
+        registry.counter(Metrics.PARSER_ROWS).add(rows);
+        registry.counter(Metrics.PARSER_REJECTED).add(this.rejected);
+        registry.counter(Metrics.PARSER_BYTES).add(this.bytes);
+        registry.histogram(Metrics.PARSER_NANOS).record(nanos);
+        if (nanos > 0) {
+            registry.histogram(Metrics.PARSER_ROWS_PER_SECOND).record(rows * TimeUnit.SECONDS.toNanos(1) / nanos);
+        }
+        this.event.end();
+        if (this.event.shouldCommit()) {
+            this.event.format = this.format;
+            this.event.source = this.source;
+            this.event.rows = rows;
+            this.event.rejected = this.rejected;
+            this.event.bytes = this.bytes;
+            this.event.commit();
+        }
+    }
+
+    public long rejected() {
+        return this.rejected;
+    }
+}
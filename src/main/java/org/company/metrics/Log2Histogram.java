@@ -0,0 +1,74 @@
+package org.company.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram with a bucket per power of two
+ * <p>
+ * The value {@code v > 0} is counted in the bucket {@code 64 - numberOfLeadingZeros(v)}, so recording is
+ * a few arithmetic instructions and one atomic increment without allocation. The percentiles are
+ * the upper bounds of the buckets, they are at most twice the exact value.
+ * </p>
+ */
+final class Log2Histogram implements Histogram {
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    Log2Histogram() {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    @Override
+    public void record(final long value) {
+        final long recorded = Math.max(value, 0);
+        this.buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(recorded));
+        this.count.increment();
+        this.sum.add(recorded);
+        this.max.accumulate(recorded);
+    }
+
+    @Override
+    public long count() {
+        return this.count.sum();
+    }
+
+    @Override
+    public long sum() {
+        return this.sum.sum();
+    }
+
+    @Override
+    public long max() {
+        return this.max.get();
+    }
+
+    @Override
+    public long percentile(final double percentile) {
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            total += this.buckets.get(bucket);
+        }
+        final long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0.0), 100.0) / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += this.buckets.get(bucket);
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBound(bucket), this.max());
+            }
+        }
+        return 0;
+    }
+
+    private static long upperBound(final int bucket) {
+        return bucket == 0 ? 0 : bucket == Long.SIZE ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
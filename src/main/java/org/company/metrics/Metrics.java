@@ -0,0 +1,109 @@
+package org.company.metrics;
+
+import java.util.Objects;
+
+/**
+ * The names of the metrics and the registry receiving them
+ * <p>
+ * The metrics are disabled by default: the registry is {@link MetricsRegistry#NOOP}, the handles ignore
+ * the values and the instrumented code skips the work needed only for the metrics. The registry is read
+ * once per operation, a registry set while an operation runs receives the metrics of the next operations.
+ * </p>
+ */
+public final class Metrics {
+    /**
+     * The number of employees accepted by the parsers
+     */
+    public static final String PARSER_ROWS = "parser.rows";
+    /**
+     * The number of rows rejected by the parsers because of an invalid format or a second CEO
+     */
+    public static final String PARSER_REJECTED = "parser.rejected";
+    /**
+     * The number of bytes of the parsed files
+     */
+    public static final String PARSER_BYTES = "parser.bytes";
+    /**
+     * The time of parsing one input in nanoseconds
+     */
+    public static final String PARSER_NANOS = "parser.nanos";
+    /**
+     * The accepted rows per second of one input
+     */
+    public static final String PARSER_ROWS_PER_SECOND = "parser.rows-per-second";
+    /**
+     * The number of employees added to an instrumented storage
+     */
+    public static final String STORAGE_ADDED = "storage.added";
+    /**
+     * The time of {@code calculateCompanyStructure} in nanoseconds
+     */
+    public static final String STORAGE_STRUCTURE_NANOS = "storage.structure.nanos";
+    /**
+     * The time of {@code analyzeCompanyStructure} in nanoseconds
+     */
+    public static final String STORAGE_ANALYSIS_NANOS = "storage.analysis.nanos";
+    /**
+     * The time of {@code getManagersWithFilterBySalary} and {@code forEachManagerWithFilterBySalary}
+     * in nanoseconds
+     */
+    public static final String STORAGE_SALARY_FILTER_NANOS = "storage.salary-filter.nanos";
+    /**
+     * The time of {@code forEachEmployee} in nanoseconds
+     */
+    public static final String STORAGE_VISIT_NANOS = "storage.visit.nanos";
+    /**
+     * The number of employees with a reporting line in the last calculated structure
+     */
+    public static final String STORAGE_STRUCTURE_SIZE = "storage.structure.size";
+    /**
+     * The number of structure queries of the concurrent storage answered by the structure of an earlier query
+     */
+    public static final String SNAPSHOT_HITS = "storage.snapshot.hits";
+    /**
+     * The number of company structures calculated by the concurrent storage, one per queried version
+     */
+    public static final String SNAPSHOT_MISSES = "storage.snapshot.misses";
+    /**
+     * The number of query service requests answered by a cached report
+     */
+    public static final String SERVICE_CACHE_HITS = "service.cache.hits";
+    /**
+     * The number of query service requests which calculated the report
+     */
+    public static final String SERVICE_CACHE_MISSES = "service.cache.misses";
+    /**
+     * The number of query service requests which waited for the same report calculated by another request
+     */
+    public static final String SERVICE_COALESCED = "service.coalesced";
+    /**
+     * The time of answering a query service request in nanoseconds
+     */
+    public static final String SERVICE_REQUEST_NANOS = "service.request.nanos";
+
+    private static volatile MetricsRegistry registry = MetricsRegistry.NOOP;
+
+    private Metrics() {
+    }
+
+    /**
+     * @return The current registry, {@link MetricsRegistry#NOOP} if the metrics are disabled
+     */
+    public static MetricsRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * @param newRegistry The registry receiving the metrics, {@link MetricsRegistry#NOOP} disables them
+     */
+    public static void setRegistry(final MetricsRegistry newRegistry) {
+        registry = Objects.requireNonNull(newRegistry);
+    }
+
+    /**
+     * @return true if the metrics are received by a registry
+     */
+    public static boolean isEnabled() {
+        return registry != MetricsRegistry.NOOP;
+    }
+}
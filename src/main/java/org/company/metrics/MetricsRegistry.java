@@ -0,0 +1,37 @@
+package org.company.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * The pluggable receiver of the metrics of the ingestion and the analysis
+ * <p>
+ * The instrumented code asks the registry for the counters and histograms once per operation or once
+ * per instance and updates them with primitive values, so an implementation adapting another metrics library
+ * only has to return handles for the names. {@link #NOOP} returns shared handles doing nothing.
+ * </p>
+ */
+public interface MetricsRegistry {
+    /**
+     * The registry used while the metrics are disabled
+     */
+    MetricsRegistry NOOP = new NoopMetricsRegistry();
+
+    /**
+     * @param name The name of the counter
+     * @return The counter with the name, the same counter for every call with the same name
+     */
+    Counter counter(String name);
+
+    /**
+     * @param name The name of the histogram
+     * @return The histogram with the name, the same histogram for every call with the same name
+     */
+    Histogram histogram(String name);
+
+    /**
+     * Register a value which is read when the metrics are reported, a gauge with the same name is replaced
+     * @param name The name of the gauge
+     * @param value The supplier of the current value
+     */
+    void gauge(String name, LongSupplier value);
+}
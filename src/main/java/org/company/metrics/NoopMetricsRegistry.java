@@ -0,0 +1,58 @@
+package org.company.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * The registry of disabled metrics, the handles are shared singletons ignoring all values
+ */
+final class NoopMetricsRegistry implements MetricsRegistry {
+    private static final Counter COUNTER = new Counter() {
+        @Override
+        public void add(final long value) {
+        }
+
+        @Override
+        public long sum() {
+            return 0;
+        }
+    };
+    private static final Histogram HISTOGRAM = new Histogram() {
+        @Override
+        public void record(final long value) {
+        }
+
+        @Override
+        public long count() {
+            return 0;
+        }
+
+        @Override
+        public long sum() {
+            return 0;
+        }
+
+        @Override
+        public long max() {
+            return 0;
+        }
+
+        @Override
+        public long percentile(final double percentile) {
+            return 0;
+        }
+    };
+
+    @Override
+    public Counter counter(final String name) {
+        return COUNTER;
+    }
+
+    @Override
+    public Histogram histogram(final String name) {
+        return HISTOGRAM;
+    }
+
+    @Override
+    public void gauge(final String name, final LongSupplier value) {
+    }
+}
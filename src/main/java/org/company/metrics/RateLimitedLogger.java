@@ -0,0 +1,88 @@
+package org.company.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A logger of frequent messages like the rejected rows, at most a fixed number of messages is logged
+ * per second
+ * <p>
+ * The caller asks {@link #isLoggable(Level)} before building the message, so a suppressed message costs
+ * no allocation: the permits are a counter per one-second window. The number of suppressed messages is
+ * appended to the next logged message or logged by {@link #logSuppressed(Level)}. A parser uses one instance
+ * per input, so the first rejections of every input are logged. The instance is used by one thread.
+ * </p>
+ */
+public final class RateLimitedLogger {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger;
+    private final int messagesPerSecond;
+    private long windowStart;
+    private int messagesInWindow;
+    private long suppressed;
+
+    /**
+     * @param logger The logger of the messages
+     * @param messagesPerSecond The maximal number of logged messages per second
+     */
+    public RateLimitedLogger(final Logger logger, final int messagesPerSecond) {
+        this.logger = logger;
+        this.messagesPerSecond = messagesPerSecond;
+        this.windowStart = System.nanoTime();
+    }
+
+    /**
+     * Takes a permit to log a message, a message without a permit is counted as suppressed
+     * @param level The level of the message
+     * @return true if the message has to be logged by {@link #log(Level, String, Throwable)}
+     */
+    public boolean isLoggable(final Level level) {
+        if (!this.logger.isLoggable(level)) {
+            return false;
+        }
+        final long now = System.nanoTime();
+        if (now - this.windowStart >= WINDOW_NANOS) {
+            this.windowStart = now;
+            this.messagesInWindow = 0;
+        }
+        if (this.messagesInWindow < this.messagesPerSecond) {
+            this.messagesInWindow++;
+            return true;
+        }
+        this.suppressed++;
+        return false;
+    }
+
+    /**
+     * Logs the message with the number of messages suppressed before it
+     * @param level The level of the message
+     * @param message The message
+     * @param thrown The cause or null
+     */
+    public void log(final Level level, final String message, final Throwable thrown) {
+        final long suppressedBefore = this.suppressed;
+        this.suppressed = 0;
+        this.logger.log(level, suppressedBefore == 0 ? message :
+                String.format("%s (%d similar messages suppressed)", message, suppressedBefore), thrown);
+    }
+
+    /**
+     * Logs the number of messages suppressed since the last logged message, if any
+     * @param level The level of the message
+     */
+    public void logSuppressed(final Level level) {
+        if (this.suppressed > 0) {
+            this.logger.log(level, String.format("%d similar messages suppressed", this.suppressed));
+            this.suppressed = 0;
+        }
+    }
+
+    /**
+     * @return The number of messages suppressed since the last logged message
+     */
+    public long suppressed() {
+        return this.suppressed;
+    }
+}
@@ -0,0 +1,78 @@
+package org.company.metrics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * An in-memory {@link MetricsRegistry}: the counters are {@link LongAdder}s, the histograms have a bucket
+ * per power of two. The metrics are read by {@link #format()}.
+ */
+public final class SimpleMetricsRegistry implements MetricsRegistry {
+    private final Map<String, Counter> counters;
+    private final Map<String, Histogram> histograms;
+    private final Map<String, LongSupplier> gauges;
+
+    public SimpleMetricsRegistry() {
+        this.counters = new ConcurrentHashMap<>();
+        this.histograms = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Counter counter(final String name) {
+        return this.counters.computeIfAbsent(name, key -> new AdderCounter());
+    }
+
+    @Override
+    public Histogram histogram(final String name) {
+        return this.histograms.computeIfAbsent(name, key -> new Log2Histogram());
+    }
+
+    @Override
+    public void gauge(final String name, final LongSupplier value) {
+        this.gauges.put(name, value);
+    }
+
+    /**
+     * @return The current value of the gauge, 0 if there is no gauge with the name
+     */
+    public long gaugeValue(final String name) {
+        final LongSupplier gauge = this.gauges.get(name);
+        return Objects.isNull(gauge) ? 0 : gauge.getAsLong();
+    }
+
+    /**
+     * @return The metrics sorted by name, one per line: the counters and gauges with the value,
+     * the histograms with the count, the mean, the median, the 99th percentile and the maximum
+     */
+    public String format() {
+        final StringBuilder result = new StringBuilder();
+        final Map<String, String> lines = new TreeMap<>();
+        this.counters.forEach((name, counter) -> lines.put(name, Long.toString(counter.sum())));
+        this.gauges.forEach((name, gauge) -> lines.put(name, Long.toString(gauge.getAsLong())));
+        this.histograms.forEach((name, histogram) -> lines.put(name, String.format(
+                "count=%d mean=%d p50=%d p99=%d max=%d", histogram.count(),
+                histogram.count() == 0 ? 0 : histogram.sum() / histogram.count(),
+                histogram.percentile(50.0), histogram.percentile(99.0), histogram.max())));
+        lines.forEach((name, value) -> result.append(name).append(' ').append(value).append('\n'));
+        return result.toString();
+    }
+
+    private static final class AdderCounter implements Counter {
+        private final LongAdder adder = new LongAdder();
+
+        @Override
+        public void add(final long value) {
+            this.adder.add(value);
+        }
+
+        @Override
+        public long sum() {
+            return this.adder.sum();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.company.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event of one query of an instrumented storage, the duration of the event is the query time
+ */
+@Name("org.company.StorageQuery")
+@Label("Storage Query")
+@Category("Company")
+@Description("A query of the company employee storage")
+public final class StorageQueryEvent extends Event {
+    @Label("Query")
+    String query;
+
+    @Label("Results")
+    long results;
+
+    /**
+     * Commits the event if it is recorded
+     * @param query The name of the query
+     * @param results The number of the results, -1 if the query has no countable result
+     */
+    public void end(final String query, final long results) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.query = query;
+            this.results = results;
+            this.commit();
+        }
+    }
+}
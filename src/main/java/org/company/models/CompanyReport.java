@@ -0,0 +1,15 @@
+package org.company.models;
+
+import java.util.Map;
+
+/**
+ * Class holding all reports of the company calculated in one pass over the employees
+ *
+ * @param tooLongReportingLines The employees with a too long reporting line mapped to the length of the line
+ * @param overpaidManagers The managers earning more than they should mapped to the salary difference
+ * @param underpaidManagers The managers earning less than they should mapped to the salary difference
+ */
+public record CompanyReport(Map<Employee, Integer> tooLongReportingLines,
+                            Map<Employee, Double> overpaidManagers,
+                            Map<Employee, Double> underpaidManagers) {
+}
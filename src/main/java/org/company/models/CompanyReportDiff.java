@@ -0,0 +1,67 @@
+package org.company.models;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class holding the difference between the reports of two versions of the company
+ * <p>
+ * Only the employees affected by the changes are reported: the changed employees, their old and new
+ * managers and the subtrees of the moved, added and removed employees. The rows of all other employees
+ * are the same in both versions.
+ * </p>
+ *
+ * @param before The report rows of the affected employees in the older version
+ * @param after The report rows of the affected employees in the newer version
+ */
+public record CompanyReportDiff(CompanyReport before, CompanyReport after) {
+
+    /**
+     * @param older The full report of the older version
+     * @return The full report of the newer version: the older report without the rows of {@link #before()}
+     * and with the rows of {@link #after()}
+     */
+    public CompanyReport apply(final CompanyReport older) {
+        return new CompanyReport(apply(older.tooLongReportingLines(), this.before.tooLongReportingLines(),
+                this.after.tooLongReportingLines()),
+                apply(older.overpaidManagers(), this.before.overpaidManagers(), this.after.overpaidManagers()),
+                apply(older.underpaidManagers(), this.before.underpaidManagers(), this.after.underpaidManagers()));
+    }
+
+    /**
+     * @return The managers overpaid in the newer version which are not overpaid in the older version
+     */
+    public Map<Employee, Double> newlyOverpaidManagers() {
+        return newlyFlagged(this.before.overpaidManagers(), this.after.overpaidManagers());
+    }
+
+    /**
+     * @return The managers underpaid in the newer version which are not underpaid in the older version
+     */
+    public Map<Employee, Double> newlyUnderpaidManagers() {
+        return newlyFlagged(this.before.underpaidManagers(), this.after.underpaidManagers());
+    }
+
+    private static <V> Map<Employee, V> apply(final Map<Employee, V> older, final Map<Employee, V> removed,
+                                              final Map<Employee, V> added) {
+        final Map<Employee, V> result = new HashMap<>(older);
+        result.keySet().removeAll(removed.keySet());
+        result.putAll(added);
+        return result;
+    }
+
+    private static Map<Employee, Double> newlyFlagged(final Map<Employee, Double> before,
+                                                      final Map<Employee, Double> after) {
+        final Set<Long> flaggedBefore = new HashSet<>();
+        before.keySet().forEach(employee -> flaggedBefore.add(employee.id()));
+        final Map<Employee, Double> result = new HashMap<>();
+        after.forEach((employee, difference) -> {
+            if (!flaggedBefore.contains(employee.id())) {
+                result.put(employee, difference);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,20 @@
+package org.company.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class holding the result of the company structure analysis
+ *
+ * @param reportingLines The map where a key is employee connected to the CEO and value is a length of reporting line
+ * @param diagnostics The problems of the structure, employees affected by them have no reporting line
+ */
+public record CompanyStructure(Map<Employee, Integer> reportingLines, List<StructureDiagnostic> diagnostics) {
+
+    /**
+     * @return true if every employee has a reporting line to the only CEO
+     */
+    public boolean isValid() {
+        return this.diagnostics.isEmpty();
+    }
+}
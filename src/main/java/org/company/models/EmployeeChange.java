@@ -0,0 +1,41 @@
+package org.company.models;
+
+import java.util.Objects;
+
+/**
+ * Class holding the change of one employee between two versions of the company
+ *
+ * @param before The employee in the older version, null if the employee is added
+ * @param after The employee in the newer version, null if the employee is removed
+ */
+public record EmployeeChange(Employee before, Employee after) {
+
+    /**
+     * @return The id of the changed employee
+     */
+    public long id() {
+        return Objects.nonNull(this.after) ? this.after.id() : this.before.id();
+    }
+
+    public boolean isAdded() {
+        return Objects.isNull(this.before);
+    }
+
+    public boolean isRemoved() {
+        return Objects.isNull(this.after);
+    }
+
+    /**
+     * @return true if the employee has another manager in the newer version
+     */
+    public boolean isMoved() {
+        return !this.isAdded() && !this.isRemoved() && !Objects.equals(this.before.managerId(), this.after.managerId());
+    }
+
+    /**
+     * @return true if the employee has another salary in the newer version
+     */
+    public boolean isSalaryChanged() {
+        return !this.isAdded() && !this.isRemoved() && Double.compare(this.before.salary(), this.after.salary()) != 0;
+    }
+}
@@ -0,0 +1,27 @@
+package org.company.models;
+
+/**
+ * Class holding the statistics of the salaries of the direct subordinates of a manager
+ *
+ * @param count The number of subordinates
+ * @param sum The sum of the salaries
+ * @param min The minimal salary
+ * @param max The maximal salary
+ * @param variance The population variance of the salaries
+ */
+public record SalaryStatistics(long count, double sum, double min, double max, double variance) {
+
+    /**
+     * @return The average salary, 0.0 if there are no subordinates
+     */
+    public double average() {
+        return this.count == 0 ? 0.0 : this.sum / this.count;
+    }
+
+    /**
+     * @return The population standard deviation of the salaries
+     */
+    public double standardDeviation() {
+        return Math.sqrt(this.variance);
+    }
+}
@@ -0,0 +1,15 @@
+package org.company.models;
+
+/**
+ * Class holding the multipliers of the average subordinate salary which define a salary difference
+ *
+ * @param big The manager earns too much above the average subordinate salary multiplied by this value
+ * @param small The manager earns too little below the average subordinate salary multiplied by this value
+ */
+public record SalaryThresholds(double big, double small) {
+    /**
+     * The default thresholds: a manager should earn at least 20% more than the average of the subordinates,
+     * but no more than 50% more
+     */
+    public static final SalaryThresholds DEFAULT = new SalaryThresholds(1.5, 1.2);
+}
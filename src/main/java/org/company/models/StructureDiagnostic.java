@@ -0,0 +1,34 @@
+package org.company.models;
+
+import java.util.List;
+
+/**
+ * Class holding a problem found in the company structure
+ *
+ * @param type The type of the problem
+ * @param employeeIds The employees causing the problem: the orphaned employee, the members of the cycle
+ *                    or the additional CEO
+ * @param managerId The id of the not existing manager of an orphaned employee, otherwise null
+ * @param affectedEmployees The number of employees without a reporting line to the CEO because of the problem
+ */
+public record StructureDiagnostic(Type type, List<Long> employeeIds, Long managerId, int affectedEmployees) {
+
+    public enum Type {
+        /**
+         * The manager of the employee doesn't exist, the employee and the subordinates are not connected to the CEO
+         */
+        ORPHAN,
+        /**
+         * The employees are managers of each other, the cycle and the subordinates are not connected to the CEO
+         */
+        CYCLE,
+        /**
+         * More than one employee has no manager
+         */
+        MULTIPLE_CEO,
+        /**
+         * No employee without a manager exists
+         */
+        NO_CEO
+    }
+}
@@ -0,0 +1,18 @@
+package org.company.models;
+
+/**
+ * Class holding the aggregates of all direct and indirect subordinates of a manager
+ *
+ * @param headcount The number of subordinates
+ * @param totalSalary The sum of the salaries of the subordinates
+ * @param maxDepth The number of levels below the manager, 0 for an employee without subordinates
+ */
+public record SubtreeSummary(long headcount, double totalSalary, int maxDepth) {
+
+    /**
+     * @return The average salary of the subordinates, 0.0 if there are no subordinates
+     */
+    public double averageSalary() {
+        return this.headcount == 0 ? 0.0 : this.totalSalary / this.headcount;
+    }
+}
@@ -0,0 +1,238 @@
+package org.company.parser;
+
+import org.company.metrics.IngestionMetrics;
+import org.company.metrics.RateLimitedLogger;
+import org.company.models.Employee;
+import org.company.storage.BulkLoad;
+import org.company.storage.CompanyEmployeeStorage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An implementation of {@link EmployeeDataParser} for the columnar binary format written by
+ * {@link BinaryEmployeeDataWriter}
+ * <p>
+ * The data is read from a channel block by block, the columns of a block are read with bulk primitive reads
+ * and the employees are added to the storage in one bulk load. There is no text parsing, only the names
+ * of the block dictionary are decoded, once per block. The validation rules are the same as in
+ * {@link CSVEmployeeDataParser}: names must not be blank and only one CEO is accepted.
+ * Corrupted data stops the parsing, the employees of the blocks read before are kept.
+ * </p>
+ */
+public class BinaryEmployeeDataParser implements EmployeeDataParser {
+    private static final Logger LOGGER = Logger.getLogger(BinaryEmployeeDataParser.class.getName());
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * The maximal size of one name, protects the reader from allocating huge arrays for corrupted data
+     */
+    private static final int MAX_NAME_LENGTH = 1 << 16;
+    /**
+     * The average size of a row used to estimate the number of employees in a file: the columns of a row
+     * take 33 bytes, the names are shared in the block dictionary
+     */
+    private static final int ESTIMATED_ROW_LENGTH = 36;
+
+    private final CompanyEmployeeStorage companyEmployeeStorage;
+
+    public BinaryEmployeeDataParser(final CompanyEmployeeStorage storage) {
+        this.companyEmployeeStorage = storage;
+    }
+
+    /**
+     * @param filePath The path to the binary file with employee data
+     */
+    @Override
+    public void addNewEmployees(final String filePath) {
+        final IngestionMetrics metrics = new IngestionMetrics("binary", filePath);
+        try (final FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            metrics.bytesRead(size);
+            this.read(channel, (int) Math.min(Integer.MAX_VALUE, size / ESTIMATED_ROW_LENGTH), metrics);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, String.format("Failed to process file at: %s", filePath), ex);
+        }
+    }
+
+    /**
+     * @param input The employee data in the binary format, the stream is not closed
+     */
+    @Override
+    public void addNewEmployees(final InputStream input) {
+        this.addNewEmployees(Channels.newChannel(input));
+    }
+
+    /**
+     * @param channel The employee data in the binary format, the channel is not closed
+     */
+    @Override
+    public void addNewEmployees(final ReadableByteChannel channel) {
+        try {
+            this.read(channel, 0, new IngestionMetrics("binary", "channel"));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to process the channel", ex);
+        }
+    }
+
+    private void read(final ReadableByteChannel channel, final int expectedRows, final IngestionMetrics metrics)
+            throws IOException {
+        final BlockReader reader = new BlockReader(channel);
+        if (reader.readInt() != BinaryEmployeeDataWriter.MAGIC) {
+            throw new IOException("Not a binary employee data");
+        }
+        final int version = reader.readInt();
+        if (version != BinaryEmployeeDataWriter.FORMAT_VERSION) {
+            throw new IOException("Unsupported binary employee data version " + version);
+        }
+        final BulkLoad load = this.companyEmployeeStorage.beginBulkLoad(expectedRows);
+        final RateLimitedLogger rejectionLogger =
+                new RateLimitedLogger(LOGGER, CSVEmployeeDataParser.REJECTIONS_PER_SECOND);
+        try {
+            this.readBlocks(reader, load, metrics, rejectionLogger);
+        } finally {
+            load.commit();
+            metrics.finish(load.size());
+            rejectionLogger.logSuppressed(Level.WARNING);
+        }
+    }
+
+    private void readBlocks(final BlockReader reader, final BulkLoad load, final IngestionMetrics metrics,
+                            final RateLimitedLogger rejectionLogger) throws IOException {
+        final long[] ids = new long[BinaryEmployeeDataWriter.BLOCK_SIZE];
+        final double[] salaries = new double[BinaryEmployeeDataWriter.BLOCK_SIZE];
+        final long[] managerIds = new long[BinaryEmployeeDataWriter.BLOCK_SIZE];
+        final byte[] hasManager = new byte[BinaryEmployeeDataWriter.BLOCK_SIZE];
+        final int[] firstNames = new int[BinaryEmployeeDataWriter.BLOCK_SIZE];
+        final int[] lastNames = new int[BinaryEmployeeDataWriter.BLOCK_SIZE];
+        long firstRow = 0;
+        int rows;
+        while ((rows = reader.readInt()) != 0) {
+            if (rows < 0 || rows > BinaryEmployeeDataWriter.BLOCK_SIZE) {
+                throw new IOException("Invalid block size " + rows);
+            }
+            reader.readLongs(ids, rows);
+            reader.readDoubles(salaries, rows);
+            reader.readLongs(managerIds, rows);
+            reader.readBytes(hasManager, rows);
+            final String[] dictionary = reader.readDictionary(2 * rows);
+            reader.readInts(firstNames, rows);
+            reader.readInts(lastNames, rows);
+            for (int row = 0; row < rows; row++) {
+                if (firstNames[row] < 0 || firstNames[row] >= dictionary.length
+                        || lastNames[row] < 0 || lastNames[row] >= dictionary.length) {
+                    throw new IOException("Invalid name reference at row " + (firstRow + row));
+                }
+                final Employee employee = new Employee(ids[row], dictionary[firstNames[row]],
+                        dictionary[lastNames[row]], salaries[row], hasManager[row] != 0 ? managerIds[row] : null);
+                if (employee.firstName().isBlank() || employee.lastName().isBlank()
+                        || (hasManager[row] == 0 && load.isCEODefined())) {
+                    metrics.reject();
+                    if (rejectionLogger.isLoggable(Level.WARNING)) {
+                        rejectionLogger.log(Level.WARNING, String.format("Invalid employee at row %d: %s",
+                                firstRow + row, employee), null);
+                    }
+                    continue;
+                }
+                load.add(employee);
+            }
+            firstRow += rows;
+        }
+    }
+
+    /**
+     * Buffered little-endian reads from the channel
+     */
+    private static final class BlockReader {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        private BlockReader(final ReadableByteChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN).flip();
+        }
+
+        private int readInt() throws IOException {
+            this.ensure(Integer.BYTES);
+            return this.buffer.getInt();
+        }
+
+        private void readLongs(final long[] values, final int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                this.ensure(Long.BYTES);
+                values[i] = this.buffer.getLong();
+            }
+        }
+
+        private void readDoubles(final double[] values, final int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                this.ensure(Double.BYTES);
+                values[i] = this.buffer.getDouble();
+            }
+        }
+
+        private void readInts(final int[] values, final int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                this.ensure(Integer.BYTES);
+                values[i] = this.buffer.getInt();
+            }
+        }
+
+        private void readBytes(final byte[] values, final int count) throws IOException {
+            int offset = 0;
+            while (offset < count) {
+                this.ensure(1);
+                final int chunk = Math.min(this.buffer.remaining(), count - offset);
+                this.buffer.get(values, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        private String[] readDictionary(final int maxSize) throws IOException {
+            final int size = this.readInt();
+            if (size < 0 || size > maxSize) {
+                throw new IOException("Invalid dictionary size " + size);
+            }
+            final String[] dictionary = new String[size];
+            for (int i = 0; i < size; i++) {
+                final int length = this.readInt();
+                if (length < 0 || length > MAX_NAME_LENGTH) {
+                    throw new IOException("Invalid name length " + length);
+                }
+                final byte[] bytes = new byte[length];
+                this.readBytes(bytes, length);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return dictionary;
+        }
+
+        /**
+         * Refills the buffer until it has the number of bytes
+         */
+        private void ensure(final int bytes) throws IOException {
+            if (this.buffer.remaining() >= bytes) {
+                return;
+            }
+            this.buffer.compact();
+            try {
+                while (this.buffer.position() < bytes) {
+                    if (this.channel.read(this.buffer) < 0) {
+                        throw new EOFException("Truncated binary employee data");
+                    }
+                }
+            } finally {
+                this.buffer.flip();
+            }
+        }
+    }
+}
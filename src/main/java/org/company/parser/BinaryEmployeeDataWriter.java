@@ -0,0 +1,166 @@
+package org.company.parser;
+
+import org.company.models.Employee;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writer of the columnar binary employee format read by {@link BinaryEmployeeDataParser}
+ * <p>
+ * The employees are written in blocks of up to {@link #BLOCK_SIZE} rows. A block stores every field as a column
+ * and the names as references into the dictionary of the block. All numbers are little-endian.
+ * </p>
+ * <pre>
+ * file:  int magic, int format version, block*, int 0
+ * block: int rows, long[rows] ids, double[rows] salaries, long[rows] manager ids, byte[rows] has manager,
+ *        int dictionary size, (int length, UTF-8 bytes)[dictionary size],
+ *        int[rows] first name references, int[rows] last name references
+ * </pre>
+ */
+public class BinaryEmployeeDataWriter implements Closeable {
+    static final int MAGIC = 0x424D4543;
+    static final int FORMAT_VERSION = 1;
+    static final int BLOCK_SIZE = 8192;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final long[] ids;
+    private final double[] salaries;
+    private final long[] managerIds;
+    private final boolean[] hasManager;
+    private final int[] firstNames;
+    private final int[] lastNames;
+    private final Map<String, Integer> dictionary;
+    private final List<byte[]> names;
+    private int rows;
+
+    /**
+     * @param channel The destination, the header is written immediately and the channel is closed with the writer
+     * @throws IOException If the header can't be written
+     */
+    public BinaryEmployeeDataWriter(final WritableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.ids = new long[BLOCK_SIZE];
+        this.salaries = new double[BLOCK_SIZE];
+        this.managerIds = new long[BLOCK_SIZE];
+        this.hasManager = new boolean[BLOCK_SIZE];
+        this.firstNames = new int[BLOCK_SIZE];
+        this.lastNames = new int[BLOCK_SIZE];
+        this.dictionary = new HashMap<>();
+        this.names = new ArrayList<>();
+        this.buffer.putInt(MAGIC).putInt(FORMAT_VERSION);
+    }
+
+    /**
+     * @param employee The employee, a full block is written to the channel
+     * @throws IOException If the block can't be written
+     */
+    public void write(final Employee employee) throws IOException {
+        this.ids[this.rows] = employee.id();
+        this.salaries[this.rows] = employee.salary();
+        this.hasManager[this.rows] = Objects.nonNull(employee.managerId());
+        this.managerIds[this.rows] = this.hasManager[this.rows] ? employee.managerId() : 0L;
+        this.firstNames[this.rows] = this.reference(employee.firstName());
+        this.lastNames[this.rows] = this.reference(employee.lastName());
+        if (++this.rows == BLOCK_SIZE) {
+            this.writeBlock();
+        }
+    }
+
+    /**
+     * Writes the last block and the end of the data, closes the channel
+     * @throws IOException If the data can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.writeBlock();
+            this.ensureRemaining(Integer.BYTES);
+            this.buffer.putInt(0);
+            this.flushBuffer();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    private int reference(final String name) {
+        return this.dictionary.computeIfAbsent(name, key -> {
+            this.names.add(key.getBytes(StandardCharsets.UTF_8));
+            return this.names.size() - 1;
+        });
+    }
+
+    private void writeBlock() throws IOException {
+        if (this.rows == 0) {
+            return;
+        }
+        this.ensureRemaining(Integer.BYTES);
+        this.buffer.putInt(this.rows);
+        for (int row = 0; row < this.rows; row++) {
+            this.ensureRemaining(Long.BYTES);
+            this.buffer.putLong(this.ids[row]);
+        }
+        for (int row = 0; row < this.rows; row++) {
+            this.ensureRemaining(Double.BYTES);
+            this.buffer.putDouble(this.salaries[row]);
+        }
+        for (int row = 0; row < this.rows; row++) {
+            this.ensureRemaining(Long.BYTES);
+            this.buffer.putLong(this.managerIds[row]);
+        }
+        for (int row = 0; row < this.rows; row++) {
+            this.ensureRemaining(1);
+            this.buffer.put((byte) (this.hasManager[row] ? 1 : 0));
+        }
+        this.ensureRemaining(Integer.BYTES);
+        this.buffer.putInt(this.names.size());
+        for (byte[] name : this.names) {
+            this.ensureRemaining(Integer.BYTES);
+            this.buffer.putInt(name.length);
+            int offset = 0;
+            while (offset < name.length) {
+                this.ensureRemaining(1);
+                final int chunk = Math.min(this.buffer.remaining(), name.length - offset);
+                this.buffer.put(name, offset, chunk);
+                offset += chunk;
+            }
+        }
+        for (int row = 0; row < this.rows; row++) {
+            this.ensureRemaining(Integer.BYTES);
+            this.buffer.putInt(this.firstNames[row]);
+        }
+        for (int row = 0; row < this.rows; row++) {
+            this.ensureRemaining(Integer.BYTES);
+            this.buffer.putInt(this.lastNames[row]);
+        }
+        this.rows = 0;
+        this.dictionary.clear();
+        this.names.clear();
+    }
+
+    private void ensureRemaining(final int bytes) throws IOException {
+        if (this.buffer.remaining() < bytes) {
+            this.flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
@@ -1,11 +1,18 @@
 package org.company.parser;
 
+import org.company.metrics.IngestionMetrics;
+import org.company.metrics.RateLimitedLogger;
 import org.company.models.Employee;
+import org.company.storage.BulkLoad;
 import org.company.storage.CompanyEmployeeStorage;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,6 +22,12 @@ import java.util.logging.Logger;
  */
 public class CSVEmployeeDataParser implements EmployeeDataParser {
     private static final Logger LOGGER = Logger.getLogger(CSVEmployeeDataParser.class.getName());
+    /**
+     * The number of rejected lines of one input logged per second, the rest are only counted
+     */
+    static final int REJECTIONS_PER_SECOND = 10;
+    static final String INVALID_FORMAT_MESSAGE = "Invalid CSV format at line: ";
+    static final String PARSING_ERROR_MESSAGE = "Skipping line due to parsing error: ";
     private static final int ID_INDEX = 0;
     private static final int FIRST_NAME_INDEX = 1;
     private static final int LAST_NAME_INDEX = 2;
@@ -22,6 +35,10 @@ public class CSVEmployeeDataParser implements EmployeeDataParser {
     private static final int MANAGER_ID_INDEX = 4;
     private static final int EXPECTED_FIELDS = 5;
     private static final int EXPECTED_FIELDS_WITHOUT_MANAGER = 4;
+    /**
+     * The average length of a line used to estimate the number of employees in a file
+     */
+    static final int ESTIMATED_LINE_LENGTH = 32;
 
     private final CompanyEmployeeStorage companyEmployeeStorage;
 
@@ -41,26 +58,66 @@ public class CSVEmployeeDataParser implements EmployeeDataParser {
      */
     @Override
     public void addNewEmployees(String filePath){
-        String line;
+        final Path file = Path.of(filePath);
+        final IngestionMetrics metrics = new IngestionMetrics("csv", filePath);
+        // the reader replaces malformed bytes like the other parsers, a strict decoder would reject the whole file
+        try (final BufferedReader br = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            final long size = Files.size(file);
+            metrics.bytesRead(size);
+            this.addNewEmployees(br, (int) Math.min(Integer.MAX_VALUE, size / ESTIMATED_LINE_LENGTH), metrics);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, String.format("Failed to process file at: %s", filePath), ex);
+        }
+    }
+
+    /**
+     * The method reads an employee data in the csv format from the stream, the stream is not closed.
+     *
+     * @param input The employee data
+     */
+    @Override
+    public void addNewEmployees(final InputStream input) {
+        try {
+            this.addNewEmployees(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), 0,
+                    new IngestionMetrics("csv", "stream"));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to process the input stream", ex);
+        }
+    }
 
-        try (final BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+    private void addNewEmployees(final BufferedReader br, final int expectedRows, final IngestionMetrics metrics)
+            throws IOException {
+        final BulkLoad load = this.companyEmployeeStorage.beginBulkLoad(expectedRows);
+        final RateLimitedLogger rejectionLogger = new RateLimitedLogger(LOGGER, REJECTIONS_PER_SECOND);
+        String line;
+        try {
             br.readLine(); // skip header
             while ((line = br.readLine()) != null) {
                 final String[] values = line.split(",");
-                if (!this.isValidCSVFormat(values)) {
-                    LOGGER.log(Level.WARNING, "Invalid CSV format at line: " + line);
+                if (!isValidCSVFormat(values, load.isCEODefined())) {
+                    metrics.reject();
+                    if (rejectionLogger.isLoggable(Level.WARNING)) {
+                        rejectionLogger.log(Level.WARNING, INVALID_FORMAT_MESSAGE + line, null);
+                    }
                     continue;
                 }
                 try {
-                    this.companyEmployeeStorage.addEmployee(this.parseEmployeeFromCSVLine(values));
+                    load.add(parseEmployeeFromCSVLine(values));
                 } catch (IllegalArgumentException e) {
-                    LOGGER.log(Level.WARNING, "Skipping line due to parsing error: " + line, e);
+                    metrics.reject();
+                    if (rejectionLogger.isLoggable(Level.WARNING)) {
+                        rejectionLogger.log(Level.WARNING, PARSING_ERROR_MESSAGE + line, e);
+                    }
                 }
             }
-        } catch (IOException ex) {
-            LOGGER.log(Level.WARNING, String.format("Failed to process file at: %s", filePath), ex);
+        } finally {
+            load.commit();
+            metrics.finish(load.size());
+            rejectionLogger.logSuppressed(Level.WARNING);
         }
     }
+
     /**
      * The method to validate expected CSV format:
      * id,firstName,lastName,salary,managerId
@@ -72,9 +129,29 @@ public class CSVEmployeeDataParser implements EmployeeDataParser {
      * 3. All fields including managerId for non-CEO employees
      *
      * @param values The expected employee information
+     * @param ceoDefined true if a line without a manager is a second CEO
      * @return Is format valid
      */
-    private boolean isValidCSVFormat(final String[] values) {
+    static boolean isValidCSVFormat(final String[] values, final boolean ceoDefined) {
+        if (!hasRequiredFields(values)) {
+            return false;
+        }
+        return values.length == EXPECTED_FIELDS || !ceoDefined;
+    }
+
+    /**
+     * @param values The fields of a line
+     * @return The id of the employee or null if the id is not a number
+     */
+    static Long parseId(final String[] values) {
+        try {
+            return Long.parseLong(values[ID_INDEX].trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static boolean hasRequiredFields(final String[] values) {
         if (values == null || values.length == 0) {
             return false;
         }
@@ -88,13 +165,13 @@ public class CSVEmployeeDataParser implements EmployeeDataParser {
         }
 
         if (values.length == EXPECTED_FIELDS_WITHOUT_MANAGER) {
-            return !companyEmployeeStorage.isCEODefined();
+            return true;
         }
 
         return values.length == EXPECTED_FIELDS && !values[MANAGER_ID_INDEX].trim().isEmpty();
     }
 
-    private Employee parseEmployeeFromCSVLine(final String[] values) {
+    static Employee parseEmployeeFromCSVLine(final String[] values) {
         try {
             final Long id = Long.parseLong(values[ID_INDEX].trim());
             final String firstName = values[FIRST_NAME_INDEX].trim();
@@ -103,7 +180,6 @@ public class CSVEmployeeDataParser implements EmployeeDataParser {
             final Long managerId = values.length > MANAGER_ID_INDEX ? Long.parseLong(values[MANAGER_ID_INDEX].trim()) : null;
             return new Employee(id, firstName, lastName, salary, managerId);
         } catch (NumberFormatException ex) {
-            LOGGER.log(Level.WARNING, "Failed to parse employee fields", ex);
             throw new IllegalArgumentException("Invalid field format", ex);
         }
     }
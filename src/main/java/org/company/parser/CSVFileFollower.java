@@ -0,0 +1,286 @@
+package org.company.parser;
+
+import org.company.metrics.IngestionMetrics;
+import org.company.metrics.RateLimitedLogger;
+import org.company.models.Employee;
+import org.company.storage.BulkLoad;
+import org.company.storage.CompanyEmployeeStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Follows a CSV file which is appended to and adds only the appended lines to the storage
+ * <p>
+ * The follower keeps the byte offset of the end of the last complete line it has read. Every {@link #poll()}
+ * reads the file from that offset and adds the complete lines in one {@link BulkLoad}, a line without
+ * the trailing '\n' is left for the next poll. The storage replaces an employee with an existing id,
+ * so a change row of an employee replaces the salary and the manager of the employee. The format and
+ * the validation rules are the same as in {@link CSVEmployeeDataParser}, a line without a manager is accepted
+ * while there is no CEO or if it has the id of the CEO read before by this follower. A file shorter than
+ * the offset was replaced and is read again from the beginning.
+ * </p>
+ * {@link #start(Duration)} polls the file from a daemon thread whenever the {@link WatchService} reports
+ * a change of the directory of the file and at least once per poll interval, so an appended line is added
+ * within the poll interval also on the file systems without change notifications. The storage is changed
+ * by the thread of the follower, so the storage queried concurrently has to be thread-safe, e.g.
+ * a {@link org.company.storage.ConcurrentCompanyEmployeeStorage}.
+ */
+public class CSVFileFollower implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CSVFileFollower.class.getName());
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final CompanyEmployeeStorage companyEmployeeStorage;
+    private final Path file;
+    private final Runnable onChange;
+    private final RateLimitedLogger rejectionLogger;
+    private final ByteBuffer readBuffer;
+    private byte[] lineBuffer;
+    private long offset;
+    private long lineNumber;
+    private Long ceoId;
+    private Thread follower;
+    private volatile boolean closed;
+
+    /**
+     * @param storage The storage to add employees to
+     * @param file The CSV file with a header line
+     * @param onChange Called by the polling thread after every poll which added employees
+     */
+    public CSVFileFollower(final CompanyEmployeeStorage storage, final Path file, final Runnable onChange) {
+        this.companyEmployeeStorage = storage;
+        this.file = file;
+        this.onChange = onChange;
+        this.rejectionLogger = new RateLimitedLogger(LOGGER, CSVEmployeeDataParser.REJECTIONS_PER_SECOND);
+        this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        this.lineBuffer = new byte[256];
+    }
+
+    /**
+     * Add the complete lines appended since the last poll. A missing file is treated as an empty one,
+     * the other read errors are logged and the lines read before the error are added.
+     *
+     * @return The number of added employees
+     */
+    public synchronized int poll() {
+        try (final FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < this.offset) {
+                LOGGER.log(Level.INFO, String.format("File %s was truncated, reading it from the beginning",
+                        this.file));
+                this.offset = 0;
+                this.lineNumber = 0;
+            }
+            if (size == this.offset) {
+                return 0;
+            }
+            return this.readAppendedLines(channel, size);
+        } catch (NoSuchFileException ex) {
+            return 0;
+        } catch (IOException ex) {
+            // a poll interrupted by close() fails on the closed channel
+            LOGGER.log(this.closed ? Level.FINE : Level.WARNING,
+                    String.format("Failed to follow file at: %s", this.file), ex);
+            return 0;
+        }
+    }
+
+    /**
+     * Start polling the file from a daemon thread
+     *
+     * @param pollInterval The maximal time between two polls
+     * @throws IllegalStateException If the follower is already started or closed
+     */
+    public synchronized void start(final Duration pollInterval) {
+        if (Objects.nonNull(this.follower) || this.closed) {
+            throw new IllegalStateException("The follower is already started or closed");
+        }
+        this.follower = new Thread(() -> this.follow(pollInterval), "csv-follower-" + this.file.getFileName());
+        this.follower.setDaemon(true);
+        this.follower.start();
+    }
+
+    /**
+     * @return The number of bytes of the file read up to the end of the last complete line
+     */
+    public synchronized long offset() {
+        return this.offset;
+    }
+
+    /**
+     * Stop polling, the poll in progress is finished
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        final Thread thread;
+        synchronized (this) {
+            thread = this.follower;
+        }
+        if (Objects.nonNull(thread) && thread != Thread.currentThread()) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void follow(final Duration pollInterval) {
+        final WatchService watchService = this.watchDirectory();
+        try {
+            while (!this.closed) {
+                if (Objects.isNull(watchService)) {
+                    Thread.sleep(pollInterval.toMillis());
+                } else {
+                    final WatchKey key = watchService.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (Objects.nonNull(key)) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                }
+                if (!this.closed) {
+                    this.poll();
+                }
+            }
+        } catch (InterruptedException ex) {
+            // closed
+        } finally {
+            if (Objects.nonNull(watchService)) {
+                try {
+                    watchService.close();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.FINE, "Failed to close the watch service", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The watch service reporting the changes of the directory of the file, null if the changes
+     * can't be watched and the file is only polled
+     */
+    private WatchService watchDirectory() {
+        final Path directory = this.file.toAbsolutePath().getParent();
+        WatchService watchService = null;
+        try {
+            watchService = this.file.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            return watchService;
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOGGER.log(Level.INFO, String.format("Can't watch %s, the file is polled", directory), ex);
+            if (Objects.nonNull(watchService)) {
+                try {
+                    watchService.close();
+                } catch (IOException closeEx) {
+                    ex.addSuppressed(closeEx);
+                }
+            }
+            return null;
+        }
+    }
+
+    private int readAppendedLines(final FileChannel channel, final long size) throws IOException {
+        final IngestionMetrics metrics = new IngestionMetrics("csv", this.file.toString());
+        metrics.bytesRead(size - this.offset);
+        final BulkLoad load = this.companyEmployeeStorage.beginBulkLoad(
+                (int) Math.min(Integer.MAX_VALUE, (size - this.offset) / CSVEmployeeDataParser.ESTIMATED_LINE_LENGTH));
+        try {
+            channel.position(this.offset);
+            int lineLength = 0;
+            while (channel.read(this.readBuffer) > 0) {
+                final byte[] bytes = this.readBuffer.array();
+                final int end = this.readBuffer.position();
+                int lineStart = 0;
+                for (int i = 0; i < end; i++) {
+                    if (bytes[i] != '\n') {
+                        continue;
+                    }
+                    lineLength = this.appendToLine(bytes, lineStart, i, lineLength);
+                    this.offset += lineLength + 1;
+                    this.acceptLine(lineLength, load, metrics);
+                    lineLength = 0;
+                    lineStart = i + 1;
+                }
+                lineLength = this.appendToLine(bytes, lineStart, end, lineLength);
+                this.readBuffer.clear();
+            }
+        } finally {
+            this.readBuffer.clear();
+            load.commit();
+            metrics.finish(load.size());
+            this.rejectionLogger.logSuppressed(Level.WARNING);
+            if (load.size() > 0) {
+                this.onChange.run();
+            }
+        }
+        return load.size();
+    }
+
+    /**
+     * @return The length of the line with the bytes from {@code from} to {@code to}
+     */
+    private int appendToLine(final byte[] bytes, final int from, final int to, final int lineLength) {
+        final int newLength = lineLength + to - from;
+        if (newLength > this.lineBuffer.length) {
+            this.lineBuffer = Arrays.copyOf(this.lineBuffer, Math.max(newLength, this.lineBuffer.length << 1));
+        }
+        System.arraycopy(bytes, from, this.lineBuffer, lineLength, to - from);
+        return newLength;
+    }
+
+    private void acceptLine(final int lineLength, final BulkLoad load, final IngestionMetrics metrics) {
+        if (this.lineNumber++ == 0) {
+            return; // skip header
+        }
+        final int length = lineLength > 0 && this.lineBuffer[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+        final String line = new String(this.lineBuffer, 0, length, StandardCharsets.UTF_8);
+        final String[] values = line.split(",");
+        if (!CSVEmployeeDataParser.isValidCSVFormat(values, load.isCEODefined() && !this.isFollowedCEO(values))) {
+            this.reject(metrics, CSVEmployeeDataParser.INVALID_FORMAT_MESSAGE, line, null);
+            return;
+        }
+        final Employee employee;
+        try {
+            employee = CSVEmployeeDataParser.parseEmployeeFromCSVLine(values);
+        } catch (IllegalArgumentException ex) {
+            this.reject(metrics, CSVEmployeeDataParser.PARSING_ERROR_MESSAGE, line, ex);
+            return;
+        }
+        if (Objects.isNull(employee.managerId())) {
+            this.ceoId = employee.id();
+        }
+        load.add(employee);
+    }
+
+    /**
+     * @return true if the line has the id of the CEO read before by this follower, an update of the CEO
+     */
+    private boolean isFollowedCEO(final String[] values) {
+        return Objects.nonNull(this.ceoId) && this.ceoId.equals(CSVEmployeeDataParser.parseId(values));
+    }
+
+    private void reject(final IngestionMetrics metrics, final String message, final String line,
+                        final Throwable thrown) {
+        metrics.reject();
+        if (this.rejectionLogger.isLoggable(Level.WARNING)) {
+            this.rejectionLogger.log(Level.WARNING, message + line, thrown);
+        }
+    }
+}
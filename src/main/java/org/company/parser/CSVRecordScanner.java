@@ -0,0 +1,243 @@
+package org.company.parser;
+
+import org.company.models.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte level scanner for a single CSV record: id,firstName,lastName,salary,managerId
+ * <p>
+ * The scanner works directly on a {@link ByteBuffer} range without creating a line {@link String}
+ * or a {@link String} array per field. Numeric fields are parsed into primitives and names are only
+ * decoded by {@link #toEmployee()}, so rejected lines never allocate.
+ * The validation rules are the same as in {@link CSVEmployeeDataParser}, including the
+ * {@link String#split(String)} behaviour of dropping trailing empty fields.
+ * </p>
+ * The instance keeps the state of the last scanned record and is reused from line to line,
+ * so it is not thread safe.
+ */
+final class CSVRecordScanner {
+    static final int ID_INDEX = 0;
+    static final int FIRST_NAME_INDEX = 1;
+    static final int LAST_NAME_INDEX = 2;
+    static final int SALARY_INDEX = 3;
+    static final int MANAGER_ID_INDEX = 4;
+    static final int EXPECTED_FIELDS = 5;
+    static final int EXPECTED_FIELDS_WITHOUT_MANAGER = 4;
+
+    /**
+     * The maximal number of digits which are parsed without a fallback to the JDK parsers.
+     * Up to 15 decimal digits fit into the 53-bit mantissa of a double exactly.
+     */
+    private static final int MAX_FAST_DOUBLE_DIGITS = 15;
+    private static final int MAX_FAST_LONG_DIGITS = 18;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final int[] fieldStart = new int[EXPECTED_FIELDS];
+    private final int[] fieldEnd = new int[EXPECTED_FIELDS];
+    private ByteBuffer buffer;
+    private int lineStart;
+    private int lineEnd;
+    private int fieldCount;
+    private long id;
+    private double salary;
+    private long managerId;
+
+    /**
+     * Splits the line into fields and validates the structure of the record.
+     * The method checks the presence of the mandatory fields (id, first name, last name, salary)
+     * and the manager id for a record with five fields. The CEO rule depends on the storage state
+     * and has to be checked by the caller with {@link #hasManager()}.
+     *
+     * @param buffer The buffer with the data
+     * @param start The index of the first byte of the line
+     * @param end The index after the last byte of the line (line terminator excluded)
+     * @return Is the record structure valid
+     */
+    boolean split(final ByteBuffer buffer, final int start, final int end) {
+        this.buffer = buffer;
+        this.lineStart = start;
+        this.lineEnd = end;
+
+        int field = 0;
+        int nonEmptyFields = 0;
+        int position = start;
+        while (true) {
+            int fieldEndIndex = position;
+            while (fieldEndIndex < end && buffer.get(fieldEndIndex) != ',') {
+                fieldEndIndex++;
+            }
+            if (field < EXPECTED_FIELDS) {
+                this.fieldStart[field] = position;
+                this.fieldEnd[field] = fieldEndIndex;
+            } else if (fieldEndIndex > position) {
+                return false;
+            }
+            if (fieldEndIndex > position) {
+                nonEmptyFields = field + 1;
+            }
+            field++;
+            if (fieldEndIndex >= end) {
+                break;
+            }
+            position = fieldEndIndex + 1;
+        }
+        // String.split drops trailing empty fields
+        this.fieldCount = Math.min(nonEmptyFields, EXPECTED_FIELDS);
+
+        if (this.fieldCount < EXPECTED_FIELDS_WITHOUT_MANAGER) {
+            return false;
+        }
+        for (int i = 0; i < this.fieldCount; i++) {
+            this.trim(i);
+        }
+        for (int i = ID_INDEX; i <= SALARY_INDEX; i++) {
+            if (this.fieldStart[i] == this.fieldEnd[i]) {
+                return false;
+            }
+        }
+        return this.fieldCount == EXPECTED_FIELDS_WITHOUT_MANAGER ||
+                this.fieldStart[MANAGER_ID_INDEX] != this.fieldEnd[MANAGER_ID_INDEX];
+    }
+
+    /**
+     * @return Is a manager specified in the last split record, only the CEO has no manager
+     */
+    boolean hasManager() {
+        return this.fieldCount == EXPECTED_FIELDS;
+    }
+
+    /**
+     * Parses the numeric fields of the last split record into primitives.
+     *
+     * @throws NumberFormatException If a numeric field has an invalid format
+     */
+    void parseNumbers() throws NumberFormatException {
+        this.id = this.parseLong(ID_INDEX);
+        this.salary = this.parseDouble(SALARY_INDEX);
+        this.managerId = this.hasManager() ? this.parseLong(MANAGER_ID_INDEX) : 0L;
+    }
+
+    long id() {
+        return this.id;
+    }
+
+    double salary() {
+        return this.salary;
+    }
+
+    long managerId() {
+        return this.managerId;
+    }
+
+    /**
+     * Materializes the employee of the last parsed record, names are decoded only here.
+     *
+     * @return The employee instance
+     */
+    Employee toEmployee() {
+        return new Employee(this.id, this.decode(FIRST_NAME_INDEX), this.decode(LAST_NAME_INDEX),
+                this.salary, this.hasManager() ? this.managerId : null);
+    }
+
+    /**
+     * @return The raw text of the last scanned line, used for error reporting only
+     */
+    String line() {
+        return this.decode(this.lineStart, this.lineEnd);
+    }
+
+    private void trim(final int field) {
+        int start = this.fieldStart[field];
+        int end = this.fieldEnd[field];
+        while (start < end && isWhitespace(this.buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(this.buffer.get(end - 1))) {
+            end--;
+        }
+        this.fieldStart[field] = start;
+        this.fieldEnd[field] = end;
+    }
+
+    /**
+     * The same set of characters as removed by {@link String#trim()}.
+     */
+    private static boolean isWhitespace(final byte value) {
+        return (value & 0xFF) <= ' ';
+    }
+
+    private long parseLong(final int field) {
+        final int start = this.fieldStart[field];
+        final int end = this.fieldEnd[field];
+        int position = start;
+        boolean negative = false;
+        final byte first = this.buffer.get(position);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            position++;
+        }
+        if (position == end || end - position > MAX_FAST_LONG_DIGITS) {
+            return Long.parseLong(this.decode(start, end));
+        }
+        long result = 0;
+        for (; position < end; position++) {
+            final int digit = this.buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(this.decode(start, end));
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    private double parseDouble(final int field) {
+        final int start = this.fieldStart[field];
+        final int end = this.fieldEnd[field];
+        int position = start;
+        boolean negative = false;
+        final byte first = this.buffer.get(position);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; position < end; position++) {
+            final byte value = this.buffer.get(position);
+            if (value == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            final int digit = value - '0';
+            if (digit < 0 || digit > 9 || ++digits > MAX_FAST_DOUBLE_DIGITS) {
+                return Double.parseDouble(this.decode(start, end));
+            }
+            mantissa = mantissa * 10 + digit;
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0) {
+            return Double.parseDouble(this.decode(start, end));
+        }
+        // both operands are exact doubles so the division is correctly rounded like Double.parseDouble
+        final double result = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -result : result;
+    }
+
+    private String decode(final int field) {
+        return this.decode(this.fieldStart[field], this.fieldEnd[field]);
+    }
+
+    private String decode(final int start, final int end) {
+        final byte[] bytes = new byte[end - start];
+        this.buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,9 +1,67 @@
 package org.company.parser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 /**
- * The interface defines the contract for parsing employee data from various sources (CSV, JSON, or XML)
- *
+ * The interface defines the contract for parsing employee data from various sources (CSV, JSON-lines or binary)
+ * <p>
+ * The data can come from a file, a stream or a channel. The parsers reading the data sequentially override
+ * the stream method, the parsers which need a file (memory mapping) get a temporary copy of the stream.
+ * The sources are not closed by the parsers.
+ * </p>
  */
 public interface EmployeeDataParser {
     void addNewEmployees(String filePath);
+
+    /**
+     * @param file The path to the file with employee data
+     */
+    default void addNewEmployees(final Path file) {
+        this.addNewEmployees(file.toString());
+    }
+
+    /**
+     * By default the stream is copied into a temporary file which is parsed by {@link #addNewEmployees(String)}.
+     * A stream which can't be copied is logged and skipped like a file which can't be read.
+     *
+     * @param input The employee data
+     */
+    default void addNewEmployees(final InputStream input) {
+        final Logger logger = Logger.getLogger(EmployeeDataParser.class.getName());
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile("employees", ".tmp");
+            Files.copy(input, temporary, StandardCopyOption.REPLACE_EXISTING);
+            this.addNewEmployees(temporary.toString());
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Failed to copy the employee data", ex);
+        } finally {
+            if (Objects.nonNull(temporary)) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ex) {
+                    logger.log(Level.WARNING, String.format("Failed to delete the temporary file at: %s", temporary),
+                            ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * By default the channel is read as a stream by {@link #addNewEmployees(InputStream)}
+     *
+     * @param channel The employee data
+     */
+    default void addNewEmployees(final ReadableByteChannel channel) {
+        this.addNewEmployees(Channels.newInputStream(channel));
+    }
 }
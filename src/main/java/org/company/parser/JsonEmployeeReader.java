@@ -0,0 +1,241 @@
+package org.company.parser;
+
+import org.company.models.Employee;
+
+/**
+ * Reader of one employee from a JSON object, e.g.
+ * {@code {"id":2,"firstName":"Jane","lastName":"Smith","salary":60000,"managerId":1}}
+ * <p>
+ * The reader works directly on the line without building a tree of JSON values. The manager id may be missing
+ * or null, unknown fields are skipped.
+ * </p>
+ */
+final class JsonEmployeeReader {
+    private static final String NULL = "null";
+
+    private final String text;
+    private int position;
+
+    private JsonEmployeeReader(final String text) {
+        this.text = text;
+    }
+
+    /**
+     * @param text The JSON object
+     * @return The employee or null if a mandatory field is missing, null or blank
+     * @throws IllegalArgumentException If the text is not a JSON object or a field has a wrong type
+     */
+    static Employee read(final String text) {
+        return new JsonEmployeeReader(text).readEmployee();
+    }
+
+    private Employee readEmployee() {
+        Long id = null;
+        String firstName = null;
+        String lastName = null;
+        Double salary = null;
+        Long managerId = null;
+        this.skipWhitespace();
+        this.expect('{');
+        this.skipWhitespace();
+        if (this.peek() == '}') {
+            this.position++;
+        } else {
+            while (true) {
+                this.skipWhitespace();
+                final String key = this.readString();
+                this.skipWhitespace();
+                this.expect(':');
+                this.skipWhitespace();
+                switch (key) {
+                    case "id" -> id = this.readLong();
+                    case "firstName" -> firstName = this.readNullableString();
+                    case "lastName" -> lastName = this.readNullableString();
+                    case "salary" -> salary = this.readDouble();
+                    case "managerId" -> managerId = this.readLong();
+                    default -> this.skipValue();
+                }
+                this.skipWhitespace();
+                final char separator = this.next();
+                if (separator == '}') {
+                    break;
+                }
+                if (separator != ',') {
+                    throw this.malformed();
+                }
+            }
+        }
+        this.skipWhitespace();
+        if (this.position != this.text.length()) {
+            throw this.malformed();
+        }
+        if (id == null || salary == null || firstName == null || firstName.isBlank()
+                || lastName == null || lastName.isBlank()) {
+            return null;
+        }
+        return new Employee(id, firstName.trim(), lastName.trim(), salary, managerId);
+    }
+
+    private Long readLong() {
+        final String number = this.readNumber();
+        try {
+            return number == null ? null : Long.parseLong(number);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid field format", ex);
+        }
+    }
+
+    private Double readDouble() {
+        final String number = this.readNumber();
+        try {
+            return number == null ? null : Double.parseDouble(number);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid field format", ex);
+        }
+    }
+
+    /**
+     * @return The text of the number or null for the null literal
+     */
+    private String readNumber() {
+        if (this.text.startsWith(NULL, this.position)) {
+            this.position += NULL.length();
+            return null;
+        }
+        final int start = this.position;
+        while (this.position < this.text.length() && isNumberChar(this.text.charAt(this.position))) {
+            this.position++;
+        }
+        if (start == this.position) {
+            throw this.malformed();
+        }
+        return this.text.substring(start, this.position);
+    }
+
+    private String readNullableString() {
+        if (this.text.startsWith(NULL, this.position)) {
+            this.position += NULL.length();
+            return null;
+        }
+        return this.readString();
+    }
+
+    private String readString() {
+        this.expect('"');
+        final int start = this.position;
+        while (this.position < this.text.length()) {
+            final char c = this.text.charAt(this.position);
+            if (c == '"') {
+                return this.text.substring(start, this.position++);
+            }
+            if (c == '\\') {
+                return this.readEscapedString(start);
+            }
+            this.position++;
+        }
+        throw this.malformed();
+    }
+
+    private String readEscapedString(final int start) {
+        final StringBuilder builder = new StringBuilder(this.text.length() - start);
+        builder.append(this.text, start, this.position);
+        while (true) {
+            final char c = this.next();
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            final char escaped = this.next();
+            switch (escaped) {
+                case '"', '\\', '/' -> builder.append(escaped);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (this.position + 4 > this.text.length()) {
+                        throw this.malformed();
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(this.text, this.position, this.position + 4, 16));
+                    } catch (NumberFormatException ex) {
+                        throw this.malformed();
+                    }
+                    this.position += 4;
+                }
+                default -> throw this.malformed();
+            }
+        }
+    }
+
+    /**
+     * Skips a value of an unknown field, nested objects and arrays are skipped as a whole
+     */
+    private void skipValue() {
+        final char c = this.peek();
+        if (c == '"') {
+            this.readString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                final char current = this.peek();
+                if (current == '"') {
+                    this.readString();
+                    continue;
+                }
+                if (current == '{' || current == '[') {
+                    depth++;
+                } else if (current == '}' || current == ']') {
+                    depth--;
+                }
+                this.position++;
+            } while (depth > 0);
+        } else {
+            final int start = this.position;
+            while (this.position < this.text.length() && (Character.isLetter(this.text.charAt(this.position))
+                    || isNumberChar(this.text.charAt(this.position)))) {
+                this.position++;
+            }
+            if (start == this.position) {
+                throw this.malformed();
+            }
+        }
+    }
+
+    private static boolean isNumberChar(final char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private void skipWhitespace() {
+        while (this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    private void expect(final char expected) {
+        if (this.next() != expected) {
+            throw this.malformed();
+        }
+    }
+
+    private char peek() {
+        if (this.position >= this.text.length()) {
+            throw this.malformed();
+        }
+        return this.text.charAt(this.position);
+    }
+
+    private char next() {
+        final char c = this.peek();
+        this.position++;
+        return c;
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed JSON at position " + this.position);
+    }
+}
@@ -0,0 +1,114 @@
+package org.company.parser;
+
+import org.company.metrics.IngestionMetrics;
+import org.company.metrics.RateLimitedLogger;
+import org.company.models.Employee;
+import org.company.storage.BulkLoad;
+import org.company.storage.CompanyEmployeeStorage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An implementation of {@link EmployeeDataParser} for JSON-lines data
+ * <p>
+ * Every line is a JSON object of one employee:
+ * {@code {"id":2,"firstName":"Jane","lastName":"Smith","salary":60000,"managerId":1}}.
+ * The CEO has no manager, the managerId is missing or null. Blank lines are skipped, there is no header.
+ * The data is read as a stream and added to the storage in one bulk load. The validation rules are the same as
+ * in {@link CSVEmployeeDataParser}: id, names and salary are mandatory and only one CEO is accepted.
+ * </p>
+ */
+public class JsonLinesEmployeeDataParser implements EmployeeDataParser {
+    private static final Logger LOGGER = Logger.getLogger(JsonLinesEmployeeDataParser.class.getName());
+    /**
+     * The average length of a line used to estimate the number of employees in a file
+     */
+    private static final int ESTIMATED_LINE_LENGTH = 96;
+
+    private final CompanyEmployeeStorage companyEmployeeStorage;
+
+    public JsonLinesEmployeeDataParser(final CompanyEmployeeStorage storage) {
+        this.companyEmployeeStorage = storage;
+    }
+
+    /**
+     * @param filePath The path to the JSON-lines file with employee data
+     */
+    @Override
+    public void addNewEmployees(final String filePath) {
+        final Path file = Path.of(filePath);
+        final IngestionMetrics metrics = new IngestionMetrics("jsonl", filePath);
+        // the reader replaces malformed bytes like the other parsers, a strict decoder would reject the whole file
+        try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            final long size = Files.size(file);
+            metrics.bytesRead(size);
+            this.addNewEmployees(reader, (int) Math.min(Integer.MAX_VALUE, size / ESTIMATED_LINE_LENGTH), metrics);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, String.format("Failed to process file at: %s", filePath), ex);
+        }
+    }
+
+    /**
+     * @param input The employee data in JSON-lines format, the stream is not closed
+     */
+    @Override
+    public void addNewEmployees(final InputStream input) {
+        try {
+            this.addNewEmployees(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), 0,
+                    new IngestionMetrics("jsonl", "stream"));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to process the input stream", ex);
+        }
+    }
+
+    private void addNewEmployees(final BufferedReader reader, final int expectedRows, final IngestionMetrics metrics)
+            throws IOException {
+        final BulkLoad load = this.companyEmployeeStorage.beginBulkLoad(expectedRows);
+        final RateLimitedLogger rejectionLogger =
+                new RateLimitedLogger(LOGGER, CSVEmployeeDataParser.REJECTIONS_PER_SECOND);
+        try {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                final Employee employee;
+                try {
+                    employee = JsonEmployeeReader.read(line);
+                } catch (IllegalArgumentException ex) {
+                    metrics.reject();
+                    if (rejectionLogger.isLoggable(Level.WARNING)) {
+                        rejectionLogger.log(Level.WARNING, String.format("Skipping line %d due to parsing error: %s",
+                                lineNumber, line), ex);
+                    }
+                    continue;
+                }
+                if (Objects.isNull(employee) || (Objects.isNull(employee.managerId()) && load.isCEODefined())) {
+                    metrics.reject();
+                    if (rejectionLogger.isLoggable(Level.WARNING)) {
+                        rejectionLogger.log(Level.WARNING, String.format("Invalid JSON-lines format at line %d: %s",
+                                lineNumber, line), null);
+                    }
+                    continue;
+                }
+                load.add(employee);
+            }
+        } finally {
+            load.commit();
+            metrics.finish(load.size());
+            rejectionLogger.logSuppressed(Level.WARNING);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.company.parser;
+
+import org.company.metrics.IngestionMetrics;
+import org.company.metrics.RateLimitedLogger;
+import org.company.storage.BulkLoad;
+import org.company.storage.CompanyEmployeeStorage;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An implementation of {@link EmployeeDataParser} for large CSV files
+ * <p>
+ * The file is memory-mapped with {@link FileChannel#map} and scanned byte by byte with {@link CSVRecordScanner},
+ * so there is no {@link java.io.Reader}, no line {@link String} and no {@link String#split(String)} per row.
+ * The CSV format and the validation rules are the same as in {@link CSVEmployeeDataParser}.
+ * Files bigger than {@link #MAX_WINDOW_SIZE} are mapped window by window, each window starts at a line boundary.
+ * </p>
+ * The parser is not thread safe.
+ */
+public class MappedCSVEmployeeDataParser implements EmployeeDataParser {
+    private static final Logger LOGGER = Logger.getLogger(MappedCSVEmployeeDataParser.class.getName());
+    /**
+     * The maximal size of one mapped region, a single mapping can't exceed {@link Integer#MAX_VALUE} bytes.
+     */
+    static final int MAX_WINDOW_SIZE = 1 << 30;
+
+    private final CompanyEmployeeStorage companyEmployeeStorage;
+    private final CSVRecordScanner scanner;
+    private final int windowSize;
+    private BulkLoad load;
+    private IngestionMetrics metrics;
+    private RateLimitedLogger rejectionLogger;
+    private boolean headerPending;
+
+    public MappedCSVEmployeeDataParser(final CompanyEmployeeStorage storage) {
+        this(storage, MAX_WINDOW_SIZE);
+    }
+
+    MappedCSVEmployeeDataParser(final CompanyEmployeeStorage storage, final int windowSize) {
+        this.companyEmployeeStorage = storage;
+        this.scanner = new CSVRecordScanner();
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * The method reads an employee data from a csv file and adds each employee to the company's storage system.
+     * The method assuming that the csv file contains header and skips the first line. Each line represents
+     * an employee (CEO included) formatted as: id,firstName,lastName,salary,managerId.
+     * Lines with an invalid format are skipped and logged the same way as by {@link CSVEmployeeDataParser}.
+     *
+     * @param filePath The path to the csv file with employee data
+     */
+    @Override
+    public void addNewEmployees(final String filePath) {
+        this.headerPending = true;
+        this.metrics = new IngestionMetrics("csv", filePath);
+        this.rejectionLogger = new RateLimitedLogger(LOGGER, CSVEmployeeDataParser.REJECTIONS_PER_SECOND);
+        try (final FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            this.metrics.bytesRead(size);
+            this.load = this.companyEmployeeStorage.beginBulkLoad(
+                    (int) Math.min(Integer.MAX_VALUE, size / CSVEmployeeDataParser.ESTIMATED_LINE_LENGTH));
+            long position = 0;
+            while (position < size) {
+                final int length = (int) Math.min(this.windowSize, size - position);
+                final boolean lastWindow = position + length == size;
+                final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                final int consumed = this.parseWindow(window, length, lastWindow);
+                if (consumed == 0) {
+                    throw new IOException(String.format("Line at offset %d exceeds the window size %d",
+                            position, this.windowSize));
+                }
+                position += consumed;
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, String.format("Failed to process file at: %s", filePath), ex);
+        } finally {
+            if (Objects.nonNull(this.load)) {
+                this.load.commit();
+                this.metrics.finish(this.load.size());
+                this.load = null;
+            } else {
+                this.metrics.finish(0);
+            }
+            this.rejectionLogger.logSuppressed(Level.WARNING);
+        }
+    }
+
+    /**
+     * Parses all complete lines of the mapped window.
+     *
+     * @param window The mapped region of the file
+     * @param length The size of the region
+     * @param lastWindow Is the region at the end of the file, then the last line has no terminator
+     * @return The number of consumed bytes, the next window starts right after them
+     */
+    private int parseWindow(final MappedByteBuffer window, final int length, final boolean lastWindow) {
+        int lineStart = 0;
+        int position = 0;
+        while (position < length) {
+            final byte value = window.get(position);
+            if (value != '\n' && value != '\r') {
+                position++;
+                continue;
+            }
+            if (value == '\r' && position + 1 == length && !lastWindow) {
+                // can't decide whether the next window starts with '\n'
+                return lineStart;
+            }
+            this.parseLine(window, lineStart, position);
+            position += value == '\r' && position + 1 < length && window.get(position + 1) == '\n' ? 2 : 1;
+            lineStart = position;
+        }
+        if (!lastWindow) {
+            return lineStart;
+        }
+        if (lineStart < length) {
+            this.parseLine(window, lineStart, length);
+        }
+        return length;
+    }
+
+    private void parseLine(final MappedByteBuffer window, final int start, final int end) {
+        if (this.headerPending) {
+            this.headerPending = false;
+            return;
+        }
+        if (!this.scanner.split(window, start, end) ||
+                (!this.scanner.hasManager() && this.load.isCEODefined())) {
+            this.metrics.reject();
+            if (this.rejectionLogger.isLoggable(Level.WARNING)) {
+                this.rejectionLogger.log(Level.WARNING, "Invalid CSV format at line: " + this.scanner.line(), null);
+            }
+            return;
+        }
+        try {
+            this.scanner.parseNumbers();
+        } catch (NumberFormatException ex) {
+            this.metrics.reject();
+            if (this.rejectionLogger.isLoggable(Level.WARNING)) {
+                this.rejectionLogger.log(Level.WARNING, "Skipping line due to parsing error: " + this.scanner.line(),
+                        new IllegalArgumentException("Invalid field format", ex));
+            }
+            return;
+        }
+        this.load.add(this.scanner.toEmployee());
+    }
+}
@@ -0,0 +1,288 @@
+package org.company.parser;
+
+import org.company.metrics.IngestionMetrics;
+import org.company.metrics.RateLimitedLogger;
+import org.company.models.Employee;
+import org.company.storage.BulkLoad;
+import org.company.storage.CompanyEmployeeStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An implementation of {@link EmployeeDataParser} which parses a CSV file on several cores
+ * <p>
+ * The file is split into byte ranges aligned to line boundaries. Every range is memory-mapped and parsed
+ * with its own {@link CSVRecordScanner} in a {@link ForkJoinPool}. The parsed ranges are merged into the storage
+ * in file order by the calling thread, so the "only one CEO" rule and the reported line numbers
+ * don't depend on the number of threads. The CSV format and the validation rules are the same as
+ * in {@link CSVEmployeeDataParser} and are applied in the same order: a line without a manager after the CEO
+ * is rejected as an invalid format even if its numbers can't be parsed. The employees are added only after
+ * all ranges are parsed, a file with a range which can't be read adds no employees.
+ * </p>
+ */
+public class ParallelCSVEmployeeDataParser implements EmployeeDataParser {
+    private static final Logger LOGGER = Logger.getLogger(ParallelCSVEmployeeDataParser.class.getName());
+    /**
+     * The number of chunks per thread, more chunks than threads balance the load between the threads.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /**
+     * The nominal maximal chunk size, a chunk is extended up to the end of its last line.
+     */
+    private static final long MAX_CHUNK_SIZE = MappedCSVEmployeeDataParser.MAX_WINDOW_SIZE / 2;
+    private static final int BOUNDARY_SEARCH_BUFFER_SIZE = 8192;
+    private static final String INVALID_FORMAT_MESSAGE = "Invalid CSV format at line %d: %s";
+    private static final String PARSING_ERROR_MESSAGE = "Skipping line %d due to parsing error: %s";
+
+    private final CompanyEmployeeStorage companyEmployeeStorage;
+    private final int parallelism;
+
+    public ParallelCSVEmployeeDataParser(final CompanyEmployeeStorage storage) {
+        this(storage, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param storage The storage to add employees to
+     * @param parallelism The number of threads parsing the file
+     * @throws IllegalArgumentException If the parallelism is not positive
+     */
+    public ParallelCSVEmployeeDataParser(final CompanyEmployeeStorage storage, final int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.companyEmployeeStorage = storage;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * The method reads an employee data from a csv file and adds each employee to the company's storage system.
+     * The method assuming that the csv file contains header and skips the first line. Each line represents
+     * an employee (CEO included) formatted as: id,firstName,lastName,salary,managerId.
+     * Invalid lines are skipped and logged with their line number in the file order.
+     *
+     * @param filePath The path to the csv file with employee data
+     */
+    @Override
+    public void addNewEmployees(final String filePath) {
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        final IngestionMetrics metrics = new IngestionMetrics("csv", filePath);
+        final RateLimitedLogger rejectionLogger =
+                new RateLimitedLogger(LOGGER, CSVEmployeeDataParser.REJECTIONS_PER_SECOND);
+        BulkLoad load = null;
+        try (final FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            metrics.bytesRead(channel.size());
+            final long[] boundaries = this.splitIntoChunks(channel);
+            final List<ForkJoinTask<ParsedChunk>> tasks = new ArrayList<>(boundaries.length - 1);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                final long start = boundaries[i];
+                final long end = boundaries[i + 1];
+                final boolean withHeader = i == 0;
+                tasks.add(pool.submit(() -> parseChunk(channel, start, end, withHeader)));
+            }
+            // a failed chunk fails the file before any employee is added
+            final List<ParsedChunk> chunks = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<ParsedChunk> task : tasks) {
+                chunks.add(task.join());
+            }
+            load = this.companyEmployeeStorage.beginBulkLoad(
+                    (int) Math.min(Integer.MAX_VALUE, channel.size() / CSVEmployeeDataParser.ESTIMATED_LINE_LENGTH));
+            long firstLine = 1;
+            for (ParsedChunk chunk : chunks) {
+                this.merge(chunk, firstLine, load, metrics, rejectionLogger);
+                firstLine += chunk.lineCount;
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, String.format("Failed to process file at: %s", filePath), ex);
+        } finally {
+            if (Objects.nonNull(load)) {
+                load.commit();
+            }
+            metrics.finish(Objects.isNull(load) ? 0 : load.size());
+            rejectionLogger.logSuppressed(Level.WARNING);
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the file into byte ranges, every range except the last one ends right after a '\n'.
+     *
+     * @param channel The file channel
+     * @return The sorted range boundaries starting with 0 and ending with the file size
+     * @throws IOException If the file can't be read
+     */
+    private long[] splitIntoChunks(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final int chunks = (int) Math.max((long) this.parallelism * CHUNKS_PER_THREAD,
+                (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        final long[] boundaries = new long[chunks + 1];
+        int count = 1;
+        final ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SEARCH_BUFFER_SIZE);
+        for (int i = 1; i < chunks; i++) {
+            final long target = Math.max(size / chunks * i, boundaries[count - 1]);
+            final long boundary = findLineEnd(channel, buffer, target, size);
+            if (boundary > boundaries[count - 1] && boundary < size) {
+                boundaries[count++] = boundary;
+            }
+        }
+        boundaries[count++] = size;
+        final long[] result = new long[count];
+        System.arraycopy(boundaries, 0, result, 0, count);
+        return result;
+    }
+
+    private static long findLineEnd(final FileChannel channel, final ByteBuffer buffer,
+                                    final long from, final long size) throws IOException {
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses the range of the file, the method runs in the pool and doesn't touch the storage.
+     */
+    private static ParsedChunk parseChunk(final FileChannel channel, final long start, final long end,
+                                          final boolean withHeader) throws IOException {
+        final int length = (int) (end - start);
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        final CSVRecordScanner scanner = new CSVRecordScanner();
+        final ParsedChunk chunk = new ParsedChunk();
+        boolean headerPending = withHeader;
+        int lineStart = 0;
+        int position = 0;
+        while (position <= length) {
+            final byte value = position < length ? buffer.get(position) : (byte) '\n';
+            if (value != '\n' && value != '\r') {
+                position++;
+                continue;
+            }
+            if (position < length || lineStart < length) {
+                if (headerPending) {
+                    headerPending = false;
+                } else {
+                    parseLine(scanner, buffer, lineStart, position, chunk);
+                }
+                chunk.lineCount++;
+            }
+            position += value == '\r' && position + 1 < length && buffer.get(position + 1) == '\n' ? 2 : 1;
+            lineStart = position;
+        }
+        return chunk;
+    }
+
+    private static void parseLine(final CSVRecordScanner scanner, final MappedByteBuffer buffer,
+                                  final int start, final int end, final ParsedChunk chunk) {
+        if (!scanner.split(buffer, start, end)) {
+            chunk.rejections.add(new Rejection(chunk.lineCount, INVALID_FORMAT_MESSAGE, scanner.line(), null));
+            return;
+        }
+        Rejection parsingError = null;
+        try {
+            scanner.parseNumbers();
+        } catch (NumberFormatException ex) {
+            parsingError = new Rejection(chunk.lineCount, PARSING_ERROR_MESSAGE, scanner.line(),
+                    new IllegalArgumentException("Invalid field format", ex));
+        }
+        if (!scanner.hasManager()) {
+            // the CEO rule is checked before the numbers when the line is merged
+            chunk.ceoCandidates.add(new CeoCandidate(
+                    new Rejection(chunk.lineCount, INVALID_FORMAT_MESSAGE, scanner.line(), null), parsingError));
+            chunk.employees.add(Objects.isNull(parsingError) ? scanner.toEmployee() : null);
+        } else if (Objects.isNull(parsingError)) {
+            chunk.employees.add(scanner.toEmployee());
+        } else {
+            chunk.rejections.add(parsingError);
+        }
+    }
+
+    /**
+     * Appends the parsed employees to the load in the file order and logs the rejected lines.
+     *
+     * @param chunk The parsed chunk
+     * @param firstLine The number of the first line of the chunk in the file
+     * @param load The load of the whole file
+     * @param metrics The metrics of the file
+     * @param rejectionLogger The logger of the rejected lines of the file
+     */
+    private void merge(final ParsedChunk chunk, final long firstLine, final BulkLoad load,
+                       final IngestionMetrics metrics, final RateLimitedLogger rejectionLogger) {
+        int ceoCandidate = 0;
+        for (Employee employee : chunk.employees) {
+            if (Objects.isNull(employee) || Objects.isNull(employee.managerId())) {
+                final CeoCandidate candidate = chunk.ceoCandidates.get(ceoCandidate++);
+                if (load.isCEODefined()) {
+                    chunk.rejections.add(candidate.secondCeo());
+                    continue;
+                }
+                if (Objects.nonNull(candidate.parsingError())) {
+                    chunk.rejections.add(candidate.parsingError());
+                    continue;
+                }
+            }
+            load.add(employee);
+        }
+        chunk.rejections.sort(Comparator.comparingInt(Rejection::line));
+        for (Rejection rejection : chunk.rejections) {
+            metrics.reject();
+            if (rejectionLogger.isLoggable(Level.WARNING)) {
+                rejectionLogger.log(Level.WARNING, String.format(rejection.message(), firstLine + rejection.line(),
+                        rejection.text()), rejection.cause());
+            }
+        }
+    }
+
+    /**
+     * The line rejected by the parser
+     *
+     * @param line The line number within the chunk starting with 0
+     * @param message The format of the message with the line number and the line text
+     * @param text The text of the line
+     * @param cause The optional cause
+     */
+    private record Rejection(int line, String message, String text, Throwable cause) {}
+
+    /**
+     * The line without a manager, rejected if the CEO is already defined when the line is merged
+     *
+     * @param secondCeo The rejection of the line if the CEO is already defined
+     * @param parsingError The rejection of the line if its numbers can't be parsed, null if they are parsed
+     */
+    private record CeoCandidate(Rejection secondCeo, Rejection parsingError) {}
+
+    /**
+     * The result of parsing of one chunk
+     */
+    private static final class ParsedChunk {
+        /**
+         * The parsed employees in the file order, null for a line without a manager whose numbers can't be parsed
+         */
+        private final List<Employee> employees = new ArrayList<>();
+        private final List<CeoCandidate> ceoCandidates = new ArrayList<>();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private int lineCount;
+    }
+}
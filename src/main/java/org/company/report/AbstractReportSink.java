@@ -0,0 +1,125 @@
+package org.company.report;
+
+import org.company.models.Employee;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Base of the report sinks formatting the rows into a pre-sized {@link StringBuilder}
+ * <p>
+ * The rows are appended without format strings, the buffer is handed to the writer once it holds
+ * {@link #BATCH_SIZE} characters. The header is written before the first row or on {@link #flush()}.
+ * </p>
+ */
+abstract class AbstractReportSink implements ReportSink {
+    static final int BATCH_SIZE = 1 << 16;
+    private static final int MAX_ROW_SIZE = 256;
+    /**
+     * The distance of a scaled value from a half cent below which the value is rounded by the formatter
+     */
+    private static final double HALF_CENT_TOLERANCE = 1e-6;
+
+    protected final StringBuilder buffer;
+    private final Writer writer;
+    private boolean started;
+
+    AbstractReportSink(final Writer writer) {
+        this.writer = writer;
+        this.buffer = new StringBuilder(BATCH_SIZE + MAX_ROW_SIZE);
+    }
+
+    @Override
+    public void writeReportingLine(final Employee employee, final int reportingLineLength) {
+        this.start();
+        this.appendReportingLine(employee, reportingLineLength);
+        this.flushIfFull();
+    }
+
+    @Override
+    public void writeSalaryDifference(final ReportType type, final Employee manager, final double difference) {
+        this.start();
+        this.appendSalaryDifference(type, manager, difference);
+        this.flushIfFull();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.start();
+        this.writer.append(this.buffer);
+        this.buffer.setLength(0);
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.writer.close();
+        }
+    }
+
+    /**
+     * Appends the header, by default there is none
+     */
+    protected void appendHeader() {
+    }
+
+    protected abstract void appendReportingLine(Employee employee, int reportingLineLength);
+
+    protected abstract void appendSalaryDifference(ReportType type, Employee manager, double difference);
+
+    /**
+     * Appends the value rounded to 2 decimal places like {@code String.format("%.2f", value)} without a format
+     * string. The value is scaled by 100 and rounded half up, a value whose scaled fraction is close to one half
+     * is formatted by {@link String#format} because the formatter rounds the shortest decimal representation
+     * of the value, e.g. 1.005 to 1.01, while the scaled value is 100.49999999999999. The values which don't
+     * fit into a long after scaling are appended by {@link Double#toString}. A negative value keeps its sign
+     * also if it is rounded to zero.
+     *
+     * @param builder the buffer
+     * @param value the value
+     */
+    static void appendDecimal(final StringBuilder builder, final double value) {
+        if (!Double.isFinite(value) || Math.abs(value) >= Long.MAX_VALUE / 100.0) {
+            builder.append(value);
+            return;
+        }
+        final double scaled = Math.abs(value) * 100.0;
+        if (Math.abs(scaled - Math.floor(scaled) - 0.5) <= Math.max(HALF_CENT_TOLERANCE, 8 * Math.ulp(scaled))) {
+            builder.append(String.format(Locale.ROOT, "%.2f", value));
+            return;
+        }
+        final long cents = Math.round(scaled);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            builder.append('-');
+        }
+        final long fraction = cents % 100;
+        builder.append(cents / 100).append('.');
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        builder.append(fraction);
+    }
+
+    private void start() {
+        if (!this.started) {
+            this.started = true;
+            this.appendHeader();
+        }
+    }
+
+    private void flushIfFull() {
+        if (this.buffer.length() >= BATCH_SIZE) {
+            try {
+                this.writer.append(this.buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write the report", e);
+            }
+            this.buffer.setLength(0);
+        }
+    }
+}
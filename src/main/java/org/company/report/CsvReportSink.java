@@ -0,0 +1,70 @@
+package org.company.report;
+
+import org.company.models.Employee;
+
+import java.io.Writer;
+
+/**
+ * Writes the report rows as csv: {@code report,id,firstName,lastName,value}.
+ * The value is the length of the reporting line or the salary difference with 2 decimal places,
+ * a name with a comma, a quote or a line break is quoted.
+ */
+public final class CsvReportSink extends AbstractReportSink {
+    public static final String HEADER = "report,id,firstName,lastName,value";
+
+    public CsvReportSink(final Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void appendHeader() {
+        this.buffer.append(HEADER).append('\n');
+    }
+
+    @Override
+    protected void appendReportingLine(final Employee employee, final int reportingLineLength) {
+        this.appendEmployee(ReportType.TOO_LONG_REPORTING_LINE, employee);
+        this.buffer.append(reportingLineLength).append('\n');
+    }
+
+    @Override
+    protected void appendSalaryDifference(final ReportType type, final Employee manager, final double difference) {
+        this.appendEmployee(type, manager);
+        appendDecimal(this.buffer, difference);
+        this.buffer.append('\n');
+    }
+
+    private void appendEmployee(final ReportType type, final Employee employee) {
+        this.buffer.append(type.label()).append(',').append(employee.id().longValue()).append(',');
+        this.appendName(employee.firstName());
+        this.buffer.append(',');
+        this.appendName(employee.lastName());
+        this.buffer.append(',');
+    }
+
+    private void appendName(final String name) {
+        if (!needsQuotes(name)) {
+            this.buffer.append(name);
+            return;
+        }
+        this.buffer.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c == '"') {
+                this.buffer.append('"');
+            }
+            this.buffer.append(c);
+        }
+        this.buffer.append('"');
+    }
+
+    private static boolean needsQuotes(final String name) {
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
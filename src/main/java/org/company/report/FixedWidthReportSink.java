@@ -0,0 +1,83 @@
+package org.company.report;
+
+import org.company.models.Employee;
+
+import java.io.Writer;
+
+/**
+ * Writes the report rows as a text table with columns of fixed width, the numbers are aligned to the right.
+ * A value longer than its column is written completely and shifts the rest of the row.
+ */
+public final class FixedWidthReportSink extends AbstractReportSink {
+    private static final int REPORT_WIDTH = 25;
+    private static final int ID_WIDTH = 12;
+    private static final int NAME_WIDTH = 16;
+    private static final int VALUE_WIDTH = 16;
+    private static final char[] SPACES = " ".repeat(Math.max(ID_WIDTH, VALUE_WIDTH)).toCharArray();
+
+    public FixedWidthReportSink(final Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void appendHeader() {
+        this.appendLeft("report", REPORT_WIDTH);
+        this.appendRight("id", this.buffer.length(), ID_WIDTH);
+        this.buffer.append(' ');
+        this.appendLeft("first name", NAME_WIDTH);
+        this.appendLeft("last name", NAME_WIDTH);
+        this.appendRight("value", this.buffer.length(), VALUE_WIDTH);
+        this.buffer.append('\n');
+    }
+
+    @Override
+    protected void appendReportingLine(final Employee employee, final int reportingLineLength) {
+        this.appendEmployee(ReportType.TOO_LONG_REPORTING_LINE, employee);
+        final int start = this.buffer.length();
+        this.buffer.append(reportingLineLength);
+        this.alignRight(start, VALUE_WIDTH);
+        this.buffer.append('\n');
+    }
+
+    @Override
+    protected void appendSalaryDifference(final ReportType type, final Employee manager, final double difference) {
+        this.appendEmployee(type, manager);
+        final int start = this.buffer.length();
+        appendDecimal(this.buffer, difference);
+        this.alignRight(start, VALUE_WIDTH);
+        this.buffer.append('\n');
+    }
+
+    private void appendEmployee(final ReportType type, final Employee employee) {
+        this.appendLeft(type.label(), REPORT_WIDTH);
+        final int start = this.buffer.length();
+        this.buffer.append(employee.id().longValue());
+        this.alignRight(start, ID_WIDTH);
+        this.buffer.append(' ');
+        this.appendLeft(employee.firstName(), NAME_WIDTH);
+        this.appendLeft(employee.lastName(), NAME_WIDTH);
+    }
+
+    private void appendLeft(final String value, final int width) {
+        this.buffer.append(value);
+        for (int i = value.length(); i < width - 1; i++) {
+            this.buffer.append(' ');
+        }
+        this.buffer.append(' ');
+    }
+
+    private void appendRight(final String value, final int start, final int width) {
+        this.buffer.append(value);
+        this.alignRight(start, width);
+    }
+
+    /**
+     * Moves the characters appended since the start to the right end of the column
+     */
+    private void alignRight(final int start, final int width) {
+        final int padding = width - (this.buffer.length() - start);
+        if (padding > 0) {
+            this.buffer.insert(start, SPACES, 0, padding);
+        }
+    }
+}
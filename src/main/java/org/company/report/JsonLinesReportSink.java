@@ -0,0 +1,60 @@
+package org.company.report;
+
+import org.company.models.Employee;
+
+import java.io.Writer;
+
+/**
+ * Writes every report row as a JSON object on its own line, e.g.
+ * {@code {"report":"overpaid_manager","id":8,"firstName":"Joe","lastName":"Jones","salaryDifference":1.00}}.
+ * A too long reporting line has the field {@code reportingLine} instead of {@code salaryDifference}.
+ */
+public final class JsonLinesReportSink extends AbstractReportSink {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public JsonLinesReportSink(final Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void appendReportingLine(final Employee employee, final int reportingLineLength) {
+        this.appendEmployee(ReportType.TOO_LONG_REPORTING_LINE, employee);
+        this.buffer.append(",\"reportingLine\":").append(reportingLineLength).append("}\n");
+    }
+
+    @Override
+    protected void appendSalaryDifference(final ReportType type, final Employee manager, final double difference) {
+        this.appendEmployee(type, manager);
+        this.buffer.append(",\"salaryDifference\":");
+        if (Double.isFinite(difference)) {
+            appendDecimal(this.buffer, difference);
+        } else {
+            this.buffer.append("null");
+        }
+        this.buffer.append("}\n");
+    }
+
+    private void appendEmployee(final ReportType type, final Employee employee) {
+        this.buffer.append("{\"report\":\"").append(type.label())
+                .append("\",\"id\":").append(employee.id().longValue())
+                .append(",\"firstName\":");
+        this.appendString(employee.firstName());
+        this.buffer.append(",\"lastName\":");
+        this.appendString(employee.lastName());
+    }
+
+    private void appendString(final String value) {
+        this.buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                this.buffer.append('\\').append(c);
+            } else if (c < ' ') {
+                this.buffer.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                this.buffer.append(c);
+            }
+        }
+        this.buffer.append('"');
+    }
+}
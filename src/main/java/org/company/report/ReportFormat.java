@@ -0,0 +1,36 @@
+package org.company.report;
+
+import java.io.Writer;
+import java.util.function.Function;
+
+/**
+ * The output formats of the reports
+ */
+public enum ReportFormat {
+    CSV(CsvReportSink::new, "text/csv; charset=utf-8"),
+    JSON_LINES(JsonLinesReportSink::new, "application/x-ndjson; charset=utf-8"),
+    FIXED_WIDTH(FixedWidthReportSink::new, "text/plain; charset=utf-8");
+
+    private final Function<Writer, ReportSink> factory;
+    private final String contentType;
+
+    ReportFormat(final Function<Writer, ReportSink> factory, final String contentType) {
+        this.factory = factory;
+        this.contentType = contentType;
+    }
+
+    /**
+     * @return the media type of the report written as UTF-8
+     */
+    public String contentType() {
+        return this.contentType;
+    }
+
+    /**
+     * @param writer the destination of the report, closed together with the sink
+     * @return the sink writing the report rows in this format
+     */
+    public ReportSink createSink(final Writer writer) {
+        return this.factory.apply(writer);
+    }
+}
@@ -0,0 +1,32 @@
+package org.company.report;
+
+import org.company.models.Employee;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.UncheckedIOException;
+
+/**
+ * Receiver of the report rows streamed from the analysis of the company
+ * <p>
+ * The rows of the different reports come in the order of the analysis, each row carries its {@link ReportType}.
+ * The implementations buffer the rows and write them in batches, the rows are written out at the latest
+ * by {@link #flush()} or {@link #close()}.
+ * </p>
+ */
+public interface ReportSink extends Closeable, Flushable {
+    /**
+     * @param employee the employee with a too long reporting line
+     * @param reportingLineLength the length of the reporting line
+     * @throws UncheckedIOException if a batch can't be written
+     */
+    void writeReportingLine(Employee employee, int reportingLineLength);
+
+    /**
+     * @param type the report, {@link ReportType#OVERPAID_MANAGER} or {@link ReportType#UNDERPAID_MANAGER}
+     * @param manager the manager
+     * @param difference the salary difference
+     * @throws UncheckedIOException if a batch can't be written
+     */
+    void writeSalaryDifference(ReportType type, Employee manager, double difference);
+}
@@ -0,0 +1,23 @@
+package org.company.report;
+
+/**
+ * The kinds of rows written to a {@link ReportSink}
+ */
+public enum ReportType {
+    TOO_LONG_REPORTING_LINE("too_long_reporting_line"),
+    OVERPAID_MANAGER("overpaid_manager"),
+    UNDERPAID_MANAGER("underpaid_manager");
+
+    private final String label;
+
+    ReportType(final String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return The name of the report in the output
+     */
+    public String label() {
+        return this.label;
+    }
+}
@@ -0,0 +1,43 @@
+package org.company.report;
+
+import org.company.models.Employee;
+
+import java.io.Writer;
+
+/**
+ * Writes the report rows as the lines of text printed by {@link org.company.CompanyDisplay}, e.g.
+ * {@code id: 2, name: Jane, last name: Williams, reporting line: 5}. The lines of the different reports
+ * are grouped under the lines passed to {@link #writeLine(String)}.
+ */
+public final class TextReportSink extends AbstractReportSink {
+    public TextReportSink(final Writer writer) {
+        super(writer);
+    }
+
+    /**
+     * @param line the line written as it is, e.g. the title of a report
+     */
+    public void writeLine(final String line) {
+        this.buffer.append(line).append('\n');
+    }
+
+    @Override
+    protected void appendReportingLine(final Employee employee, final int reportingLineLength) {
+        this.appendEmployee(employee);
+        this.buffer.append(", reporting line: ").append(reportingLineLength).append('\n');
+    }
+
+    @Override
+    protected void appendSalaryDifference(final ReportType type, final Employee manager, final double difference) {
+        this.appendEmployee(manager);
+        this.buffer.append(", salary difference: ");
+        appendDecimal(this.buffer, difference);
+        this.buffer.append('\n');
+    }
+
+    private void appendEmployee(final Employee employee) {
+        this.buffer.append("id: ").append(employee.id().longValue())
+                .append(", name: ").append(employee.firstName())
+                .append(", last name: ").append(employee.lastName());
+    }
+}
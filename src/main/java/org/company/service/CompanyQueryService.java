@@ -0,0 +1,225 @@
+package org.company.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.company.CompanyManagement;
+import org.company.metrics.Histogram;
+import org.company.metrics.Metrics;
+import org.company.models.SalaryComparisonType;
+import org.company.report.ReportFormat;
+import org.company.report.ReportSink;
+import org.company.report.ReportType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A local HTTP service answering the report queries of {@link CompanyManagement}
+ * <p>
+ * The service listens on the loopback address only. A report is requested by
+ * {@code GET /reports/<name>?format=<format>}, the name is {@code all} for all reports of
+ * {@link CompanyManagement#writeReport(ReportSink)} or the label of a {@link ReportType}, the format is
+ * a {@link ReportFormat}, {@link ReportFormat#JSON_LINES} by default. The rendered reports are kept in
+ * a {@link ReportCache} per {@link CompanyManagement#generation()}, so a load of employee data by
+ * {@link CompanyManagement#addNewEmployees(String)} or by a followed file invalidates them, and the identical
+ * concurrent requests share one calculation. The header {@code X-Cache} of the response is {@code HIT}
+ * for a report calculated by another request and {@code MISS} otherwise.
+ * </p>
+ * The requests are handled by virtual threads when the runtime provides them and by a cached thread pool
+ * otherwise. The reports are calculated concurrently, so the storage of the company must allow concurrent
+ * queries, the employees must be loaded before the service starts or the storage must be
+ * a {@link org.company.storage.ConcurrentCompanyEmployeeStorage}.
+ */
+public class CompanyQueryService implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CompanyQueryService.class.getName());
+    private static final String REPORTS_PATH = "/reports/";
+    private static final String ALL_REPORTS = "all";
+    private static final String FORMAT_PARAMETER = "format=";
+    private static final int DEFAULT_CACHE_SIZE = 64;
+
+    private final CompanyManagement companyManagement;
+    private final ReportCache cache;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Histogram requestNanos;
+
+    /**
+     * Starts the service
+     * @param companyManagement The company whose reports are served
+     * @param port The port on the loopback address, 0 for any free port
+     * @throws IOException If the port can't be bound
+     */
+    public CompanyQueryService(final CompanyManagement companyManagement, final int port) throws IOException {
+        this(companyManagement, port, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Starts the service
+     * @param companyManagement The company whose reports are served
+     * @param port The port on the loopback address, 0 for any free port
+     * @param cacheSize The maximal number of cached reports
+     * @throws IOException If the port can't be bound
+     * @throws IllegalArgumentException If the cache size is not positive
+     */
+    public CompanyQueryService(final CompanyManagement companyManagement, final int port, final int cacheSize)
+            throws IOException {
+        this.companyManagement = companyManagement;
+        this.cache = new ReportCache(cacheSize);
+        this.requestNanos = Metrics.registry().histogram(Metrics.SERVICE_REQUEST_NANOS);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newExecutor();
+        this.server.setExecutor(this.executor);
+        this.server.createContext(REPORTS_PATH, this::handle);
+        this.server.start();
+    }
+
+    /**
+     * @return The port the service listens on
+     */
+    public int port() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the service, the requests in progress are finished
+     */
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdown();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final long start = System.nanoTime();
+        try (exchange) {
+            this.answer(exchange);
+        } finally {
+            this.requestNanos.record(System.nanoTime() - start);
+        }
+    }
+
+    private void answer(final HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+            final String name = exchange.getRequestURI().getPath().substring(REPORTS_PATH.length());
+            if (!isReport(name)) {
+                sendError(exchange, 404, "Unknown report: " + name);
+                return;
+            }
+            final ReportFormat format = parseFormat(exchange.getRequestURI().getRawQuery());
+            if (Objects.isNull(format)) {
+                sendError(exchange, 400, "Unknown format: " + exchange.getRequestURI().getRawQuery());
+                return;
+            }
+            final ReportCache.Result result = this.cache.get(name + " " + format,
+                    this.companyManagement.generation(), () -> this.render(name, format));
+            exchange.getResponseHeaders().set("Content-Type", format.contentType());
+            exchange.getResponseHeaders().set("X-Cache", result.cached() ? "HIT" : "MISS");
+            exchange.sendResponseHeaders(200, result.report().length == 0 ? -1 : result.report().length);
+            if (result.report().length > 0) {
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(result.report());
+                }
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, String.format("Failed to answer the request %s", exchange.getRequestURI()), ex);
+            sendError(exchange, 500, "Failed to calculate the report");
+        }
+    }
+
+    private byte[] render(final String name, final ReportFormat format) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ReportSink sink = format.createSink(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            if (ALL_REPORTS.equals(name)) {
+                this.companyManagement.writeReport(sink);
+            } else if (ReportType.TOO_LONG_REPORTING_LINE.label().equals(name)) {
+                this.companyManagement.forEachEmployeeWithTooLongReportingLine(sink::writeReportingLine);
+            } else if (ReportType.OVERPAID_MANAGER.label().equals(name)) {
+                this.companyManagement.forEachManagerWithSalaryDifference(SalaryComparisonType.BIG,
+                        (manager, difference) -> sink.writeSalaryDifference(ReportType.OVERPAID_MANAGER,
+                                manager, difference));
+            } else {
+                this.companyManagement.forEachManagerWithSalaryDifference(SalaryComparisonType.SMALL,
+                        (manager, difference) -> sink.writeSalaryDifference(ReportType.UNDERPAID_MANAGER,
+                                manager, difference));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return output.toByteArray();
+    }
+
+    private static boolean isReport(final String name) {
+        if (ALL_REPORTS.equals(name)) {
+            return true;
+        }
+        for (ReportType type : ReportType.values()) {
+            if (type.label().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The requested format, {@link ReportFormat#JSON_LINES} if there is no format parameter
+     * and null for an unknown format
+     */
+    private static ReportFormat parseFormat(final String query) {
+        if (Objects.isNull(query)) {
+            return ReportFormat.JSON_LINES;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(FORMAT_PARAMETER)) {
+                final String value = URLDecoder.decode(parameter.substring(FORMAT_PARAMETER.length()),
+                        StandardCharsets.UTF_8);
+                for (ReportFormat format : ReportFormat.values()) {
+                    if (format.name().equalsIgnoreCase(value)) {
+                        return format;
+                    }
+                }
+                return null;
+            }
+        }
+        return ReportFormat.JSON_LINES;
+    }
+
+    private static void sendError(final HttpExchange exchange, final int status, final String message)
+            throws IOException {
+        final byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * The virtual threads are looked up reflectively, the code is compiled for a runtime which has
+     * them as a preview feature only
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException ex) {
+            LOGGER.log(Level.FINE, "Virtual threads are not available, the requests are handled by a thread pool", ex);
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.company.service;
+
+import org.company.metrics.Counter;
+import org.company.metrics.Metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded cache of the rendered reports of one generation of the company
+ * <p>
+ * The reports are kept in a least recently used order, the eldest report is evicted when the cache holds
+ * more than {@code maxEntries} reports. A report is cached as a future from the moment its calculation starts,
+ * so the concurrent requests for the same report wait for the one calculation instead of starting their own.
+ * A failed calculation is not cached. The first request of a newer generation drops all reports of the older
+ * generations. The lock guards only the map, the reports are calculated outside of it.
+ * </p>
+ */
+final class ReportCache {
+    private final int maxEntries;
+    private final Map<String, CompletableFuture<byte[]>> reports;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private long generation;
+
+    /**
+     * @param maxEntries The maximal number of cached reports
+     * @throws IllegalArgumentException If the maximal number is not positive
+     */
+    ReportCache(final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.reports = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CompletableFuture<byte[]>> eldest) {
+                return this.size() > ReportCache.this.maxEntries;
+            }
+        };
+        this.hits = Metrics.registry().counter(Metrics.SERVICE_CACHE_HITS);
+        this.misses = Metrics.registry().counter(Metrics.SERVICE_CACHE_MISSES);
+        this.coalesced = Metrics.registry().counter(Metrics.SERVICE_COALESCED);
+    }
+
+    /**
+     * Get the cached report or calculate it, only one of the concurrent requests for a missing report
+     * calculates it
+     * @param key The report and its format
+     * @param generation The generation of the company the report is requested for
+     * @param calculation The calculation of the report
+     * @return The result of the calculation
+     * @throws RuntimeException The exception of the calculation
+     */
+    Result get(final String key, final long generation, final Supplier<byte[]> calculation) {
+        final String generationKey = generation + " " + key;
+        final CompletableFuture<byte[]> report;
+        final boolean calculate;
+        synchronized (this) {
+            if (generation > this.generation) {
+                this.reports.clear();
+                this.generation = generation;
+            }
+            final CompletableFuture<byte[]> cached = this.reports.get(generationKey);
+            calculate = Objects.isNull(cached);
+            if (calculate) {
+                report = new CompletableFuture<>();
+                this.reports.put(generationKey, report);
+            } else {
+                report = cached;
+            }
+        }
+        if (calculate) {
+            this.misses.increment();
+            try {
+                report.complete(calculation.get());
+            } catch (RuntimeException | Error ex) {
+                synchronized (this) {
+                    this.reports.remove(generationKey, report);
+                }
+                report.completeExceptionally(ex);
+                throw ex;
+            }
+            return new Result(report.join(), false);
+        }
+        if (report.isDone()) {
+            this.hits.increment();
+        } else {
+            this.coalesced.increment();
+        }
+        try {
+            return new Result(report.join(), true);
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * @return The number of cached reports including the ones being calculated
+     */
+    synchronized int size() {
+        return this.reports.size();
+    }
+
+    /**
+     * @param report The rendered report
+     * @param cached true if the report was calculated by an earlier or a concurrent request
+     */
+    record Result(byte[] report, boolean cached) {
+    }
+}
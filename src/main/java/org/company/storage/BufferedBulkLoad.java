@@ -0,0 +1,66 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The default {@link BulkLoad}: the employees are kept in a pre-sized list and added to the storage by
+ * {@link CompanyEmployeeStorage#addEmployees(java.util.Collection)} on commit
+ */
+final class BufferedBulkLoad implements BulkLoad {
+    private final CompanyEmployeeStorage storage;
+    private List<Employee> employees;
+    private int size;
+    private boolean ceoPending;
+
+    /**
+     * @param storage The storage receiving the employees
+     * @param expectedRows The number of employees the load holds without growing
+     */
+    BufferedBulkLoad(final CompanyEmployeeStorage storage, final int expectedRows) {
+        this.storage = storage;
+        this.employees = new ArrayList<>(Math.max(expectedRows, 0));
+    }
+
+    @Override
+    public void add(final Employee employee) {
+        this.checkOpen();
+        this.employees.add(employee);
+        this.size++;
+        if (Objects.isNull(employee.managerId())) {
+            this.ceoPending = true;
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isCEODefined() {
+        return this.ceoPending || this.storage.isCEODefined();
+    }
+
+    @Override
+    public void commit() {
+        this.checkOpen();
+        final List<Employee> loaded = this.employees;
+        this.employees = null;
+        this.storage.addEmployees(loaded);
+    }
+
+    @Override
+    public void close() {
+        this.employees = null;
+    }
+
+    private void checkOpen() {
+        if (Objects.isNull(this.employees)) {
+            throw new IllegalStateException("The bulk load is already committed or closed");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+
+/**
+ * A load of many employees into a {@link CompanyEmployeeStorage} started by
+ * {@link CompanyEmployeeStorage#beginBulkLoad(int)}
+ * <p>
+ * The employees are appended to buffers without being indexed, the storage doesn't see them until
+ * {@link #commit()} builds the id index, the subordinates and the aggregates once for the whole load.
+ * The result of the commit is the same as of {@link CompanyEmployeeStorage#addEmployee(Employee)} for every
+ * employee in the order of the load. The storage must not be modified while the load is open,
+ * {@link #close()} discards a load which is not committed.
+ * </p>
+ */
+public interface BulkLoad extends AutoCloseable {
+    /**
+     * Append the employee to the load
+     * @param employee the new employee instance
+     * @throws IllegalStateException if the load is committed or closed
+     */
+    void add(Employee employee);
+
+    /**
+     * @return the number of the employees appended to the load, also after the commit
+     */
+    int size();
+
+    /**
+     * Checks if a CEO is defined in the storage or appended to the load, so the "only one CEO" rule
+     * can be checked before the commit
+     * @return true if a CEO is defined, otherwise false
+     */
+    boolean isCEODefined();
+
+    /**
+     * Add the appended employees to the storage
+     * @throws IllegalStateException if the load is committed or closed
+     */
+    void commit();
+
+    /**
+     * Discard the appended employees if the load isn't committed
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,617 @@
+package org.company.storage;
+
+import org.company.models.CompanyStructure;
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A columnar implementation of {@link CompanyEmployeeStorage}
+ * <p>
+ * Employees are kept in primitive columns addressed by a dense index instead of boxed {@link Employee} records:
+ * ids and salaries in {@code long[]}/{@code double[]}, the manager as the index of the manager row and
+ * the names as references into a shared {@link StringPool}. Ids are translated into indices by
+ * an open-addressing {@link LongIntHashMap}. A manager referenced before being added gets a placeholder row
+ * which is filled when the manager arrives. {@link Employee} records are only created for query results.
+ * </p>
+ * Adding an employee with an existing id replaces the previous data of that employee.
+ * A {@link #beginBulkLoad(int) bulk load} appends the rows to the columns past the last row and indexes them
+ * on commit.
+ * <p>
+ * With a {@link ForkJoinPool} of the caller the structure analysis of large companies runs in that pool:
+ * the subtrees are traversed in parallel by {@link CompanyStructureEngine}, the subordinate salaries and
+ * the result employees are calculated per range of rows over the child index of the engine. Every task writes
+ * only the results of its own rows and the salaries of the subordinates are added in the row order, so
+ * the results are identical to the sequential analysis. The results are passed to the visitors by the calling
+ * thread in the row order. The salary scans without the reporting lines stay sequential, one pass over
+ * the columns costs less than the child index needed for a parallel aggregation with the same results.
+ * </p>
+ * The managers are compared with a {@link SalaryThreshold} by a {@link SalaryThresholdScan} over the salary
+ * column and the aggregated subordinate columns, vectorized when the Vector API is available.
+ */
+public class ColumnarCompanyEmployeeStorage implements CompanyEmployeeStorage {
+    private final static Logger LOGGER = Logger.getLogger(ColumnarCompanyEmployeeStorage.class.getName());
+    private static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * The manager index of an employee without a manager
+     */
+    private static final int NO_MANAGER = CompanyStructureEngine.NO_PARENT;
+    /**
+     * The name reference of a placeholder row, the employee is referenced as a manager but not added yet
+     */
+    static final int PLACEHOLDER = -1;
+    /**
+     * The number of row ranges per thread, more ranges than threads balance the load between the threads
+     */
+    private static final int RANGES_PER_THREAD = 4;
+    /**
+     * The number of rows compared by one {@link SalaryThresholdScan}, the results of a block stay in the cache
+     */
+    private static final int SCAN_BLOCK_SIZE = 4096;
+
+    private final LongIntHashMap index;
+    private final StringPool names;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private long[] ids;
+    private double[] salaries;
+    private int[] managers;
+    private int[] firstNames;
+    private int[] lastNames;
+    private int rows;
+    private int employeeCount;
+    private int ceo;
+    private ColumnarBulkLoad bulkLoad;
+
+    public ColumnarCompanyEmployeeStorage() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedEmployees The number of employees the storage holds without growing the columns
+     */
+    public ColumnarCompanyEmployeeStorage(final int expectedEmployees) {
+        this(expectedEmployees, null);
+    }
+
+    /**
+     * @param expectedEmployees The number of employees the storage holds without growing the columns
+     * @param pool The pool analyzing the company, null for the sequential analysis. The pool is owned
+     *             by the caller, who shuts it down when it is no longer used
+     */
+    public ColumnarCompanyEmployeeStorage(final int expectedEmployees, final ForkJoinPool pool) {
+        this.pool = pool;
+        this.parallelism = Objects.isNull(pool) ? 1 : pool.getParallelism();
+        final int capacity = Math.max(expectedEmployees, 1);
+        this.index = new LongIntHashMap(capacity);
+        this.names = new StringPool();
+        this.ids = new long[capacity];
+        this.salaries = new double[capacity];
+        this.managers = new int[capacity];
+        this.firstNames = new int[capacity];
+        this.lastNames = new int[capacity];
+        this.ceo = NO_MANAGER;
+    }
+
+    /**
+     * Add an employee to the company structure
+     * @param newEmployee the new employee instance
+     */
+    @Override
+    public void addEmployee(final Employee newEmployee) {
+        this.checkNoBulkLoad();
+        final int row = this.rowOf(newEmployee.id());
+        if (this.firstNames[row] == PLACEHOLDER) {
+            this.employeeCount++;
+        }
+        this.salaries[row] = newEmployee.salary();
+        this.firstNames[row] = this.names.intern(newEmployee.firstName());
+        this.lastNames[row] = this.names.intern(newEmployee.lastName());
+        if (Objects.isNull(newEmployee.managerId())) {
+            this.managers[row] = NO_MANAGER;
+            if (this.ceo == NO_MANAGER) {
+                this.ceo = row;
+            }
+        } else {
+            // resolved first, the columns may be reallocated while a placeholder row is added
+            final int manager = this.rowOf(newEmployee.managerId());
+            this.managers[row] = manager;
+            if (this.ceo == row) {
+                this.ceo = NO_MANAGER;
+            }
+        }
+    }
+
+    /**
+     * Add the employees to the company structure, the columns and the index grow once for the whole collection
+     * @param newEmployees the new employee instances
+     */
+    @Override
+    public void addEmployees(final Collection<Employee> newEmployees) {
+        this.checkNoBulkLoad();
+        final int required = this.rows + newEmployees.size();
+        if (required > this.ids.length) {
+            this.grow(Math.max(required, this.ids.length << 1));
+        }
+        this.index.ensureCapacity(required);
+        for (Employee newEmployee : newEmployees) {
+            this.addEmployee(newEmployee);
+        }
+    }
+
+    /**
+     * Start a load of many employees. The employees are appended to the columns past the last row without
+     * touching the index, the rows are indexed, the duplicated ids are merged and the managers are resolved
+     * once by the commit. Until then the queries see the storage without the load.
+     * @param expectedRows the expected number of employees, the columns grow once to hold them
+     * @return the open load
+     * @throws IllegalStateException if another load is open
+     */
+    @Override
+    public BulkLoad beginBulkLoad(final int expectedRows) {
+        this.checkNoBulkLoad();
+        this.bulkLoad = new ColumnarBulkLoad(Math.max(expectedRows, 0));
+        return this.bulkLoad;
+    }
+
+    /**
+     * Calculate the structure of the company that provides a length of a reporting line for every employee.
+     * The reporting line depth is the number of levels up to the CEO. Employees without a reporting line
+     * to the CEO (orphaned subtrees and cycles) are skipped and the problems are logged.
+     * @return the map where a key is employee and value is a length of reporting line
+     */
+    @Override
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        final CompanyStructure structure = this.analyzeCompanyStructure();
+        if (!structure.isValid()) {
+            LOGGER.log(Level.WARNING, String.format("Company structure has %d problem(s), the first one: %s",
+                    structure.diagnostics().size(), structure.diagnostics().get(0)));
+        }
+        return structure.reportingLines();
+    }
+
+    /**
+     * Analyze the structure of the company in one pass with {@link CompanyStructureEngine} over the columns,
+     * placeholder rows of not added managers are absent rows of the engine.
+     * @return the reporting lines of employees connected to the CEO and the problems of the structure
+     */
+    @Override
+    public CompanyStructure analyzeCompanyStructure() {
+        final CompanyStructureEngine engine = this.structureEngine();
+        final Map<Employee, Integer> reportingLines = new HashMap<>(capacityFor(engine.reachable()));
+        if (this.isParallel()) {
+            final Employee[] rowEmployees = new Employee[this.rows];
+            this.forEachRowRange((from, to) -> {
+                for (int row = from; row < to; row++) {
+                    if (engine.depth(row) != CompanyStructureEngine.NO_DEPTH) {
+                        rowEmployees[row] = this.toEmployee(row);
+                    }
+                }
+            });
+            for (int row = 0; row < this.rows; row++) {
+                if (Objects.nonNull(rowEmployees[row])) {
+                    reportingLines.put(rowEmployees[row], engine.depth(row));
+                }
+            }
+            return new CompanyStructure(reportingLines, engine.diagnostics());
+        }
+        for (int position = 0; position < engine.reachable(); position++) {
+            final int row = engine.rowInOrder(position);
+            reportingLines.put(this.toEmployee(row), engine.depth(row));
+        }
+        return new CompanyStructure(reportingLines, engine.diagnostics());
+    }
+
+    CompanyStructureEngine structureEngine() {
+        final boolean[] absent = new boolean[this.rows];
+        for (int row = 0; row < this.rows; row++) {
+            absent[row] = this.firstNames[row] == PLACEHOLDER;
+        }
+        return new CompanyStructureEngine(this.ids, this.managers, absent, this.rows,
+                this.isParallel() ? this.pool : null);
+    }
+
+    /**
+     * Scan the managers and pass the ones with a positive result of the salary function to the consumer.
+     * The subordinate salaries are summed up in primitive per-row arrays, an {@link Employee} is created
+     * only for a manager passed to the consumer.
+     * @param salaryComparator the function for the comparison of the manager and employee salaries
+     * @param consumer the receiver of the managers and their positive salary comparison results
+     */
+    @Override
+    public void forEachManagerWithFilterBySalary(final SalaryComparator salaryComparator,
+                                                 final SalaryDifferenceConsumer consumer) {
+        final double[] subordinateSalaries = new double[this.rows];
+        final double[] subordinates = new double[this.rows];
+        for (int row = 0; row < this.rows; row++) {
+            final int manager = this.managers[row];
+            if (manager != NO_MANAGER && this.firstNames[row] != PLACEHOLDER) {
+                subordinateSalaries[manager] += this.salaries[row];
+                subordinates[manager]++;
+            }
+        }
+        if (salaryComparator instanceof SalaryThreshold threshold) {
+            final SalaryThresholdScan scan = SalaryThresholdScan.preferred();
+            final int[] flaggedRows = new int[Math.min(this.rows, SCAN_BLOCK_SIZE)];
+            final double[] differences = new double[flaggedRows.length];
+            for (int from = 0; from < this.rows; from += SCAN_BLOCK_SIZE) {
+                final int flagged = scan.scan(threshold, this.salaries, subordinateSalaries, subordinates, from,
+                        Math.min(this.rows, from + SCAN_BLOCK_SIZE), flaggedRows, differences);
+                for (int i = 0; i < flagged; i++) {
+                    if (this.firstNames[flaggedRows[i]] != PLACEHOLDER) {
+                        consumer.accept(this.toEmployee(flaggedRows[i]), differences[i]);
+                    }
+                }
+            }
+            return;
+        }
+        for (int row = 0; row < this.rows; row++) {
+            if (subordinates[row] == 0.0 || this.firstNames[row] == PLACEHOLDER) {
+                continue;
+            }
+            final double difference = salaryComparator.compare(this.salaries[row],
+                    subordinateSalaries[row] / subordinates[row]);
+            if (difference > 0.0) {
+                consumer.accept(this.toEmployee(row), difference);
+            }
+        }
+    }
+
+    /**
+     * Visit every employee once, the reporting lines and the direct subordinates are taken from
+     * one run of {@link CompanyStructureEngine} over the columns
+     * @param visitor the receiver of the employees
+     */
+    @Override
+    public void forEachEmployee(final EmployeeVisitor visitor) {
+        final CompanyStructureEngine engine = this.structureEngine();
+        final double[] subordinateSalaries = this.isParallel() ? this.subordinateSalarySums(engine) : null;
+        for (int row = 0; row < this.rows; row++) {
+            if (engine.isAbsent(row)) {
+                continue;
+            }
+            final double subordinateSalarySum = Objects.isNull(subordinateSalaries) ?
+                    this.subordinateSalarySum(engine, row) : subordinateSalaries[row];
+            visitor.visit(this.toEmployee(row), engine.depth(row), engine.childEnd(row) - engine.childStart(row),
+                    subordinateSalarySum);
+        }
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates for every manager.
+     * The statistics are calculated in one pass over the columns into primitive per-row aggregates.
+     * @return the map where a key is a manager and value is the statistics of the subordinate salaries
+     */
+    @Override
+    public Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics() {
+        final long[] counts = new long[this.rows];
+        final double[] sums = new double[this.rows];
+        final double[] mins = new double[this.rows];
+        final double[] maxs = new double[this.rows];
+        final double[] means = new double[this.rows];
+        final double[] squaredDeviations = new double[this.rows];
+        for (int row = 0; row < this.rows; row++) {
+            final int manager = this.managers[row];
+            if (manager == NO_MANAGER || this.firstNames[row] == PLACEHOLDER) {
+                continue;
+            }
+            final double salary = this.salaries[row];
+            final long count = ++counts[manager];
+            sums[manager] += salary;
+            mins[manager] = count == 1 ? salary : Math.min(mins[manager], salary);
+            maxs[manager] = count == 1 ? salary : Math.max(maxs[manager], salary);
+            final double delta = salary - means[manager];
+            means[manager] += delta / count;
+            squaredDeviations[manager] += delta * (salary - means[manager]);
+        }
+        final Map<Employee, SalaryStatistics> result = new HashMap<>();
+        for (int row = 0; row < this.rows; row++) {
+            if (counts[row] > 0 && this.firstNames[row] != PLACEHOLDER) {
+                result.put(this.toEmployee(row), new SalaryStatistics(counts[row], sums[row], mins[row], maxs[row],
+                        squaredDeviations[row] / counts[row]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates of the manager.
+     * The subordinates are not indexed, so the columns are scanned once.
+     * @param managerId the id of the manager
+     * @return the statistics or an empty Optional if the employee doesn't exist or has no subordinates
+     */
+    @Override
+    public Optional<SalaryStatistics> getSubordinateSalaryStatistics(final long managerId) {
+        final int managerRow = this.index.get(managerId);
+        if (managerRow == LongIntHashMap.NO_VALUE || this.firstNames[managerRow] == PLACEHOLDER) {
+            return Optional.empty();
+        }
+        final SalaryAccumulator salaries = new SalaryAccumulator();
+        for (int row = 0; row < this.rows; row++) {
+            if (this.managers[row] == managerRow && this.firstNames[row] != PLACEHOLDER) {
+                salaries.add(this.salaries[row]);
+            }
+        }
+        return salaries.count() == 0 ? Optional.empty() : Optional.of(salaries.toStatistics());
+    }
+
+    /**
+     * Checks if a CEO has been defined in the company structure
+     *
+     * @return true if a CEO is defined, otherwise false
+     */
+    @Override
+    public boolean isCEODefined() {
+        return this.ceo != NO_MANAGER;
+    }
+
+    /**
+     * @return The number of employees in the storage, placeholder rows of not added managers are not counted
+     */
+    public int size() {
+        return this.employeeCount;
+    }
+
+    /**
+     * @return The number of threads analyzing the company
+     */
+    public int parallelism() {
+        return this.parallelism;
+    }
+
+    // access to the columns for CompanySnapshot, the arrays are not copied and may be longer than rows
+
+    int rows() {
+        return this.rows;
+    }
+
+    int ceoRow() {
+        return this.ceo;
+    }
+
+    long[] ids() {
+        return this.ids;
+    }
+
+    double[] salaries() {
+        return this.salaries;
+    }
+
+    int[] managers() {
+        return this.managers;
+    }
+
+    int[] firstNames() {
+        return this.firstNames;
+    }
+
+    int[] lastNames() {
+        return this.lastNames;
+    }
+
+    StringPool names() {
+        return this.names;
+    }
+
+    /**
+     * Finds the row of the employee id and creates a placeholder row for an unknown id
+     */
+    private int rowOf(final long id) {
+        final int row = this.index.get(id);
+        if (row != LongIntHashMap.NO_VALUE) {
+            return row;
+        }
+        if (this.rows == this.ids.length) {
+            this.grow(this.ids.length << 1);
+        }
+        final int newRow = this.rows++;
+        this.ids[newRow] = id;
+        this.managers[newRow] = NO_MANAGER;
+        this.firstNames[newRow] = PLACEHOLDER;
+        this.lastNames[newRow] = PLACEHOLDER;
+        this.index.put(id, newRow);
+        return newRow;
+    }
+
+    private boolean isParallel() {
+        return this.parallelism > 1 && this.rows >= CompanyStructureEngine.MIN_PARALLEL_SIZE;
+    }
+
+    private double subordinateSalarySum(final CompanyStructureEngine engine, final int row) {
+        double sum = 0.0;
+        for (int i = engine.childStart(row); i < engine.childEnd(row); i++) {
+            sum += this.salaries[engine.child(i)];
+        }
+        return sum;
+    }
+
+    /**
+     * Sums up the salaries of the direct subordinates per row in parallel, every task sums up the salaries
+     * for its range of rows
+     */
+    private double[] subordinateSalarySums(final CompanyStructureEngine engine) {
+        final double[] sums = new double[this.rows];
+        this.forEachRowRange((from, to) -> {
+            for (int row = from; row < to; row++) {
+                sums[row] = this.subordinateSalarySum(engine, row);
+            }
+        });
+        return sums;
+    }
+
+    /**
+     * Splits the rows into ranges and runs the action for every range in the pool
+     */
+    private void forEachRowRange(final RowRangeAction action) {
+        final int ranges = this.parallelism * RANGES_PER_THREAD;
+        final ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[ranges];
+        for (int i = 0; i < ranges; i++) {
+            final int from = (int) ((long) this.rows * i / ranges);
+            final int to = (int) ((long) this.rows * (i + 1) / ranges);
+            tasks[i] = this.pool.submit(() -> action.run(from, to));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowRangeAction {
+        void run(int from, int to);
+    }
+
+    private void checkNoBulkLoad() {
+        if (Objects.nonNull(this.bulkLoad)) {
+            throw new IllegalStateException("The storage can't be modified while a bulk load is open");
+        }
+    }
+
+    private void grow(final int capacity) {
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.salaries = Arrays.copyOf(this.salaries, capacity);
+        this.managers = Arrays.copyOf(this.managers, capacity);
+        this.firstNames = Arrays.copyOf(this.firstNames, capacity);
+        this.lastNames = Arrays.copyOf(this.lastNames, capacity);
+    }
+
+    private Employee toEmployee(final int row) {
+        final int manager = this.managers[row];
+        return new Employee(this.ids[row], this.names.get(this.firstNames[row]), this.names.get(this.lastNames[row]),
+                this.salaries[row], manager == NO_MANAGER ? null : this.ids[manager]);
+    }
+
+    /**
+     * The rows of a bulk load are the rows from {@link #rows} on, the managers are kept as ids
+     * until the commit
+     */
+    private final class ColumnarBulkLoad implements BulkLoad {
+        private long[] managerIds;
+        private boolean[] hasManager;
+        private int size;
+        private boolean ceoPending;
+        private boolean open;
+
+        private ColumnarBulkLoad(final int expectedRows) {
+            final int capacity = Math.max(expectedRows, 16);
+            this.managerIds = new long[capacity];
+            this.hasManager = new boolean[capacity];
+            this.open = true;
+            final long required = (long) rows + expectedRows;
+            if (required > ids.length) {
+                grow((int) Math.min(required, Integer.MAX_VALUE - 8));
+            }
+        }
+
+        @Override
+        public void add(final Employee employee) {
+            this.checkOpen();
+            final int row = rows + this.size;
+            if (row == ids.length) {
+                grow(ids.length << 1);
+            }
+            if (this.size == this.managerIds.length) {
+                this.managerIds = Arrays.copyOf(this.managerIds, this.size << 1);
+                this.hasManager = Arrays.copyOf(this.hasManager, this.size << 1);
+            }
+            ids[row] = employee.id();
+            salaries[row] = employee.salary();
+            firstNames[row] = names.intern(employee.firstName());
+            lastNames[row] = names.intern(employee.lastName());
+            this.hasManager[this.size] = Objects.nonNull(employee.managerId());
+            if (this.hasManager[this.size]) {
+                this.managerIds[this.size] = employee.managerId();
+            } else {
+                this.ceoPending = true;
+            }
+            this.size++;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public boolean isCEODefined() {
+            return this.ceoPending || ColumnarCompanyEmployeeStorage.this.isCEODefined();
+        }
+
+        /**
+         * Indexes the appended rows in one pass, a row with a known id is merged into the existing row and
+         * the rest are compacted in place. The managers are resolved in a second pass, when all ids of
+         * the load are indexed, so only managers missing from the whole load get placeholder rows.
+         */
+        @Override
+        public void commit() {
+            this.checkOpen();
+            final long[] loadedManagerIds = this.managerIds;
+            final boolean[] loadedHasManager = this.hasManager;
+            this.close();
+            final int base = rows;
+            final int[] targets = new int[this.size];
+            index.ensureCapacity(base + this.size);
+            int next = base;
+            for (int i = 0; i < this.size; i++) {
+                final int appended = base + i;
+                int row = index.get(ids[appended]);
+                if (row == LongIntHashMap.NO_VALUE) {
+                    row = next++;
+                    ids[row] = ids[appended];
+                    index.put(ids[row], row);
+                    employeeCount++;
+                } else if (firstNames[row] == PLACEHOLDER) {
+                    employeeCount++;
+                }
+                salaries[row] = salaries[appended];
+                firstNames[row] = firstNames[appended];
+                lastNames[row] = lastNames[appended];
+                targets[i] = row;
+            }
+            rows = next;
+            for (int i = 0; i < this.size; i++) {
+                final int row = targets[i];
+                if (loadedHasManager[i]) {
+                    managers[row] = rowOf(loadedManagerIds[i]);
+                    if (ceo == row) {
+                        ceo = NO_MANAGER;
+                    }
+                } else {
+                    managers[row] = NO_MANAGER;
+                    if (ceo == NO_MANAGER) {
+                        ceo = row;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (this.open) {
+                this.open = false;
+                this.managerIds = null;
+                this.hasManager = null;
+                bulkLoad = null;
+            }
+        }
+
+        private void checkOpen() {
+            if (!this.open) {
+                throw new IllegalStateException("The bulk load is already committed or closed");
+            }
+        }
+    }
+
+    private static int capacityFor(final int size) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) Math.ceil(size / 0.75));
+    }
+}
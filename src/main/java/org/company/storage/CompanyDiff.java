@@ -0,0 +1,223 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+import org.company.models.EmployeeChange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The difference between two versions of the company
+ * <p>
+ * The changed employees are found by comparing the persistent maps of the versions, the parts shared by
+ * the versions are skipped. The changes affect the reports of a bounded set of employees: the changed
+ * employees, their managers in both versions (the subordinate salaries of the managers change) and
+ * the subtrees of the added, removed and moved employees in both versions (the reporting lines change).
+ * {@link #forEachAffectedEmployee(EmployeeVisitor, EmployeeVisitor)} visits only these employees, the reporting
+ * lines are calculated by walking up the managers with a memo, so the cost depends on the size of the changes
+ * and not on the size of the company.
+ * </p>
+ */
+public final class CompanyDiff {
+    private final CompanyVersion older;
+    private final CompanyVersion newer;
+    private final List<EmployeeChange> changes;
+    private final long[] affected;
+
+    CompanyDiff(final CompanyVersion older, final CompanyVersion newer) {
+        this.older = older;
+        this.newer = newer;
+        final List<EmployeeChange> found = new ArrayList<>();
+        older.employees().diff(newer.employees(), (id, before, after) -> found.add(new EmployeeChange(before, after)));
+        found.sort(Comparator.comparingLong(EmployeeChange::id));
+        this.changes = Collections.unmodifiableList(found);
+        this.affected = this.collectAffected();
+    }
+
+    public CompanyVersion older() {
+        return this.older;
+    }
+
+    public CompanyVersion newer() {
+        return this.newer;
+    }
+
+    /**
+     * @return The added, removed and changed employees ordered by id
+     */
+    public List<EmployeeChange> changes() {
+        return this.changes;
+    }
+
+    /**
+     * @return The number of employees whose reports may differ between the versions
+     */
+    public int affectedEmployees() {
+        return this.affected.length;
+    }
+
+    /**
+     * Visit the affected employees of the older and then of the newer version with the same values as
+     * {@link CompanyEmployeeStorage#forEachEmployee(EmployeeVisitor)} of the version. An affected employee
+     * is visited only in the versions it belongs to.
+     * @param olderVisitor the receiver of the affected employees of the older version
+     * @param newerVisitor the receiver of the affected employees of the newer version
+     */
+    public void forEachAffectedEmployee(final EmployeeVisitor olderVisitor, final EmployeeVisitor newerVisitor) {
+        visit(this.older, this.affected, olderVisitor);
+        visit(this.newer, this.affected, newerVisitor);
+    }
+
+    private long[] collectAffected() {
+        final LongIntHashMap seen = new LongIntHashMap();
+        final AffectedIds ids = new AffectedIds();
+        for (EmployeeChange change : this.changes) {
+            ids.add(change.id(), seen);
+            if (Objects.nonNull(change.before()) && Objects.nonNull(change.before().managerId())) {
+                ids.add(change.before().managerId(), seen);
+            }
+            if (Objects.nonNull(change.after()) && Objects.nonNull(change.after().managerId())) {
+                ids.add(change.after().managerId(), seen);
+            }
+        }
+        final LongIntHashMap olderExpanded = new LongIntHashMap();
+        final LongIntHashMap newerExpanded = new LongIntHashMap();
+        for (EmployeeChange change : this.changes) {
+            if (change.isAdded() || change.isRemoved() || change.isMoved()) {
+                addSubtree(this.older, change.id(), olderExpanded, ids, seen);
+                addSubtree(this.newer, change.id(), newerExpanded, ids, seen);
+            }
+        }
+        return ids.toArray();
+    }
+
+    /**
+     * Breadth-first collection of the subordinates of the employee, every employee is expanded once per version
+     * even if the subordinates form a cycle
+     */
+    private static void addSubtree(final CompanyVersion version, final long id, final LongIntHashMap expanded,
+                                   final AffectedIds ids, final LongIntHashMap seen) {
+        if (expanded.get(id) != LongIntHashMap.NO_VALUE) {
+            return;
+        }
+        expanded.put(id, 0);
+        final AffectedIds queue = new AffectedIds();
+        queue.add(id, null);
+        for (int head = 0; head < queue.size; head++) {
+            final PersistentLongMap<Employee> subordinates = version.subordinates(queue.ids[head]);
+            if (Objects.isNull(subordinates)) {
+                continue;
+            }
+            subordinates.forEach((subordinateId, subordinate) -> {
+                if (expanded.get(subordinateId) == LongIntHashMap.NO_VALUE) {
+                    expanded.put(subordinateId, 0);
+                    queue.add(subordinateId, null);
+                    ids.add(subordinateId, seen);
+                }
+            });
+        }
+    }
+
+    private static void visit(final CompanyVersion version, final long[] ids, final EmployeeVisitor visitor) {
+        final ReportingLines reportingLines = new ReportingLines(version);
+        for (long id : ids) {
+            final Employee employee = version.employees().get(id);
+            if (Objects.isNull(employee)) {
+                continue;
+            }
+            final PersistentLongMap<Employee> subordinates = version.subordinates(id);
+            visitor.visit(employee, reportingLines.length(employee),
+                    Objects.isNull(subordinates) ? 0 : subordinates.size(),
+                    Objects.isNull(subordinates) ? 0.0 : CompanyVersion.salarySum(subordinates));
+        }
+    }
+
+    /**
+     * The growing list of distinct employee ids
+     */
+    private static final class AffectedIds {
+        private long[] ids = new long[16];
+        private int size;
+
+        /**
+         * @param seen The ids added before, null to add the id without the check
+         */
+        private void add(final long id, final LongIntHashMap seen) {
+            if (Objects.nonNull(seen)) {
+                if (seen.get(id) != LongIntHashMap.NO_VALUE) {
+                    return;
+                }
+                seen.put(id, 0);
+            }
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size << 1);
+            }
+            this.ids[this.size++] = id;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(this.ids, this.size);
+        }
+    }
+
+    /**
+     * The lengths of the reporting lines of a version calculated by walking up the managers, every length
+     * is calculated once. The memo keeps the length plus one, 0 for an employee without a reporting line
+     * and {@link #IN_PROGRESS} for the employees on the current walk, so a cycle is found when the walk
+     * reaches one of them.
+     */
+    private static final class ReportingLines {
+        private static final int IN_PROGRESS = Integer.MAX_VALUE;
+
+        private final CompanyVersion version;
+        private final LongIntHashMap memo;
+        private final AffectedIds path;
+
+        private ReportingLines(final CompanyVersion version) {
+            this.version = version;
+            this.memo = new LongIntHashMap();
+            this.path = new AffectedIds();
+        }
+
+        /**
+         * @return The length of the reporting line or {@link EmployeeVisitor#NO_REPORTING_LINE}
+         */
+        private int length(final Employee employee) {
+            this.path.size = 0;
+            Employee current = employee;
+            boolean connected;
+            int length;
+            while (true) {
+                final int known = this.memo.get(current.id());
+                if (known != LongIntHashMap.NO_VALUE) {
+                    connected = known > 0 && known != IN_PROGRESS;
+                    length = connected ? known - 1 : 0;
+                    break;
+                }
+                this.path.add(current.id(), null);
+                this.memo.put(current.id(), IN_PROGRESS);
+                if (Objects.isNull(current.managerId())) {
+                    connected = true;
+                    length = -1;
+                    break;
+                }
+                current = this.version.employees().get(current.managerId());
+                if (Objects.isNull(current)) {
+                    connected = false;
+                    length = 0;
+                    break;
+                }
+            }
+            for (int i = this.path.size - 1; i >= 0; i--) {
+                length++;
+                this.memo.put(this.path.ids[i], connected ? length + 1 : 0);
+            }
+            final int result = this.memo.get(employee.id());
+            return result == 0 ? EmployeeVisitor.NO_REPORTING_LINE : result - 1;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package org.company.storage;
 
+import org.company.models.CompanyStructure;
 import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.function.BiFunction;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Interface for company employee storage.
@@ -18,18 +23,90 @@ public interface CompanyEmployeeStorage {
      */
     void addEmployee(Employee newEmployee);
 
+    /**
+     * Add the employees to the company structure in the order of the collection, the result is the same as of
+     * {@link #addEmployee(Employee)} for every employee. The storage doesn't keep the collection.
+     * @param newEmployees the new employee instances
+     */
+    default void addEmployees(final Collection<Employee> newEmployees) {
+        for (Employee newEmployee : newEmployees) {
+            this.addEmployee(newEmployee);
+        }
+    }
+
+    /**
+     * Start a load of many employees, the employees are buffered and indexed once by {@link BulkLoad#commit()}.
+     * By default the employees are added by {@link #addEmployees(Collection)} on commit.
+     * @param expectedRows the expected number of employees, the buffers and the indices are pre-sized for it
+     * @return the open load
+     */
+    default BulkLoad beginBulkLoad(final int expectedRows) {
+        return new BufferedBulkLoad(this, expectedRows);
+    }
+
     /**
      * Calculate the structure of the company
      * @return the map where a key is employee and some value
      */
     Map<Employee, Integer> calculateCompanyStructure();
 
+    /**
+     * Get the employees with a reporting line longer than the given length
+     * @param maxLength the maximal allowed length of the reporting line
+     * @return the map where a key is employee and value is a length of reporting line exceeding maxLength
+     */
+    default Map<Employee, Integer> getEmployeesWithReportingLineLongerThan(final int maxLength) {
+        return this.calculateCompanyStructure().entrySet().stream()
+                .filter(entry -> entry.getValue() > maxLength)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Analyze the structure of the company
+     * @return the reporting lines of employees connected to the CEO and the problems of the structure
+     * like orphaned employees or cycles
+     */
+    CompanyStructure analyzeCompanyStructure();
+
     /**
      * Get the map with the managers filtering by salary function
-     * @param salaryComparisonFunction the function for the salary comparison
+     * @param salaryComparator the function for the salary comparison
      * @return the map where a key is a manager and a result of the salary comparison
      */
-    Map<Employee, Double> getManagersWithFilterBySalary(BiFunction<Double, Double, Double> salaryComparisonFunction);
+    default Map<Employee, Double> getManagersWithFilterBySalary(final SalaryComparator salaryComparator) {
+        final Map<Employee, Double> result = new HashMap<>();
+        this.forEachManagerWithFilterBySalary(salaryComparator, result::put);
+        return result;
+    }
+
+    /**
+     * Scan the managers and pass the ones with a positive result of the salary function to the consumer.
+     * The scan works on primitive salaries, the only allocations are made by the consumer.
+     * @param salaryComparator the function for the salary comparison
+     * @param consumer the receiver of the managers and their positive salary comparison results
+     */
+    void forEachManagerWithFilterBySalary(SalaryComparator salaryComparator, SalaryDifferenceConsumer consumer);
+
+    /**
+     * Visit every employee once with the length of the reporting line and the number and the salary sum of
+     * the direct subordinates, so all reports of the company can be calculated in one pass.
+     * Employees without a reporting line to the CEO are visited with {@link EmployeeVisitor#NO_REPORTING_LINE}.
+     * @param visitor the receiver of the employees
+     */
+    void forEachEmployee(EmployeeVisitor visitor);
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates for every manager
+     * @return the map where a key is a manager and value is the statistics of the subordinate salaries
+     */
+    Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics();
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates of the manager
+     * @param managerId the id of the manager
+     * @return the statistics or an empty Optional if the employee doesn't exist or has no subordinates
+     */
+    Optional<SalaryStatistics> getSubordinateSalaryStatistics(long managerId);
 
     /**
      * Checks if a CEO has been defined in the company structure
@@ -1,10 +1,10 @@
 package org.company.storage;
 
+import org.company.models.CompanyStructure;
 import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
 
 import java.util.*;
-import java.util.function.BiFunction;
-import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -14,94 +14,166 @@ import java.util.stream.Collectors;
  * <p>
  *  Defines the operations to calculate the company structure and provide employees filtering by salary
  * </p>
+ * Adding an employee with an existing id replaces the previous data of that employee, the previous salary
+ * is removed from the subordinate salaries of the previous manager. If it was the minimal or the maximal one,
+ * the bounds of that manager are rebuilt from the direct subordinates, which are indexed from the first such
+ * replacement on, so the loads without replacements don't pay for the index and the queries don't change
+ * the storage.
  */
 public class CompanyEmployeeStorageImpl implements CompanyEmployeeStorage{
     private final static Logger LOGGER = Logger.getLogger(CompanyEmployeeStorageImpl.class.getName());
-    private final Map<Long, Employee> employees;
-    private final Employee ceo;
-    private final Map<Employee, Integer> reportingLineMap;
-    private final Map<Long, List<Double>> subordinateSalaryMap;
+    private Map<Long, Employee> employees;
+    private Employee ceo;
+    private final Map<Long, SalaryAccumulator> subordinateSalaryMap;
+    /**
+     * The ids of the direct subordinates of every manager, null until a replacement removes a minimal or
+     * a maximal subordinate salary
+     */
+    private Map<Long, Set<Long>> subordinateIds;
 
     public CompanyEmployeeStorageImpl() {
         this.employees = new HashMap<>();
-        this.reportingLineMap = new HashMap<>();
         this.subordinateSalaryMap = new HashMap<>();
         this.ceo = null;
     }
 
     /**
-     * Add an employee to the company structure
+     * Add an employee to the company structure or replace the employee with the same id
      * @param newEmployee the new employee instance
      */
     @Override
     public void addEmployee(final Employee newEmployee){
-        this.employees.put(newEmployee.id(), newEmployee);
+        final Employee previous = this.employees.put(newEmployee.id(), newEmployee);
+        if (Objects.nonNull(previous) && Objects.nonNull(previous.managerId())) {
+            this.removeSubordinateSalary(previous);
+        }
+        if (Objects.isNull(newEmployee.managerId()) && (Objects.isNull(this.ceo) || this.ceo.equals(previous))) {
+            this.ceo = newEmployee;
+        } else if (Objects.nonNull(previous) && previous.equals(this.ceo)) {
+            this.ceo = null;
+        }
         if (Objects.nonNull(newEmployee.managerId())) {
-            this.subordinateSalaryMap.putIfAbsent(newEmployee.managerId(), new ArrayList<>());
-            this.subordinateSalaryMap.get(newEmployee.managerId()).add(newEmployee.salary());
+            this.subordinateSalaryMap.computeIfAbsent(newEmployee.managerId(), id -> new SalaryAccumulator())
+                    .add(newEmployee.salary());
+            if (Objects.nonNull(this.subordinateIds)) {
+                this.subordinateIds.computeIfAbsent(newEmployee.managerId(), id -> new HashSet<>())
+                        .add(newEmployee.id());
+            }
+        }
+    }
+
+    /**
+     * Add the employees to the company structure. The id map is re-created with the capacity for all employees
+     * when the collection is larger than the storage, so it isn't rehashed while the employees are added.
+     * @param newEmployees the new employee instances
+     */
+    @Override
+    public void addEmployees(final Collection<Employee> newEmployees) {
+        if (newEmployees.size() > this.employees.size()) {
+            final long required = (long) this.employees.size() + newEmployees.size();
+            final Map<Long, Employee> resized = new HashMap<>((int) Math.min(Integer.MAX_VALUE, required * 4 / 3 + 1));
+            resized.putAll(this.employees);
+            this.employees = resized;
+        }
+        for (Employee newEmployee : newEmployees) {
+            this.addEmployee(newEmployee);
         }
     }
 
     /**
      * Calculate the structure of the company that provides a length of a reporting line for every employee.
-     * The reporting line depth is the number of levels up to the CEO.
+     * The reporting line depth is the number of levels up to the CEO. Employees without a reporting line
+     * to the CEO (orphaned subtrees and cycles) are skipped and the problems are logged.
      * @return the map where a key is employee and value is a length of reporting line
      */
     @Override
     public Map<Employee, Integer> calculateCompanyStructure() {
-        try {
-            return employees.values().stream()
-                    .collect(Collectors.toMap(
-                            Function.identity(),
-                            employee -> this.calculateReportingLineDepth(employee, 1)
-                    ));
-        }  catch (IllegalStateException ex) {
-            LOGGER.log(Level.WARNING, String.format("Failed to calculate company structure: %s", ex.getMessage()), ex);
-            return Collections.emptyMap();
+        final CompanyStructure structure = this.analyzeCompanyStructure();
+        if (!structure.isValid()) {
+            LOGGER.log(Level.WARNING, String.format("Company structure has %d problem(s), the first one: %s",
+                    structure.diagnostics().size(), structure.diagnostics().get(0)));
         }
+        return structure.reportingLines();
     }
 
     /**
-     * Recursive function that allow to calculate a reporting line of the employee
-     * @param employee the employee
-     * @param recursionDepth the depth of the recursion in the current step
-     * @return the reporting line for an employee
-     * @throws IllegalStateException if recursion exceeds a maximum allowed depth (count of employees).
-     * Need to avoid an endless loop.
+     * Analyze the structure of the company in one pass with {@link CompanyStructureEngine}.
+     * @return the reporting lines of employees connected to the CEO and the problems of the structure
      */
-    private Integer calculateReportingLineDepth(final Employee employee, final int recursionDepth) throws IllegalStateException {
-        if (recursionDepth > employees.size()) {
-            throw new IllegalStateException(String.format("Exceeded maximum allowed depth %s", employees.size()));
+    @Override
+    public CompanyStructure analyzeCompanyStructure() {
+        final Employee[] rowEmployees = this.employees.values().toArray(new Employee[0]);
+        final CompanyStructureEngine engine = CompanyStructureEngine.forEmployees(rowEmployees);
+        final Map<Employee, Integer> reportingLines = new HashMap<>((int) Math.ceil(engine.reachable() / 0.75));
+        for (int position = 0; position < engine.reachable(); position++) {
+            final int row = engine.rowInOrder(position);
+            reportingLines.put(rowEmployees[row], engine.depth(row));
         }
-        if (Objects.isNull(employee.managerId())) return 0;
-        if (this.reportingLineMap.containsKey(employee))
-            return this.reportingLineMap.get(employee);
-        final Employee manager = employees.get(employee.managerId());
-        int depth = 1 + this.calculateReportingLineDepth(manager, recursionDepth + 1);
-        this.reportingLineMap.put(employee, depth);
-        return depth;
+        return new CompanyStructure(reportingLines, engine.diagnostics());
     }
 
     /**
-     * Get the map with the managers filtering by salary function
-     * @param salaryComparisonFunction the function for the comparison of the manager and employee salaries
-     * @return the map where a key is a manager and a result of the salary comparison
+     * Scan the managers and pass the ones with a positive result of the salary function to the consumer
+     * @param salaryComparator the function for the comparison of the manager and employee salaries
+     * @param consumer the receiver of the managers and their positive salary comparison results
      */
     @Override
-    public Map<Employee, Double> getManagersWithFilterBySalary(final BiFunction<Double, Double, Double> salaryComparisonFunction) {
+    public void forEachManagerWithFilterBySalary(final SalaryComparator salaryComparator,
+                                                 final SalaryDifferenceConsumer consumer) {
+        for (Map.Entry<Long, SalaryAccumulator> entry : this.subordinateSalaryMap.entrySet()) {
+            final Employee manager = this.employees.get(entry.getKey());
+            if (Objects.isNull(manager)) {
+                continue;
+            }
+            final double difference = salaryComparator.compare(manager.salary(), entry.getValue().average());
+            if (difference > 0.0) {
+                consumer.accept(manager, difference);
+            }
+        }
+    }
+
+    /**
+     * Visit every employee once, the reporting lines and the direct subordinates are taken from
+     * one run of {@link CompanyStructureEngine}
+     * @param visitor the receiver of the employees
+     */
+    @Override
+    public void forEachEmployee(final EmployeeVisitor visitor) {
+        final Employee[] rowEmployees = this.employees.values().toArray(new Employee[0]);
+        final CompanyStructureEngine engine = CompanyStructureEngine.forEmployees(rowEmployees);
+        for (int row = 0; row < rowEmployees.length; row++) {
+            double subordinateSalarySum = 0.0;
+            for (int i = engine.childStart(row); i < engine.childEnd(row); i++) {
+                subordinateSalarySum += rowEmployees[engine.child(i)].salary();
+            }
+            visitor.visit(rowEmployees[row], engine.depth(row), engine.childEnd(row) - engine.childStart(row),
+                    subordinateSalarySum);
+        }
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates for every manager
+     * @return the map where a key is a manager and value is the statistics of the subordinate salaries
+     */
+    @Override
+    public Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics() {
         return this.subordinateSalaryMap.entrySet().stream()
-                .map(entry -> new AbstractMap.SimpleEntry<>(
-                        this.employees.get(entry.getKey()),
-                        this.calculateAverageDifference(entry, salaryComparisonFunction)
-                ))
-                .filter(entry -> entry.getValue() > 0.0)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                .filter(entry -> this.employees.containsKey(entry.getKey()))
+                .collect(Collectors.toMap(entry -> this.employees.get(entry.getKey()),
+                        entry -> entry.getValue().toStatistics()));
     }
 
-    private Double calculateAverageDifference(final Map.Entry<Long, List<Double>> entry, final BiFunction<Double, Double, Double> salaryComparisonFunction) {
-        double avgSubordinateSalary = entry.getValue().stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        double managerSalary = employees.get(entry.getKey()).salary();
-        return salaryComparisonFunction.apply(managerSalary, avgSubordinateSalary);
+    /**
+     * Get the statistics of the salaries of the direct subordinates of the manager
+     * @param managerId the id of the manager
+     * @return the statistics or an empty Optional if the employee doesn't exist or has no subordinates
+     */
+    @Override
+    public Optional<SalaryStatistics> getSubordinateSalaryStatistics(final long managerId) {
+        if (!this.employees.containsKey(managerId)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.subordinateSalaryMap.get(managerId)).map(SalaryAccumulator::toStatistics);
     }
 
     /**
@@ -113,4 +185,40 @@ public class CompanyEmployeeStorageImpl implements CompanyEmployeeStorage{
     public boolean isCEODefined() {
         return Objects.nonNull(this.ceo);
     }
-}
\ No newline at end of file
+
+    private void removeSubordinateSalary(final Employee previous) {
+        if (Objects.nonNull(this.subordinateIds)) {
+            final Set<Long> siblings = this.subordinateIds.get(previous.managerId());
+            siblings.remove(previous.id());
+            if (siblings.isEmpty()) {
+                this.subordinateIds.remove(previous.managerId());
+            }
+        }
+        final SalaryAccumulator salaries = this.subordinateSalaryMap.get(previous.managerId());
+        final boolean boundsKept = salaries.remove(previous.salary());
+        if (salaries.count() == 0) {
+            this.subordinateSalaryMap.remove(previous.managerId());
+        } else if (!boundsKept) {
+            salaries.resetBounds();
+            for (Long id : this.subordinateIds().getOrDefault(previous.managerId(), Set.of())) {
+                salaries.addToBounds(this.employees.get(id).salary());
+            }
+        }
+    }
+
+    /**
+     * @return The index of the direct subordinates, built from the employees on the first call
+     */
+    private Map<Long, Set<Long>> subordinateIds() {
+        if (Objects.isNull(this.subordinateIds)) {
+            this.subordinateIds = new HashMap<>();
+            for (Employee employee : this.employees.values()) {
+                if (Objects.nonNull(employee.managerId())) {
+                    this.subordinateIds.computeIfAbsent(employee.managerId(), id -> new HashSet<>())
+                            .add(employee.id());
+                }
+            }
+        }
+        return this.subordinateIds;
+    }
+}
@@ -0,0 +1,359 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary snapshot of a {@link CompanyEmployeeStorage}
+ * <p>
+ * The snapshot keeps the columns of a {@link ColumnarCompanyEmployeeStorage}, the string pool of the names,
+ * the precomputed length of the reporting line per row, the aggregates of the direct subordinate salaries
+ * per row and an open-addressing index from the employee id to the row. All numbers are little-endian.
+ * </p>
+ * <pre>
+ * header:  int magic, int format version, int rows, int employees, int CEO row, int structure problems,
+ *          int names, int index capacity,
+ *          per section: long offset, long length, int CRC32C of the section, int reserved,
+ *          int CRC32C of the header
+ * sections: 8-byte aligned, in the order of {@link Section}
+ * </pre>
+ * A snapshot is written to a temporary file which replaces the target file once it is complete.
+ * {@link #open(Path)} reads and verifies only the header and maps the sections, every section is verified
+ * against its checksum when it is read for the first time.
+ */
+public final class CompanySnapshot {
+    static final int MAGIC = 0x504D4543;
+    static final int FORMAT_VERSION = 1;
+    static final int FIELDS_SIZE = 32;
+    static final int SECTION_ENTRY_SIZE = 24;
+    static final int HEADER_SIZE = align(FIELDS_SIZE + Section.values().length * SECTION_ENTRY_SIZE + Integer.BYTES);
+    private static final int ALIGNMENT = 8;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final int MIN_INDEX_CAPACITY = 16;
+
+    /**
+     * The sections of the snapshot with the size of one element
+     */
+    enum Section {
+        IDS(Long.BYTES),
+        SALARIES(Double.BYTES),
+        MANAGERS(Integer.BYTES),
+        FIRST_NAMES(Integer.BYTES),
+        LAST_NAMES(Integer.BYTES),
+        DEPTHS(Integer.BYTES),
+        SUBORDINATE_COUNTS(Integer.BYTES),
+        SUBORDINATE_SUMS(Double.BYTES),
+        SUBORDINATE_MINS(Double.BYTES),
+        SUBORDINATE_MAXS(Double.BYTES),
+        SUBORDINATE_SQUARED_DEVIATIONS(Double.BYTES),
+        NAME_OFFSETS(Integer.BYTES),
+        NAME_BYTES(Byte.BYTES),
+        INDEX(Integer.BYTES);
+
+        final int elementSize;
+
+        Section(final int elementSize) {
+            this.elementSize = elementSize;
+        }
+    }
+
+    private CompanySnapshot() {
+    }
+
+    /**
+     * Writes the snapshot of the storage. A storage other than {@link ColumnarCompanyEmployeeStorage} is copied
+     * into the columns first.
+     *
+     * @param storage The storage
+     * @param file The path of the snapshot, an existing file is replaced
+     * @throws IOException If the snapshot can't be written
+     */
+    public static void write(final CompanyEmployeeStorage storage, final Path file) throws IOException {
+        final ColumnarCompanyEmployeeStorage columns;
+        if (storage instanceof ColumnarCompanyEmployeeStorage columnar) {
+            columns = columnar;
+        } else {
+            columns = new ColumnarCompanyEmployeeStorage();
+            storage.forEachEmployee((employee, reportingLineLength, subordinates, salarySum) ->
+                    columns.addEmployee(employee));
+        }
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            new Writer(columns, channel).write();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Opens the snapshot without reading the employees, the header is verified and the sections are mapped
+     *
+     * @param file The path of the snapshot
+     * @return The read-only storage on top of the mapped snapshot, copied into a columnar storage on the first write
+     * @throws IOException If the file can't be read, is not a snapshot, has an unsupported format version
+     * or a corrupted header
+     */
+    public static MappedCompanyEmployeeStorage open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Truncated snapshot header: " + file);
+                }
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a company snapshot: " + file);
+            }
+            if (header.getInt(4) != FORMAT_VERSION) {
+                throw new IOException(String.format("Unsupported snapshot format version %d: %s",
+                        header.getInt(4), file));
+            }
+            final int checksumPosition = FIELDS_SIZE + Section.values().length * SECTION_ENTRY_SIZE;
+            if (header.getInt(checksumPosition) != checksum(header, 0, checksumPosition)) {
+                throw new IOException("Corrupted snapshot header: " + file);
+            }
+            final int rows = header.getInt(8);
+            final int names = header.getInt(24);
+            final int indexCapacity = header.getInt(28);
+            final ByteBuffer[] sections = new ByteBuffer[Section.values().length];
+            final int[] checksums = new int[sections.length];
+            for (Section section : Section.values()) {
+                final int entry = FIELDS_SIZE + section.ordinal() * SECTION_ENTRY_SIZE;
+                final long offset = header.getLong(entry);
+                final long length = header.getLong(entry + Long.BYTES);
+                final long expectedLength = (long) section.elementSize * switch (section) {
+                    case NAME_OFFSETS -> names + 1L;
+                    case NAME_BYTES -> length;
+                    case INDEX -> indexCapacity;
+                    default -> rows;
+                };
+                if (length != expectedLength || offset < HEADER_SIZE || offset + length > channel.size()
+                        || length > Integer.MAX_VALUE) {
+                    throw new IOException(String.format("Invalid snapshot section %s: %s", section, file));
+                }
+                sections[section.ordinal()] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                checksums[section.ordinal()] = header.getInt(entry + 2 * Long.BYTES);
+            }
+            return new MappedCompanyEmployeeStorage(file, rows, header.getInt(12), header.getInt(16),
+                    header.getInt(20), names, indexCapacity, sections, checksums);
+        }
+    }
+
+    static int checksum(final ByteBuffer buffer, final int offset, final int length) {
+        final CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().clear().position(offset).limit(offset + length));
+        return (int) crc.getValue();
+    }
+
+    private static int align(final int position) {
+        return (position + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static long align(final long position) {
+        return (position + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Calculates the derived sections of the columns and writes the sections, the header is written last
+     */
+    private static final class Writer {
+        private final ColumnarCompanyEmployeeStorage columns;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final ByteBuffer header;
+        private final CRC32C crc;
+        private final int rows;
+        private long position;
+        private long sectionOffset;
+
+        private Writer(final ColumnarCompanyEmployeeStorage columns, final FileChannel channel) {
+            this.columns = columns;
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            this.header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            this.crc = new CRC32C();
+            this.rows = columns.rows();
+            this.position = HEADER_SIZE;
+        }
+
+        private void write() throws IOException {
+            final int[] firstNames = this.columns.firstNames();
+            final int[] managers = this.columns.managers();
+            final double[] salaries = this.columns.salaries();
+            final CompanyStructureEngine engine = this.columns.structureEngine();
+
+            this.writeLongs(Section.IDS, this.columns.ids(), this.rows);
+            this.writeDoubles(Section.SALARIES, salaries, this.rows);
+            this.writeInts(Section.MANAGERS, managers, this.rows);
+            this.writeInts(Section.FIRST_NAMES, firstNames, this.rows);
+            this.writeInts(Section.LAST_NAMES, this.columns.lastNames(), this.rows);
+            final int[] depths = new int[this.rows];
+            for (int row = 0; row < this.rows; row++) {
+                depths[row] = engine.depth(row);
+            }
+            this.writeInts(Section.DEPTHS, depths, this.rows);
+
+            final int[] counts = new int[this.rows];
+            final double[] sums = new double[this.rows];
+            final double[] mins = new double[this.rows];
+            final double[] maxs = new double[this.rows];
+            final double[] means = new double[this.rows];
+            final double[] squaredDeviations = new double[this.rows];
+            for (int row = 0; row < this.rows; row++) {
+                final int manager = managers[row];
+                if (manager == CompanyStructureEngine.NO_PARENT
+                        || firstNames[row] == ColumnarCompanyEmployeeStorage.PLACEHOLDER) {
+                    continue;
+                }
+                final double salary = salaries[row];
+                final int count = ++counts[manager];
+                sums[manager] += salary;
+                mins[manager] = count == 1 ? salary : Math.min(mins[manager], salary);
+                maxs[manager] = count == 1 ? salary : Math.max(maxs[manager], salary);
+                final double delta = salary - means[manager];
+                means[manager] += delta / count;
+                squaredDeviations[manager] += delta * (salary - means[manager]);
+            }
+            this.writeInts(Section.SUBORDINATE_COUNTS, counts, this.rows);
+            this.writeDoubles(Section.SUBORDINATE_SUMS, sums, this.rows);
+            this.writeDoubles(Section.SUBORDINATE_MINS, mins, this.rows);
+            this.writeDoubles(Section.SUBORDINATE_MAXS, maxs, this.rows);
+            this.writeDoubles(Section.SUBORDINATE_SQUARED_DEVIATIONS, squaredDeviations, this.rows);
+
+            final StringPool names = this.columns.names();
+            final byte[][] encodedNames = new byte[names.size()][];
+            final int[] nameOffsets = new int[names.size() + 1];
+            for (int name = 0; name < names.size(); name++) {
+                encodedNames[name] = names.get(name).getBytes(StandardCharsets.UTF_8);
+                nameOffsets[name + 1] = Math.addExact(nameOffsets[name], encodedNames[name].length);
+            }
+            this.writeInts(Section.NAME_OFFSETS, nameOffsets, nameOffsets.length);
+            this.writeBytes(Section.NAME_BYTES, encodedNames, nameOffsets[names.size()]);
+
+            final int[] index = this.buildIndex();
+            this.writeInts(Section.INDEX, index, index.length);
+
+            this.header.putInt(0, MAGIC)
+                    .putInt(4, FORMAT_VERSION)
+                    .putInt(8, this.rows)
+                    .putInt(12, this.columns.size())
+                    .putInt(16, this.columns.ceoRow())
+                    .putInt(20, engine.diagnostics().size())
+                    .putInt(24, names.size())
+                    .putInt(28, index.length);
+            final int checksumPosition = FIELDS_SIZE + Section.values().length * SECTION_ENTRY_SIZE;
+            this.header.putInt(checksumPosition, checksum(this.header, 0, checksumPosition));
+            this.header.clear();
+            while (this.header.hasRemaining()) {
+                this.channel.write(this.header, this.header.position());
+            }
+        }
+
+        /**
+         * Open addressing with linear probing over the rows, a slot holds the row or {@link LongIntHashMap#NO_VALUE}
+         */
+        private int[] buildIndex() {
+            final long[] ids = this.columns.ids();
+            final int capacity = Math.max(MIN_INDEX_CAPACITY, Integer.highestOneBit(Math.max(1, this.rows)) << 2);
+            final int mask = capacity - 1;
+            final int[] index = new int[capacity];
+            Arrays.fill(index, LongIntHashMap.NO_VALUE);
+            for (int row = 0; row < this.rows; row++) {
+                int slot = LongIntHashMap.hash(ids[row]) & mask;
+                while (index[slot] != LongIntHashMap.NO_VALUE) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = row;
+            }
+            return index;
+        }
+
+        private void writeLongs(final Section section, final long[] values, final int count) throws IOException {
+            this.beginSection();
+            for (int i = 0; i < count; i++) {
+                this.ensureRemaining(Long.BYTES);
+                this.buffer.putLong(values[i]);
+            }
+            this.endSection(section, (long) count * Long.BYTES);
+        }
+
+        private void writeDoubles(final Section section, final double[] values, final int count) throws IOException {
+            this.beginSection();
+            for (int i = 0; i < count; i++) {
+                this.ensureRemaining(Double.BYTES);
+                this.buffer.putDouble(values[i]);
+            }
+            this.endSection(section, (long) count * Double.BYTES);
+        }
+
+        private void writeInts(final Section section, final int[] values, final int count) throws IOException {
+            this.beginSection();
+            for (int i = 0; i < count; i++) {
+                this.ensureRemaining(Integer.BYTES);
+                this.buffer.putInt(values[i]);
+            }
+            this.endSection(section, (long) count * Integer.BYTES);
+        }
+
+        private void writeBytes(final Section section, final byte[][] values, final int length) throws IOException {
+            this.beginSection();
+            for (byte[] value : values) {
+                int offset = 0;
+                while (offset < value.length) {
+                    this.ensureRemaining(1);
+                    final int chunk = Math.min(this.buffer.remaining(), value.length - offset);
+                    this.buffer.put(value, offset, chunk);
+                    offset += chunk;
+                }
+            }
+            this.endSection(section, length);
+        }
+
+        private void beginSection() {
+            this.position = align(this.position);
+            this.sectionOffset = this.position;
+            this.crc.reset();
+            this.buffer.clear();
+        }
+
+        private void endSection(final Section section, final long length) throws IOException {
+            this.flushBuffer();
+            final int entry = FIELDS_SIZE + section.ordinal() * SECTION_ENTRY_SIZE;
+            this.header.putLong(entry, this.sectionOffset)
+                    .putLong(entry + Long.BYTES, length)
+                    .putInt(entry + 2 * Long.BYTES, (int) this.crc.getValue());
+        }
+
+        private void ensureRemaining(final int bytes) throws IOException {
+            if (this.buffer.remaining() < bytes) {
+                this.flushBuffer();
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            this.buffer.flip();
+            this.crc.update(this.buffer);
+            this.buffer.rewind();
+            while (this.buffer.hasRemaining()) {
+                this.position += this.channel.write(this.buffer, this.position);
+            }
+            this.buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+import org.company.models.StructureDiagnostic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Linear-time engine calculating the reporting lines of the whole company
+ * <p>
+ * The engine works on dense rows: the employee id and the row of the manager per row. A row may be absent,
+ * it is then a manager referenced by employees but not defined itself. The engine builds a child adjacency
+ * index in compressed form (the children of a row are {@code children[childStart[row]..childStart[row + 1])}
+ * in row order) and runs an iterative breadth-first traversal from the CEO, so every depth is calculated
+ * once in O(n) without recursion. Employees which are not reachable from the CEO are reported as
+ * {@link StructureDiagnostic} of orphaned subtrees and cycles, every row is visited a constant number of times.
+ * </p>
+ * With a {@link ForkJoinPool} the upper levels are traversed by the calling thread until there are several
+ * subtrees per thread, the subtrees are then traversed in the pool. Every task collects its rows in its own
+ * buffer and writes the depths of its rows only, the buffers are appended to the traversal order in the order
+ * of the subtrees. The depths, the diagnostics and the pre-order numbering are the same as in the sequential
+ * traversal, only the positions of the rows in {@link #rowInOrder(int)} may differ.
+ */
+final class CompanyStructureEngine {
+    /**
+     * The parent of a row without a manager
+     */
+    static final int NO_PARENT = -1;
+    /**
+     * The depth of a row without a reporting line to the CEO
+     */
+    static final int NO_DEPTH = EmployeeVisitor.NO_REPORTING_LINE;
+    /**
+     * The smallest number of rows traversed in parallel, smaller structures are traversed faster by one thread
+     */
+    static final int MIN_PARALLEL_SIZE = 1 << 15;
+    /**
+     * The number of subtrees per thread, more subtrees than threads balance the load between the threads
+     */
+    private static final int SUBTREES_PER_THREAD = 4;
+
+    private final int size;
+    private final long[] ids;
+    private final int[] parents;
+    private final boolean[] absent;
+    private final int[] childStart;
+    private final int[] children;
+    private final int[] depths;
+    private final int[] order;
+    private final List<StructureDiagnostic> diagnostics;
+    private final int present;
+    private int reachable;
+
+    /**
+     * Analyzes the structure, all results are calculated in the constructor
+     *
+     * @param ids The employee id per row
+     * @param parents The row of the manager per row or {@link #NO_PARENT}
+     * @param absent The flag per row whether the row is only referenced as a manager, null if all rows are present
+     * @param size The number of rows
+     */
+    CompanyStructureEngine(final long[] ids, final int[] parents, final boolean[] absent, final int size) {
+        this(ids, parents, absent, size, null);
+    }
+
+    /**
+     * Analyzes the structure, the subtrees of a structure of at least {@link #MIN_PARALLEL_SIZE} rows
+     * are traversed in the pool
+     *
+     * @param ids The employee id per row
+     * @param parents The row of the manager per row or {@link #NO_PARENT}
+     * @param absent The flag per row whether the row is only referenced as a manager, null if all rows are present
+     * @param size The number of rows
+     * @param pool The pool traversing the subtrees, null for the sequential traversal
+     */
+    CompanyStructureEngine(final long[] ids, final int[] parents, final boolean[] absent, final int size,
+                           final ForkJoinPool pool) {
+        this.size = size;
+        this.ids = ids;
+        this.parents = parents;
+        this.absent = absent;
+        this.childStart = new int[size + 1];
+        this.children = new int[size];
+        this.depths = new int[size];
+        this.order = new int[size];
+        this.diagnostics = new ArrayList<>();
+        this.present = this.countPresent();
+        this.buildChildIndex();
+        this.traverseFromRoots(Objects.nonNull(pool) && size >= MIN_PARALLEL_SIZE ? pool : null);
+        this.reportUnreachable();
+    }
+
+    /**
+     * Analyzes the structure of the employees, the employee {@code employees[i]} gets the row i.
+     * A manager which is referenced but not in the array gets an absent row after the employee rows.
+     *
+     * @param employees The employees
+     * @return The engine with the results
+     */
+    static CompanyStructureEngine forEmployees(final Employee[] employees) {
+        final int count = employees.length;
+        final LongIntHashMap rows = new LongIntHashMap(count);
+        long[] ids = new long[count];
+        for (int row = 0; row < count; row++) {
+            rows.put(employees[row].id(), row);
+            ids[row] = employees[row].id();
+        }
+        int[] parents = new int[count];
+        boolean[] absent = new boolean[count];
+        int size = count;
+        for (int row = 0; row < count; row++) {
+            final Long managerId = employees[row].managerId();
+            if (Objects.isNull(managerId)) {
+                parents[row] = NO_PARENT;
+                continue;
+            }
+            int parent = rows.get(managerId);
+            if (parent == LongIntHashMap.NO_VALUE) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    parents = Arrays.copyOf(parents, size * 2);
+                    absent = Arrays.copyOf(absent, size * 2);
+                }
+                parent = size++;
+                ids[parent] = managerId;
+                parents[parent] = NO_PARENT;
+                absent[parent] = true;
+                rows.put(managerId, parent);
+            }
+            parents[row] = parent;
+        }
+        return new CompanyStructureEngine(ids, parents, absent, size);
+    }
+
+    /**
+     * @param row The row
+     * @return The length of the reporting line of the row or {@link #NO_DEPTH} if there is no line to the CEO
+     */
+    int depth(final int row) {
+        return this.depths[row];
+    }
+
+    /**
+     * @return The number of rows with a reporting line to the CEO
+     */
+    int reachable() {
+        return this.reachable;
+    }
+
+    /**
+     * @param position The position in the traversal order, from 0 to {@link #reachable()}
+     * @return The row at the position, a manager always comes before the subordinates
+     */
+    int rowInOrder(final int position) {
+        return this.order[position];
+    }
+
+    int childStart(final int row) {
+        return this.childStart[row];
+    }
+
+    int childEnd(final int row) {
+        return this.childStart[row + 1];
+    }
+
+    int child(final int position) {
+        return this.children[position];
+    }
+
+    int parent(final int row) {
+        return this.parents[row];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Numbers the rows with a reporting line in pre-order, so the subtree of a row at the position {@code p}
+     * with the size {@code s} takes exactly the positions {@code p .. p + s - 1}. The subtree sizes are summed
+     * up in the reverse traversal order and the children of every row get consecutive intervals in the
+     * traversal order, so no recursion is needed.
+     *
+     * @param positions Receives the pre-order position per row, -1 for a row without a reporting line
+     * @param subtreeSizes Receives the number of rows in the subtree of every row including the row
+     */
+    void preOrder(final int[] positions, final int[] subtreeSizes) {
+        Arrays.fill(positions, 0, Math.min(positions.length, this.size), -1);
+        for (int position = this.reachable - 1; position >= 0; position--) {
+            final int row = this.order[position];
+            int subtreeSize = 1;
+            for (int i = this.childStart[row]; i < this.childStart[row + 1]; i++) {
+                subtreeSize += subtreeSizes[this.children[i]];
+            }
+            subtreeSizes[row] = subtreeSize;
+        }
+        int nextRoot = 0;
+        for (int position = 0; position < this.reachable; position++) {
+            final int row = this.order[position];
+            if (this.depths[row] == 0) {
+                positions[row] = nextRoot;
+                nextRoot += subtreeSizes[row];
+            }
+            int next = positions[row] + 1;
+            for (int i = this.childStart[row]; i < this.childStart[row + 1]; i++) {
+                final int child = this.children[i];
+                positions[child] = next;
+                next += subtreeSizes[child];
+            }
+        }
+    }
+
+    /**
+     * @return The problems of the structure, empty if every employee reports to the only CEO
+     */
+    List<StructureDiagnostic> diagnostics() {
+        return Collections.unmodifiableList(this.diagnostics);
+    }
+
+    boolean isAbsent(final int row) {
+        return this.absent != null && this.absent[row];
+    }
+
+    /**
+     * Counting sort of the rows by the parent keeps the children of every row in the row order
+     */
+    private void buildChildIndex() {
+        for (int row = 0; row < this.size; row++) {
+            final int parent = this.parents[row];
+            if (parent != NO_PARENT && !this.isAbsent(row)) {
+                this.childStart[parent + 1]++;
+            }
+        }
+        for (int row = 0; row < this.size; row++) {
+            this.childStart[row + 1] += this.childStart[row];
+        }
+        final int[] next = new int[this.size];
+        System.arraycopy(this.childStart, 0, next, 0, this.size);
+        for (int row = 0; row < this.size; row++) {
+            final int parent = this.parents[row];
+            if (parent != NO_PARENT && !this.isAbsent(row)) {
+                this.children[next[parent]++] = row;
+            }
+        }
+    }
+
+    private void traverseFromRoots(final ForkJoinPool pool) {
+        Arrays.fill(this.depths, NO_DEPTH);
+        int roots = 0;
+        for (int row = 0; row < this.size; row++) {
+            if (this.parents[row] == NO_PARENT && !this.isAbsent(row)) {
+                if (roots++ > 0) {
+                    this.diagnostics.add(new StructureDiagnostic(StructureDiagnostic.Type.MULTIPLE_CEO,
+                            List.of(this.ids[row]), null, 0));
+                }
+                this.depths[row] = 0;
+                this.order[this.reachable++] = row;
+            }
+        }
+        if (roots == 0 && this.present > 0) {
+            this.diagnostics.add(new StructureDiagnostic(StructureDiagnostic.Type.NO_CEO, List.of(), null,
+                    this.present));
+        }
+        if (Objects.isNull(pool)) {
+            for (int position = 0; position < this.reachable; position++) {
+                this.visitChildren(this.order[position]);
+            }
+            return;
+        }
+        final int subtrees = pool.getParallelism() * SUBTREES_PER_THREAD;
+        int levelStart = 0;
+        while (levelStart < this.reachable && this.reachable - levelStart < subtrees) {
+            final int levelEnd = this.reachable;
+            for (int position = levelStart; position < levelEnd; position++) {
+                this.visitChildren(this.order[position]);
+            }
+            levelStart = levelEnd;
+        }
+        this.traverseSubtrees(pool, levelStart, Math.min(subtrees, this.reachable - levelStart));
+    }
+
+    private void visitChildren(final int row) {
+        final int childDepth = this.depths[row] + 1;
+        for (int i = this.childStart[row]; i < this.childStart[row + 1]; i++) {
+            final int child = this.children[i];
+            this.depths[child] = childDepth;
+            this.order[this.reachable++] = child;
+        }
+    }
+
+    /**
+     * Traverses the subtrees of the rows of the last visited level, the level is split into ranges of rows
+     * and the subtrees of every range are traversed by one task
+     *
+     * @param levelStart The position of the first row of the level in the traversal order
+     * @param tasks The number of tasks
+     */
+    private void traverseSubtrees(final ForkJoinPool pool, final int levelStart, final int tasks) {
+        final int levelSize = this.reachable - levelStart;
+        final SubtreeTraversal[] traversals = new SubtreeTraversal[tasks];
+        for (int i = 0; i < tasks; i++) {
+            traversals[i] = new SubtreeTraversal(levelStart + (int) ((long) levelSize * i / tasks),
+                    levelStart + (int) ((long) levelSize * (i + 1) / tasks));
+            pool.execute(traversals[i]);
+        }
+        for (SubtreeTraversal traversal : traversals) {
+            traversal.join();
+            System.arraycopy(traversal.rows, 0, this.order, this.reachable, traversal.count);
+            this.reachable += traversal.count;
+        }
+    }
+
+    /**
+     * Reports the subtrees of the orphaned employees first, the rest of unreachable rows are cycles and
+     * their subordinates. The cycle is found by walking up from an unvisited row, each walk ends on a new cycle.
+     */
+    private void reportUnreachable() {
+        if (this.reachable == this.present) {
+            return;
+        }
+        final boolean[] visited = new boolean[this.size];
+        for (int position = 0; position < this.reachable; position++) {
+            visited[this.order[position]] = true;
+        }
+        final int[] queue = new int[this.size];
+        for (int row = 0; row < this.size; row++) {
+            final int parent = this.parents[row];
+            if (!this.isAbsent(row) && parent != NO_PARENT && this.isAbsent(parent)) {
+                visited[row] = true;
+                queue[0] = row;
+                final int affected = this.markSubtrees(queue, 1, visited);
+                this.diagnostics.add(new StructureDiagnostic(StructureDiagnostic.Type.ORPHAN,
+                        List.of(this.ids[row]), this.ids[parent], affected));
+            }
+        }
+        final int[] walkMark = new int[this.size];
+        for (int row = 0; row < this.size; row++) {
+            if (visited[row] || this.isAbsent(row)) {
+                continue;
+            }
+            int current = row;
+            while (walkMark[current] != row + 1) {
+                walkMark[current] = row + 1;
+                current = this.parents[current];
+            }
+            final List<Long> members = new ArrayList<>();
+            int cycleLength = 0;
+            int member = current;
+            do {
+                members.add(this.ids[member]);
+                visited[member] = true;
+                queue[cycleLength++] = member;
+                member = this.parents[member];
+            } while (member != current);
+            final int affected = this.markSubtrees(queue, cycleLength, visited);
+            this.diagnostics.add(new StructureDiagnostic(StructureDiagnostic.Type.CYCLE, members, null, affected));
+        }
+    }
+
+    /**
+     * Breadth-first marking of all subordinates of the rows in the queue
+     *
+     * @return The number of marked rows including the initial ones
+     */
+    private int markSubtrees(final int[] queue, final int initial, final boolean[] visited) {
+        int tail = initial;
+        for (int head = 0; head < tail; head++) {
+            final int row = queue[head];
+            for (int i = this.childStart[row]; i < this.childStart[row + 1]; i++) {
+                final int child = this.children[i];
+                if (!visited[child]) {
+                    visited[child] = true;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Breadth-first traversal of the subtrees of the rows at the positions {@code from .. to - 1} of
+     * the traversal order. The subordinates are collected in the task's own buffer, the rows of the task
+     * belong to no other task, so the depths are written without synchronization.
+     */
+    private final class SubtreeTraversal extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private int[] rows;
+        private int count;
+
+        private SubtreeTraversal(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+            this.rows = new int[16];
+        }
+
+        @Override
+        protected void compute() {
+            for (int position = this.from; position < this.to; position++) {
+                this.visitChildren(order[position]);
+            }
+            for (int head = 0; head < this.count; head++) {
+                this.visitChildren(this.rows[head]);
+            }
+        }
+
+        private void visitChildren(final int row) {
+            final int childDepth = depths[row] + 1;
+            final int end = childStart[row + 1];
+            if (this.count + end - childStart[row] > this.rows.length) {
+                this.rows = Arrays.copyOf(this.rows, Math.max(this.rows.length << 1,
+                        this.count + end - childStart[row]));
+            }
+            for (int i = childStart[row]; i < end; i++) {
+                final int child = children[i];
+                depths[child] = childDepth;
+                this.rows[this.count++] = child;
+            }
+        }
+    }
+
+    private int countPresent() {
+        if (this.absent == null) {
+            return this.size;
+        }
+        int present = 0;
+        for (int row = 0; row < this.size; row++) {
+            if (!this.absent[row]) {
+                present++;
+            }
+        }
+        return present;
+    }
+}
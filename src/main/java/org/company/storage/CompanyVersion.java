@@ -0,0 +1,232 @@
+package org.company.storage;
+
+import org.company.models.CompanyStructure;
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An immutable version of the company kept by {@link VersionedCompanyEmployeeStorage}
+ * <p>
+ * The employees and the direct subordinates of every manager are persistent maps, a version shares all
+ * unchanged parts with the previous and the next versions. The version answers all queries of
+ * a {@link CompanyEmployeeStorage}, the reporting lines are calculated by {@link CompanyStructureEngine}
+ * on every query and are not kept with the version. Adding employees is not supported.
+ * </p>
+ */
+public final class CompanyVersion implements CompanyEmployeeStorage {
+    private final static Logger LOGGER = Logger.getLogger(CompanyVersion.class.getName());
+    static final CompanyVersion EMPTY = new CompanyVersion(PersistentLongMap.empty(), PersistentLongMap.empty(),
+            null);
+
+    private final PersistentLongMap<Employee> employees;
+    private final PersistentLongMap<PersistentLongMap<Employee>> subordinates;
+    private final Employee ceo;
+
+    /**
+     * @param employees The employees by id
+     * @param subordinates The direct subordinates by the id of the manager, also of the managers which aren't
+     *                     employees
+     * @param ceo The CEO or null
+     */
+    CompanyVersion(final PersistentLongMap<Employee> employees,
+                   final PersistentLongMap<PersistentLongMap<Employee>> subordinates, final Employee ceo) {
+        this.employees = employees;
+        this.subordinates = subordinates;
+        this.ceo = ceo;
+    }
+
+    /**
+     * @return The number of employees
+     */
+    public int size() {
+        return this.employees.size();
+    }
+
+    /**
+     * @param id The id of the employee
+     * @return The employee or an empty Optional if there is no employee with the id
+     */
+    public Optional<Employee> getEmployee(final long id) {
+        return Optional.ofNullable(this.employees.get(id));
+    }
+
+    /**
+     * Compare this version with a newer one, the parts shared by the versions are skipped
+     * @param newer The newer version
+     * @return The changed employees and the employees affected by the changes
+     */
+    public CompanyDiff diff(final CompanyVersion newer) {
+        return new CompanyDiff(this, newer);
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a version can't be changed
+     */
+    @Override
+    public void addEmployee(final Employee newEmployee) {
+        throw new UnsupportedOperationException("A company version is read-only");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a version can't be changed
+     */
+    @Override
+    public BulkLoad beginBulkLoad(final int expectedRows) {
+        throw new UnsupportedOperationException("A company version is read-only");
+    }
+
+    /**
+     * Calculate the structure of the company that provides a length of a reporting line for every employee.
+     * Employees without a reporting line to the CEO are skipped and the problems are logged.
+     * @return the map where a key is employee and value is a length of reporting line
+     */
+    @Override
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        final CompanyStructure structure = this.analyzeCompanyStructure();
+        if (!structure.isValid()) {
+            LOGGER.log(Level.WARNING, String.format("Company structure has %d problem(s), the first one: %s",
+                    structure.diagnostics().size(), structure.diagnostics().get(0)));
+        }
+        return structure.reportingLines();
+    }
+
+    /**
+     * Analyze the structure of the company in one pass with {@link CompanyStructureEngine}
+     * @return the reporting lines of employees connected to the CEO and the problems of the structure
+     */
+    @Override
+    public CompanyStructure analyzeCompanyStructure() {
+        final Employee[] rowEmployees = this.toArray();
+        final CompanyStructureEngine engine = CompanyStructureEngine.forEmployees(rowEmployees);
+        final Map<Employee, Integer> reportingLines = new HashMap<>((int) Math.ceil(engine.reachable() / 0.75));
+        for (int position = 0; position < engine.reachable(); position++) {
+            final int row = engine.rowInOrder(position);
+            reportingLines.put(rowEmployees[row], engine.depth(row));
+        }
+        return new CompanyStructure(reportingLines, engine.diagnostics());
+    }
+
+    /**
+     * Scan the managers and pass the ones with a positive result of the salary function to the consumer
+     * @param salaryComparator the function for the comparison of the manager and employee salaries
+     * @param consumer the receiver of the managers and their positive salary comparison results
+     */
+    @Override
+    public void forEachManagerWithFilterBySalary(final SalaryComparator salaryComparator,
+                                                 final SalaryDifferenceConsumer consumer) {
+        this.subordinates.forEach((managerId, managerSubordinates) -> {
+            final Employee manager = this.employees.get(managerId);
+            if (Objects.nonNull(manager)) {
+                final double difference = salaryComparator.compare(manager.salary(),
+                        salarySum(managerSubordinates) / managerSubordinates.size());
+                if (difference > 0.0) {
+                    consumer.accept(manager, difference);
+                }
+            }
+        });
+    }
+
+    /**
+     * Visit every employee once, the reporting lines and the direct subordinates are taken from
+     * one run of {@link CompanyStructureEngine}
+     * @param visitor the receiver of the employees
+     */
+    @Override
+    public void forEachEmployee(final EmployeeVisitor visitor) {
+        final Employee[] rowEmployees = this.toArray();
+        final CompanyStructureEngine engine = CompanyStructureEngine.forEmployees(rowEmployees);
+        for (int row = 0; row < rowEmployees.length; row++) {
+            double subordinateSalarySum = 0.0;
+            for (int i = engine.childStart(row); i < engine.childEnd(row); i++) {
+                subordinateSalarySum += rowEmployees[engine.child(i)].salary();
+            }
+            visitor.visit(rowEmployees[row], engine.depth(row), engine.childEnd(row) - engine.childStart(row),
+                    subordinateSalarySum);
+        }
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates for every manager
+     * @return the map where a key is a manager and value is the statistics of the subordinate salaries
+     */
+    @Override
+    public Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics() {
+        final Map<Employee, SalaryStatistics> result = new HashMap<>();
+        this.subordinates.forEach((managerId, managerSubordinates) -> {
+            final Employee manager = this.employees.get(managerId);
+            if (Objects.nonNull(manager)) {
+                result.put(manager, statistics(managerSubordinates));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates of the manager
+     * @param managerId the id of the manager
+     * @return the statistics or an empty Optional if the employee doesn't exist or has no subordinates
+     */
+    @Override
+    public Optional<SalaryStatistics> getSubordinateSalaryStatistics(final long managerId) {
+        if (!this.employees.containsKey(managerId)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.subordinates.get(managerId)).map(CompanyVersion::statistics);
+    }
+
+    /**
+     * Checks if a CEO has been defined in the company structure
+     *
+     * @return true if a CEO is defined, otherwise false
+     */
+    @Override
+    public boolean isCEODefined() {
+        return Objects.nonNull(this.ceo);
+    }
+
+    PersistentLongMap<Employee> employees() {
+        return this.employees;
+    }
+
+    /**
+     * @param managerId The id of the manager
+     * @return The direct subordinates of the manager, null if there are no subordinates
+     */
+    PersistentLongMap<Employee> subordinates(final long managerId) {
+        return this.subordinates.get(managerId);
+    }
+
+    PersistentLongMap<PersistentLongMap<Employee>> subordinates() {
+        return this.subordinates;
+    }
+
+    Employee ceo() {
+        return this.ceo;
+    }
+
+    static double salarySum(final PersistentLongMap<Employee> employees) {
+        final double[] sum = new double[1];
+        employees.forEach((id, employee) -> sum[0] += employee.salary());
+        return sum[0];
+    }
+
+    private static SalaryStatistics statistics(final PersistentLongMap<Employee> employees) {
+        final SalaryAccumulator salaries = new SalaryAccumulator();
+        employees.forEach((id, employee) -> salaries.add(employee.salary()));
+        return salaries.toStatistics();
+    }
+
+    private Employee[] toArray() {
+        final Employee[] result = new Employee[this.employees.size()];
+        final int[] next = new int[1];
+        this.employees.forEach((id, employee) -> result[next[0]++] = employee);
+        return result;
+    }
+}
@@ -0,0 +1,191 @@
+package org.company.storage;
+
+import org.company.metrics.Counter;
+import org.company.metrics.Metrics;
+import org.company.models.CompanyStructure;
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A thread-safe implementation of {@link CompanyEmployeeStorage}
+ * <p>
+ * The storage publishes immutable {@link CompanyVersion}s. A writer applies its employees to the current
+ * version by a {@link VersionedCompanyEmployeeStorage}, which copies only the trie nodes on the paths to
+ * the changed employees, and publishes the new version by one compare-and-set. A writer which lost the race
+ * applies its employees again to the version of the winner. An {@link #addEmployees(Collection)} batch is
+ * published as a whole, so a query never sees a part of a batch, e.g. a moved manager without
+ * the subordinates moved with it. Writers never wait for readers and readers never wait for anyone.
+ * </p>
+ * Every query reads the current version once and is answered by that version only. The company structure
+ * of a version is calculated once and shared by all queries on that version, the reuse is counted by
+ * the {@link Metrics#SNAPSHOT_HITS} and {@link Metrics#SNAPSHOT_MISSES} counters.
+ * Adding an employee with an existing id replaces the previous data of that employee.
+ */
+public class ConcurrentCompanyEmployeeStorage implements CompanyEmployeeStorage {
+    private final static Logger LOGGER = Logger.getLogger(ConcurrentCompanyEmployeeStorage.class.getName());
+
+    private final AtomicReference<CompanyVersion> current;
+    /**
+     * The structure of the last queried version, replaced by the first structure query of a newer version
+     */
+    private volatile Snapshot snapshot;
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+
+    public ConcurrentCompanyEmployeeStorage() {
+        this.current = new AtomicReference<>(CompanyVersion.EMPTY);
+        this.snapshotHits = Metrics.registry().counter(Metrics.SNAPSHOT_HITS);
+        this.snapshotMisses = Metrics.registry().counter(Metrics.SNAPSHOT_MISSES);
+    }
+
+    /**
+     * Add an employee to the company structure, the method can be called from several threads
+     * @param newEmployee the new employee instance
+     */
+    @Override
+    public void addEmployee(final Employee newEmployee) {
+        this.publish(List.of(newEmployee));
+    }
+
+    /**
+     * Add the employees to the company structure, the queries see either all or none of them
+     * @param newEmployees the new employee instances
+     */
+    @Override
+    public void addEmployees(final Collection<Employee> newEmployees) {
+        this.publish(newEmployees);
+    }
+
+    /**
+     * Calculate the structure of the company on the current version.
+     * Employees without a reporting line to the CEO are skipped and the problems are logged once per version.
+     * @return the read-only map where a key is employee and value is a length of reporting line
+     */
+    @Override
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        return Collections.unmodifiableMap(this.structure().reportingLines());
+    }
+
+    /**
+     * Analyze the structure of the company on the current version
+     * @return the read-only reporting lines of employees connected to the CEO and the problems of the structure
+     */
+    @Override
+    public CompanyStructure analyzeCompanyStructure() {
+        final CompanyStructure structure = this.structure();
+        return new CompanyStructure(Collections.unmodifiableMap(structure.reportingLines()), structure.diagnostics());
+    }
+
+    /**
+     * Scan the managers of the current version and pass the ones with a positive result of the salary function
+     * to the consumer
+     * @param salaryComparator the function for the comparison of the manager and employee salaries
+     * @param consumer the receiver of the managers and their positive salary comparison results
+     */
+    @Override
+    public void forEachManagerWithFilterBySalary(final SalaryComparator salaryComparator,
+                                                 final SalaryDifferenceConsumer consumer) {
+        this.current.get().forEachManagerWithFilterBySalary(salaryComparator, consumer);
+    }
+
+    /**
+     * Visit every employee of the current version once
+     * @param visitor the receiver of the employees
+     */
+    @Override
+    public void forEachEmployee(final EmployeeVisitor visitor) {
+        this.current.get().forEachEmployee(visitor);
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates for every manager of the current version
+     * @return the map where a key is a manager and value is the statistics of the subordinate salaries
+     */
+    @Override
+    public Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics() {
+        return this.current.get().getSubordinateSalaryStatistics();
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates of the manager in the current version
+     * @param managerId the id of the manager
+     * @return the statistics or an empty Optional if the employee doesn't exist or has no subordinates
+     */
+    @Override
+    public Optional<SalaryStatistics> getSubordinateSalaryStatistics(final long managerId) {
+        return this.current.get().getSubordinateSalaryStatistics(managerId);
+    }
+
+    /**
+     * Checks if a CEO has been defined in the company structure
+     *
+     * @return true if a CEO is defined, otherwise false
+     */
+    @Override
+    public boolean isCEODefined() {
+        return this.current.get().isCEODefined();
+    }
+
+    private void publish(final Collection<Employee> newEmployees) {
+        CompanyVersion base;
+        CompanyVersion next;
+        do {
+            base = this.current.get();
+            final VersionedCompanyEmployeeStorage changes = new VersionedCompanyEmployeeStorage(base);
+            newEmployees.forEach(changes::addEmployee);
+            next = changes.currentVersion();
+        } while (!this.current.compareAndSet(base, next));
+    }
+
+    /**
+     * Returns the structure of the current version. Concurrent first queries of a version may both calculate
+     * the structure, the results are equal.
+     */
+    private CompanyStructure structure() {
+        final CompanyVersion version = this.current.get();
+        Snapshot cached = this.snapshot;
+        if (Objects.isNull(cached) || cached.version() != version) {
+            cached = new Snapshot(version);
+            this.snapshot = cached;
+        }
+        CompanyStructure result = cached.structure;
+        if (Objects.nonNull(result)) {
+            this.snapshotHits.increment();
+            return result;
+        }
+        this.snapshotMisses.increment();
+        result = version.analyzeCompanyStructure();
+        if (!result.isValid()) {
+            LOGGER.log(Level.WARNING, String.format("Company structure has %d problem(s), the first one: %s",
+                    result.diagnostics().size(), result.diagnostics().get(0)));
+        }
+        cached.structure = result;
+        return result;
+    }
+
+    /**
+     * A published version and its structure, calculated by the first query needing it
+     */
+    private static final class Snapshot {
+        private final CompanyVersion version;
+        private volatile CompanyStructure structure;
+
+        private Snapshot(final CompanyVersion version) {
+            this.version = version;
+        }
+
+        CompanyVersion version() {
+            return this.version;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+
+/**
+ * Receiver of the employees visited by the single-pass analysis of the company, the reporting line and the
+ * salaries of the direct subordinates are passed as primitives
+ */
+@FunctionalInterface
+public interface EmployeeVisitor {
+    /**
+     * The length of the reporting line of an employee not connected to the CEO
+     */
+    int NO_REPORTING_LINE = -1;
+
+    /**
+     * @param employee the employee
+     * @param reportingLineLength the length of the reporting line or {@link #NO_REPORTING_LINE}
+     * @param subordinates the number of direct subordinates
+     * @param subordinateSalarySum the sum of the salaries of the direct subordinates
+     */
+    void visit(Employee employee, int reportingLineLength, long subordinates, double subordinateSalarySum);
+}
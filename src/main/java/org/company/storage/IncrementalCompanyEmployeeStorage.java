@@ -0,0 +1,291 @@
+package org.company.storage;
+
+import org.company.models.CompanyStructure;
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An incremental implementation of {@link CompanyEmployeeStorage}
+ * <p>
+ * The reporting lines and the subordinate salary sums are maintained on every {@link #addEmployee(Employee)}
+ * instead of being recalculated by every query. Adding or re-parenting an employee updates the running sum and
+ * count of the old and the new manager (a salary is removed by the inverse Welford step, the minimum or
+ * the maximum of the old manager is rebuilt from the remaining direct subordinates only when the removed salary
+ * was one of them) and the reporting lines of the subtree of a new or re-parented employee only, an update
+ * keeping the manager keeps the reporting lines. A delta of k rows costs O(k + affected subtrees).
+ * The queries read the maintained state: {@link #calculateCompanyStructure()} returns a read-only view,
+ * {@link #getEmployeesWithReportingLineLongerThan(int)} reads the employees grouped by the length of
+ * the reporting line.
+ * </p>
+ * Adding an employee with an existing id replaces the previous data of that employee.
+ */
+public class IncrementalCompanyEmployeeStorage implements CompanyEmployeeStorage {
+    private final Map<Long, Employee> employees;
+    private final Map<Long, Set<Long>> subordinates;
+    private final Map<Long, SalaryAccumulator> subordinateSalaries;
+    private final Map<Employee, Integer> reportingLines;
+    private final NavigableMap<Integer, Set<Employee>> employeesByReportingLine;
+    private Employee ceo;
+
+    public IncrementalCompanyEmployeeStorage() {
+        this.employees = new HashMap<>();
+        this.subordinates = new HashMap<>();
+        this.subordinateSalaries = new HashMap<>();
+        this.reportingLines = new HashMap<>();
+        this.employeesByReportingLine = new TreeMap<>();
+    }
+
+    /**
+     * Add an employee to the company structure or replace the employee with the same id.
+     * The reporting lines of the employee subtree and the salaries of the old and the new manager are updated.
+     * @param newEmployee the new employee instance
+     */
+    @Override
+    public void addEmployee(final Employee newEmployee) {
+        final Employee previous = this.employees.put(newEmployee.id(), newEmployee);
+        final Integer previousLength = Objects.isNull(previous) ? null : this.detach(previous);
+        if (Objects.nonNull(newEmployee.managerId())) {
+            this.subordinates.computeIfAbsent(newEmployee.managerId(), id -> new HashSet<>()).add(newEmployee.id());
+            this.subordinateSalaries.computeIfAbsent(newEmployee.managerId(), id -> new SalaryAccumulator())
+                    .add(newEmployee.salary());
+        }
+        if (Objects.isNull(newEmployee.managerId()) && (Objects.isNull(this.ceo) || this.ceo.equals(previous))) {
+            this.ceo = newEmployee;
+        } else if (Objects.nonNull(previous) && previous.equals(this.ceo)) {
+            this.ceo = null;
+        }
+        if (Objects.nonNull(previous) && Objects.equals(previous.managerId(), newEmployee.managerId())) {
+            // the manager is the same, so are the reporting lines of the employee and of the subtree
+            if (Objects.nonNull(previousLength)) {
+                this.reportingLines.put(newEmployee, previousLength);
+                this.employeesByReportingLine.computeIfAbsent(previousLength, key -> new HashSet<>()).add(newEmployee);
+            }
+        } else {
+            this.updateReportingLines(newEmployee);
+        }
+    }
+
+    /**
+     * Calculate the structure of the company that provides a length of a reporting line for every employee
+     * connected to the CEO. The structure is maintained incrementally, the method doesn't recalculate it.
+     * @return the read-only view of the map where a key is employee and value is a length of reporting line,
+     * the view reflects employees added later
+     */
+    @Override
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        return Collections.unmodifiableMap(this.reportingLines);
+    }
+
+    /**
+     * Get the employees with a reporting line longer than the given length, only the employees with
+     * such reporting lines are visited.
+     * @param maxLength the maximal allowed length of the reporting line
+     * @return the map where a key is employee and value is a length of reporting line exceeding maxLength
+     */
+    @Override
+    public Map<Employee, Integer> getEmployeesWithReportingLineLongerThan(final int maxLength) {
+        final Map<Employee, Integer> result = new HashMap<>();
+        this.employeesByReportingLine.tailMap(maxLength, false).forEach((length, employeesWithLength) ->
+                employeesWithLength.forEach(employee -> result.put(employee, length)));
+        return result;
+    }
+
+    /**
+     * Analyze the structure of the company with {@link CompanyStructureEngine}. Unlike the other queries
+     * the analysis visits the whole company to find the problems of the structure.
+     * @return the reporting lines of employees connected to the CEO and the problems of the structure
+     */
+    @Override
+    public CompanyStructure analyzeCompanyStructure() {
+        final CompanyStructureEngine engine = CompanyStructureEngine.forEmployees(
+                this.employees.values().toArray(new Employee[0]));
+        return new CompanyStructure(new HashMap<>(this.reportingLines), engine.diagnostics());
+    }
+
+    /**
+     * Scan the managers and pass the ones with a positive result of the salary function to the consumer,
+     * the average salaries of the subordinates are taken from the maintained sums and counts
+     * @param salaryComparator the function for the comparison of the manager and employee salaries
+     * @param consumer the receiver of the managers and their positive salary comparison results
+     */
+    @Override
+    public void forEachManagerWithFilterBySalary(final SalaryComparator salaryComparator,
+                                                 final SalaryDifferenceConsumer consumer) {
+        for (Map.Entry<Long, SalaryAccumulator> entry : this.subordinateSalaries.entrySet()) {
+            final Employee manager = this.employees.get(entry.getKey());
+            if (Objects.isNull(manager)) {
+                continue;
+            }
+            final double difference = salaryComparator.compare(manager.salary(), entry.getValue().average());
+            if (difference > 0.0) {
+                consumer.accept(manager, difference);
+            }
+        }
+    }
+
+    /**
+     * Visit every employee once with the maintained reporting line and subordinate salaries
+     * @param visitor the receiver of the employees
+     */
+    @Override
+    public void forEachEmployee(final EmployeeVisitor visitor) {
+        for (Employee employee : this.employees.values()) {
+            final Integer length = this.reportingLines.get(employee);
+            final SalaryAccumulator salaries = this.subordinateSalaries.get(employee.id());
+            visitor.visit(employee, Objects.isNull(length) ? EmployeeVisitor.NO_REPORTING_LINE : length,
+                    Objects.isNull(salaries) ? 0 : salaries.count(), Objects.isNull(salaries) ? 0.0 : salaries.sum());
+        }
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates for every manager
+     * @return the map where a key is a manager and value is the statistics of the subordinate salaries
+     */
+    @Override
+    public Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics() {
+        final Map<Employee, SalaryStatistics> result = new HashMap<>();
+        this.subordinateSalaries.forEach((managerId, salaries) -> {
+            final Employee manager = this.employees.get(managerId);
+            if (Objects.nonNull(manager)) {
+                result.put(manager, salaries.toStatistics());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates of the manager
+     * @param managerId the id of the manager
+     * @return the statistics or an empty Optional if the employee doesn't exist or has no subordinates
+     */
+    @Override
+    public Optional<SalaryStatistics> getSubordinateSalaryStatistics(final long managerId) {
+        if (!this.employees.containsKey(managerId)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.subordinateSalaries.get(managerId)).map(SalaryAccumulator::toStatistics);
+    }
+
+    /**
+     * Checks if a CEO has been defined in the company structure
+     *
+     * @return true if a CEO is defined, otherwise false
+     */
+    @Override
+    public boolean isCEODefined() {
+        return Objects.nonNull(this.ceo);
+    }
+
+    /**
+     * Removes the previous data of the employee from the manager and from the reporting lines
+     * @return the previous length of the reporting line, null if the employee wasn't connected to the CEO
+     */
+    private Integer detach(final Employee previous) {
+        if (Objects.nonNull(previous.managerId())) {
+            final Set<Long> siblings = this.subordinates.get(previous.managerId());
+            siblings.remove(previous.id());
+            if (siblings.isEmpty()) {
+                this.subordinates.remove(previous.managerId());
+                this.subordinateSalaries.remove(previous.managerId());
+            } else {
+                final SalaryAccumulator salaries = this.subordinateSalaries.get(previous.managerId());
+                if (!salaries.remove(previous.salary())) {
+                    // the removed salary was the minimum or the maximum, the bounds are rebuilt from the siblings
+                    salaries.resetBounds();
+                    siblings.forEach(sibling -> salaries.addToBounds(this.employees.get(sibling).salary()));
+                }
+            }
+        }
+        final Integer length = this.reportingLines.remove(previous);
+        if (Objects.nonNull(length)) {
+            this.removeFromGroup(previous, length);
+        }
+        return length;
+    }
+
+    /**
+     * Recalculates the reporting lines of the employee subtree. The subtree is disconnected from the CEO
+     * if the manager is unknown, not connected or a subordinate of the employee (a cycle).
+     */
+    private void updateReportingLines(final Employee employee) {
+        int length;
+        if (Objects.isNull(employee.managerId())) {
+            length = 0;
+        } else {
+            final Employee manager = this.employees.get(employee.managerId());
+            final Integer managerLength = Objects.isNull(manager) ? null : this.reportingLines.get(manager);
+            length = Objects.isNull(managerLength) ? -1 : managerLength + 1;
+        }
+
+        final List<Long> subtree = this.collectSubtree(employee.id());
+        if (length >= 0 && subtree.contains(employee.managerId())) {
+            length = -1;
+        }
+        final Map<Long, Integer> lengths = new HashMap<>();
+        lengths.put(employee.id(), length);
+        for (Long id : subtree) {
+            final Employee member = this.employees.get(id);
+            final int memberLength = id.equals(employee.id()) ? length : nextLength(lengths.get(member.managerId()));
+            lengths.put(id, memberLength);
+            final Integer previousLength = this.reportingLines.get(member);
+            if (Objects.equals(previousLength, memberLength >= 0 ? memberLength : null)) {
+                continue;
+            }
+            if (Objects.nonNull(previousLength)) {
+                this.reportingLines.remove(member);
+                this.removeFromGroup(member, previousLength);
+            }
+            if (memberLength >= 0) {
+                this.reportingLines.put(member, memberLength);
+                this.employeesByReportingLine.computeIfAbsent(memberLength, key -> new HashSet<>()).add(member);
+            }
+        }
+    }
+
+    private static int nextLength(final Integer managerLength) {
+        return Objects.isNull(managerLength) || managerLength < 0 ? -1 : managerLength + 1;
+    }
+
+    /**
+     * Breadth-first collection of the employee and all subordinates, a manager always comes before
+     * the subordinates. Every employee is visited once even if the subordinates form a cycle.
+     */
+    private List<Long> collectSubtree(final Long id) {
+        final List<Long> subtree = new ArrayList<>();
+        final Set<Long> visited = new HashSet<>();
+        final ArrayDeque<Long> queue = new ArrayDeque<>();
+        queue.add(id);
+        visited.add(id);
+        while (!queue.isEmpty()) {
+            final Long current = queue.poll();
+            subtree.add(current);
+            for (Long subordinate : this.subordinates.getOrDefault(current, Set.of())) {
+                if (visited.add(subordinate)) {
+                    queue.add(subordinate);
+                }
+            }
+        }
+        return subtree;
+    }
+
+    private void removeFromGroup(final Employee employee, final int length) {
+        final Set<Employee> group = this.employeesByReportingLine.get(length);
+        group.remove(employee);
+        if (group.isEmpty()) {
+            this.employeesByReportingLine.remove(length);
+        }
+    }
+}
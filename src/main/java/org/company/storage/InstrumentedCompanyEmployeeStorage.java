@@ -0,0 +1,179 @@
+package org.company.storage;
+
+import org.company.metrics.Counter;
+import org.company.metrics.Histogram;
+import org.company.metrics.Metrics;
+import org.company.metrics.MetricsRegistry;
+import org.company.metrics.StorageQueryEvent;
+import org.company.models.CompanyStructure;
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A {@link CompanyEmployeeStorage} measuring the queries of another storage
+ * <p>
+ * The time of every query is recorded in a histogram of the registry and as a {@link StorageQueryEvent}
+ * if JFR records it, the size of the last calculated structure is a gauge. The handles are taken from
+ * the {@link Metrics#registry() registry} once by the constructor, so a query costs two {@link System#nanoTime()}
+ * calls and a histogram update. An uninstrumented storage costs nothing, the decorator is only used
+ * when the metrics are enabled.
+ * </p>
+ */
+public class InstrumentedCompanyEmployeeStorage implements CompanyEmployeeStorage {
+    private final CompanyEmployeeStorage storage;
+    private final Counter added;
+    private final Histogram structureNanos;
+    private final Histogram analysisNanos;
+    private final Histogram salaryFilterNanos;
+    private final Histogram visitNanos;
+    private volatile long structureSize;
+
+    /**
+     * @param storage The measured storage
+     */
+    public InstrumentedCompanyEmployeeStorage(final CompanyEmployeeStorage storage) {
+        this.storage = storage;
+        final MetricsRegistry registry = Metrics.registry();
+        this.added = registry.counter(Metrics.STORAGE_ADDED);
+        this.structureNanos = registry.histogram(Metrics.STORAGE_STRUCTURE_NANOS);
+        this.analysisNanos = registry.histogram(Metrics.STORAGE_ANALYSIS_NANOS);
+        this.salaryFilterNanos = registry.histogram(Metrics.STORAGE_SALARY_FILTER_NANOS);
+        this.visitNanos = registry.histogram(Metrics.STORAGE_VISIT_NANOS);
+        registry.gauge(Metrics.STORAGE_STRUCTURE_SIZE, () -> this.structureSize);
+    }
+
+    @Override
+    public void addEmployee(final Employee newEmployee) {
+        this.storage.addEmployee(newEmployee);
+        this.added.increment();
+    }
+
+    @Override
+    public void addEmployees(final Collection<Employee> newEmployees) {
+        this.storage.addEmployees(newEmployees);
+        this.added.add(newEmployees.size());
+    }
+
+    /**
+     * Start a bulk load of the measured storage, the employees are counted on commit
+     * @param expectedRows the expected number of employees
+     * @return the open load
+     */
+    @Override
+    public BulkLoad beginBulkLoad(final int expectedRows) {
+        final BulkLoad load = this.storage.beginBulkLoad(expectedRows);
+        return new BulkLoad() {
+            @Override
+            public void add(final Employee employee) {
+                load.add(employee);
+            }
+
+            @Override
+            public int size() {
+                return load.size();
+            }
+
+            @Override
+            public boolean isCEODefined() {
+                return load.isCEODefined();
+            }
+
+            @Override
+            public void commit() {
+                load.commit();
+                InstrumentedCompanyEmployeeStorage.this.added.add(load.size());
+            }
+
+            @Override
+            public void close() {
+                load.close();
+            }
+        };
+    }
+
+    @Override
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        final StorageQueryEvent event = new StorageQueryEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        final Map<Employee, Integer> result = this.storage.calculateCompanyStructure();
+        this.structureNanos.record(System.nanoTime() - start);
+        this.structureSize = result.size();
+        event.end("calculateCompanyStructure", result.size());
+        return result;
+    }
+
+    @Override
+    public Map<Employee, Integer> getEmployeesWithReportingLineLongerThan(final int maxLength) {
+        final StorageQueryEvent event = new StorageQueryEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        final Map<Employee, Integer> result = this.storage.getEmployeesWithReportingLineLongerThan(maxLength);
+        this.structureNanos.record(System.nanoTime() - start);
+        event.end("getEmployeesWithReportingLineLongerThan", result.size());
+        return result;
+    }
+
+    @Override
+    public CompanyStructure analyzeCompanyStructure() {
+        final StorageQueryEvent event = new StorageQueryEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        final CompanyStructure result = this.storage.analyzeCompanyStructure();
+        this.analysisNanos.record(System.nanoTime() - start);
+        this.structureSize = result.reportingLines().size();
+        event.end("analyzeCompanyStructure", result.reportingLines().size());
+        return result;
+    }
+
+    @Override
+    public Map<Employee, Double> getManagersWithFilterBySalary(final SalaryComparator salaryComparator) {
+        final StorageQueryEvent event = new StorageQueryEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        final Map<Employee, Double> result = this.storage.getManagersWithFilterBySalary(salaryComparator);
+        this.salaryFilterNanos.record(System.nanoTime() - start);
+        event.end("getManagersWithFilterBySalary", result.size());
+        return result;
+    }
+
+    @Override
+    public void forEachManagerWithFilterBySalary(final SalaryComparator salaryComparator,
+                                                 final SalaryDifferenceConsumer consumer) {
+        final StorageQueryEvent event = new StorageQueryEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        this.storage.forEachManagerWithFilterBySalary(salaryComparator, consumer);
+        this.salaryFilterNanos.record(System.nanoTime() - start);
+        event.end("forEachManagerWithFilterBySalary", -1);
+    }
+
+    @Override
+    public void forEachEmployee(final EmployeeVisitor visitor) {
+        final StorageQueryEvent event = new StorageQueryEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        this.storage.forEachEmployee(visitor);
+        this.visitNanos.record(System.nanoTime() - start);
+        event.end("forEachEmployee", -1);
+    }
+
+    @Override
+    public Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics() {
+        return this.storage.getSubordinateSalaryStatistics();
+    }
+
+    @Override
+    public Optional<SalaryStatistics> getSubordinateSalaryStatistics(final long managerId) {
+        return this.storage.getSubordinateSalaryStatistics(managerId);
+    }
+
+    @Override
+    public boolean isCEODefined() {
+        return this.storage.isCEODefined();
+    }
+}
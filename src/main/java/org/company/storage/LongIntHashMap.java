@@ -0,0 +1,134 @@
+package org.company.storage;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a primitive long key to a non-negative int value
+ * <p>
+ * The map is used to translate employee ids into dense column indices without boxing.
+ * Collisions are resolved by linear probing, removal is not supported.
+ * </p>
+ */
+final class LongIntHashMap {
+    /**
+     * The value returned for an absent key
+     */
+    static final int NO_VALUE = -1;
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize The number of keys the map holds without rehashing
+     */
+    LongIntHashMap(final int expectedSize) {
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @param key The key
+     * @return The value mapped to the key or {@link #NO_VALUE} if there is no mapping
+     */
+    int get(final long key) {
+        int slot = this.slot(key);
+        while (this.values[slot] != NO_VALUE) {
+            if (this.keys[slot] == key) {
+                return this.values[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Maps the key to the value, an existing mapping is replaced
+     *
+     * @param key The key
+     * @param value The non-negative value
+     */
+    void put(final long key, final int value) {
+        int slot = this.slot(key);
+        while (this.values[slot] != NO_VALUE) {
+            if (this.keys[slot] == key) {
+                this.values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (++this.size > this.resizeThreshold) {
+            this.rehash(this.keys.length << 1);
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Grows the table up front so that the expected number of keys fits without rehashing
+     *
+     * @param expectedSize The expected number of keys
+     */
+    void ensureCapacity(final int expectedSize) {
+        final int capacity = capacityFor(expectedSize);
+        if (capacity > this.keys.length) {
+            this.rehash(capacity);
+        }
+    }
+
+    private int slot(final long key) {
+        return hash(key) & this.mask;
+    }
+
+    /**
+     * @param key The key
+     * @return The hash of the key, the slot is the hash masked by the capacity of the table
+     */
+    static int hash(final long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> 32);
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = this.keys;
+        final int[] oldValues = this.values;
+        this.allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                int slot = this.slot(oldKeys[i]);
+                while (this.values[slot] != NO_VALUE) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(this.values, NO_VALUE);
+        this.mask = capacity - 1;
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        final long required = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+        if (required > (1 << 30)) {
+            throw new IllegalArgumentException("Too many keys: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) (required - 1)) << 1;
+    }
+}
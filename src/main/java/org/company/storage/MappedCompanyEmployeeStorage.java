@@ -0,0 +1,359 @@
+package org.company.storage;
+
+import org.company.models.CompanyStructure;
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+import org.company.storage.CompanySnapshot.Section;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An implementation of {@link CompanyEmployeeStorage} reading a memory-mapped {@link CompanySnapshot}
+ * <p>
+ * Opening the storage costs the same for any size of the company, the employees are read from the mapped
+ * sections by the queries. The reporting lines and the subordinate salaries are read from the precomputed
+ * sections, a manager is found through the index of the snapshot. A section is verified against its checksum
+ * when it is read for the first time, a corrupted section fails the query with an {@link UncheckedIOException}.
+ * </p>
+ * The snapshot is read-only: the first {@link #addEmployee(Employee)} copies the employees into
+ * a {@link ColumnarCompanyEmployeeStorage} which serves all further calls, the file is never modified.
+ */
+public class MappedCompanyEmployeeStorage implements CompanyEmployeeStorage {
+    private final static Logger LOGGER = Logger.getLogger(MappedCompanyEmployeeStorage.class.getName());
+
+    private final Path file;
+    private final int rows;
+    private final int employeeCount;
+    private final int ceoRow;
+    private final int structureProblems;
+    private final int indexMask;
+    private final ByteBuffer[] sections;
+    private final int[] checksums;
+    private final boolean[] verified;
+    private final String[] names;
+    private ColumnarCompanyEmployeeStorage materialized;
+
+    MappedCompanyEmployeeStorage(final Path file, final int rows, final int employeeCount, final int ceoRow,
+                                 final int structureProblems, final int names, final int indexCapacity,
+                                 final ByteBuffer[] sections, final int[] checksums) {
+        this.file = file;
+        this.rows = rows;
+        this.employeeCount = employeeCount;
+        this.ceoRow = ceoRow;
+        this.structureProblems = structureProblems;
+        this.indexMask = indexCapacity - 1;
+        this.sections = sections;
+        this.checksums = checksums;
+        this.verified = new boolean[sections.length];
+        this.names = new String[names];
+    }
+
+    /**
+     * Add an employee to the company structure. The first call copies the snapshot into a columnar storage.
+     * @param newEmployee the new employee instance
+     */
+    @Override
+    public void addEmployee(final Employee newEmployee) {
+        this.materialize().addEmployee(newEmployee);
+    }
+
+    /**
+     * Add the employees to the company structure. The first call copies the snapshot into a columnar storage.
+     * @param newEmployees the new employee instances
+     */
+    @Override
+    public void addEmployees(final Collection<Employee> newEmployees) {
+        this.materialize().addEmployees(newEmployees);
+    }
+
+    /**
+     * Start a bulk load into the columnar copy of the snapshot, the copy is made by the first call
+     * @param expectedRows the expected number of employees
+     * @return the open load
+     */
+    @Override
+    public BulkLoad beginBulkLoad(final int expectedRows) {
+        return this.materialize().beginBulkLoad(expectedRows);
+    }
+
+    /**
+     * Calculate the structure of the company from the precomputed reporting lines.
+     * Employees without a reporting line to the CEO are skipped and the problems are logged.
+     * @return the map where a key is employee and value is a length of reporting line
+     */
+    @Override
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        if (Objects.nonNull(this.materialized)) {
+            return this.materialized.calculateCompanyStructure();
+        }
+        final CompanyStructure structure = this.analyzeCompanyStructure();
+        if (!structure.isValid()) {
+            LOGGER.log(Level.WARNING, String.format("Company structure has %d problem(s), the first one: %s",
+                    structure.diagnostics().size(), structure.diagnostics().get(0)));
+        }
+        return structure.reportingLines();
+    }
+
+    /**
+     * Get the employees with a reporting line longer than the given length, an {@link Employee} is created
+     * only for the employees in the result
+     * @param maxLength the maximal allowed length of the reporting line
+     * @return the map where a key is employee and value is a length of reporting line exceeding maxLength
+     */
+    @Override
+    public Map<Employee, Integer> getEmployeesWithReportingLineLongerThan(final int maxLength) {
+        if (Objects.nonNull(this.materialized)) {
+            return this.materialized.getEmployeesWithReportingLineLongerThan(maxLength);
+        }
+        final ByteBuffer depths = this.section(Section.DEPTHS);
+        final Map<Employee, Integer> result = new HashMap<>();
+        for (int row = 0; row < this.rows; row++) {
+            final int depth = depths.getInt(row * Integer.BYTES);
+            if (depth > maxLength) {
+                result.put(this.toEmployee(row), depth);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Analyze the structure of the company. The reporting lines are precomputed, the problems of the structure
+     * are calculated by {@link CompanyStructureEngine} only if the snapshot has any.
+     * @return the reporting lines of employees connected to the CEO and the problems of the structure
+     */
+    @Override
+    public CompanyStructure analyzeCompanyStructure() {
+        if (Objects.nonNull(this.materialized)) {
+            return this.materialized.analyzeCompanyStructure();
+        }
+        final ByteBuffer depths = this.section(Section.DEPTHS);
+        final Map<Employee, Integer> reportingLines = new HashMap<>();
+        for (int row = 0; row < this.rows; row++) {
+            final int depth = depths.getInt(row * Integer.BYTES);
+            if (depth != CompanyStructureEngine.NO_DEPTH) {
+                reportingLines.put(this.toEmployee(row), depth);
+            }
+        }
+        return new CompanyStructure(reportingLines,
+                this.structureProblems == 0 ? List.of() : this.structureEngine().diagnostics());
+    }
+
+    /**
+     * Scan the managers and pass the ones with a positive result of the salary function to the consumer,
+     * the average salaries of the subordinates are read from the precomputed sums and counts
+     * @param salaryComparator the function for the comparison of the manager and employee salaries
+     * @param consumer the receiver of the managers and their positive salary comparison results
+     */
+    @Override
+    public void forEachManagerWithFilterBySalary(final SalaryComparator salaryComparator,
+                                                 final SalaryDifferenceConsumer consumer) {
+        if (Objects.nonNull(this.materialized)) {
+            this.materialized.forEachManagerWithFilterBySalary(salaryComparator, consumer);
+            return;
+        }
+        final ByteBuffer counts = this.section(Section.SUBORDINATE_COUNTS);
+        final ByteBuffer sums = this.section(Section.SUBORDINATE_SUMS);
+        final ByteBuffer salaries = this.section(Section.SALARIES);
+        for (int row = 0; row < this.rows; row++) {
+            final int count = counts.getInt(row * Integer.BYTES);
+            if (count == 0 || this.isPlaceholder(row)) {
+                continue;
+            }
+            final double difference = salaryComparator.compare(salaries.getDouble(row * Double.BYTES),
+                    sums.getDouble(row * Double.BYTES) / count);
+            if (difference > 0.0) {
+                consumer.accept(this.toEmployee(row), difference);
+            }
+        }
+    }
+
+    /**
+     * Visit every employee once with the precomputed reporting line and subordinate salaries
+     * @param visitor the receiver of the employees
+     */
+    @Override
+    public void forEachEmployee(final EmployeeVisitor visitor) {
+        if (Objects.nonNull(this.materialized)) {
+            this.materialized.forEachEmployee(visitor);
+            return;
+        }
+        final ByteBuffer depths = this.section(Section.DEPTHS);
+        final ByteBuffer counts = this.section(Section.SUBORDINATE_COUNTS);
+        final ByteBuffer sums = this.section(Section.SUBORDINATE_SUMS);
+        for (int row = 0; row < this.rows; row++) {
+            if (!this.isPlaceholder(row)) {
+                visitor.visit(this.toEmployee(row), depths.getInt(row * Integer.BYTES),
+                        counts.getInt(row * Integer.BYTES), sums.getDouble(row * Double.BYTES));
+            }
+        }
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates for every manager
+     * @return the map where a key is a manager and value is the statistics of the subordinate salaries
+     */
+    @Override
+    public Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics() {
+        if (Objects.nonNull(this.materialized)) {
+            return this.materialized.getSubordinateSalaryStatistics();
+        }
+        final ByteBuffer counts = this.section(Section.SUBORDINATE_COUNTS);
+        final Map<Employee, SalaryStatistics> result = new HashMap<>();
+        for (int row = 0; row < this.rows; row++) {
+            if (counts.getInt(row * Integer.BYTES) > 0 && !this.isPlaceholder(row)) {
+                result.put(this.toEmployee(row), this.statistics(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the statistics of the salaries of the direct subordinates of the manager, the manager is found
+     * through the index of the snapshot
+     * @param managerId the id of the manager
+     * @return the statistics or an empty Optional if the employee doesn't exist or has no subordinates
+     */
+    @Override
+    public Optional<SalaryStatistics> getSubordinateSalaryStatistics(final long managerId) {
+        if (Objects.nonNull(this.materialized)) {
+            return this.materialized.getSubordinateSalaryStatistics(managerId);
+        }
+        final int row = this.rowOf(managerId);
+        if (row == LongIntHashMap.NO_VALUE || this.isPlaceholder(row)
+                || this.section(Section.SUBORDINATE_COUNTS).getInt(row * Integer.BYTES) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(this.statistics(row));
+    }
+
+    /**
+     * Checks if a CEO has been defined in the company structure
+     *
+     * @return true if a CEO is defined, otherwise false
+     */
+    @Override
+    public boolean isCEODefined() {
+        if (Objects.nonNull(this.materialized)) {
+            return this.materialized.isCEODefined();
+        }
+        return this.ceoRow != CompanyStructureEngine.NO_PARENT;
+    }
+
+    /**
+     * @return The number of employees in the storage
+     */
+    public int size() {
+        return Objects.isNull(this.materialized) ? this.employeeCount : this.materialized.size();
+    }
+
+    /**
+     * @return true if the employees have been copied from the snapshot by a write
+     */
+    public boolean isMaterialized() {
+        return Objects.nonNull(this.materialized);
+    }
+
+    private ColumnarCompanyEmployeeStorage materialize() {
+        if (Objects.isNull(this.materialized)) {
+            final ColumnarCompanyEmployeeStorage columns = new ColumnarCompanyEmployeeStorage(this.rows);
+            for (int row = 0; row < this.rows; row++) {
+                if (!this.isPlaceholder(row)) {
+                    columns.addEmployee(this.toEmployee(row));
+                }
+            }
+            this.materialized = columns;
+        }
+        return this.materialized;
+    }
+
+    private CompanyStructureEngine structureEngine() {
+        final ByteBuffer idColumn = this.section(Section.IDS);
+        final ByteBuffer managerColumn = this.section(Section.MANAGERS);
+        final long[] ids = new long[this.rows];
+        final int[] managers = new int[this.rows];
+        final boolean[] absent = new boolean[this.rows];
+        for (int row = 0; row < this.rows; row++) {
+            ids[row] = idColumn.getLong(row * Long.BYTES);
+            managers[row] = managerColumn.getInt(row * Integer.BYTES);
+            absent[row] = this.isPlaceholder(row);
+        }
+        return new CompanyStructureEngine(ids, managers, absent, this.rows);
+    }
+
+    private SalaryStatistics statistics(final int row) {
+        final long count = this.section(Section.SUBORDINATE_COUNTS).getInt(row * Integer.BYTES);
+        return new SalaryStatistics(count,
+                this.section(Section.SUBORDINATE_SUMS).getDouble(row * Double.BYTES),
+                this.section(Section.SUBORDINATE_MINS).getDouble(row * Double.BYTES),
+                this.section(Section.SUBORDINATE_MAXS).getDouble(row * Double.BYTES),
+                this.section(Section.SUBORDINATE_SQUARED_DEVIATIONS).getDouble(row * Double.BYTES) / count);
+    }
+
+    private int rowOf(final long id) {
+        final ByteBuffer index = this.section(Section.INDEX);
+        final ByteBuffer ids = this.section(Section.IDS);
+        int slot = LongIntHashMap.hash(id) & this.indexMask;
+        while (true) {
+            final int row = index.getInt(slot * Integer.BYTES);
+            if (row == LongIntHashMap.NO_VALUE || ids.getLong(row * Long.BYTES) == id) {
+                return row;
+            }
+            slot = (slot + 1) & this.indexMask;
+        }
+    }
+
+    private boolean isPlaceholder(final int row) {
+        return this.section(Section.FIRST_NAMES).getInt(row * Integer.BYTES) == ColumnarCompanyEmployeeStorage.PLACEHOLDER;
+    }
+
+    private Employee toEmployee(final int row) {
+        final int manager = this.section(Section.MANAGERS).getInt(row * Integer.BYTES);
+        return new Employee(this.section(Section.IDS).getLong(row * Long.BYTES),
+                this.name(this.section(Section.FIRST_NAMES).getInt(row * Integer.BYTES)),
+                this.name(this.section(Section.LAST_NAMES).getInt(row * Integer.BYTES)),
+                this.section(Section.SALARIES).getDouble(row * Double.BYTES),
+                manager == CompanyStructureEngine.NO_PARENT ? null :
+                        this.section(Section.IDS).getLong(manager * Long.BYTES));
+    }
+
+    /**
+     * Decodes the name once, the repeated names are shared
+     */
+    private String name(final int reference) {
+        String name = this.names[reference];
+        if (Objects.isNull(name)) {
+            final ByteBuffer offsets = this.section(Section.NAME_OFFSETS);
+            final int start = offsets.getInt(reference * Integer.BYTES);
+            final byte[] bytes = new byte[offsets.getInt((reference + 1) * Integer.BYTES) - start];
+            this.section(Section.NAME_BYTES).get(start, bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+            this.names[reference] = name;
+        }
+        return name;
+    }
+
+    private ByteBuffer section(final Section section) {
+        final int ordinal = section.ordinal();
+        if (!this.verified[ordinal]) {
+            final ByteBuffer buffer = this.sections[ordinal];
+            if (CompanySnapshot.checksum(buffer, 0, buffer.capacity()) != this.checksums[ordinal]) {
+                throw new UncheckedIOException(new IOException(String.format(
+                        "Corrupted snapshot section %s: %s", section, this.file)));
+            }
+            this.verified[ordinal] = true;
+        }
+        return this.sections[ordinal];
+    }
+}
@@ -0,0 +1,433 @@
+package org.company.storage;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Persistent hash array mapped trie from a primitive long key to a value
+ * <p>
+ * Every node has 32 slots selected by 5 bits of the key hash, a slot holds an entry or a child node and
+ * the node keeps only the used slots in arrays indexed by a bitmap. An update copies the nodes on the path
+ * to the key and shares all other nodes with the previous map, so many versions of a large map cost little
+ * more than one. The hash is a bijective mix of the key, two keys never have the same hash and a path has
+ * at most 13 nodes.
+ * </p>
+ * <p>
+ * The updates take an owner token: the nodes created with a token are changed in place by the next updates
+ * with the same token, so a batch of updates copies every node once. A map must not be read by other threads
+ * or kept as a version while it is updated with its token, a new token starts a new version.
+ * Equal values are not replaced, so loading the same data again keeps the nodes shared.
+ * </p>
+ *
+ * @param <V> The type of the values
+ */
+final class PersistentLongMap<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentLongMap<?> EMPTY = new PersistentLongMap<>(Node.EMPTY, 0);
+
+    /**
+     * The receiver of the entries of a map
+     *
+     * @param <V> The type of the values
+     */
+    @FunctionalInterface
+    interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    /**
+     * The receiver of the differences between two maps
+     *
+     * @param <V> The type of the values
+     */
+    @FunctionalInterface
+    interface DiffConsumer<V> {
+        /**
+         * @param key The key with different values
+         * @param before The value in the older map, null if the key is added
+         * @param after The value in the newer map, null if the key is removed
+         */
+        void accept(long key, V before, V after);
+    }
+
+    private final Node root;
+    private final int size;
+
+    private PersistentLongMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentLongMap<V> empty() {
+        return (PersistentLongMap<V>) EMPTY;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param key The key
+     * @return The value of the key or null if there is no entry
+     */
+    @SuppressWarnings("unchecked")
+    V get(final long key) {
+        final long hash = hash(key);
+        Node node = this.root;
+        for (int shift = 0; ; shift += BITS) {
+            final int bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                final int index = index(node.dataMap, bit);
+                return node.keys[index] == key ? (V) node.values[index] : null;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return null;
+            }
+            node = node.nodes[index(node.nodeMap, bit)];
+        }
+    }
+
+    boolean containsKey(final long key) {
+        return Objects.nonNull(this.get(key));
+    }
+
+    /**
+     * @param key The key
+     * @param value The new value, not null
+     * @param owner The token of the batch of updates or null to copy the changed nodes
+     * @return The map with the entry, this map if the key already has an equal value
+     */
+    PersistentLongMap<V> put(final long key, final V value, final Object owner) {
+        final Edit edit = new Edit(owner);
+        final Node newRoot = this.root.put(key, hash(key), 0, Objects.requireNonNull(value), edit);
+        return this.withRoot(newRoot, edit);
+    }
+
+    /**
+     * @param key The key
+     * @param owner The token of the batch of updates or null to copy the changed nodes
+     * @return The map without the entry, this map if there is no entry
+     */
+    PersistentLongMap<V> remove(final long key, final Object owner) {
+        final Edit edit = new Edit(owner);
+        final Node newRoot = this.root.remove(key, hash(key), 0, edit);
+        return this.withRoot(newRoot, edit);
+    }
+
+    /**
+     * Passes every entry to the consumer in the order of the key hashes
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(final EntryConsumer<? super V> consumer) {
+        this.root.forEach((EntryConsumer<Object>) consumer);
+    }
+
+    /**
+     * Passes the keys with different values in this and the newer map to the consumer. The nodes shared
+     * by both maps are skipped, so the cost depends on the number of changes, not on the size of the maps.
+     *
+     * @param newer The newer map
+     * @param consumer The receiver of the differences
+     */
+    @SuppressWarnings("unchecked")
+    void diff(final PersistentLongMap<V> newer, final DiffConsumer<? super V> consumer) {
+        diff(this.root, newer.root, (DiffConsumer<Object>) consumer);
+    }
+
+    private PersistentLongMap<V> withRoot(final Node newRoot, final Edit edit) {
+        if (newRoot == this.root && edit.sizeDelta == 0) {
+            return this;
+        }
+        return new PersistentLongMap<>(newRoot, this.size + edit.sizeDelta);
+    }
+
+    private static void diff(final Node before, final Node after, final DiffConsumer<Object> consumer) {
+        if (before == after) {
+            return;
+        }
+        int slots = before.dataMap | before.nodeMap | after.dataMap | after.nodeMap;
+        while (slots != 0) {
+            final int bit = Integer.lowestOneBit(slots);
+            slots ^= bit;
+            if ((before.dataMap & bit) != 0) {
+                final int index = index(before.dataMap, bit);
+                final long key = before.keys[index];
+                final Object value = before.values[index];
+                if ((after.dataMap & bit) != 0) {
+                    final int afterIndex = index(after.dataMap, bit);
+                    diffEntry(key, value, after.keys[afterIndex], after.values[afterIndex], consumer);
+                } else if ((after.nodeMap & bit) != 0) {
+                    diffEntryWithNode(key, value, after.nodes[index(after.nodeMap, bit)], false, consumer);
+                } else {
+                    consumer.accept(key, value, null);
+                }
+            } else if ((before.nodeMap & bit) != 0) {
+                final Node node = before.nodes[index(before.nodeMap, bit)];
+                if ((after.dataMap & bit) != 0) {
+                    final int afterIndex = index(after.dataMap, bit);
+                    diffEntryWithNode(after.keys[afterIndex], after.values[afterIndex], node, true, consumer);
+                } else if ((after.nodeMap & bit) != 0) {
+                    diff(node, after.nodes[index(after.nodeMap, bit)], consumer);
+                } else {
+                    node.forEach((key, value) -> consumer.accept(key, value, null));
+                }
+            } else if ((after.dataMap & bit) != 0) {
+                final int index = index(after.dataMap, bit);
+                consumer.accept(after.keys[index], null, after.values[index]);
+            } else {
+                after.nodes[index(after.nodeMap, bit)].forEach((key, value) -> consumer.accept(key, null, value));
+            }
+        }
+    }
+
+    private static void diffEntry(final long beforeKey, final Object beforeValue, final long afterKey,
+                                  final Object afterValue, final DiffConsumer<Object> consumer) {
+        if (beforeKey != afterKey) {
+            consumer.accept(beforeKey, beforeValue, null);
+            consumer.accept(afterKey, null, afterValue);
+        } else if (!Objects.equals(beforeValue, afterValue)) {
+            consumer.accept(beforeKey, beforeValue, afterValue);
+        }
+    }
+
+    /**
+     * Compares an entry with the entries of a node in the same slot of the other map
+     *
+     * @param nodeIsBefore true if the node belongs to the older map
+     */
+    private static void diffEntryWithNode(final long key, final Object value, final Node node,
+                                          final boolean nodeIsBefore, final DiffConsumer<Object> consumer) {
+        final boolean[] found = new boolean[1];
+        node.forEach((nodeKey, nodeValue) -> {
+            if (nodeKey == key) {
+                found[0] = true;
+                if (!Objects.equals(nodeValue, value)) {
+                    consumer.accept(key, nodeIsBefore ? nodeValue : value, nodeIsBefore ? value : nodeValue);
+                }
+            } else {
+                consumer.accept(nodeKey, nodeIsBefore ? nodeValue : null, nodeIsBefore ? null : nodeValue);
+            }
+        });
+        if (!found[0]) {
+            consumer.accept(key, nodeIsBefore ? null : value, nodeIsBefore ? value : null);
+        }
+    }
+
+    /**
+     * The splitmix64 finalizer, a bijection of the long values
+     */
+    private static long hash(final long key) {
+        long hash = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static int bit(final long hash, final int shift) {
+        return 1 << (int) ((hash >>> shift) & MASK);
+    }
+
+    private static int index(final int bitmap, final int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    /**
+     * The state of one update: the owner token and the change of the number of entries
+     */
+    private static final class Edit {
+        private final Object owner;
+        private int sizeDelta;
+
+        private Edit(final Object owner) {
+            this.owner = owner;
+        }
+
+        private boolean owns(final Node node) {
+            return Objects.nonNull(this.owner) && node.owner == this.owner;
+        }
+    }
+
+    private static final class Node {
+        private static final Node EMPTY = new Node(0, 0, new long[0], new Object[0], new Node[0], null);
+
+        private int dataMap;
+        private int nodeMap;
+        private long[] keys;
+        private Object[] values;
+        private Node[] nodes;
+        private final Object owner;
+
+        private Node(final int dataMap, final int nodeMap, final long[] keys, final Object[] values,
+                     final Node[] nodes, final Object owner) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.nodes = nodes;
+            this.owner = owner;
+        }
+
+        private static Node pair(final long key1, final long hash1, final Object value1,
+                                 final long key2, final long hash2, final Object value2,
+                                 final int shift, final Object owner) {
+            final int bit1 = bit(hash1, shift);
+            final int bit2 = bit(hash2, shift);
+            if (bit1 == bit2) {
+                final Node child = pair(key1, hash1, value1, key2, hash2, value2, shift + BITS, owner);
+                return new Node(0, bit1, new long[0], new Object[0], new Node[]{child}, owner);
+            }
+            final boolean firstIsLower = Integer.compareUnsigned(bit1, bit2) < 0;
+            return new Node(bit1 | bit2, 0,
+                    firstIsLower ? new long[]{key1, key2} : new long[]{key2, key1},
+                    firstIsLower ? new Object[]{value1, value2} : new Object[]{value2, value1},
+                    new Node[0], owner);
+        }
+
+        /**
+         * @return This node if it is owned by the edit, otherwise a copy owned by the edit
+         */
+        private Node editable(final Edit edit) {
+            if (edit.owns(this)) {
+                return this;
+            }
+            return new Node(this.dataMap, this.nodeMap, this.keys.clone(), this.values.clone(), this.nodes.clone(),
+                    edit.owner);
+        }
+
+        private Node put(final long key, final long hash, final int shift, final Object value, final Edit edit) {
+            final int bit = bit(hash, shift);
+            if ((this.dataMap & bit) != 0) {
+                final int index = index(this.dataMap, bit);
+                final long existingKey = this.keys[index];
+                if (existingKey == key) {
+                    if (Objects.equals(this.values[index], value)) {
+                        return this;
+                    }
+                    final Node node = this.editable(edit);
+                    node.values[index] = value;
+                    return node;
+                }
+                final Node child = pair(existingKey, PersistentLongMap.hash(existingKey), this.values[index],
+                        key, hash, value, shift + BITS, edit.owner);
+                edit.sizeDelta++;
+                return this.replaceEntryWithNode(bit, index, child, edit);
+            }
+            if ((this.nodeMap & bit) != 0) {
+                final int index = index(this.nodeMap, bit);
+                final Node child = this.nodes[index];
+                final Node newChild = child.put(key, hash, shift + BITS, value, edit);
+                if (newChild == child) {
+                    return this;
+                }
+                final Node node = this.editable(edit);
+                node.nodes[index] = newChild;
+                return node;
+            }
+            edit.sizeDelta++;
+            final int index = index(this.dataMap, bit);
+            final Node node = edit.owns(this) ? this : new Node(this.dataMap, this.nodeMap, this.keys, this.values,
+                    this.nodes.clone(), edit.owner);
+            node.keys = insert(this.keys, index, key);
+            node.values = insert(this.values, index, value);
+            node.dataMap = this.dataMap | bit;
+            return node;
+        }
+
+        private Node remove(final long key, final long hash, final int shift, final Edit edit) {
+            final int bit = bit(hash, shift);
+            if ((this.dataMap & bit) != 0) {
+                final int index = index(this.dataMap, bit);
+                if (this.keys[index] != key) {
+                    return this;
+                }
+                edit.sizeDelta--;
+                final Node node = edit.owns(this) ? this : new Node(this.dataMap, this.nodeMap, this.keys,
+                        this.values, this.nodes.clone(), edit.owner);
+                node.keys = delete(this.keys, index);
+                node.values = delete(this.values, index);
+                node.dataMap = this.dataMap ^ bit;
+                return node;
+            }
+            if ((this.nodeMap & bit) == 0) {
+                return this;
+            }
+            final int index = index(this.nodeMap, bit);
+            final Node child = this.nodes[index];
+            final Node newChild = child.remove(key, hash, shift + BITS, edit);
+            if (newChild == child) {
+                return this;
+            }
+            if (newChild.nodeMap == 0 && Integer.bitCount(newChild.dataMap) == 1) {
+                // a single entry moves up, so equal maps have equal tries
+                return this.replaceNodeWithEntry(bit, index, newChild.keys[0], newChild.values[0], edit);
+            }
+            final Node node = this.editable(edit);
+            node.nodes[index] = newChild;
+            return node;
+        }
+
+        private Node replaceEntryWithNode(final int bit, final int dataIndex, final Node child, final Edit edit) {
+            final Node node = edit.owns(this) ? this : new Node(this.dataMap, this.nodeMap, this.keys, this.values,
+                    this.nodes, edit.owner);
+            node.keys = delete(this.keys, dataIndex);
+            node.values = delete(this.values, dataIndex);
+            node.dataMap = this.dataMap ^ bit;
+            node.nodes = insert(this.nodes, index(this.nodeMap, bit), child);
+            node.nodeMap = this.nodeMap | bit;
+            return node;
+        }
+
+        private Node replaceNodeWithEntry(final int bit, final int nodeIndex, final long key, final Object value,
+                                          final Edit edit) {
+            final Node node = edit.owns(this) ? this : new Node(this.dataMap, this.nodeMap, this.keys, this.values,
+                    this.nodes, edit.owner);
+            node.nodes = delete(this.nodes, nodeIndex);
+            node.nodeMap = this.nodeMap ^ bit;
+            final int dataIndex = index(this.dataMap, bit);
+            node.keys = insert(this.keys, dataIndex, key);
+            node.values = insert(this.values, dataIndex, value);
+            node.dataMap = this.dataMap | bit;
+            return node;
+        }
+
+        private void forEach(final EntryConsumer<Object> consumer) {
+            for (int i = 0; i < this.keys.length; i++) {
+                consumer.accept(this.keys[i], this.values[i]);
+            }
+            for (Node node : this.nodes) {
+                node.forEach(consumer);
+            }
+        }
+
+        private static long[] insert(final long[] array, final int index, final long value) {
+            final long[] result = Arrays.copyOf(array, array.length + 1);
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            result[index] = value;
+            return result;
+        }
+
+        private static <T> T[] insert(final T[] array, final int index, final T value) {
+            final T[] result = Arrays.copyOf(array, array.length + 1);
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            result[index] = value;
+            return result;
+        }
+
+        private static long[] delete(final long[] array, final int index) {
+            final long[] result = Arrays.copyOf(array, array.length - 1);
+            System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+            return result;
+        }
+
+        private static <T> T[] delete(final T[] array, final int index) {
+            final T[] result = Arrays.copyOf(array, array.length - 1);
+            System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Index of the reporting lines for the questions about the managers of an employee
+ * <p>
+ * The index is built from one run of {@link CompanyStructureEngine} and keeps only primitive per-row arrays.
+ * The employees connected to the CEO are numbered in pre-order by
+ * {@link CompanyStructureEngine#preOrder(int[], int[])}, so "is B in the reporting line of A" is an interval
+ * check in O(1). The lowest common manager is found by binary lifting over jump pointers: besides the manager
+ * every row keeps one jump to a manager higher up, the jumps of a reporting line have the lengths of
+ * a skew-binary decomposition of the depth, so any manager is reached in O(log n) steps with one extra int
+ * per row instead of a {@code log n} table per row.
+ * </p>
+ * The index is a snapshot of the storage at the time of {@link #build(CompanyEmployeeStorage)}, the employees
+ * without a reporting line to the CEO (orphaned subtrees and cycles) are not indexed. The queries are
+ * thread-safe, the batch queries are answered in parallel.
+ */
+public final class ReportingChainIndex {
+    /**
+     * The id returned by {@link #lowestCommonManagers(long[], long[])} for a pair without a common manager
+     */
+    public static final long NO_EMPLOYEE = Long.MIN_VALUE;
+    private static final int NO_ROW = CompanyStructureEngine.NO_PARENT;
+
+    private final LongIntHashMap rows;
+    private final Employee[] employees;
+    private final int[] parents;
+    private final int[] jumps;
+    private final int[] depths;
+    private final int[] positions;
+    private final int[] subtreeSizes;
+    private final int size;
+
+    private ReportingChainIndex(final Employee[] employees, final CompanyStructureEngine engine) {
+        final int rowCount = employees.length;
+        this.employees = employees;
+        this.size = engine.reachable();
+        this.rows = new LongIntHashMap(this.size);
+        this.parents = new int[rowCount];
+        this.jumps = new int[rowCount];
+        this.depths = new int[rowCount];
+        this.positions = new int[rowCount];
+        this.subtreeSizes = new int[rowCount];
+        engine.preOrder(this.positions, this.subtreeSizes);
+        for (int position = 0; position < this.size; position++) {
+            final int row = engine.rowInOrder(position);
+            final int parent = engine.parent(row);
+            this.depths[row] = engine.depth(row);
+            this.parents[row] = parent;
+            if (parent == NO_ROW) {
+                this.jumps[row] = row;
+            } else {
+                // the manager comes before the subordinates in the traversal order, its jumps are known
+                final int parentJump = this.jumps[parent];
+                final boolean merge = this.depths[parent] - this.depths[parentJump]
+                        == this.depths[parentJump] - this.depths[this.jumps[parentJump]];
+                this.jumps[row] = merge && parentJump != parent ? this.jumps[parentJump] : parent;
+            }
+            this.rows.put(employees[row].id(), row);
+        }
+    }
+
+    /**
+     * Build the index of the employees connected to the CEO
+     * @param storage the storage with the employees
+     * @return the index
+     */
+    public static ReportingChainIndex build(final CompanyEmployeeStorage storage) {
+        final List<Employee> employees = new ArrayList<>();
+        storage.forEachEmployee((employee, reportingLineLength, subordinates, subordinateSalarySum) ->
+                employees.add(employee));
+        final Employee[] rowEmployees = employees.toArray(new Employee[0]);
+        return new ReportingChainIndex(rowEmployees, CompanyStructureEngine.forEmployees(rowEmployees));
+    }
+
+    /**
+     * @return the number of the indexed employees
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param employeeId the id of the employee
+     * @return true if the employee is connected to the CEO and indexed
+     */
+    public boolean contains(final long employeeId) {
+        return this.rows.get(employeeId) != LongIntHashMap.NO_VALUE;
+    }
+
+    /**
+     * Get the managers of the employee from the direct manager up to the CEO
+     * @param employeeId the id of the employee
+     * @return the managers, empty for the CEO or an employee which is not indexed
+     */
+    public List<Employee> reportingChain(final long employeeId) {
+        final int row = this.rows.get(employeeId);
+        if (row == LongIntHashMap.NO_VALUE) {
+            return List.of();
+        }
+        final List<Employee> chain = new ArrayList<>(this.depths[row]);
+        for (int manager = this.parents[row]; manager != NO_ROW; manager = this.parents[manager]) {
+            chain.add(this.employees[manager]);
+        }
+        return chain;
+    }
+
+    /**
+     * Checks if the manager is in the reporting line of the employee, a direct or an indirect manager
+     * @param employeeId the id of the employee
+     * @param managerId the id of the manager
+     * @return true if the manager is in the reporting line, false if not or if one of them is not indexed
+     */
+    public boolean isInReportingLine(final long employeeId, final long managerId) {
+        final int row = this.rows.get(employeeId);
+        final int manager = this.rows.get(managerId);
+        return row != LongIntHashMap.NO_VALUE && manager != LongIntHashMap.NO_VALUE && row != manager
+                && this.isInSubtree(row, manager);
+    }
+
+    /**
+     * Find the lowest common manager of two employees: the lowest employee which is one of them or in the
+     * reporting lines of both. For an employee and one of the subordinates it is the employee.
+     * @param firstId the id of the first employee
+     * @param secondId the id of the second employee
+     * @return the lowest common manager or an empty Optional if one of the employees is not indexed or
+     * the employees report to different CEOs
+     */
+    public Optional<Employee> lowestCommonManager(final long firstId, final long secondId) {
+        final int row = this.lowestCommonRow(this.rows.get(firstId), this.rows.get(secondId));
+        return row == NO_ROW ? Optional.empty() : Optional.of(this.employees[row]);
+    }
+
+    /**
+     * Find the lowest common manager of every pair {@code (firstIds[i], secondIds[i])} in parallel
+     * @param firstIds the ids of the first employees
+     * @param secondIds the ids of the second employees, the same number as of the first ones
+     * @return the id of the lowest common manager per pair or {@link #NO_EMPLOYEE} if there is none
+     */
+    public long[] lowestCommonManagers(final long[] firstIds, final long[] secondIds) {
+        checkPairs(firstIds, secondIds);
+        final long[] result = new long[firstIds.length];
+        IntStream.range(0, firstIds.length).parallel().forEach(i -> {
+            final int row = this.lowestCommonRow(this.rows.get(firstIds[i]), this.rows.get(secondIds[i]));
+            result[i] = row == NO_ROW ? NO_EMPLOYEE : this.employees[row].id();
+        });
+        return result;
+    }
+
+    /**
+     * Check for every pair {@code (employeeIds[i], managerIds[i])} in parallel if the manager is in
+     * the reporting line of the employee
+     * @param employeeIds the ids of the employees
+     * @param managerIds the ids of the managers, the same number as of the employees
+     * @return the result of {@link #isInReportingLine(long, long)} per pair
+     */
+    public boolean[] isInReportingLine(final long[] employeeIds, final long[] managerIds) {
+        checkPairs(employeeIds, managerIds);
+        final boolean[] result = new boolean[employeeIds.length];
+        IntStream.range(0, employeeIds.length).parallel()
+                .forEach(i -> result[i] = this.isInReportingLine(employeeIds[i], managerIds[i]));
+        return result;
+    }
+
+    /**
+     * Climbs from the first row with the longest jumps which stay below the common manager,
+     * the manager of the last row is the common manager
+     */
+    private int lowestCommonRow(final int first, final int second) {
+        if (first == LongIntHashMap.NO_VALUE || second == LongIntHashMap.NO_VALUE) {
+            return NO_ROW;
+        }
+        if (this.isInSubtree(second, first)) {
+            return first;
+        }
+        int row = first;
+        while (this.parents[row] != NO_ROW && !this.isInSubtree(second, this.parents[row])) {
+            final int jump = this.jumps[row];
+            row = this.isInSubtree(second, jump) ? this.parents[row] : jump;
+        }
+        return this.parents[row];
+    }
+
+    /**
+     * @return true if the row is the root of the subtree or one of its subordinates
+     */
+    private boolean isInSubtree(final int row, final int root) {
+        final int position = this.positions[row];
+        final int rootPosition = this.positions[root];
+        return position >= rootPosition && position < rootPosition + this.subtreeSizes[root];
+    }
+
+    private static void checkPairs(final long[] first, final long[] second) {
+        if (first.length != second.length) {
+            throw new IllegalArgumentException(String.format("Different numbers of employees: %d and %d",
+                    first.length, second.length));
+        }
+    }
+}
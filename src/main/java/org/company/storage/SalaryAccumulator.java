@@ -0,0 +1,91 @@
+package org.company.storage;
+
+import org.company.models.SalaryStatistics;
+
+/**
+ * Constant-size running statistics of the salaries of the direct subordinates of a manager
+ * <p>
+ * The count, sum, minimum and maximum are updated on every salary, the variance is maintained with
+ * Welford's online algorithm, so no salary has to be kept. A salary is removed by the inverse Welford step,
+ * only the minimum and the maximum may then have to be recalculated from the remaining salaries.
+ * </p>
+ */
+final class SalaryAccumulator {
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double squaredDeviations;
+
+    /**
+     * @param salary The salary of a subordinate
+     */
+    void add(final double salary) {
+        this.count++;
+        this.sum += salary;
+        this.min = Math.min(this.min, salary);
+        this.max = Math.max(this.max, salary);
+        final double delta = salary - this.mean;
+        this.mean += delta / this.count;
+        this.squaredDeviations += delta * (salary - this.mean);
+    }
+
+    /**
+     * Reverts {@link #add(double)} of the salary. The count, the sum and the variance are reverted exactly up to
+     * the rounding, the minimum and the maximum can't be reverted if the removed salary was one of them.
+     * They are then recalculated by {@link #resetBounds()} and {@link #addToBounds(double)} of the remaining
+     * salaries.
+     * @param salary The salary of a removed subordinate
+     * @return false if the minimum and the maximum have to be recalculated
+     */
+    boolean remove(final double salary) {
+        this.count--;
+        if (this.count == 0) {
+            this.sum = 0.0;
+            this.mean = 0.0;
+            this.squaredDeviations = 0.0;
+            this.resetBounds();
+            return true;
+        }
+        this.sum -= salary;
+        final double previousMean = this.mean;
+        this.mean -= (salary - previousMean) / this.count;
+        this.squaredDeviations = Math.max(0.0,
+                this.squaredDeviations - (salary - this.mean) * (salary - previousMean));
+        return salary > this.min && salary < this.max;
+    }
+
+    void resetBounds() {
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @param salary A salary counted by the accumulator
+     */
+    void addToBounds(final double salary) {
+        this.min = Math.min(this.min, salary);
+        this.max = Math.max(this.max, salary);
+    }
+
+    long count() {
+        return this.count;
+    }
+
+    double sum() {
+        return this.sum;
+    }
+
+    /**
+     * @return The average salary, 0.0 if there are no salaries
+     */
+    double average() {
+        return this.count == 0 ? 0.0 : this.sum / this.count;
+    }
+
+    SalaryStatistics toStatistics() {
+        return this.count == 0 ? new SalaryStatistics(0, 0.0, 0.0, 0.0, 0.0) :
+                new SalaryStatistics(this.count, this.sum, this.min, this.max, this.squaredDeviations / this.count);
+    }
+}
@@ -0,0 +1,36 @@
+package org.company.storage;
+
+/**
+ * Primitive function comparing the salary of a manager with the average salary of the direct subordinates
+ * <p>
+ * The function works on {@code double} values, so a scan over the managers doesn't box the salaries.
+ * A positive result is the difference which qualifies the manager for the result, 0.0 means no difference.
+ * </p>
+ */
+@FunctionalInterface
+public interface SalaryComparator {
+    /**
+     * @param managerSalary the salary of the manager
+     * @param avgSubordinateSalary the average salary of the direct subordinates
+     * @return the salary difference or 0.0 if the salaries don't meet the criteria
+     */
+    double compare(double managerSalary, double avgSubordinateSalary);
+
+    /**
+     * The comparator for managers earning more than the average subordinate salary multiplied by the factor
+     * @param factor the multiplier of the average subordinate salary
+     * @return the comparator returning how much the manager earns above the limit
+     */
+    static SalaryComparator above(final double factor) {
+        return new SalaryThreshold(factor, true);
+    }
+
+    /**
+     * The comparator for managers earning less than the average subordinate salary multiplied by the factor
+     * @param factor the multiplier of the average subordinate salary
+     * @return the comparator returning how much the manager earns below the limit
+     */
+    static SalaryComparator below(final double factor) {
+        return new SalaryThreshold(factor, false);
+    }
+}
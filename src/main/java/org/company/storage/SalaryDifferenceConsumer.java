@@ -0,0 +1,15 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+
+/**
+ * Receiver of the managers found by a salary scan, the difference is passed as a primitive
+ */
+@FunctionalInterface
+public interface SalaryDifferenceConsumer {
+    /**
+     * @param manager the manager
+     * @param difference the positive salary difference calculated by the {@link SalaryComparator}
+     */
+    void accept(Employee manager, double difference);
+}
@@ -0,0 +1,25 @@
+package org.company.storage;
+
+/**
+ * The comparator of {@link SalaryComparator#above(double)} and {@link SalaryComparator#below(double)}
+ * <p>
+ * The threshold keeps its factor and direction, so a storage with the salaries in primitive columns
+ * can compare all managers at once by a {@link SalaryThresholdScan} instead of calling the comparator
+ * for every manager.
+ * </p>
+ * @param factor the multiplier of the average subordinate salary
+ * @param above true for the managers earning more than the limit, false for the managers earning less
+ */
+public record SalaryThreshold(double factor, boolean above) implements SalaryComparator {
+    /**
+     * The difference is calculated as {@code managerSalary - limit} or {@code limit - managerSalary} and
+     * the manager qualifies if the difference is positive, which is the same as comparing the salary with
+     * the limit. A NaN average, e.g. of a manager without subordinates, never qualifies.
+     */
+    @Override
+    public double compare(final double managerSalary, final double avgSubordinateSalary) {
+        final double limit = avgSubordinateSalary * this.factor;
+        final double difference = this.above ? managerSalary - limit : limit - managerSalary;
+        return difference > 0.0 ? difference : 0.0;
+    }
+}
@@ -0,0 +1,147 @@
+package org.company.storage;
+
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compares the salaries of all managers with a {@link SalaryThreshold} at once
+ * <p>
+ * The scan works on the columns of a storage: the salary, the sum of the direct subordinate salaries and
+ * the number of the direct subordinates of every row. The rows whose difference is positive are written
+ * in the row order to {@code flaggedRows} together with their differences, so the caller visits only
+ * the qualified managers. A large storage is scanned in blocks of rows into small receivers which stay
+ * in the cache. A row without subordinates has a NaN average and is never flagged.
+ * </p>
+ * The {@link #vectorized() vectorized} scan calculates the averages, the limits and the differences of
+ * several rows by one SIMD instruction of the incubating Vector API and is available when the module
+ * {@code jdk.incubator.vector} is added to the runtime ({@code --add-modules jdk.incubator.vector}).
+ * The {@link #scalar() scalar} scan compares one row at a time. Both calculate every difference by the same
+ * IEEE operations in the same order, so the results are identical.
+ */
+public abstract class SalaryThresholdScan {
+    private static final Logger LOGGER = Logger.getLogger(SalaryThresholdScan.class.getName());
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final SalaryThresholdScan SCALAR = new ScalarScan();
+
+    SalaryThresholdScan() {
+    }
+
+    /**
+     * @return The scan comparing one row at a time
+     */
+    public static SalaryThresholdScan scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * @return The scan comparing several rows at a time
+     * @throws UnsupportedOperationException If the Vector API is not available in the runtime
+     */
+    public static SalaryThresholdScan vectorized() {
+        if (Objects.isNull(VectorHolder.VECTORIZED)) {
+            throw new UnsupportedOperationException("The module " + VECTOR_MODULE + " is not available");
+        }
+        return VectorHolder.VECTORIZED;
+    }
+
+    /**
+     * @return The vectorized scan if the Vector API is available and the platform compares more than one
+     * salary per instruction, the scalar scan otherwise
+     */
+    public static SalaryThresholdScan preferred() {
+        final SalaryThresholdScan vectorized = VectorHolder.VECTORIZED;
+        return Objects.isNull(vectorized) || vectorized.lanes() < 2 ? SCALAR : vectorized;
+    }
+
+    /**
+     * @return The number of rows compared at a time
+     */
+    public abstract int lanes();
+
+    /**
+     * Compare the rows from {@code from} to {@code to} with the threshold
+     * @param threshold The threshold of the salary difference
+     * @param salaries The salaries of the managers
+     * @param subordinateSalarySums The sums of the salaries of the direct subordinates
+     * @param subordinateCounts The numbers of the direct subordinates
+     * @param from The first compared row
+     * @param to The row after the last compared row
+     * @param flaggedRows The receiver of the qualified rows in the row order, at least {@code to - from} long
+     * @param differences The receiver of the differences of the qualified rows, at least {@code to - from} long
+     * @return The number of the qualified rows
+     * @throws IllegalArgumentException If the rows are out of the columns or a receiver is too short
+     */
+    public final int scan(final SalaryThreshold threshold, final double[] salaries,
+                          final double[] subordinateSalarySums, final double[] subordinateCounts, final int from,
+                          final int to, final int[] flaggedRows, final double[] differences) {
+        if (from < 0 || from > to || salaries.length < to || subordinateSalarySums.length < to
+                || subordinateCounts.length < to || flaggedRows.length < to - from
+                || differences.length < to - from) {
+            throw new IllegalArgumentException("Invalid rows of the scan: " + from + " to " + to);
+        }
+        return this.scanRows(threshold, salaries, subordinateSalarySums, subordinateCounts, from, to, flaggedRows,
+                differences);
+    }
+
+    abstract int scanRows(SalaryThreshold threshold, double[] salaries, double[] subordinateSalarySums,
+                          double[] subordinateCounts, int from, int to, int[] flaggedRows, double[] differences);
+
+    /**
+     * Compare the rows from {@code from} to {@code to} one at a time
+     * @param flagged The number of the rows qualified before
+     * @return The number of the qualified rows including the ones qualified before
+     */
+    static int scanRange(final SalaryThreshold threshold, final double[] salaries,
+                         final double[] subordinateSalarySums, final double[] subordinateCounts,
+                         final int from, final int to, final int[] flaggedRows, final double[] differences,
+                         final int flagged) {
+        int count = flagged;
+        for (int row = from; row < to; row++) {
+            final double difference = threshold.compare(salaries[row],
+                    subordinateSalarySums[row] / subordinateCounts[row]);
+            if (difference > 0.0) {
+                flaggedRows[count] = row;
+                differences[count++] = difference;
+            }
+        }
+        return count;
+    }
+
+    private static final class ScalarScan extends SalaryThresholdScan {
+        @Override
+        public int lanes() {
+            return 1;
+        }
+
+        @Override
+        int scanRows(final SalaryThreshold threshold, final double[] salaries, final double[] subordinateSalarySums,
+                     final double[] subordinateCounts, final int from, final int to, final int[] flaggedRows,
+                     final double[] differences) {
+            return scanRange(threshold, salaries, subordinateSalarySums, subordinateCounts, from, to, flaggedRows,
+                    differences, 0);
+        }
+    }
+
+    /**
+     * The vectorized scan is loaded on the first use, a runtime without the module never loads
+     * the classes of the Vector API
+     */
+    private static final class VectorHolder {
+        private static final SalaryThresholdScan VECTORIZED = load();
+
+        private static SalaryThresholdScan load() {
+            if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+                LOGGER.log(Level.FINE, "The module {0} is not available, the salaries are scanned one at a time",
+                        VECTOR_MODULE);
+                return null;
+            }
+            try {
+                return new VectorSalaryThresholdScan();
+            } catch (LinkageError ex) {
+                LOGGER.log(Level.WARNING, "Failed to load the vectorized salary scan", ex);
+                return null;
+            }
+        }
+    }
+}
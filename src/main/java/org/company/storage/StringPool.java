@@ -0,0 +1,54 @@
+package org.company.storage;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool of unique strings referenced by dense int ids
+ * <p>
+ * First and last names repeat a lot in a company, the pool keeps every distinct name once
+ * and the columns keep only the int reference.
+ * </p>
+ */
+final class StringPool {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Map<String, Integer> references;
+    private String[] values;
+    private int size;
+
+    StringPool() {
+        this.references = new HashMap<>();
+        this.values = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param value The string
+     * @return The reference of the string, the same string always gets the same reference
+     */
+    int intern(final String value) {
+        final Integer reference = this.references.get(value);
+        if (reference != null) {
+            return reference;
+        }
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size << 1);
+        }
+        this.values[this.size] = value;
+        this.references.put(value, this.size);
+        return this.size++;
+    }
+
+    /**
+     * @param reference The reference returned by {@link #intern(String)}
+     * @return The string
+     */
+    String get(final int reference) {
+        return this.values[reference];
+    }
+
+    int size() {
+        return this.size;
+    }
+}
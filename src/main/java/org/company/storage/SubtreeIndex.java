@@ -0,0 +1,182 @@
+package org.company.storage;
+
+import org.company.models.Employee;
+import org.company.models.SubtreeSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Index of the subtrees of the company structure for the questions about all subordinates of a manager
+ * <p>
+ * The employees connected to the CEO are numbered in pre-order of the structure by
+ * {@link CompanyStructureEngine#preOrder(int[], int[])}, so the subordinates of an employee at the position
+ * {@code p} with the subtree size {@code s} are exactly the positions {@code p + 1 .. p + s - 1}. The salaries
+ * are kept by position in a Fenwick tree, so the salary sum of a subtree is a range sum in O(log n) and
+ * a salary update costs O(log n) without a rebuild. The headcount and the maximal depth of a subtree don't
+ * change with the salaries, they are calculated once per employee and read in O(1).
+ * </p>
+ * The index is a snapshot of the storage at the time of {@link #build(CompanyEmployeeStorage)}, only
+ * the salary updates made through {@link #updateSalary(long, double)} are applied. The index is not thread-safe.
+ */
+public final class SubtreeIndex {
+    private final LongIntHashMap rows;
+    private final Employee[] employees;
+    private final int[] positions;
+    private final int[] subtreeSizes;
+    private final int[] maxDepths;
+    private final int[] depths;
+    private final int[] order;
+    private final double[] salaries;
+    private final double[] salaryTree;
+    private final int size;
+
+    private SubtreeIndex(final Employee[] employees, final CompanyStructureEngine engine) {
+        final int rowCount = employees.length;
+        this.employees = employees;
+        this.size = engine.reachable();
+        this.rows = new LongIntHashMap(this.size);
+        this.positions = new int[rowCount];
+        this.subtreeSizes = new int[rowCount];
+        this.maxDepths = new int[rowCount];
+        this.depths = new int[rowCount];
+        this.order = new int[this.size];
+        this.salaries = new double[this.size];
+        this.salaryTree = new double[this.size + 1];
+        engine.preOrder(this.positions, this.subtreeSizes);
+        for (int position = this.size - 1; position >= 0; position--) {
+            final int row = engine.rowInOrder(position);
+            int maxDepth = 0;
+            for (int i = engine.childStart(row); i < engine.childEnd(row); i++) {
+                maxDepth = Math.max(maxDepth, this.maxDepths[engine.child(i)] + 1);
+            }
+            this.maxDepths[row] = maxDepth;
+            this.depths[row] = engine.depth(row);
+            this.order[this.positions[row]] = row;
+            this.salaries[this.positions[row]] = employees[row].salary();
+            this.rows.put(employees[row].id(), row);
+        }
+        // linear build of the Fenwick tree: every node passes its sum to the parent node
+        for (int node = 1; node <= this.size; node++) {
+            this.salaryTree[node] += this.salaries[node - 1];
+            final int parent = node + (node & -node);
+            if (parent <= this.size) {
+                this.salaryTree[parent] += this.salaryTree[node];
+            }
+        }
+    }
+
+    /**
+     * Build the index of the employees connected to the CEO, the employees without a reporting line to the CEO
+     * (orphaned subtrees and cycles) are not indexed
+     * @param storage the storage with the employees
+     * @return the index
+     */
+    public static SubtreeIndex build(final CompanyEmployeeStorage storage) {
+        final List<Employee> employees = new ArrayList<>();
+        storage.forEachEmployee((employee, reportingLineLength, subordinates, subordinateSalarySum) ->
+                employees.add(employee));
+        final Employee[] rowEmployees = employees.toArray(new Employee[0]);
+        return new SubtreeIndex(rowEmployees, CompanyStructureEngine.forEmployees(rowEmployees));
+    }
+
+    /**
+     * @return the number of the indexed employees
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param employeeId the id of the employee
+     * @return true if the employee is connected to the CEO and indexed
+     */
+    public boolean contains(final long employeeId) {
+        return this.rowOf(employeeId) != LongIntHashMap.NO_VALUE;
+    }
+
+    /**
+     * Get the headcount, the salary sum and the depth of all direct and indirect subordinates of the employee
+     * @param managerId the id of the employee
+     * @return the summary or an empty Optional if the employee is not indexed
+     */
+    public Optional<SubtreeSummary> summarize(final long managerId) {
+        final int row = this.rowOf(managerId);
+        if (row == LongIntHashMap.NO_VALUE) {
+            return Optional.empty();
+        }
+        final int position = this.positions[row];
+        final int end = position + this.subtreeSizes[row];
+        return Optional.of(new SubtreeSummary(this.subtreeSizes[row] - 1,
+                this.prefixSum(end) - this.prefixSum(position + 1), this.maxDepths[row]));
+    }
+
+    /**
+     * Get all direct and indirect subordinates of the employee, a manager always comes before the subordinates
+     * @param managerId the id of the employee
+     * @return the subordinates, empty if the employee has no subordinates or is not indexed
+     */
+    public List<Employee> employeesUnder(final long managerId) {
+        final int row = this.rowOf(managerId);
+        if (row == LongIntHashMap.NO_VALUE) {
+            return List.of();
+        }
+        final int position = this.positions[row];
+        final List<Employee> result = new ArrayList<>(this.subtreeSizes[row] - 1);
+        for (int i = position + 1; i < position + this.subtreeSizes[row]; i++) {
+            result.add(this.employees[this.order[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the length of the reporting line of the employee
+     * @param employeeId the id of the employee
+     * @return the length or {@link EmployeeVisitor#NO_REPORTING_LINE} if the employee is not indexed
+     */
+    public int reportingLineLength(final long employeeId) {
+        final int row = this.rowOf(employeeId);
+        return row == LongIntHashMap.NO_VALUE ? EmployeeVisitor.NO_REPORTING_LINE : this.depths[row];
+    }
+
+    /**
+     * Change the salary of the employee in the index, the sums of the subtrees containing the employee
+     * are updated in O(log n). The storage is not changed, the returned employee can be added to it.
+     * @param employeeId the id of the employee
+     * @param salary the new salary
+     * @return the employee with the new salary or an empty Optional if the employee is not indexed
+     */
+    public Optional<Employee> updateSalary(final long employeeId, final double salary) {
+        final int row = this.rowOf(employeeId);
+        if (row == LongIntHashMap.NO_VALUE) {
+            return Optional.empty();
+        }
+        final int position = this.positions[row];
+        final double delta = salary - this.salaries[position];
+        this.salaries[position] = salary;
+        for (int node = position + 1; node <= this.size; node += node & -node) {
+            this.salaryTree[node] += delta;
+        }
+        final Employee previous = this.employees[row];
+        this.employees[row] = new Employee(previous.id(), previous.firstName(), previous.lastName(), salary,
+                previous.managerId());
+        return Optional.of(this.employees[row]);
+    }
+
+    /**
+     * @return the sum of the salaries at the positions {@code 0 .. end - 1}
+     */
+    private double prefixSum(final int end) {
+        double sum = 0.0;
+        for (int node = end; node > 0; node -= node & -node) {
+            sum += this.salaryTree[node];
+        }
+        return sum;
+    }
+
+    private int rowOf(final long employeeId) {
+        final int row = this.rows.get(employeeId);
+        return row == LongIntHashMap.NO_VALUE || this.positions[row] < 0 ? LongIntHashMap.NO_VALUE : row;
+    }
+}
@@ -0,0 +1,60 @@
+package org.company.storage;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link SalaryThresholdScan} comparing the rows in vectors of the preferred width of the platform
+ * <p>
+ * Every step loads the salaries, the subordinate salary sums and the subordinate counts of a block of rows,
+ * calculates the differences and compares them with 0.0 into a mask. A block without a qualified row is
+ * skipped after one test of the mask, the qualified rows of the other blocks are compacted by walking
+ * the bits of the mask. The rows after the last full block are compared one at
+ * a time.
+ * </p>
+ * The scan is shared by all storages and called concurrently, so the differences of a block are stored
+ * in a buffer per thread which is allocated once and reused by the next scans of the thread.
+ */
+final class VectorSalaryThresholdScan extends SalaryThresholdScan {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ThreadLocal<double[]> blockDifferences =
+            ThreadLocal.withInitial(() -> new double[SPECIES.length()]);
+
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    int scanRows(final SalaryThreshold threshold, final double[] salaries, final double[] subordinateSalarySums,
+                 final double[] subordinateCounts, final int from, final int to, final int[] flaggedRows,
+                 final double[] differences) {
+        final double[] blockDifferences = this.blockDifferences.get();
+        final DoubleVector factor = DoubleVector.broadcast(SPECIES, threshold.factor());
+        final int bound = from + SPECIES.loopBound(to - from);
+        int flagged = 0;
+        int row = from;
+        for (; row < bound; row += SPECIES.length()) {
+            final DoubleVector salary = DoubleVector.fromArray(SPECIES, salaries, row);
+            final DoubleVector limit = DoubleVector.fromArray(SPECIES, subordinateSalarySums, row)
+                    .div(DoubleVector.fromArray(SPECIES, subordinateCounts, row))
+                    .mul(factor);
+            final DoubleVector difference = threshold.above() ? salary.sub(limit) : limit.sub(salary);
+            final VectorMask<Double> qualified = difference.compare(VectorOperators.GT, 0.0);
+            if (!qualified.anyTrue()) {
+                continue;
+            }
+            difference.intoArray(blockDifferences, 0);
+            for (long lanes = qualified.toLong(); lanes != 0; lanes &= lanes - 1) {
+                final int lane = Long.numberOfTrailingZeros(lanes);
+                flaggedRows[flagged] = row + lane;
+                differences[flagged++] = blockDifferences[lane];
+            }
+        }
+        return scanRange(threshold, salaries, subordinateSalarySums, subordinateCounts, row, to, flaggedRows,
+                differences, flagged);
+    }
+}
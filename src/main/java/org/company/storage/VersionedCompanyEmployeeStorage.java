@@ -0,0 +1,225 @@
+package org.company.storage;
+
+import org.company.models.CompanyStructure;
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A versioned implementation of {@link CompanyEmployeeStorage}
+ * <p>
+ * The employees and the direct subordinates of every manager are kept in persistent hash tries
+ * ({@link PersistentLongMap}). {@link #commit()} freezes the current state into an immutable
+ * {@link CompanyVersion}, the next changes copy only the trie nodes on the paths to the changed employees
+ * and share the rest with the committed versions. Successive exports of a large company which differ in
+ * a few employees cost little more memory than one export, and {@link CompanyVersion#diff(CompanyVersion)}
+ * finds the changes by skipping the shared nodes. The changes made between two commits are applied in place
+ * to the nodes created after the last commit, so a load copies every node once.
+ * </p>
+ * The queries are answered by the current version. Adding an employee with an existing id replaces
+ * the previous data of that employee. The storage is not thread-safe, the committed versions are.
+ */
+public class VersionedCompanyEmployeeStorage implements CompanyEmployeeStorage {
+    private final List<CompanyVersion> versions;
+    private PersistentLongMap<Employee> employees;
+    private PersistentLongMap<PersistentLongMap<Employee>> subordinates;
+    private Employee ceo;
+    /**
+     * The token of the nodes which may be changed in place, replaced when the state is frozen
+     */
+    private Object owner;
+    /**
+     * The frozen current state, null after a change
+     */
+    private CompanyVersion current;
+
+    public VersionedCompanyEmployeeStorage() {
+        this.versions = new ArrayList<>();
+        this.employees = PersistentLongMap.empty();
+        this.subordinates = PersistentLongMap.empty();
+        this.owner = new Object();
+        this.current = CompanyVersion.EMPTY;
+    }
+
+    /**
+     * Starts the changes of a version, the nodes of the version are copied on the first change and never
+     * changed in place
+     * @param base the version the changes are applied to
+     */
+    VersionedCompanyEmployeeStorage(final CompanyVersion base) {
+        this.versions = new ArrayList<>();
+        this.employees = base.employees();
+        this.subordinates = base.subordinates();
+        this.ceo = base.ceo();
+        this.owner = new Object();
+        this.current = base;
+    }
+
+    /**
+     * Add an employee to the company structure or replace the employee with the same id
+     * @param newEmployee the new employee instance
+     */
+    @Override
+    public void addEmployee(final Employee newEmployee) {
+        final Employee previous = this.employees.get(newEmployee.id());
+        if (newEmployee.equals(previous)) {
+            return;
+        }
+        this.employees = this.employees.put(newEmployee.id(), newEmployee, this.owner);
+        if (Objects.nonNull(previous) && Objects.nonNull(previous.managerId())) {
+            this.removeSubordinate(previous);
+        }
+        if (Objects.nonNull(newEmployee.managerId())) {
+            final PersistentLongMap<Employee> managerSubordinates = this.subordinates.get(newEmployee.managerId());
+            this.subordinates = this.subordinates.put(newEmployee.managerId(),
+                    (Objects.isNull(managerSubordinates) ? PersistentLongMap.<Employee>empty() : managerSubordinates)
+                            .put(newEmployee.id(), newEmployee, this.owner), this.owner);
+        }
+        if (Objects.isNull(newEmployee.managerId()) && (Objects.isNull(this.ceo) || this.ceo.equals(previous))) {
+            this.ceo = newEmployee;
+        } else if (Objects.nonNull(previous) && previous.equals(this.ceo)) {
+            this.ceo = null;
+        }
+        this.current = null;
+    }
+
+    /**
+     * Remove the employee from the company structure, the subordinates of the employee are kept
+     * @param id the id of the employee
+     */
+    public void removeEmployee(final long id) {
+        final Employee previous = this.employees.get(id);
+        if (Objects.isNull(previous)) {
+            return;
+        }
+        this.employees = this.employees.remove(id, this.owner);
+        if (Objects.nonNull(previous.managerId())) {
+            this.removeSubordinate(previous);
+        }
+        if (previous.equals(this.ceo)) {
+            this.ceo = null;
+        }
+        this.current = null;
+    }
+
+    /**
+     * Replace the employees by a full export and commit the result. The loader adds the employees of the export
+     * to an empty storage, e.g. {@code storage -> new CSVEmployeeDataParser(storage).addNewEmployees(path)},
+     * then the employees missing in the export are removed and the changed ones are replaced. The unchanged
+     * employees keep the nodes of the previous version.
+     * @param loader the receiver of an empty storage adding the employees of the export to it
+     * @return the committed version with the employees of the export
+     */
+    public CompanyVersion loadVersion(final Consumer<CompanyEmployeeStorage> loader) {
+        final VersionedCompanyEmployeeStorage export = new VersionedCompanyEmployeeStorage();
+        loader.accept(export);
+        final CompanyVersion loaded = export.currentVersion();
+        this.currentVersion().employees().diff(loaded.employees(), (id, before, after) -> {
+            if (Objects.isNull(after)) {
+                this.removeEmployee(id);
+            } else {
+                this.addEmployee(after);
+            }
+        });
+        if (!Objects.equals(this.ceo, loaded.ceo())) {
+            this.ceo = loaded.ceo();
+            this.current = null;
+        }
+        return this.commit();
+    }
+
+    /**
+     * Freeze the current state into a version and add it to the history, the state which is already
+     * the last committed version is not added again
+     * @return the committed version
+     */
+    public CompanyVersion commit() {
+        final CompanyVersion version = this.currentVersion();
+        if (this.versions.isEmpty() || this.versions.get(this.versions.size() - 1) != version) {
+            this.versions.add(version);
+        }
+        return version;
+    }
+
+    /**
+     * @return the committed versions from the oldest to the newest
+     */
+    public List<CompanyVersion> versions() {
+        return Collections.unmodifiableList(this.versions);
+    }
+
+    /**
+     * @return the immutable current state, the later changes of the storage don't change it
+     */
+    public CompanyVersion currentVersion() {
+        if (Objects.isNull(this.current)) {
+            this.current = new CompanyVersion(this.employees, this.subordinates, this.ceo);
+            this.owner = new Object();
+        }
+        return this.current;
+    }
+
+    /**
+     * Calculate the structure of the current version
+     * @return the map where a key is employee and value is a length of reporting line
+     */
+    @Override
+    public Map<Employee, Integer> calculateCompanyStructure() {
+        return this.currentVersion().calculateCompanyStructure();
+    }
+
+    /**
+     * Analyze the structure of the current version
+     * @return the reporting lines of employees connected to the CEO and the problems of the structure
+     */
+    @Override
+    public CompanyStructure analyzeCompanyStructure() {
+        return this.currentVersion().analyzeCompanyStructure();
+    }
+
+    @Override
+    public void forEachManagerWithFilterBySalary(final SalaryComparator salaryComparator,
+                                                 final SalaryDifferenceConsumer consumer) {
+        this.currentVersion().forEachManagerWithFilterBySalary(salaryComparator, consumer);
+    }
+
+    @Override
+    public void forEachEmployee(final EmployeeVisitor visitor) {
+        this.currentVersion().forEachEmployee(visitor);
+    }
+
+    @Override
+    public Map<Employee, SalaryStatistics> getSubordinateSalaryStatistics() {
+        return this.currentVersion().getSubordinateSalaryStatistics();
+    }
+
+    @Override
+    public Optional<SalaryStatistics> getSubordinateSalaryStatistics(final long managerId) {
+        return this.currentVersion().getSubordinateSalaryStatistics(managerId);
+    }
+
+    /**
+     * Checks if a CEO has been defined in the company structure
+     *
+     * @return true if a CEO is defined, otherwise false
+     */
+    @Override
+    public boolean isCEODefined() {
+        return Objects.nonNull(this.ceo);
+    }
+
+    private void removeSubordinate(final Employee previous) {
+        final PersistentLongMap<Employee> managerSubordinates = this.subordinates.get(previous.managerId())
+                .remove(previous.id(), this.owner);
+        this.subordinates = managerSubordinates.isEmpty() ?
+                this.subordinates.remove(previous.managerId(), this.owner) :
+                this.subordinates.put(previous.managerId(), managerSubordinates, this.owner);
+    }
+}
@@ -0,0 +1,117 @@
+package org.company;
+
+import org.company.models.Employee;
+import org.company.storage.BulkLoad;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.SalaryComparator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ColumnarCompanyEmployeeStorageTest extends CompanyEmployeeStorageImplTest {
+
+    @Override
+    protected CompanyEmployeeStorage createStorage() {
+        return new ColumnarCompanyEmployeeStorage(2);
+    }
+
+    @Test
+    public void testManagerAddedAfterSubordinates() {
+        for (int i = this.employees.size() - 1; i >= 0; i--) {
+            this.storage.addEmployee(this.employees.get(i));
+        }
+        final Map<Employee, Integer> reportingLineMap = this.storage.calculateCompanyStructure();
+        Assert.assertEquals(this.employees.size(), reportingLineMap.size());
+        Assert.assertEquals(Integer.valueOf(3), reportingLineMap.get(this.employees.get(4)));
+        Assert.assertTrue(this.storage.isCEODefined());
+    }
+
+    @Test
+    public void testStorageIsLockedDuringBulkLoad() {
+        this.storage.addEmployee(this.employees.get(0));
+        final BulkLoad load = this.storage.beginBulkLoad(10);
+        load.add(this.employees.get(1));
+        Assert.assertThrows(IllegalStateException.class, () -> this.storage.addEmployee(this.employees.get(2)));
+        Assert.assertThrows(IllegalStateException.class, () -> this.storage.beginBulkLoad(10));
+        Assert.assertEquals(1, this.storage.calculateCompanyStructure().size());
+        load.commit();
+        this.storage.addEmployee(this.employees.get(2));
+        Assert.assertEquals(3, this.storage.calculateCompanyStructure().size());
+        Assert.assertEquals(3, ((ColumnarCompanyEmployeeStorage) this.storage).size());
+    }
+
+    @Test
+    public void testReplaceEmployee() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        final Employee moved = new Employee(305L, "Brett", "Hardleaf", 40000.0, 123L);
+        this.storage.addEmployee(moved);
+
+        final Map<Employee, Integer> reportingLineMap = this.storage.calculateCompanyStructure();
+        Assert.assertEquals(this.employees.size(), reportingLineMap.size());
+        Assert.assertEquals(Integer.valueOf(1), reportingLineMap.get(moved));
+        Assert.assertFalse(reportingLineMap.containsKey(this.employees.get(4)));
+        Assert.assertEquals(this.employees.size(), ((ColumnarCompanyEmployeeStorage) this.storage).size());
+    }
+
+    @Test
+    public void testEmployeeWithUndefinedManagerIsSkipped() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        this.storage.addEmployee(new Employee(400L, "Nancy", "Jones", 104.0, 999L));
+
+        final Map<Employee, Integer> reportingLineMap = this.storage.calculateCompanyStructure();
+        Assert.assertEquals(this.employees.size(), reportingLineMap.size());
+        final Map<Employee, Double> managers = this.storage.getManagersWithFilterBySalary(
+                (managerSalary, avgSubordinateSalary) -> 1.0);
+        Assert.assertEquals(3, managers.size());
+    }
+
+    @Test
+    public void testParallelAnalysisMatchesSequential() {
+        final ColumnarCompanyEmployeeStorage sequential = new ColumnarCompanyEmployeeStorage(2);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final ColumnarCompanyEmployeeStorage parallel = new ColumnarCompanyEmployeeStorage(2, pool);
+        final Random random = new Random(7);
+        for (long id = 0; id < 50000; id++) {
+            final Long managerId = id == 0 ? null : id % 5000 == 0 ? 1_000_000L + id : (long) random.nextInt((int) id);
+            final Employee employee = new Employee(id, "Sam", "Jones", 1000.0 + random.nextDouble() * 1000.0,
+                    managerId);
+            sequential.addEmployee(employee);
+            parallel.addEmployee(employee);
+        }
+        for (Employee employee : List.of(new Employee(60000L, "Ann", "Cycle", 10.0, 60001L),
+                new Employee(60001L, "Bob", "Cycle", 20.0, 60000L), new Employee(7L, "Moved", "Jones", 1.5, 3L))) {
+            sequential.addEmployee(employee);
+            parallel.addEmployee(employee);
+        }
+
+        try {
+            Assert.assertEquals(4, parallel.parallelism());
+            Assert.assertEquals(sequential.analyzeCompanyStructure(), parallel.analyzeCompanyStructure());
+            Assert.assertEquals(sequential.getManagersWithFilterBySalary(SalaryComparator.above(1.0)),
+                    parallel.getManagersWithFilterBySalary(SalaryComparator.above(1.0)));
+            Assert.assertEquals(sequential.getSubordinateSalaryStatistics(),
+                    parallel.getSubordinateSalaryStatistics());
+            Assert.assertEquals(visitAll(sequential), visitAll(parallel));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStorageWithoutPoolIsSequential() {
+        Assert.assertEquals(1, new ColumnarCompanyEmployeeStorage(2, null).parallelism());
+    }
+
+    private static List<String> visitAll(final CompanyEmployeeStorage storage) {
+        final List<String> visits = new ArrayList<>();
+        storage.forEachEmployee((employee, reportingLineLength, subordinates, subordinateSalarySum) ->
+                visits.add(employee + " " + reportingLineLength + " " + subordinates + " " + subordinateSalarySum));
+        return visits;
+    }
+}
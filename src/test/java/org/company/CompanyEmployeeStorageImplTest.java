@@ -1,22 +1,32 @@
 package org.company;
 
+import org.company.models.CompanyStructure;
 import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+import org.company.models.StructureDiagnostic;
+import org.company.storage.BulkLoad;
 import org.company.storage.CompanyEmployeeStorage;
 import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.EmployeeVisitor;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class CompanyEmployeeStorageImplTest {
-    private CompanyEmployeeStorage storage;
-    private List<Employee> employees;
+    protected CompanyEmployeeStorage storage;
+    protected List<Employee> employees;
+
+    protected CompanyEmployeeStorage createStorage() {
+        return new CompanyEmployeeStorageImpl();
+    }
 
     @Before
     public void setUp() {
-        this.storage = new CompanyEmployeeStorageImpl();
+        this.storage = this.createStorage();
         this.employees = List.of(
                 new Employee(123L, "Joe", "Doe", 60000.0, null),
                 new Employee(124L, "Martin", "Chekov", 45000.0, 123L),
@@ -38,6 +48,92 @@ public class CompanyEmployeeStorageImplTest {
         Assert.assertEquals(Integer.valueOf(3), reportingLineMap.get(this.employees.get(4)));
     }
 
+    @Test
+    public void testReplacedEmployeeIsCountedOnce() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        this.storage.addEmployee(this.employees.get(2));
+        this.storage.addEmployee(new Employee(300L, "Alice", "Hasacat", 70000.0, 123L));
+        this.storage.addEmployee(new Employee(124L, "Martin", "Chekov", 46000.0, 123L));
+
+        final SalaryStatistics ceoSubordinates = this.storage.getSubordinateSalaryStatistics(123L).orElseThrow();
+        Assert.assertEquals(3, ceoSubordinates.count());
+        Assert.assertEquals(163000.0, ceoSubordinates.sum(), 1e-6);
+        Assert.assertEquals(46000.0, ceoSubordinates.min(), 0.0);
+        Assert.assertEquals(70000.0, ceoSubordinates.max(), 0.0);
+        Assert.assertEquals(Math.pow(46000.0 - 163000.0 / 3, 2) / 3 + Math.pow(47000.0 - 163000.0 / 3, 2) / 3
+                + Math.pow(70000.0 - 163000.0 / 3, 2) / 3, ceoSubordinates.variance(), 1e-3);
+        Assert.assertTrue(this.storage.getSubordinateSalaryStatistics(124L).isEmpty());
+        Assert.assertEquals(1, this.storage.getSubordinateSalaryStatistics(300L).orElseThrow().count());
+        Assert.assertEquals(this.employees.size(), this.storage.calculateCompanyStructure().size());
+        Assert.assertEquals(Integer.valueOf(2), this.storage.calculateCompanyStructure()
+                .get(this.employees.get(4)));
+        Assert.assertTrue(this.storage.isCEODefined());
+    }
+
+    @Test
+    public void testReplacedCEOIsNoLongerDefined() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        this.storage.addEmployee(new Employee(123L, "Joe", "Doe", 60000.0, 1L));
+        Assert.assertFalse(this.storage.isCEODefined());
+
+        this.storage.addEmployee(new Employee(1L, "Sam", "Jones", 90000.0, null));
+        Assert.assertTrue(this.storage.isCEODefined());
+        Assert.assertEquals(Integer.valueOf(4), this.storage.calculateCompanyStructure().get(this.employees.get(4)));
+    }
+
+    @Test
+    public void testCEOReplacedByBulkLoadIsNoLongerDefined() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        final BulkLoad load = this.storage.beginBulkLoad(1);
+        load.add(new Employee(123L, "Joe", "Doe", 60000.0, 1L));
+        load.commit();
+        Assert.assertFalse(this.storage.isCEODefined());
+    }
+
+    @Test
+    public void testAddEmployees() {
+        this.storage.addEmployees(this.employees.subList(0, 2));
+        this.storage.addEmployees(List.of());
+        this.storage.addEmployees(this.employees.subList(2, this.employees.size()));
+
+        final CompanyEmployeeStorage expected = this.createStorage();
+        this.employees.forEach(expected::addEmployee);
+        Assert.assertEquals(expected.calculateCompanyStructure(), this.storage.calculateCompanyStructure());
+        Assert.assertTrue(this.storage.isCEODefined());
+    }
+
+    @Test
+    public void testBulkLoad() {
+        this.storage.addEmployee(this.employees.get(0));
+        final List<Employee> loaded = List.of(this.employees.get(4), this.employees.get(3),
+                new Employee(125L, "Bob", "Ronstad", 1.0, 300L), this.employees.get(1),
+                new Employee(400L, "Sam", "Jones", 30000.0, 999L), this.employees.get(2));
+        final BulkLoad load = this.storage.beginBulkLoad(2);
+        loaded.forEach(load::add);
+        Assert.assertEquals(loaded.size(), load.size());
+        Assert.assertTrue(load.isCEODefined());
+        load.commit();
+        Assert.assertThrows(IllegalStateException.class, load::commit);
+
+        final CompanyEmployeeStorage expected = this.createStorage();
+        expected.addEmployee(this.employees.get(0));
+        loaded.forEach(expected::addEmployee);
+        Assert.assertEquals(expected.analyzeCompanyStructure(), this.storage.analyzeCompanyStructure());
+        Assert.assertEquals(expected.getSubordinateSalaryStatistics(), this.storage.getSubordinateSalaryStatistics());
+    }
+
+    @Test
+    public void testClosedBulkLoadIsDiscarded() {
+        try (BulkLoad load = this.storage.beginBulkLoad(this.employees.size())) {
+            this.employees.forEach(load::add);
+            Assert.assertTrue(load.isCEODefined());
+        }
+        Assert.assertFalse(this.storage.isCEODefined());
+        Assert.assertTrue(this.storage.calculateCompanyStructure().isEmpty());
+        this.storage.addEmployees(this.employees);
+        Assert.assertEquals(this.employees.size(), this.storage.calculateCompanyStructure().size());
+    }
+
     @Test
     public void testEmptyCalculateCompanyStructure() {
         final Map<Employee, Integer> reportingLineMap = this.storage.calculateCompanyStructure();
@@ -56,4 +152,85 @@ public class CompanyEmployeeStorageImplTest {
         Assert.assertTrue(poorManagers.containsKey(this.employees.get(1)));
         Assert.assertEquals(Double.valueOf(5000.0), poorManagers.get(this.employees.get(1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testForEachEmployee() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        final Employee orphan = new Employee(400L, "Sam", "Jones", 30000.0, 999L);
+        this.storage.addEmployee(orphan);
+
+        final Map<Employee, Integer> reportingLines = new HashMap<>();
+        final Map<Employee, Double> averageSalaries = new HashMap<>();
+        this.storage.forEachEmployee((employee, reportingLineLength, subordinates, salarySum) -> {
+            reportingLines.put(employee, reportingLineLength);
+            if (subordinates > 0) {
+                averageSalaries.put(employee, salarySum / subordinates);
+            }
+        });
+        Assert.assertEquals(this.employees.size() + 1, reportingLines.size());
+        Assert.assertEquals(Integer.valueOf(EmployeeVisitor.NO_REPORTING_LINE), reportingLines.get(orphan));
+        Assert.assertEquals(Integer.valueOf(3), reportingLines.get(this.employees.get(4)));
+        Assert.assertEquals(Map.of(this.employees.get(0), 46000.0, this.employees.get(1), 50000.0,
+                this.employees.get(3), 34000.0), averageSalaries);
+    }
+
+    @Test
+    public void testDeepReportingLine() {
+        final int depth = 1_000_000;
+        this.storage.addEmployee(new Employee(0L, "Joe", "Doe", 60000.0, null));
+        for (long id = 1; id <= depth; id++) {
+            this.storage.addEmployee(new Employee(id, "Martin", "Chekov", 45000.0, id - 1));
+        }
+        final Map<Employee, Integer> reportingLineMap = this.storage.calculateCompanyStructure();
+        Assert.assertEquals(depth + 1, reportingLineMap.size());
+        Assert.assertEquals(Integer.valueOf(depth),
+                reportingLineMap.get(new Employee((long) depth, "Martin", "Chekov", 45000.0, depth - 1L)));
+    }
+
+    @Test
+    public void testStructureDiagnostics() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        this.storage.addEmployee(new Employee(400L, "Nancy", "Jones", 104.0, 999L));
+        this.storage.addEmployee(new Employee(401L, "Sam", "Jones", 115.0, 400L));
+        this.storage.addEmployee(new Employee(500L, "Alice", "Wilson", 11.0, 501L));
+        this.storage.addEmployee(new Employee(501L, "Joe", "Brown", 165.0, 500L));
+        this.storage.addEmployee(new Employee(502L, "Jane", "Jones", 34.0, 501L));
+
+        final CompanyStructure structure = this.storage.analyzeCompanyStructure();
+        Assert.assertFalse(structure.isValid());
+        Assert.assertEquals(this.employees.size(), structure.reportingLines().size());
+        Assert.assertEquals(2, structure.diagnostics().size());
+
+        final StructureDiagnostic orphan = structure.diagnostics().get(0);
+        Assert.assertEquals(StructureDiagnostic.Type.ORPHAN, orphan.type());
+        Assert.assertEquals(List.of(400L), orphan.employeeIds());
+        Assert.assertEquals(Long.valueOf(999L), orphan.managerId());
+        Assert.assertEquals(2, orphan.affectedEmployees());
+
+        final StructureDiagnostic cycle = structure.diagnostics().get(1);
+        Assert.assertEquals(StructureDiagnostic.Type.CYCLE, cycle.type());
+        Assert.assertEquals(2, cycle.employeeIds().size());
+        Assert.assertTrue(cycle.employeeIds().containsAll(List.of(500L, 501L)));
+        Assert.assertEquals(3, cycle.affectedEmployees());
+    }
+
+    @Test
+    public void testSubordinateSalaryStatistics() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        this.storage.addEmployee(new Employee(126L, "Nancy", "Jones", 52000.0, 123L));
+
+        final Map<Employee, SalaryStatistics> statistics = this.storage.getSubordinateSalaryStatistics();
+        Assert.assertEquals(3, statistics.size());
+        final SalaryStatistics ceoStatistics = statistics.get(this.employees.get(0));
+        Assert.assertEquals(3, ceoStatistics.count());
+        Assert.assertEquals(144000.0, ceoStatistics.sum(), 1e-9);
+        Assert.assertEquals(45000.0, ceoStatistics.min(), 1e-9);
+        Assert.assertEquals(52000.0, ceoStatistics.max(), 1e-9);
+        Assert.assertEquals(48000.0, ceoStatistics.average(), 1e-9);
+        Assert.assertEquals(26000000.0 / 3, ceoStatistics.variance(), 1e-6);
+        Assert.assertEquals(ceoStatistics, this.storage.getSubordinateSalaryStatistics(123L).orElseThrow());
+
+        Assert.assertTrue(this.storage.getSubordinateSalaryStatistics(305L).isEmpty());
+        Assert.assertTrue(this.storage.getSubordinateSalaryStatistics(999L).isEmpty());
+    }
+}
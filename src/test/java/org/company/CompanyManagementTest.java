@@ -1,11 +1,21 @@
 package org.company;
 
+import org.company.models.CompanyReport;
 import org.company.models.Employee;
 import org.company.models.SalaryComparisonType;
+import org.company.models.SalaryThresholds;
+import org.company.models.StructureDiagnostic;
+import org.company.report.CsvReportSink;
+import org.company.report.ReportFormat;
+import org.company.report.ReportSink;
+import org.company.storage.CompanyEmployeeStorageImpl;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -31,6 +41,8 @@ public class CompanyManagementTest {
         final Map<Employee, Integer> employeesWithTooLongReportingLine =
                 this.companyManagement.getEmployeesWithTooLongReportingLine();
         Assert.assertTrue(employeesWithTooLongReportingLine.isEmpty());
+        Assert.assertEquals(StructureDiagnostic.Type.NO_CEO,
+                this.companyManagement.getStructureDiagnostics().get(0).type());
     }
 
     @Test
@@ -59,4 +71,68 @@ public class CompanyManagementTest {
         Assert.assertEquals(1,employeesWithTooLongReportingLine.size());
         Assert.assertEquals(1,  employeesWithTooLongReportingLine.keySet().stream().filter(employee -> employee.id() == 2).count());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testForEachEmployeeWithTooLongReportingLine() {
+        this.companyManagement.addNewEmployees(VALID_PATH);
+        final Map<Employee, Integer> employees = new HashMap<>();
+        this.companyManagement.forEachEmployeeWithTooLongReportingLine(employees::put);
+        Assert.assertEquals(this.companyManagement.getEmployeesWithTooLongReportingLine(), employees);
+    }
+
+    @Test
+    public void testGetManagersWithSalaryOutliers() {
+        this.companyManagement.addNewEmployees(VALID_PATH);
+        final Map<Employee, Double> outliers = this.companyManagement.getManagersWithSalaryOutliers(0.9);
+        Assert.assertEquals(1, outliers.size());
+        final Map.Entry<Employee, Double> outlier = outliers.entrySet().iterator().next();
+        Assert.assertEquals(Long.valueOf(9), outlier.getKey().id());
+        Assert.assertEquals(0.955, outlier.getValue(), 0.001);
+    }
+
+    @Test
+    public void testGetManagersWithCustomThresholds() {
+        final CompanyManagement management = new CompanyManagement(new CompanyEmployeeStorageImpl(),
+                new SalaryThresholds(1.0, 1.0));
+        management.addNewEmployees(VALID_PATH);
+        final Optional<Map<Employee, Double>> bigSalary = management.getManagersWithSalaryDifference(SalaryComparisonType.BIG);
+        Assert.assertTrue(bigSalary.isPresent());
+        Assert.assertEquals(4, bigSalary.get().size());
+        Assert.assertEquals(66.33, bigSalary.get().keySet().stream().filter(employee -> employee.id() == 9)
+                .map(bigSalary.get()::get).findFirst().orElseThrow(), 0.01);
+    }
+
+    @Test
+    public void testAnalyzeMatchesSeparateReports() {
+        this.companyManagement.addNewEmployees(VALID_PATH);
+        final CompanyReport report = this.companyManagement.analyze();
+        Assert.assertFalse(report.tooLongReportingLines().isEmpty());
+        Assert.assertEquals(this.companyManagement.getEmployeesWithTooLongReportingLine(),
+                report.tooLongReportingLines());
+        Assert.assertEquals(this.companyManagement.getManagersWithSalaryDifference(SalaryComparisonType.BIG).get(),
+                report.overpaidManagers());
+        Assert.assertEquals(this.companyManagement.getManagersWithSalaryDifference(SalaryComparisonType.SMALL).get(),
+                report.underpaidManagers());
+    }
+
+    @Test
+    public void testWriteReport() throws IOException {
+        this.companyManagement.addNewEmployees(VALID_PATH);
+        final CompanyReport report = this.companyManagement.analyze();
+        final StringWriter output = new StringWriter();
+        try (ReportSink sink = ReportFormat.CSV.createSink(output)) {
+            this.companyManagement.writeReport(sink);
+        }
+        final String[] lines = output.toString().split("\n");
+        Assert.assertEquals(CsvReportSink.HEADER, lines[0]);
+        Assert.assertEquals(report.tooLongReportingLines().size() + report.overpaidManagers().size()
+                + report.underpaidManagers().size(), lines.length - 1);
+        Assert.assertTrue(output.toString().contains("overpaid_manager,3,Nancy,Johnson,113.50\n"));
+    }
+
+    @Test
+    public void testUnsupportedSalaryComparisonType() {
+        this.companyManagement.addNewEmployees(VALID_PATH);
+        Assert.assertTrue(this.companyManagement.getManagersWithSalaryDifference(null).isEmpty());
+    }
+}
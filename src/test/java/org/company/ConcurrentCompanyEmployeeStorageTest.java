@@ -0,0 +1,174 @@
+package org.company;
+
+import org.company.models.Employee;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.ConcurrentCompanyEmployeeStorage;
+import org.company.storage.SalaryComparator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ConcurrentCompanyEmployeeStorageTest extends CompanyEmployeeStorageImplTest {
+    private static final int WRITERS = 4;
+    private static final int MOVERS = 2;
+    private static final int READERS = 3;
+    private static final int TEAMS = 64;
+    private static final int TEAM_SIZE = 8;
+    private static final int MOVES = 5_000;
+    private static final int EMPLOYEES = 200_000;
+    private static final int FAN_OUT = 4;
+
+    @Override
+    protected CompanyEmployeeStorage createStorage() {
+        return new ConcurrentCompanyEmployeeStorage();
+    }
+
+    @Test
+    public void testQueriesSeeAddedEmployees() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        Assert.assertEquals(this.employees.size(), this.storage.calculateCompanyStructure().size());
+
+        final Employee newEmployee = new Employee(306L, "Nancy", "Jones", 30000.0, 305L);
+        this.storage.addEmployee(newEmployee);
+        Assert.assertEquals(Integer.valueOf(4), this.storage.calculateCompanyStructure().get(newEmployee));
+        Assert.assertEquals(Map.of(newEmployee, 4), this.storage.getEmployeesWithReportingLineLongerThan(3));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCompanyStructureIsReadOnly() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        this.storage.calculateCompanyStructure().clear();
+    }
+
+    @Test(timeout = 120_000)
+    public void testParallelWritesAndQueries() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(WRITERS + MOVERS + READERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final SalaryComparator overpaid = SalaryComparator.above(1.0);
+        final Map<Long, List<Employee>> lastMoves = new ConcurrentHashMap<>();
+        try {
+            final List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                final int first = writer + 1;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int id = first; id <= EMPLOYEES; id += WRITERS) {
+                        this.storage.addEmployee(employee(id));
+                    }
+                    return null;
+                }));
+            }
+            for (int mover = 0; mover < MOVERS; mover++) {
+                final Random random = new Random(mover);
+                final int firstTeam = mover;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int move = 0; move < MOVES; move++) {
+                        // every mover owns its teams, so the last move of a team is its final state
+                        final long leader = teamLeader(firstTeam + MOVERS * random.nextInt(TEAMS / MOVERS));
+                        final List<Employee> team = moveTeam(leader, 1 + random.nextInt(EMPLOYEES));
+                        this.storage.addEmployees(team);
+                        lastMoves.put(leader, team);
+                    }
+                    return null;
+                }));
+            }
+            final List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < READERS; reader++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    long previousSize = 0;
+                    while (writing.get()) {
+                        final Map<Employee, Integer> structure = this.storage.calculateCompanyStructure();
+                        final Map<Long, Employee> byId = new HashMap<>();
+                        structure.keySet().forEach(employee -> Assert.assertNull(byId.put(employee.id(), employee)));
+                        final long size = byId.keySet().stream().filter(id -> id <= EMPLOYEES).count();
+                        Assert.assertTrue(size >= previousSize);
+                        previousSize = size;
+                        structure.forEach((employee, length) -> {
+                            if (employee.id() <= EMPLOYEES) {
+                                Assert.assertEquals(depth(employee.id()), length.intValue());
+                            } else if (!isTeamLeader(employee.id())) {
+                                // the salary of a member is the manager of its leader set by the same batch
+                                final Employee leader = byId.get(employee.managerId());
+                                Assert.assertEquals(leader.managerId().doubleValue(), employee.salary(), 0.0);
+                                Assert.assertEquals(structure.get(leader) + 1, length.intValue());
+                            }
+                        });
+                        this.storage.getManagersWithFilterBySalary(overpaid).forEach((manager, difference) ->
+                                Assert.assertTrue(difference > 0.0));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        final CompanyEmployeeStorage expected = new ColumnarCompanyEmployeeStorage();
+        for (int id = 1; id <= EMPLOYEES; id++) {
+            expected.addEmployee(employee(id));
+        }
+        lastMoves.values().forEach(expected::addEmployees);
+        Assert.assertTrue(this.storage.isCEODefined());
+        Assert.assertEquals(expected.calculateCompanyStructure(), this.storage.calculateCompanyStructure());
+        Assert.assertEquals(expected.getManagersWithFilterBySalary(overpaid),
+                this.storage.getManagersWithFilterBySalary(overpaid));
+    }
+
+    private static long teamLeader(final int team) {
+        return EMPLOYEES + 1 + (long) team * (TEAM_SIZE + 1);
+    }
+
+    private static boolean isTeamLeader(final long id) {
+        return (id - EMPLOYEES - 1) % (TEAM_SIZE + 1) == 0;
+    }
+
+    /**
+     * Moves the leader to the manager and replaces the members, the salary of every member is the id of
+     * the new manager of the leader
+     */
+    private static List<Employee> moveTeam(final long leader, final long managerId) {
+        final List<Employee> team = new ArrayList<>(TEAM_SIZE + 1);
+        team.add(new Employee(leader, "Joe", "Brown", 5000.0, managerId));
+        for (long member = leader + 1; member <= leader + TEAM_SIZE; member++) {
+            team.add(new Employee(member, "Sam", "Jones", (double) managerId, leader));
+        }
+        return team;
+    }
+
+    private static Employee employee(final long id) {
+        return new Employee(id, "Sam", "Jones", 1000.0 + (id * 37) % 500, id == 1 ? null : (id - 2) / FAN_OUT + 1);
+    }
+
+    private static int depth(final long id) {
+        int depth = 0;
+        for (long current = id; current != 1; current = (current - 2) / FAN_OUT + 1) {
+            depth++;
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,113 @@
+package org.company;
+
+import org.company.models.Employee;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.IncrementalCompanyEmployeeStorage;
+import org.company.storage.SalaryComparator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IncrementalCompanyEmployeeStorageTest extends CompanyEmployeeStorageImplTest {
+    private final static SalaryComparator SALARY_DIFFERENCE =
+            (managerSalary, avgSubordinateSalary) -> Math.abs(managerSalary - avgSubordinateSalary) + 1.0;
+
+    @Override
+    protected CompanyEmployeeStorage createStorage() {
+        return new IncrementalCompanyEmployeeStorage();
+    }
+
+    @Test
+    public void testStructureUpdatedAfterQuery() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        Assert.assertTrue(this.storage.getEmployeesWithReportingLineLongerThan(3).isEmpty());
+
+        final Employee newEmployee = new Employee(306L, "Nancy", "Jones", 30000.0, 305L);
+        this.storage.addEmployee(newEmployee);
+        Assert.assertEquals(Map.of(newEmployee, 4), this.storage.getEmployeesWithReportingLineLongerThan(3));
+        Assert.assertEquals(Integer.valueOf(4), this.storage.calculateCompanyStructure().get(newEmployee));
+    }
+
+    @Test
+    public void testReparentingUpdatesSubtreeAndSalaries() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        final Employee moved = new Employee(300L, "Alice", "Hasacat", 50000.0, 125L);
+        this.storage.addEmployee(moved);
+
+        final Map<Employee, Integer> reportingLineMap = this.storage.calculateCompanyStructure();
+        Assert.assertEquals(this.employees.size(), reportingLineMap.size());
+        Assert.assertEquals(Integer.valueOf(2), reportingLineMap.get(moved));
+        Assert.assertEquals(Integer.valueOf(3), reportingLineMap.get(this.employees.get(4)));
+
+        final Map<Employee, Double> managers = this.storage.getManagersWithFilterBySalary(
+                (managerSalary, avgSubordinateSalary) -> avgSubordinateSalary);
+        Assert.assertFalse(managers.containsKey(this.employees.get(1)));
+        Assert.assertEquals(Double.valueOf(50000.0), managers.get(this.employees.get(2)));
+        Assert.assertEquals(Double.valueOf(46000.0), managers.get(this.employees.get(0)));
+    }
+
+    @Test
+    public void testSalaryUpdateKeepsReportingLines() {
+        this.employees.forEach(employee -> this.storage.addEmployee(employee));
+        final Employee ceo = new Employee(123L, "Joe", "Doe", 65000.0, null);
+        final Employee manager = new Employee(300L, "Alice", "Hasacat", 52000.0, 124L);
+        this.storage.addEmployee(ceo);
+        this.storage.addEmployee(manager);
+
+        final Map<Employee, Integer> reportingLineMap = this.storage.calculateCompanyStructure();
+        Assert.assertEquals(this.employees.size(), reportingLineMap.size());
+        Assert.assertEquals(Integer.valueOf(0), reportingLineMap.get(ceo));
+        Assert.assertEquals(Integer.valueOf(2), reportingLineMap.get(manager));
+        Assert.assertFalse(reportingLineMap.containsKey(this.employees.get(3)));
+        Assert.assertEquals(Integer.valueOf(3), reportingLineMap.get(this.employees.get(4)));
+        Assert.assertEquals(Map.of(manager, 2, this.employees.get(4), 3),
+                this.storage.getEmployeesWithReportingLineLongerThan(1));
+        Assert.assertEquals(52000.0, this.storage.getSubordinateSalaryStatistics(124L).orElseThrow().sum(), 1e-9);
+    }
+
+    @Test
+    public void testLateManagerConnectsSubtreeAndCycleDisconnectsIt() {
+        this.storage.addEmployee(this.employees.get(0));
+        this.storage.addEmployee(this.employees.get(4));
+        this.storage.addEmployee(this.employees.get(3));
+        Assert.assertEquals(1, this.storage.calculateCompanyStructure().size());
+
+        this.storage.addEmployee(this.employees.get(1));
+        Assert.assertEquals(4, this.storage.calculateCompanyStructure().size());
+        Assert.assertEquals(Integer.valueOf(3), this.storage.calculateCompanyStructure().get(this.employees.get(4)));
+
+        this.storage.addEmployee(new Employee(124L, "Martin", "Chekov", 45000.0, 305L));
+        Assert.assertEquals(1, this.storage.calculateCompanyStructure().size());
+        Assert.assertTrue(this.storage.getEmployeesWithReportingLineLongerThan(0).isEmpty());
+    }
+
+    @Test
+    public void testRandomDeltasMatchFullRecalculation() {
+        final Random random = new Random(7);
+        final Map<Long, Employee> current = new HashMap<>();
+        this.storage.addEmployee(new Employee(0L, "Joe", "Doe", 100.0, null));
+        current.put(0L, new Employee(0L, "Joe", "Doe", 100.0, null));
+        for (int step = 0; step < 3000; step++) {
+            final long id = 1 + random.nextInt(300);
+            final long managerId = random.nextInt(300);
+            final Employee employee = new Employee(id, "Sam", "Jones", (double) random.nextInt(1000), managerId);
+            this.storage.addEmployee(employee);
+            current.put(id, employee);
+
+            if (step % 100 == 0) {
+                final CompanyEmployeeStorage expected = new ColumnarCompanyEmployeeStorage();
+                current.values().forEach(expected::addEmployee);
+                Assert.assertEquals(expected.calculateCompanyStructure(), this.storage.calculateCompanyStructure());
+                final Map<Employee, Double> expectedManagers = expected.getManagersWithFilterBySalary(SALARY_DIFFERENCE);
+                final Map<Employee, Double> managers = this.storage.getManagersWithFilterBySalary(SALARY_DIFFERENCE);
+                Assert.assertEquals(expectedManagers.keySet(), managers.keySet());
+                expectedManagers.forEach((manager, difference) ->
+                        Assert.assertEquals(difference, managers.get(manager), 1e-6));
+            }
+        }
+    }
+}
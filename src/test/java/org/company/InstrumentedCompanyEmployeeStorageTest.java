@@ -0,0 +1,12 @@
+package org.company;
+
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.InstrumentedCompanyEmployeeStorage;
+
+public class InstrumentedCompanyEmployeeStorageTest extends CompanyEmployeeStorageImplTest {
+    @Override
+    protected CompanyEmployeeStorage createStorage() {
+        return new InstrumentedCompanyEmployeeStorage(new CompanyEmployeeStorageImpl());
+    }
+}
@@ -0,0 +1,130 @@
+package org.company;
+
+import org.company.models.Employee;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.CompanySnapshot;
+import org.company.storage.MappedCompanyEmployeeStorage;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedCompanyEmployeeStorageTest extends CompanyEmployeeStorageImplTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * The base tests run on a snapshot of an empty company which is materialized by the first added employee
+     */
+    @Override
+    protected CompanyEmployeeStorage createStorage() {
+        try {
+            this.folder.create();
+            return this.writeAndOpen(new ColumnarCompanyEmployeeStorage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    public void testSnapshotMatchesStorage() throws IOException {
+        final CompanyEmployeeStorage expected = new ColumnarCompanyEmployeeStorage();
+        this.employees.forEach(expected::addEmployee);
+        expected.addEmployee(new Employee(400L, "Sam", "Jones", 30000.0, 999L));
+        expected.addEmployee(new Employee(306L, "Nancy", "Jones", 30000.0, 305L));
+
+        final MappedCompanyEmployeeStorage snapshot = this.writeAndOpen(expected);
+        Assert.assertEquals(this.employees.size() + 2, snapshot.size());
+        Assert.assertTrue(snapshot.isCEODefined());
+        Assert.assertEquals(expected.analyzeCompanyStructure(), snapshot.analyzeCompanyStructure());
+        Assert.assertEquals(expected.getEmployeesWithReportingLineLongerThan(3),
+                snapshot.getEmployeesWithReportingLineLongerThan(3));
+        Assert.assertEquals(expected.getManagersWithFilterBySalary((manager, average) -> average),
+                snapshot.getManagersWithFilterBySalary((manager, average) -> average));
+        Assert.assertEquals(expected.getSubordinateSalaryStatistics(), snapshot.getSubordinateSalaryStatistics());
+        Assert.assertEquals(expected.getSubordinateSalaryStatistics(123L), snapshot.getSubordinateSalaryStatistics(123L));
+        Assert.assertTrue(snapshot.getSubordinateSalaryStatistics(999L).isEmpty());
+        Assert.assertTrue(snapshot.getSubordinateSalaryStatistics(12345L).isEmpty());
+        Assert.assertFalse(snapshot.isMaterialized());
+    }
+
+    @Test
+    public void testSnapshotOfReplacedCEO() throws IOException {
+        final CompanyEmployeeStorage expected = new ColumnarCompanyEmployeeStorage();
+        this.employees.forEach(expected::addEmployee);
+        expected.addEmployee(new Employee(123L, "Joe", "Doe", 60000.0, 1L));
+
+        Assert.assertFalse(this.writeAndOpen(expected).isCEODefined());
+    }
+
+    @Test
+    public void testFirstWriteMaterializesSnapshot() throws IOException {
+        final CompanyEmployeeStorage original = new ColumnarCompanyEmployeeStorage();
+        this.employees.forEach(original::addEmployee);
+        final MappedCompanyEmployeeStorage snapshot = this.writeAndOpen(original);
+
+        final Employee newEmployee = new Employee(306L, "Nancy", "Jones", 30000.0, 305L);
+        snapshot.addEmployee(newEmployee);
+        Assert.assertTrue(snapshot.isMaterialized());
+        Assert.assertEquals(this.employees.size() + 1, snapshot.size());
+        Assert.assertEquals(Integer.valueOf(4), snapshot.calculateCompanyStructure().get(newEmployee));
+    }
+
+    @Test
+    public void testSnapshotOfAnotherStorage() throws IOException {
+        final CompanyEmployeeStorage original = new CompanyEmployeeStorageImpl();
+        this.employees.forEach(original::addEmployee);
+        Assert.assertEquals(original.calculateCompanyStructure(),
+                this.writeAndOpen(original).calculateCompanyStructure());
+    }
+
+    @Test
+    public void testCorruptedSectionFailsOnRead() throws IOException {
+        final CompanyEmployeeStorage original = new ColumnarCompanyEmployeeStorage();
+        this.employees.forEach(original::addEmployee);
+        final Path file = this.folder.newFile().toPath();
+        CompanySnapshot.write(original, file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), channel.size() - 1);
+        }
+        final MappedCompanyEmployeeStorage snapshot = CompanySnapshot.open(file);
+        Assert.assertTrue(snapshot.isCEODefined());
+        Assert.assertThrows(UncheckedIOException.class, () -> snapshot.getSubordinateSalaryStatistics(123L));
+    }
+
+    @Test
+    public void testCorruptedHeaderFailsOnOpen() throws IOException {
+        final Path file = this.folder.newFile().toPath();
+        CompanySnapshot.write(new ColumnarCompanyEmployeeStorage(), file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1}), 9);
+        }
+        Assert.assertThrows(IOException.class, () -> CompanySnapshot.open(file));
+    }
+
+    @Test
+    public void testUnsupportedFormatVersion() throws IOException {
+        final Path file = this.folder.newFile().toPath();
+        CompanySnapshot.write(new ColumnarCompanyEmployeeStorage(), file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{99}), 4);
+        }
+        final IOException exception = Assert.assertThrows(IOException.class, () -> CompanySnapshot.open(file));
+        Assert.assertTrue(exception.getMessage().startsWith("Unsupported snapshot format version 99"));
+    }
+
+    private MappedCompanyEmployeeStorage writeAndOpen(final CompanyEmployeeStorage storage) throws IOException {
+        final Path file = this.folder.newFile().toPath();
+        CompanySnapshot.write(storage, file);
+        return CompanySnapshot.open(file);
+    }
+}
@@ -0,0 +1,126 @@
+package org.company;
+
+import org.company.models.Employee;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.ReportingChainIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+public class ReportingChainIndexTest {
+    private final List<Employee> employees = List.of(
+            new Employee(123L, "Joe", "Doe", 60000.0, null),
+            new Employee(124L, "Martin", "Chekov", 45000.0, 123L),
+            new Employee(125L, "Bob", "Ronstad", 47000.0, 123L),
+            new Employee(300L, "Alice", "Hasacat", 50000.0, 124L),
+            new Employee(305L, "Brett", "Hardleaf", 34000.0, 300L),
+            new Employee(400L, "Sam", "Jones", 30000.0, 999L));
+
+    @Test
+    public void testReportingChain() {
+        final ReportingChainIndex index = this.build(new CompanyEmployeeStorageImpl());
+
+        Assert.assertEquals(5, index.size());
+        Assert.assertEquals(List.of(this.employees.get(3), this.employees.get(1), this.employees.get(0)),
+                index.reportingChain(305L));
+        Assert.assertTrue(index.reportingChain(123L).isEmpty());
+        Assert.assertTrue(index.reportingChain(400L).isEmpty());
+        Assert.assertFalse(index.contains(400L));
+    }
+
+    @Test
+    public void testIsInReportingLine() {
+        final ReportingChainIndex index = this.build(new ColumnarCompanyEmployeeStorage());
+
+        Assert.assertTrue(index.isInReportingLine(305L, 124L));
+        Assert.assertTrue(index.isInReportingLine(305L, 123L));
+        Assert.assertFalse(index.isInReportingLine(124L, 305L));
+        Assert.assertFalse(index.isInReportingLine(305L, 125L));
+        Assert.assertFalse(index.isInReportingLine(305L, 305L));
+        Assert.assertFalse(index.isInReportingLine(400L, 999L));
+        Assert.assertArrayEquals(new boolean[]{true, false, false},
+                index.isInReportingLine(new long[]{300L, 300L, 1L}, new long[]{123L, 125L, 123L}));
+    }
+
+    @Test
+    public void testLowestCommonManager() {
+        final ReportingChainIndex index = this.build(new CompanyEmployeeStorageImpl());
+
+        Assert.assertEquals(Optional.of(this.employees.get(0)), index.lowestCommonManager(305L, 125L));
+        Assert.assertEquals(Optional.of(this.employees.get(1)), index.lowestCommonManager(124L, 305L));
+        Assert.assertEquals(Optional.of(this.employees.get(3)), index.lowestCommonManager(300L, 300L));
+        Assert.assertEquals(Optional.empty(), index.lowestCommonManager(305L, 400L));
+        Assert.assertArrayEquals(new long[]{123L, 124L, ReportingChainIndex.NO_EMPLOYEE},
+                index.lowestCommonManagers(new long[]{305L, 300L, 305L}, new long[]{125L, 124L, 400L}));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> index.lowestCommonManagers(new long[1], new long[2]));
+    }
+
+    @Test
+    public void testRandomStructureMatchesPointerChasing() {
+        final Random random = new Random(5);
+        final CompanyEmployeeStorage storage = new ColumnarCompanyEmployeeStorage();
+        final Map<Long, Long> managers = new HashMap<>();
+        final long size = 3000;
+        for (long id = 0; id < size; id++) {
+            // long chains and wide levels
+            final Long managerId = id == 0 ? null : random.nextInt(4) == 0 ? (long) random.nextInt((int) id) : id - 1;
+            storage.addEmployee(new Employee(id, "Sam", "Jones", 100.0, managerId));
+            managers.put(id, managerId);
+        }
+        // a second CEO with a separate structure
+        storage.addEmployee(new Employee(size, "Joe", "Doe", 100.0, null));
+        storage.addEmployee(new Employee(size + 1, "Joe", "Doe", 100.0, size));
+        managers.put(size, null);
+        managers.put(size + 1, size);
+
+        final ReportingChainIndex index = ReportingChainIndex.build(storage);
+        final long[] first = new long[2000];
+        final long[] second = new long[2000];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = random.nextInt((int) size + 2);
+            second[i] = random.nextInt((int) size + 2);
+        }
+        final long[] lowest = index.lowestCommonManagers(first, second);
+        final boolean[] inLine = index.isInReportingLine(first, second);
+        for (int i = 0; i < first.length; i++) {
+            final List<Long> firstChain = chain(first[i], managers);
+            final List<Long> secondChain = chain(second[i], managers);
+            long expected = ReportingChainIndex.NO_EMPLOYEE;
+            for (Long manager : firstChain) {
+                if (secondChain.contains(manager)) {
+                    expected = manager;
+                    break;
+                }
+            }
+            Assert.assertEquals(expected, lowest[i]);
+            Assert.assertEquals(first[i] != second[i] && firstChain.contains(second[i]), inLine[i]);
+            Assert.assertEquals(firstChain.subList(1, firstChain.size()),
+                    index.reportingChain(first[i]).stream().map(Employee::id).toList());
+        }
+    }
+
+    private ReportingChainIndex build(final CompanyEmployeeStorage storage) {
+        this.employees.forEach(storage::addEmployee);
+        return ReportingChainIndex.build(storage);
+    }
+
+    /**
+     * The employee and the managers up to the CEO
+     */
+    private static List<Long> chain(final long id, final Map<Long, Long> managers) {
+        final List<Long> chain = new ArrayList<>();
+        for (Long current = id; current != null; current = managers.get(current)) {
+            chain.add(current);
+        }
+        return chain;
+    }
+}
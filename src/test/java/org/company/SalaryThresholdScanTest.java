@@ -0,0 +1,90 @@
+package org.company;
+
+import org.company.storage.SalaryComparator;
+import org.company.storage.SalaryThreshold;
+import org.company.storage.SalaryThresholdScan;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class SalaryThresholdScanTest {
+    private static final SalaryThreshold OVERPAID = (SalaryThreshold) SalaryComparator.above(1.5);
+    private static final SalaryThreshold UNDERPAID = (SalaryThreshold) SalaryComparator.below(1.2);
+
+    @Test
+    public void testVectorizedScanIsAvailable() {
+        // the tests run with the module jdk.incubator.vector
+        Assert.assertTrue(SalaryThresholdScan.vectorized().lanes() > 1);
+        Assert.assertSame(SalaryThresholdScan.vectorized(), SalaryThresholdScan.preferred());
+        Assert.assertEquals(1, SalaryThresholdScan.scalar().lanes());
+    }
+
+    @Test
+    public void testScansMatchComparator() {
+        final Random random = new Random(42L);
+        final int rows = 10007;
+        final double[] salaries = new double[rows];
+        final double[] sums = new double[rows];
+        final double[] counts = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            salaries[row] = 20000 + random.nextInt(100000);
+            counts[row] = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(10);
+            for (int i = 0; i < counts[row]; i++) {
+                sums[row] += 20000 + random.nextInt(100000);
+            }
+        }
+        for (SalaryThreshold threshold : new SalaryThreshold[]{OVERPAID, UNDERPAID}) {
+            final int[] expectedRows = new int[rows];
+            final double[] expectedDifferences = new double[rows];
+            int expected = 0;
+            for (int row = 0; row < rows; row++) {
+                if (counts[row] == 0) {
+                    continue;
+                }
+                final double difference = threshold.compare(salaries[row], sums[row] / counts[row]);
+                if (difference > 0.0) {
+                    expectedRows[expected] = row;
+                    expectedDifferences[expected++] = difference;
+                }
+            }
+            Assert.assertTrue(expected > 0);
+            for (SalaryThresholdScan scan : new SalaryThresholdScan[]{SalaryThresholdScan.scalar(),
+                    SalaryThresholdScan.vectorized()}) {
+                final int[] flaggedRows = new int[rows];
+                final double[] differences = new double[rows];
+                final int flagged = scan.scan(threshold, salaries, sums, counts, 0, rows, flaggedRows, differences);
+                Assert.assertEquals(expected, flagged);
+                Assert.assertArrayEquals(Arrays.copyOf(expectedRows, expected), Arrays.copyOf(flaggedRows, flagged));
+                Assert.assertArrayEquals(Arrays.copyOf(expectedDifferences, expected),
+                        Arrays.copyOf(differences, flagged), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testScanOfFewerRowsThanLanes() {
+        final double[] salaries = {300.0, 100.0, 500.0};
+        final double[] sums = {200.0, 400.0, 100.0};
+        final double[] counts = {2.0, 2.0, 1.0};
+        final int[] flaggedRows = new int[3];
+        final double[] differences = new double[3];
+
+        Assert.assertEquals(2, SalaryThresholdScan.vectorized().scan(OVERPAID, salaries, sums, counts, 0, 3,
+                flaggedRows, differences));
+        Assert.assertArrayEquals(new int[]{0, 2}, Arrays.copyOf(flaggedRows, 2));
+        Assert.assertArrayEquals(new double[]{150.0, 350.0}, Arrays.copyOf(differences, 2), 1e-9);
+        Assert.assertEquals(1, SalaryThresholdScan.vectorized().scan(OVERPAID, salaries, sums, counts, 1, 3,
+                flaggedRows, differences));
+        Assert.assertEquals(2, flaggedRows[0]);
+        Assert.assertEquals(0, SalaryThresholdScan.vectorized().scan(OVERPAID, salaries, sums, counts, 3, 3,
+                flaggedRows, differences));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortColumnsAreRejected() {
+        SalaryThresholdScan.scalar().scan(OVERPAID, new double[4], new double[4], new double[3], 0, 4,
+                new int[4], new double[4]);
+    }
+}
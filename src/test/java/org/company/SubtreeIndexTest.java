@@ -0,0 +1,114 @@
+package org.company;
+
+import org.company.models.Employee;
+import org.company.models.SubtreeSummary;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.EmployeeVisitor;
+import org.company.storage.SubtreeIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+public class SubtreeIndexTest {
+    private final List<Employee> employees = List.of(
+            new Employee(123L, "Joe", "Doe", 60000.0, null),
+            new Employee(124L, "Martin", "Chekov", 45000.0, 123L),
+            new Employee(125L, "Bob", "Ronstad", 47000.0, 123L),
+            new Employee(300L, "Alice", "Hasacat", 50000.0, 124L),
+            new Employee(305L, "Brett", "Hardleaf", 34000.0, 300L),
+            new Employee(400L, "Sam", "Jones", 30000.0, 999L));
+
+    @Test
+    public void testSummarize() {
+        final SubtreeIndex index = SubtreeIndex.build(this.fill(new CompanyEmployeeStorageImpl()));
+
+        Assert.assertEquals(5, index.size());
+        Assert.assertEquals(Optional.of(new SubtreeSummary(4, 176000.0, 3)), index.summarize(123L));
+        Assert.assertEquals(Optional.of(new SubtreeSummary(2, 84000.0, 2)), index.summarize(124L));
+        Assert.assertEquals(Optional.of(new SubtreeSummary(0, 0.0, 0)), index.summarize(305L));
+        Assert.assertEquals(42000.0, index.summarize(124L).orElseThrow().averageSalary(), 1e-9);
+        Assert.assertEquals(Optional.empty(), index.summarize(400L));
+        Assert.assertEquals(Optional.empty(), index.summarize(999L));
+        Assert.assertFalse(index.contains(400L));
+        Assert.assertEquals(3, index.reportingLineLength(305L));
+        Assert.assertEquals(EmployeeVisitor.NO_REPORTING_LINE, index.reportingLineLength(400L));
+    }
+
+    @Test
+    public void testEmployeesUnder() {
+        final SubtreeIndex index = SubtreeIndex.build(this.fill(new ColumnarCompanyEmployeeStorage()));
+
+        Assert.assertEquals(List.of(this.employees.get(3), this.employees.get(4)), index.employeesUnder(124L));
+        Assert.assertEquals(new HashSet<>(this.employees.subList(1, 5)), new HashSet<>(index.employeesUnder(123L)));
+        Assert.assertTrue(index.employeesUnder(125L).isEmpty());
+        Assert.assertTrue(index.employeesUnder(400L).isEmpty());
+    }
+
+    @Test
+    public void testUpdateSalary() {
+        final SubtreeIndex index = SubtreeIndex.build(this.fill(new CompanyEmployeeStorageImpl()));
+
+        final Optional<Employee> updated = index.updateSalary(305L, 40000.0);
+        Assert.assertEquals(Optional.of(new Employee(305L, "Brett", "Hardleaf", 40000.0, 300L)), updated);
+        Assert.assertEquals(182000.0, index.summarize(123L).orElseThrow().totalSalary(), 1e-9);
+        Assert.assertEquals(90000.0, index.summarize(124L).orElseThrow().totalSalary(), 1e-9);
+        Assert.assertEquals(47000.0, index.summarize(123L).orElseThrow().totalSalary()
+                - index.summarize(124L).orElseThrow().totalSalary() - 45000.0, 1e-9);
+        Assert.assertTrue(index.employeesUnder(300L).contains(updated.orElseThrow()));
+        Assert.assertEquals(Optional.empty(), index.updateSalary(400L, 1.0));
+    }
+
+    @Test
+    public void testRandomStructureMatchesWalk() {
+        final Random random = new Random(11);
+        final CompanyEmployeeStorage storage = new ColumnarCompanyEmployeeStorage();
+        final Map<Long, Employee> current = new HashMap<>();
+        final Map<Long, List<Long>> children = new HashMap<>();
+        for (long id = 0; id < 2000; id++) {
+            final Long managerId = id == 0 ? null : (long) random.nextInt((int) id);
+            final Employee employee = new Employee(id, "Sam", "Jones", (double) random.nextInt(1000), managerId);
+            storage.addEmployee(employee);
+            current.put(id, employee);
+            if (managerId != null) {
+                children.computeIfAbsent(managerId, key -> new ArrayList<>()).add(id);
+            }
+        }
+        final SubtreeIndex index = SubtreeIndex.build(storage);
+        for (int step = 0; step < 500; step++) {
+            final long id = random.nextInt(2000);
+            if (step % 2 == 0) {
+                final double salary = random.nextInt(1000);
+                current.put(id, index.updateSalary(id, salary).orElseThrow());
+            }
+            Assert.assertEquals(walk(id, current, children), index.summarize(id).orElseThrow());
+        }
+    }
+
+    private CompanyEmployeeStorage fill(final CompanyEmployeeStorage storage) {
+        this.employees.forEach(storage::addEmployee);
+        return storage;
+    }
+
+    private static SubtreeSummary walk(final long id, final Map<Long, Employee> employees,
+                                       final Map<Long, List<Long>> children) {
+        long headcount = 0;
+        double totalSalary = 0.0;
+        int maxDepth = 0;
+        for (Long child : children.getOrDefault(id, List.of())) {
+            final SubtreeSummary summary = walk(child, employees, children);
+            headcount += summary.headcount() + 1;
+            totalSalary += summary.totalSalary() + employees.get(child).salary();
+            maxDepth = Math.max(maxDepth, summary.maxDepth() + 1);
+        }
+        return new SubtreeSummary(headcount, totalSalary, maxDepth);
+    }
+}
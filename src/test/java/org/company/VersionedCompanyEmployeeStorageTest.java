@@ -0,0 +1,139 @@
+package org.company;
+
+import org.company.models.CompanyReport;
+import org.company.models.CompanyReportDiff;
+import org.company.models.Employee;
+import org.company.models.EmployeeChange;
+import org.company.storage.ColumnarCompanyEmployeeStorage;
+import org.company.storage.CompanyDiff;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyVersion;
+import org.company.storage.VersionedCompanyEmployeeStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class VersionedCompanyEmployeeStorageTest extends CompanyEmployeeStorageImplTest {
+    @Override
+    protected CompanyEmployeeStorage createStorage() {
+        return new VersionedCompanyEmployeeStorage();
+    }
+
+    @Test
+    public void testCommittedVersionIsNotChanged() {
+        final VersionedCompanyEmployeeStorage versioned = (VersionedCompanyEmployeeStorage) this.storage;
+        this.employees.forEach(versioned::addEmployee);
+        final CompanyVersion first = versioned.commit();
+        Assert.assertSame(first, versioned.commit());
+
+        versioned.addEmployee(new Employee(300L, "Alice", "Hasacat", 51000.0, 125L));
+        versioned.removeEmployee(305L);
+        final CompanyVersion second = versioned.commit();
+
+        Assert.assertEquals(List.of(first, second), versioned.versions());
+        Assert.assertEquals(5, first.size());
+        Assert.assertEquals(Integer.valueOf(3), first.calculateCompanyStructure().get(this.employees.get(4)));
+        Assert.assertEquals(this.employees.get(3), first.getEmployee(300L).orElseThrow());
+        Assert.assertEquals(4, second.size());
+        Assert.assertTrue(second.getEmployee(305L).isEmpty());
+        Assert.assertEquals(Long.valueOf(125L), second.getEmployee(300L).orElseThrow().managerId());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> first.addEmployee(this.employees.get(0)));
+    }
+
+    @Test
+    public void testDiff() {
+        final VersionedCompanyEmployeeStorage versioned = (VersionedCompanyEmployeeStorage) this.storage;
+        this.employees.forEach(versioned::addEmployee);
+        final CompanyVersion first = versioned.commit();
+        final Employee moved = new Employee(300L, "Alice", "Hasacat", 50000.0, 125L);
+        final Employee raised = new Employee(125L, "Bob", "Ronstad", 70000.0, 123L);
+        final Employee added = new Employee(400L, "Nancy", "Jones", 30000.0, 305L);
+        versioned.addEmployee(moved);
+        versioned.addEmployee(raised);
+        versioned.addEmployee(added);
+        versioned.removeEmployee(124L);
+        final CompanyDiff diff = first.diff(versioned.commit());
+
+        Assert.assertEquals(List.of(new EmployeeChange(this.employees.get(1), null),
+                new EmployeeChange(this.employees.get(2), raised),
+                new EmployeeChange(this.employees.get(3), moved),
+                new EmployeeChange(null, added)), diff.changes());
+        Assert.assertTrue(diff.changes().get(0).isRemoved());
+        Assert.assertTrue(diff.changes().get(1).isSalaryChanged());
+        Assert.assertTrue(diff.changes().get(2).isMoved());
+        Assert.assertTrue(diff.changes().get(3).isAdded());
+        Assert.assertEquals(6, diff.affectedEmployees());
+        Assert.assertTrue(diff.newer().diff(diff.newer()).changes().isEmpty());
+    }
+
+    @Test
+    public void testLoadVersionSharesUnchangedEmployees() {
+        final VersionedCompanyEmployeeStorage versioned = (VersionedCompanyEmployeeStorage) this.storage;
+        final CompanyVersion first = versioned.loadVersion(export -> this.employees.forEach(export::addEmployee));
+        Assert.assertSame(first, versioned.loadVersion(export -> this.employees.forEach(export::addEmployee)));
+
+        final List<Employee> nextExport = new ArrayList<>(this.employees.subList(0, 4));
+        nextExport.add(new Employee(305L, "Brett", "Hardleaf", 36000.0, 300L));
+        final CompanyVersion second = versioned.loadVersion(export -> nextExport.forEach(export::addEmployee));
+        Assert.assertEquals(List.of(first, second), versioned.versions());
+        Assert.assertSame(first.getEmployee(124L).orElseThrow(), second.getEmployee(124L).orElseThrow());
+        Assert.assertEquals(1, first.diff(second).changes().size());
+
+        final CompanyVersion third = versioned.loadVersion(export -> nextExport.subList(1, 5)
+                .forEach(export::addEmployee));
+        Assert.assertFalse(third.isCEODefined());
+        Assert.assertEquals(4, third.size());
+    }
+
+    @Test
+    public void testAnalyzeChangesMatchesFullReports() {
+        final VersionedCompanyEmployeeStorage versioned = (VersionedCompanyEmployeeStorage) this.storage;
+        final Random random = new Random(11);
+        final Map<Long, Employee> current = new HashMap<>();
+        current.put(0L, new Employee(0L, "Joe", "Doe", 100000.0, null));
+        for (long id = 1; id < 2000; id++) {
+            current.put(id, new Employee(id, "Sam", "Jones", 1000.0 + random.nextInt(100000), (id - 1) / 3));
+        }
+        current.values().forEach(versioned::addEmployee);
+        CompanyVersion previous = versioned.commit();
+        for (int round = 0; round < 20; round++) {
+            for (int change = 0; change < 1 + random.nextInt(30); change++) {
+                final long id = 1 + random.nextInt(2100);
+                final Employee employee = new Employee(id, "Sam", "Jones", 1000.0 + random.nextInt(100000),
+                        (long) random.nextInt(2100));
+                if (random.nextInt(5) == 0) {
+                    versioned.removeEmployee(id);
+                    current.remove(id);
+                } else {
+                    versioned.addEmployee(employee);
+                    current.put(id, employee);
+                }
+            }
+            final CompanyVersion next = versioned.commit();
+            final CompanyEmployeeStorage expected = new ColumnarCompanyEmployeeStorage();
+            current.values().forEach(expected::addEmployee);
+            Assert.assertEquals(expected.calculateCompanyStructure(), next.calculateCompanyStructure());
+
+            final CompanyDiff diff = previous.diff(next);
+            Assert.assertTrue(diff.affectedEmployees() < current.size());
+            final CompanyReportDiff reportDiff = CompanyManagement.analyzeChanges(diff);
+            final CompanyReport olderReport = new CompanyManagement(previous).analyze();
+            final CompanyReport newerReport = new CompanyManagement(next).analyze();
+            final CompanyReport applied = reportDiff.apply(olderReport);
+            Assert.assertEquals(newerReport.tooLongReportingLines(), applied.tooLongReportingLines());
+            Assert.assertEquals(newerReport.overpaidManagers().keySet(), applied.overpaidManagers().keySet());
+            Assert.assertEquals(newerReport.underpaidManagers().keySet(), applied.underpaidManagers().keySet());
+            newerReport.overpaidManagers().forEach((manager, difference) ->
+                    Assert.assertEquals(difference, applied.overpaidManagers().get(manager), 1e-6));
+            reportDiff.newlyOverpaidManagers().keySet().forEach(manager ->
+                    Assert.assertTrue(olderReport.overpaidManagers().keySet().stream()
+                            .noneMatch(employee -> employee.id() == manager.id())));
+            previous = next;
+        }
+    }
+}
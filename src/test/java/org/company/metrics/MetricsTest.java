@@ -0,0 +1,131 @@
+package org.company.metrics;
+
+import org.company.parser.CSVEmployeeDataParser;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.InstrumentedCompanyEmployeeStorage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class MetricsTest {
+    private final static String DATA = "Id,firstName,lastName,salary,managerId\n" +
+            "1,Brett,Wilson,177.5\n" +
+            "2,Jane,Williams,114,1\n" +
+            "3,Nancy,Johnson,abc,1\n" +
+            "4,Sam,Jones,45\n" +
+            "5,Alice,Wilson,100,2\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SimpleMetricsRegistry registry;
+
+    @Before
+    public void setUp() {
+        this.registry = new SimpleMetricsRegistry();
+        Metrics.setRegistry(this.registry);
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.setRegistry(MetricsRegistry.NOOP);
+    }
+
+    @Test
+    public void testHistogramPercentilesAreBucketBounds() {
+        final Histogram histogram = new Log2Histogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        Assert.assertEquals(100, histogram.count());
+        Assert.assertEquals(5050, histogram.sum());
+        Assert.assertEquals(100, histogram.max());
+        Assert.assertEquals(1, histogram.percentile(0.0));
+        Assert.assertEquals(63, histogram.percentile(50.0));
+        Assert.assertEquals(100, histogram.percentile(99.0));
+        Assert.assertEquals(0, new Log2Histogram().percentile(50.0));
+    }
+
+    @Test
+    public void testRateLimitedLoggerCountsSuppressedMessages() {
+        final Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        final List<String> messages = new ArrayList<>();
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(final LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        final RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 2);
+        Assert.assertTrue(rateLimitedLogger.isLoggable(Level.WARNING));
+        rateLimitedLogger.log(Level.WARNING, "first", null);
+        Assert.assertTrue(rateLimitedLogger.isLoggable(Level.WARNING));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertFalse(rateLimitedLogger.isLoggable(Level.WARNING));
+        }
+        Assert.assertEquals(3, rateLimitedLogger.suppressed());
+        rateLimitedLogger.log(Level.WARNING, "second", null);
+
+        Assert.assertFalse(rateLimitedLogger.isLoggable(Level.WARNING));
+        rateLimitedLogger.logSuppressed(Level.WARNING);
+        rateLimitedLogger.logSuppressed(Level.WARNING);
+
+        Assert.assertEquals(List.of("first", "second (3 similar messages suppressed)",
+                "1 similar messages suppressed"), messages);
+        Assert.assertEquals(0, rateLimitedLogger.suppressed());
+        Assert.assertFalse(rateLimitedLogger.isLoggable(Level.FINEST));
+    }
+
+    @Test
+    public void testParserAndStorageMetrics() throws IOException {
+        final Path file = this.folder.newFile("employees.csv").toPath();
+        Files.writeString(file, DATA, StandardCharsets.UTF_8);
+        final CompanyEmployeeStorage storage = new InstrumentedCompanyEmployeeStorage(new CompanyEmployeeStorageImpl());
+
+        new CSVEmployeeDataParser(storage).addNewEmployees(file.toString());
+        Assert.assertEquals(3, storage.calculateCompanyStructure().size());
+
+        Assert.assertEquals(3, this.registry.counter(Metrics.PARSER_ROWS).sum());
+        Assert.assertEquals(2, this.registry.counter(Metrics.PARSER_REJECTED).sum());
+        Assert.assertEquals(Files.size(file), this.registry.counter(Metrics.PARSER_BYTES).sum());
+        Assert.assertEquals(1, this.registry.histogram(Metrics.PARSER_NANOS).count());
+        Assert.assertEquals(3, this.registry.counter(Metrics.STORAGE_ADDED).sum());
+        Assert.assertEquals(1, this.registry.histogram(Metrics.STORAGE_STRUCTURE_NANOS).count());
+        Assert.assertEquals(3, this.registry.gaugeValue(Metrics.STORAGE_STRUCTURE_SIZE));
+        Assert.assertTrue(this.registry.format().contains(Metrics.PARSER_ROWS + " 3\n"));
+    }
+
+    @Test
+    public void testNoopRegistryIgnoresValues() {
+        Metrics.setRegistry(MetricsRegistry.NOOP);
+        Assert.assertFalse(Metrics.isEnabled());
+        final Counter counter = Metrics.registry().counter(Metrics.PARSER_ROWS);
+        counter.add(5);
+        Assert.assertEquals(0, counter.sum());
+        Assert.assertEquals(0, this.registry.counter(Metrics.PARSER_ROWS).sum());
+    }
+}
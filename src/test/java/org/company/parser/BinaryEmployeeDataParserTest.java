@@ -0,0 +1,93 @@
+package org.company.parser;
+
+import org.company.models.Employee;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryEmployeeDataParserTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTripOfSeveralBlocks() throws IOException {
+        final List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee(0L, "Joe", "Doe", 1000.0, null));
+        for (long id = 1; id < 3 * BinaryEmployeeDataWriter.BLOCK_SIZE + 17; id++) {
+            employees.add(new Employee(id, "Name" + (id % 100), "Lasté" + (id % 7), id * 0.5, (id - 1) / 4));
+        }
+        final Path file = this.folder.newFile("employees.bin").toPath();
+        Files.write(file, this.write(employees));
+
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new BinaryEmployeeDataParser(storage).addNewEmployees(file);
+
+        final CompanyEmployeeStorage expected = new CompanyEmployeeStorageImpl();
+        employees.forEach(expected::addEmployee);
+        Assert.assertEquals(expected.calculateCompanyStructure(), storage.calculateCompanyStructure());
+    }
+
+    @Test
+    public void testInvalidEmployeesAreSkipped() throws IOException {
+        final byte[] data = this.write(List.of(
+                new Employee(1L, "Brett", "Wilson", 177.5, null),
+                new Employee(2L, "Jane", " ", 114.0, 1L),
+                new Employee(3L, "Joe", "Brown", 100.0, null),
+                new Employee(4L, "Joe", "Jones", 172.0, 1L)));
+
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new BinaryEmployeeDataParser(storage).addNewEmployees(new ByteArrayInputStream(data));
+
+        Assert.assertEquals(Map.of(
+                new Employee(1L, "Brett", "Wilson", 177.5, null), 0,
+                new Employee(4L, "Joe", "Jones", 172.0, 1L), 1), storage.calculateCompanyStructure());
+    }
+
+    @Test
+    public void testTruncatedDataKeepsCompleteBlocks() throws IOException {
+        final List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee(0L, "Joe", "Doe", 1000.0, null));
+        for (long id = 1; id < BinaryEmployeeDataWriter.BLOCK_SIZE + 10; id++) {
+            employees.add(new Employee(id, "Sam", "Jones", 10.0, 0L));
+        }
+        final byte[] data = this.write(employees);
+
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new BinaryEmployeeDataParser(storage).addNewEmployees(
+                Channels.newChannel(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 20))));
+
+        Assert.assertEquals(BinaryEmployeeDataWriter.BLOCK_SIZE, storage.calculateCompanyStructure().size());
+    }
+
+    @Test
+    public void testInvalidHeader() {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new BinaryEmployeeDataParser(storage).addNewEmployees(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 1, 0, 0, 0}));
+        new BinaryEmployeeDataParser(storage).addNewEmployees("Not_existing_path");
+        Assert.assertTrue(storage.calculateCompanyStructure().isEmpty());
+    }
+
+    private byte[] write(final List<Employee> employees) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryEmployeeDataWriter writer = new BinaryEmployeeDataWriter(Channels.newChannel(output))) {
+            for (Employee employee : employees) {
+                writer.write(employee);
+            }
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+package org.company.parser;
+
+import org.company.CompanyManagement;
+import org.company.models.Employee;
+import org.company.models.SalaryStatistics;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.company.storage.ConcurrentCompanyEmployeeStorage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CSVFileFollowerTest {
+    private final static String HEADER = "Id,firstName,lastName,salary,managerId\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = this.folder.getRoot().toPath().resolve("employees.csv");
+    }
+
+    @Test
+    public void testOnlyAppendedLinesAreAdded() throws IOException {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        final AtomicInteger changes = new AtomicInteger();
+        final CSVFileFollower follower = new CSVFileFollower(storage, this.file, changes::incrementAndGet);
+        Assert.assertEquals(0, follower.poll());
+
+        this.append(HEADER + "1,Brett,Wilson,177\n2,Jane,Williams,114,1\n3,Nancy,Jo");
+        Assert.assertEquals(2, follower.poll());
+        Assert.assertEquals(HEADER.length() + "1,Brett,Wilson,177\n2,Jane,Williams,114,1\n".length(),
+                follower.offset());
+        Assert.assertEquals(0, follower.poll());
+
+        this.append("hnson,181,1\r\n");
+        Assert.assertEquals(1, follower.poll());
+        Assert.assertEquals(Files.size(this.file), follower.offset());
+        Assert.assertEquals(2, changes.get());
+        Assert.assertEquals(3, storage.calculateCompanyStructure().size());
+        Assert.assertTrue(storage.calculateCompanyStructure().containsKey(
+                new Employee(3L, "Nancy", "Johnson", 181.0, 1L)));
+    }
+
+    @Test
+    public void testChangeLinesReplaceEmployees() throws IOException {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        final CSVFileFollower follower = new CSVFileFollower(storage, this.file, () -> { });
+        this.append(HEADER + "1,Brett,Wilson,177\n2,Jane,Williams,114,1\n3,Nancy,Johnson,181,2\n");
+        follower.poll();
+
+        this.append("3,Nancy,Johnson,190,1\n1,Brett,Wilson,200\n4,Sam,Jones,45\nabc\n");
+        Assert.assertEquals(2, follower.poll());
+
+        final SalaryStatistics ceoSubordinates = storage.getSubordinateSalaryStatistics(1L).orElseThrow();
+        Assert.assertEquals(2, ceoSubordinates.count());
+        Assert.assertEquals(304.0, ceoSubordinates.sum(), 1e-9);
+        Assert.assertTrue(storage.getSubordinateSalaryStatistics(2L).isEmpty());
+        Assert.assertEquals(Integer.valueOf(0), storage.calculateCompanyStructure()
+                .get(new Employee(1L, "Brett", "Wilson", 200.0, null)));
+        Assert.assertEquals(3, storage.calculateCompanyStructure().size());
+    }
+
+    @Test
+    public void testTruncatedFileIsReadAgain() throws IOException {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        final CSVFileFollower follower = new CSVFileFollower(storage, this.file, () -> { });
+        this.append(HEADER + "1,Brett,Wilson,177\n2,Jane,Williams,114,1\n");
+        follower.poll();
+
+        Files.writeString(this.file, HEADER + "1,Brett,Wilson,180\n", StandardCharsets.UTF_8);
+        Assert.assertEquals(1, follower.poll());
+        Assert.assertEquals(Files.size(this.file), follower.offset());
+    }
+
+    @Test
+    public void testFollowedFileUpdatesReports() throws Exception {
+        this.append(HEADER + "1,Brett,Wilson,177\n2,Jane,Williams,114,1\n");
+        final CompanyManagement companyManagement = new CompanyManagement(new ConcurrentCompanyEmployeeStorage());
+        try (CSVFileFollower follower = companyManagement.followEmployees(this.file.toString(),
+                Duration.ofMillis(50))) {
+            final Employee ceo = new Employee(1L, "Brett", "Wilson", 177.0, null);
+            Assert.assertEquals(Set.of(ceo), companyManagement.analyze().overpaidManagers().keySet());
+            Assert.assertTrue(companyManagement.analyze().underpaidManagers().isEmpty());
+            final long generation = companyManagement.generation();
+
+            this.append("3,Nancy,Johnson,10,2\n");
+            final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (companyManagement.generation() == generation && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(companyManagement.generation() > generation);
+            Assert.assertEquals(Files.size(this.file), follower.offset());
+            Assert.assertEquals(Set.of(ceo, new Employee(2L, "Jane", "Williams", 114.0, 1L)),
+                    companyManagement.analyze().overpaidManagers().keySet());
+            Assert.assertTrue(companyManagement.analyze().underpaidManagers().isEmpty());
+        }
+    }
+
+    private void append(final String text) throws IOException {
+        Files.writeString(this.file, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+}
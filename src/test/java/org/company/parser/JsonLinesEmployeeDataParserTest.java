@@ -0,0 +1,105 @@
+package org.company.parser;
+
+import org.company.models.Employee;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class JsonLinesEmployeeDataParserTest {
+    private final static String VALID_DATA = "{\"id\":1,\"firstName\":\"Brett\",\"lastName\":\"Wilson\",\"salary\":177.5}\n" +
+            "{\"id\":2,\"firstName\":\"Jane\",\"lastName\":\"Williams\",\"salary\":114,\"managerId\":1}\r\n" +
+            "\n" +
+            "{ \"managerId\" : 2, \"salary\" : 1e2, \"lastName\" : \"O\\\"Neil\", \"firstName\" : \"Nancy\", \"id\" : 3 }\n" +
+            "{\"id\":4,\"firstName\":\"J\\u00f6rg\",\"lastName\":\"Smith\",\"salary\":-0.25,\"managerId\":3," +
+            "\"title\":{\"name\":\"dev\",\"tags\":[1,true,null]}}";
+    private final static String MIXED_DATA = "{\"id\":1,\"firstName\":\"Brett\",\"lastName\":\"Wilson\",\"salary\":177.5,\"managerId\":null}\n" +
+            "{\"id\":2,\"firstName\":\"Jane\",\"lastName\":\"Williams\",\"salary\":114,\"managerId\":1}\n" +
+            "{\"id\":3,\"firstName\":\"Sam\",\"lastName\":\"\",\"salary\":100,\"managerId\":1}\n" +
+            "{\"id\":4,\"firstName\":\"Sam\",\"lastName\":\"Jones\",\"salary\":\"abc\",\"managerId\":1}\n" +
+            "{\"id\":5,\"firstName\":\"Sam\",\"lastName\":\"Jones\",\"salary\":100,\"managerId\":1\n" +
+            "{\"id\":6,\"firstName\":\"Joe\",\"lastName\":\"Brown\",\"salary\":100}\n" +
+            "not json\n" +
+            "{\"id\":7,\"firstName\":\"Joe\",\"lastName\":\"Jones\",\"salary\":172,\"managerId\":2}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testValidData() throws IOException {
+        final Path file = this.folder.newFile("valid.jsonl").toPath();
+        Files.write(file, VALID_DATA.getBytes(StandardCharsets.UTF_8));
+
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new JsonLinesEmployeeDataParser(storage).addNewEmployees(file.toString());
+
+        Assert.assertEquals(Map.of(
+                new Employee(1L, "Brett", "Wilson", 177.5, null), 0,
+                new Employee(2L, "Jane", "Williams", 114.0, 1L), 1,
+                new Employee(3L, "Nancy", "O\"Neil", 100.0, 2L), 2,
+                new Employee(4L, "Jörg", "Smith", -0.25, 3L), 3), storage.calculateCompanyStructure());
+    }
+
+    @Test
+    public void testMalformedUtf8IsReplaced() throws IOException {
+        final Path file = this.folder.newFile("latin1.jsonl").toPath();
+        Files.write(file, ("{\"id\":1,\"firstName\":\"Brett\",\"lastName\":\"Wilson\",\"salary\":177.5}\n" +
+                "{\"id\":2,\"firstName\":\"Jos\u00e9\",\"lastName\":\"Williams\",\"salary\":114,\"managerId\":1}\n" +
+                "{\"id\":3,\"firstName\":\"Nancy\",\"lastName\":\"Johnson\",\"salary\":100,\"managerId\":2}\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new JsonLinesEmployeeDataParser(storage).addNewEmployees(file.toString());
+
+        Assert.assertEquals(Map.of(
+                new Employee(1L, "Brett", "Wilson", 177.5, null), 0,
+                new Employee(2L, "Jos\ufffd", "Williams", 114.0, 1L), 1,
+                new Employee(3L, "Nancy", "Johnson", 100.0, 2L), 2), storage.calculateCompanyStructure());
+    }
+
+    @Test
+    public void testInvalidLinesAreSkipped() {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new JsonLinesEmployeeDataParser(storage).addNewEmployees(
+                new ByteArrayInputStream(MIXED_DATA.getBytes(StandardCharsets.UTF_8)));
+
+        final Map<Employee, Integer> structure = storage.calculateCompanyStructure();
+        Assert.assertEquals(3, structure.size());
+        Assert.assertEquals(Integer.valueOf(2), structure.get(new Employee(7L, "Joe", "Jones", 172.0, 2L)));
+    }
+
+    @Test
+    public void testSameEmployeesAsCSVParser() throws IOException {
+        final Path file = this.folder.newFile("converted.jsonl").toPath();
+        final StringBuilder json = new StringBuilder();
+        final CompanyEmployeeStorage expected = new CompanyEmployeeStorageImpl();
+        new CSVEmployeeDataParser(expected).addNewEmployees("src/test/resources/test_data_10.csv");
+        expected.calculateCompanyStructure().keySet().forEach(employee -> json
+                .append("{\"id\":").append(employee.id())
+                .append(",\"firstName\":\"").append(employee.firstName())
+                .append("\",\"lastName\":\"").append(employee.lastName())
+                .append("\",\"salary\":").append(employee.salary())
+                .append(",\"managerId\":").append(employee.managerId()).append("}\n"));
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new JsonLinesEmployeeDataParser(storage).addNewEmployees(file);
+        Assert.assertEquals(expected.calculateCompanyStructure(), storage.calculateCompanyStructure());
+    }
+
+    @Test
+    public void testInvalidPath() {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new JsonLinesEmployeeDataParser(storage).addNewEmployees("Not_existing_path");
+        Assert.assertTrue(storage.calculateCompanyStructure().isEmpty());
+    }
+}
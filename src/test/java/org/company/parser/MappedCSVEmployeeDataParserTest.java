@@ -0,0 +1,91 @@
+package org.company.parser;
+
+import org.company.models.Employee;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class MappedCSVEmployeeDataParserTest {
+    private final static String VALID_PATH = "src/test/resources/test_data_10.csv";
+    private final static String MIXED_DATA = "Id,firstName,lastName,salary,managerId\r\n" +
+            "1, Brett ,Wilson,177.5,,\r\n" +
+            "2,Jane,Williams,114,1\n" +
+            "3,Nancy,Johnson,1e2,1\r" +
+            "4,Jane,,34,3\n" +
+            "5,Sam,Jones,abc,3\n" +
+            "6,Sam,Johnson,45,3,7\n" +
+            "\n" +
+            "7,Alice,Wilson,-0.25, 2 \n" +
+            "8,Joe,Jones,172,  \n" +
+            "9,Joe,Brown,+165.125,7";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameEmployeesAsCSVParser() {
+        Assert.assertEquals(this.parseWithCSVParser(VALID_PATH), this.parseWithMappedParser(VALID_PATH, 64));
+    }
+
+    @Test
+    public void testMixedLineTerminatorsAndInvalidLines() throws IOException {
+        final Path file = this.folder.newFile("mixed.csv").toPath();
+        Files.write(file, MIXED_DATA.getBytes(StandardCharsets.UTF_8));
+
+        final Map<Employee, Integer> expected = this.parseWithCSVParser(file.toString());
+        Assert.assertEquals(5, expected.size());
+        for (int windowSize : new int[]{40, 41, 57, 100, MappedCSVEmployeeDataParser.MAX_WINDOW_SIZE}) {
+            Assert.assertEquals(expected, this.parseWithMappedParser(file.toString(), windowSize));
+        }
+    }
+
+    @Test
+    public void testMalformedUtf8IsReplaced() throws IOException {
+        final Path file = this.folder.newFile("latin1.csv").toPath();
+        Files.write(file, ("Id,firstName,lastName,salary,managerId\n" +
+                "1,Brett,Wilson,177.5\n" +
+                "2,Jos\u00e9,Williams,114,1\n" +
+                "3,Nancy,Johnson,100,2\n").getBytes(StandardCharsets.ISO_8859_1));
+
+        final Map<Employee, Integer> expected = this.parseWithCSVParser(file.toString());
+        Assert.assertEquals(3, expected.size());
+        Assert.assertTrue(expected.containsKey(new Employee(2L, "Jos\ufffd", "Williams", 114.0, 1L)));
+        Assert.assertEquals(expected, this.parseWithMappedParser(file.toString(), 64));
+    }
+
+    @Test
+    public void testInputStream() throws IOException {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        try (InputStream input = Files.newInputStream(Path.of(VALID_PATH))) {
+            new MappedCSVEmployeeDataParser(storage, 64).addNewEmployees(input);
+        }
+        Assert.assertEquals(this.parseWithCSVParser(VALID_PATH), storage.calculateCompanyStructure());
+    }
+
+    @Test
+    public void testInvalidPath() {
+        Assert.assertTrue(this.parseWithMappedParser("Not_existing_path", 64).isEmpty());
+    }
+
+    private Map<Employee, Integer> parseWithCSVParser(final String path) {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new CSVEmployeeDataParser(storage).addNewEmployees(path);
+        return storage.calculateCompanyStructure();
+    }
+
+    private Map<Employee, Integer> parseWithMappedParser(final String path, final int windowSize) {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new MappedCSVEmployeeDataParser(storage, windowSize).addNewEmployees(path);
+        return storage.calculateCompanyStructure();
+    }
+}
@@ -0,0 +1,125 @@
+package org.company.parser;
+
+import org.company.models.Employee;
+import org.company.storage.CompanyEmployeeStorage;
+import org.company.storage.CompanyEmployeeStorageImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class ParallelCSVEmployeeDataParserTest {
+    private final static int EMPLOYEES = 2000;
+    private final Logger logger = Logger.getLogger(ParallelCSVEmployeeDataParser.class.getName());
+    private final List<String> messages = new ArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(final LogRecord record) {
+            messages.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        final StringBuilder data = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        data.append("1,Brett,Wilson,177,\n");
+        for (int id = 2; id <= EMPLOYEES; id++) {
+            if (id % 500 == 0) {
+                data.append(id).append(",Second,Ceo,100\r\n");
+            } else if (id % 300 == 0) {
+                data.append(id).append(",Broken,Salary,abc,1\n");
+            } else {
+                data.append(id).append(",Jane,Williams,").append(100 + id % 50).append(',').append(managerId(id))
+                        .append(id % 2 == 0 ? "\n" : "\r\n");
+            }
+        }
+        this.file = this.folder.newFile("employees.csv").toPath();
+        Files.write(this.file, data.toString().getBytes(StandardCharsets.UTF_8));
+        this.logger.addHandler(this.handler);
+    }
+
+    private static int managerId(final int id) {
+        final int managerId = id / 3 + 1;
+        return managerId % 300 == 0 || managerId % 500 == 0 ? 1 : managerId;
+    }
+
+    @After
+    public void tearDown() {
+        this.logger.removeHandler(this.handler);
+    }
+
+    @Test
+    public void testSameEmployeesAsCSVParser() {
+        final CompanyEmployeeStorage expected = new CompanyEmployeeStorageImpl();
+        new CSVEmployeeDataParser(expected).addNewEmployees(this.file.toString());
+        final Map<Employee, Integer> expectedStructure = expected.calculateCompanyStructure();
+        Assert.assertEquals(EMPLOYEES - 4 - 5, expectedStructure.size());
+
+        for (int parallelism : new int[]{1, 2, 3, 8}) {
+            final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+            new ParallelCSVEmployeeDataParser(storage, parallelism).addNewEmployees(this.file.toString());
+            Assert.assertEquals(expectedStructure, storage.calculateCompanyStructure());
+        }
+    }
+
+    @Test
+    public void testDeterministicErrorReporting() {
+        new ParallelCSVEmployeeDataParser(new CompanyEmployeeStorageImpl(), 1).addNewEmployees(this.file.toString());
+        final List<String> expected = new ArrayList<>(this.messages);
+        Assert.assertEquals(9, expected.size());
+        Assert.assertEquals("Skipping line 301 due to parsing error: 300,Broken,Salary,abc,1", expected.get(0));
+        Assert.assertEquals("Invalid CSV format at line 501: 500,Second,Ceo,100", expected.get(1));
+
+        for (int parallelism : new int[]{2, 5, 16}) {
+            this.messages.clear();
+            new ParallelCSVEmployeeDataParser(new CompanyEmployeeStorageImpl(), parallelism)
+                    .addNewEmployees(this.file.toString());
+            Assert.assertEquals(expected, this.messages);
+        }
+    }
+
+    @Test
+    public void testCEORuleIsCheckedBeforeNumbers() throws IOException {
+        final Path ceoFile = this.folder.newFile("ceo.csv").toPath();
+        Files.writeString(ceoFile, "Id,firstName,lastName,salary,managerId\n1,Brett,Wilson,abc\n"
+                + "2,Brett,Wilson,177\n3,Second,Ceo,abc\n4,Jane,Williams,114,2\n", StandardCharsets.UTF_8);
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new ParallelCSVEmployeeDataParser(storage, 2).addNewEmployees(ceoFile.toString());
+
+        Assert.assertEquals(List.of("Skipping line 2 due to parsing error: 1,Brett,Wilson,abc",
+                "Invalid CSV format at line 4: 3,Second,Ceo,abc"), this.messages);
+        Assert.assertEquals(2, storage.calculateCompanyStructure().size());
+    }
+
+    @Test
+    public void testInvalidPath() {
+        final CompanyEmployeeStorage storage = new CompanyEmployeeStorageImpl();
+        new ParallelCSVEmployeeDataParser(storage, 2).addNewEmployees("Not_existing_path");
+        Assert.assertTrue(storage.calculateCompanyStructure().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package org.company.report;
+
+import org.company.models.Employee;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class ReportSinkTest {
+    private static final Employee EMPLOYEE = new Employee(2L, "Jane", "Williams", 114.0, 8L);
+    private static final Employee MANAGER = new Employee(3L, "Nancy", "O\"Brien, Jr", 181.0, 9L);
+
+    @Test
+    public void testCsvReport() throws IOException {
+        final StringWriter output = new StringWriter();
+        try (ReportSink sink = ReportFormat.CSV.createSink(output)) {
+            sink.writeReportingLine(EMPLOYEE, 5);
+            sink.writeSalaryDifference(ReportType.OVERPAID_MANAGER, MANAGER, 113.5);
+        }
+        Assert.assertEquals("report,id,firstName,lastName,value\n"
+                + "too_long_reporting_line,2,Jane,Williams,5\n"
+                + "overpaid_manager,3,Nancy,\"O\"\"Brien, Jr\",113.50\n", output.toString());
+    }
+
+    @Test
+    public void testJsonLinesReport() throws IOException {
+        final StringWriter output = new StringWriter();
+        try (ReportSink sink = ReportFormat.JSON_LINES.createSink(output)) {
+            sink.writeReportingLine(EMPLOYEE, 5);
+            sink.writeSalaryDifference(ReportType.UNDERPAID_MANAGER, MANAGER, 0.005);
+        }
+        Assert.assertEquals("{\"report\":\"too_long_reporting_line\",\"id\":2,\"firstName\":\"Jane\","
+                + "\"lastName\":\"Williams\",\"reportingLine\":5}\n"
+                + "{\"report\":\"underpaid_manager\",\"id\":3,\"firstName\":\"Nancy\","
+                + "\"lastName\":\"O\\\"Brien, Jr\",\"salaryDifference\":0.01}\n", output.toString());
+    }
+
+    @Test
+    public void testFixedWidthReport() throws IOException {
+        final StringWriter output = new StringWriter();
+        try (ReportSink sink = ReportFormat.FIXED_WIDTH.createSink(output)) {
+            sink.writeReportingLine(EMPLOYEE, 5);
+            sink.writeSalaryDifference(ReportType.OVERPAID_MANAGER, MANAGER, 1234.5);
+        }
+        final String[] lines = output.toString().split("\n");
+        Assert.assertEquals(3, lines.length);
+        Assert.assertEquals(lines[0].length(), lines[1].length());
+        Assert.assertEquals(lines[0].length(), lines[2].length());
+        Assert.assertTrue(lines[1].startsWith("too_long_reporting_line             2 Jane            Williams"));
+        Assert.assertTrue(lines[2].endsWith(" 1234.50"));
+    }
+
+    @Test
+    public void testTextReport() throws IOException {
+        final StringWriter output = new StringWriter();
+        try (TextReportSink sink = new TextReportSink(output)) {
+            sink.writeLine("Employees have a reporting line which is too long:");
+            sink.writeReportingLine(EMPLOYEE, 5);
+            sink.writeLine("Managers who earn more than they should:");
+            sink.writeSalaryDifference(ReportType.OVERPAID_MANAGER, MANAGER, 1.005);
+        }
+        Assert.assertEquals("Employees have a reporting line which is too long:\n"
+                + "id: 2, name: Jane, last name: Williams, reporting line: 5\n"
+                + "Managers who earn more than they should:\n"
+                + String.format("id: 3, name: Nancy, last name: O\"Brien, Jr, salary difference: %.2f%n", 1.005),
+                output.toString());
+    }
+
+    @Test
+    public void testAppendDecimal() {
+        final StringBuilder builder = new StringBuilder();
+        AbstractReportSink.appendDecimal(builder.append('|'), 0.0);
+        AbstractReportSink.appendDecimal(builder.append('|'), 17.0);
+        AbstractReportSink.appendDecimal(builder.append('|'), 78.6);
+        AbstractReportSink.appendDecimal(builder.append('|'), 1.999);
+        AbstractReportSink.appendDecimal(builder.append('|'), -2.5);
+        AbstractReportSink.appendDecimal(builder.append('|'), -0.001);
+        AbstractReportSink.appendDecimal(builder.append('|'), Double.NaN);
+        Assert.assertEquals("|0.00|17.00|78.60|2.00|-2.50|-0.00|NaN", builder.toString());
+    }
+
+    @Test
+    public void testAppendDecimalRoundsLikeFormat() {
+        final Random random = new Random(42L);
+        final List<Double> values = new ArrayList<>(List.of(1.005, 1.115, 2.675, 0.125, 0.285, 1.255, 8.345,
+                -1.005, 123456.785, 9.995));
+        for (int i = 0; i < 100_000; i++) {
+            values.add(random.nextInt(10_000_000) / 1000.0);
+            values.add(random.nextDouble() * 1_000_000);
+        }
+        for (double value : values) {
+            final StringBuilder builder = new StringBuilder();
+            AbstractReportSink.appendDecimal(builder, value);
+            Assert.assertEquals(String.format(Locale.ROOT, "%.2f", value), builder.toString());
+        }
+    }
+
+    @Test
+    public void testLargeReportIsWrittenInBatches() throws IOException {
+        final StringWriter output = new StringWriter();
+        final int rows = 10_000;
+        try (ReportSink sink = ReportFormat.CSV.createSink(output)) {
+            for (int i = 0; i < rows; i++) {
+                sink.writeReportingLine(EMPLOYEE, i);
+            }
+            Assert.assertTrue(output.getBuffer().length() > 0);
+        }
+        Assert.assertEquals(rows + 1, output.toString().split("\n").length);
+    }
+}
@@ -0,0 +1,102 @@
+package org.company.service;
+
+import org.company.CompanyManagement;
+import org.company.report.ReportFormat;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class CompanyQueryServiceTest {
+    private final static String VALID_PATH = "src/test/resources/test_data_10.csv";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CompanyManagement companyManagement;
+    private CompanyQueryService service;
+    private HttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        this.companyManagement = new CompanyManagement();
+        this.companyManagement.addNewEmployees(VALID_PATH);
+        this.service = new CompanyQueryService(this.companyManagement, 0);
+        this.client = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        this.service.close();
+    }
+
+    @Test
+    public void testReportIsCached() throws Exception {
+        final HttpResponse<String> first = this.get("/reports/all?format=CSV");
+        final HttpResponse<String> second = this.get("/reports/all?format=csv");
+
+        Assert.assertEquals(200, first.statusCode());
+        Assert.assertEquals("MISS", first.headers().firstValue("X-Cache").orElseThrow());
+        Assert.assertEquals("HIT", second.headers().firstValue("X-Cache").orElseThrow());
+        Assert.assertEquals(ReportFormat.CSV.contentType(), first.headers().firstValue("Content-Type").orElseThrow());
+        Assert.assertEquals(first.body(), second.body());
+        Assert.assertTrue(first.body().contains("overpaid_manager"));
+        Assert.assertEquals("MISS", this.get("/reports/all").headers().firstValue("X-Cache").orElseThrow());
+    }
+
+    @Test
+    public void testSingleReports() throws Exception {
+        final String reportingLines = this.get("/reports/too_long_reporting_line").body();
+        final String underpaid = this.get("/reports/underpaid_manager?format=JSON_LINES").body();
+
+        Assert.assertTrue(reportingLines.contains("too_long_reporting_line"));
+        Assert.assertFalse(reportingLines.contains("underpaid_manager"));
+        Assert.assertTrue(underpaid.contains("underpaid_manager"));
+        Assert.assertFalse(underpaid.contains("overpaid_manager"));
+    }
+
+    @Test
+    public void testLoadInvalidatesCache() throws Exception {
+        final HttpResponse<String> before = this.get("/reports/too_long_reporting_line");
+        Assert.assertEquals("HIT", this.get("/reports/too_long_reporting_line").headers().firstValue("X-Cache")
+                .orElseThrow());
+        final Path data = this.folder.newFile("more.csv").toPath();
+        Files.writeString(data, "Id,firstName,lastName,salary,managerId\n11,Ann,Lee,90,2\n", StandardCharsets.UTF_8);
+        this.companyManagement.addNewEmployees(data.toString());
+
+        final HttpResponse<String> after = this.get("/reports/too_long_reporting_line");
+        Assert.assertEquals("MISS", after.headers().firstValue("X-Cache").orElseThrow());
+        Assert.assertFalse(before.body().contains("Ann"));
+        Assert.assertTrue(after.body().contains("Ann"));
+    }
+
+    @Test
+    public void testInvalidRequests() throws Exception {
+        Assert.assertEquals(404, this.get("/reports/unknown").statusCode());
+        Assert.assertEquals(400, this.get("/reports/all?format=XML").statusCode());
+        final HttpResponse<String> post = this.client.send(HttpRequest.newBuilder(this.uri("/reports/all"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        Assert.assertEquals(405, post.statusCode());
+        Assert.assertEquals("GET", post.headers().firstValue("Allow").orElseThrow());
+    }
+
+    private HttpResponse<String> get(final String path) throws IOException, InterruptedException {
+        return this.client.send(HttpRequest.newBuilder(this.uri(path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + this.service.port() + path);
+    }
+}
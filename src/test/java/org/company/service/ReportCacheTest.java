@@ -0,0 +1,86 @@
+package org.company.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReportCacheTest {
+
+    @Test
+    public void testConcurrentRequestsShareCalculation() throws Exception {
+        final ReportCache cache = new ReportCache(4);
+        final AtomicInteger calculations = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<ReportCache.Result> first = executor.submit(() -> cache.get("all", 1, () -> {
+                calculations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return bytes("report");
+            }));
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            final Future<ReportCache.Result> second = executor.submit(() -> cache.get("all", 1, () -> {
+                calculations.incrementAndGet();
+                return bytes("other");
+            }));
+            release.countDown();
+
+            Assert.assertFalse(first.get(10, TimeUnit.SECONDS).cached());
+            Assert.assertTrue(second.get(10, TimeUnit.SECONDS).cached());
+            Assert.assertArrayEquals(bytes("report"), second.get().report());
+            Assert.assertEquals(1, calculations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEvictionAndGenerations() {
+        final ReportCache cache = new ReportCache(2);
+        cache.get("a", 1, () -> bytes("a"));
+        cache.get("b", 1, () -> bytes("b"));
+        Assert.assertTrue(cache.get("a", 1, () -> bytes("x")).cached());
+        cache.get("c", 1, () -> bytes("c"));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertTrue(cache.get("a", 1, () -> bytes("x")).cached());
+        Assert.assertFalse(cache.get("b", 1, () -> bytes("b")).cached());
+
+        final ReportCache.Result newer = cache.get("a", 2, () -> bytes("a2"));
+        Assert.assertFalse(newer.cached());
+        Assert.assertArrayEquals(bytes("a2"), newer.report());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testFailedCalculationIsNotCached() {
+        final ReportCache cache = new ReportCache(2);
+        Assert.assertThrows(IllegalStateException.class, () -> cache.get("a", 1, () -> {
+            throw new IllegalStateException("failed");
+        }));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertFalse(cache.get("a", 1, () -> bytes("a")).cached());
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ReportCache(0));
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}